@@ -2,11 +2,15 @@ package com.zump.zumpfinanc;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
-import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-@EnableWebMvc
+import com.zump.zumpfinanc.config.ExecucaoConfig;
+
+@Import(ExecucaoConfig.class) // No lugar do @EnableWebMvc: a mesma configuração do Spring MVC, com o modo de execução dos handlers
+@EnableScheduling
 @SpringBootApplication
 public class ZumpfinancApplication implements WebMvcConfigurer{
 	
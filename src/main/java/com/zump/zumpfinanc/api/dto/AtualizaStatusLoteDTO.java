@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtualizaStatusLoteDTO { // Seleção por ids e/ou ano, mês e status atual; os campos vazios não restringem
+	
+	private Long usuario;
+	private List<Long> ids;
+	private Integer ano;
+	private Integer mes;
+	private String statusAtual;
+	private String status;
+
+}
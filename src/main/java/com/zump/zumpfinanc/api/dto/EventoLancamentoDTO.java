@@ -0,0 +1,28 @@
+package com.zump.zumpfinanc.api.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoLancamentoDTO {
+	
+	private Long id;
+	private Long lancamento;
+	private String tipo;
+	private Instant ocorridoEm;
+	private Long versao;
+	private BigDecimal deltaSaldo;
+	
+	@JsonRawValue // Já gravado em JSON no log: vai para a resposta como está, sem ser lido e escrito de novo
+	private String dados;
+}
@@ -19,6 +19,7 @@ public class LancamentoDTO {
 	private Integer ano;
 	private Long usuario;
 	private BigDecimal valor;
+	private String moeda; // Código ISO 4217; quando omitido vale BRL
 	private String tipo;
 	private String status;
 }
@@ -0,0 +1,26 @@
+package com.zump.zumpfinanc.api.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MudancaDTO {
+	
+	private Long posicao;
+	private String agregado;
+	private Long id; // Id do lançamento ou do usuário
+	private String tipo;
+	private Instant ocorridoEm;
+	
+	@JsonRawValue // Já gravado em JSON no outbox
+	private String dados;
+}
@@ -0,0 +1,16 @@
+package com.zump.zumpfinanc.api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaDTO<T> {
+	
+	private List<T> itens;
+	private String proximoCursor; // null quando não há próxima página
+}
@@ -0,0 +1,28 @@
+package com.zump.zumpfinanc.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecorrenciaDTO {
+	
+	private Long id;
+	private String descricao;
+	private Long usuario;
+	private BigDecimal valor;
+	private String moeda;
+	private String tipo;
+	private String periodicidade; // MENSAL ou ANUAL
+	private Integer mesInicio;
+	private Integer anoInicio;
+	private Integer parcelas; // Omitido: sem data de término
+	private int parcelasGeradas;
+	private boolean ativa;
+}
@@ -0,0 +1,19 @@
+package com.zump.zumpfinanc.api.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensalDTO {
+	
+	private Integer mes;
+	private TotaisDTO totais; // Lançamentos PENDENTES e EFETIVADOS; os CANCELADOS aparecem só em porStatus
+	private Map<String, TotaisDTO> porStatus;
+}
@@ -0,0 +1,20 @@
+package com.zump.zumpfinanc.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenDTO {
+	
+	private Long id;
+	private String nome;
+	private String email;
+	private String token;
+}
@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.api.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TotaisDTO {
+	
+	@Builder.Default
+	private BigDecimal receitas = BigDecimal.ZERO;
+	@Builder.Default
+	private BigDecimal despesas = BigDecimal.ZERO;
+	@Builder.Default
+	private BigDecimal liquido = BigDecimal.ZERO;
+	private long quantidade;
+}
@@ -0,0 +1,91 @@
+package com.zump.zumpfinanc.api.filtro;
+
+import java.io.IOException;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.zump.zumpfinanc.config.ConsultasExecutadas;
+import com.zump.zumpfinanc.config.ContadorConsultas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class ConsultasFilter extends OncePerRequestFilter { // Registrado para /api/* pelo ConsultasConfig
+	
+	public static final String CONSULTAS = "zumpfinanc.consultas";
+	public static final String CONSULTAS_REPETIDAS = "zumpfinanc.consultas.repetidas";
+	public static final String CONSULTAS_EXECUTADAS = ConsultasFilter.class.getName() + ".consultasExecutadas";
+	
+	private final MeterRegistry registry;
+	private final int limite;
+	private final int repeticoes;
+	
+	public ConsultasFilter(MeterRegistry registry, int limite, int repeticoes) {
+		this.registry = registry;
+		this.limite = limite;
+		this.repeticoes = repeticoes;
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false; // No modo assíncrono a requisição só termina no despacho assíncrono
+	}
+
+	// A contagem fica na requisição: o handler no executor (ContadorConsultas.Propagacao) e o despacho assíncrono continuam a mesma,
+	// e ela só é registrada quando a requisição termina
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		ConsultasExecutadas consultas = (ConsultasExecutadas) request.getAttribute(CONSULTAS_EXECUTADAS);
+		if(consultas == null) {
+			consultas = new ConsultasExecutadas();
+			request.setAttribute(CONSULTAS_EXECUTADAS, consultas);
+		}
+		
+		ContadorConsultas.continuar(consultas);
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ContadorConsultas.encerrar();
+		}
+		
+		if(!isAsyncStarted(request)) {
+			registrar(request, consultas);
+		}
+	}
+	
+	// Quantidade de comandos por endpoint (zumpfinanc.consultas{method, uri}, com p50/p95/p99 pelas propriedades de zumpfinanc.*)
+	// e requisições com comando repetido; o log traz as assinaturas dos comandos para achar a origem
+	private void registrar(HttpServletRequest request, ConsultasExecutadas consultas) {
+		Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		String uri = padrao != null ? padrao.toString() : "UNKNOWN";
+		
+		DistributionSummary.builder(CONSULTAS)
+			.tag("method", request.getMethod())
+			.tag("uri", uri)
+			.minimumExpectedValue(1l)
+			.maximumExpectedValue(200l)
+			.register(registry)
+			.record(consultas.getTotal());
+		
+		Map<String, Integer> repetidas = consultas.repetidas(repeticoes);
+		if(!repetidas.isEmpty()) {
+			registry.counter(CONSULTAS_REPETIDAS, "method", request.getMethod(), "uri", uri).increment();
+			repetidas.forEach((assinatura, quantidade) -> 
+				log.warn("Possível N+1 em {} {}: o mesmo comando executou {} vezes: {}", request.getMethod(), uri, quantidade, assinatura));
+		}
+		
+		if(consultas.getTotal() > limite) {
+			log.warn("{} {} executou {} comandos SQL (limite {}):\n{}", request.getMethod(), request.getRequestURI(), consultas.getTotal(), limite, consultas.descrever());
+		}
+	}
+
+}
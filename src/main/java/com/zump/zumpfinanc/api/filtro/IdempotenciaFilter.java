@@ -0,0 +1,264 @@
+package com.zump.zumpfinanc.api.filtro;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.cache.Cache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import com.zump.zumpfinanc.config.ExecucaoAssincronaHandlerAdapter;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+import lombok.Getter;
+
+// Repete a resposta guardada para o mesmo Idempotency-Key do usuário; respostas 5xx e 429 não são guardadas
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+	public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+	public static final String RESPOSTA_REPETIDA = "Idempotent-Replayed";
+
+	private static final String CHAVE_EM_ANDAMENTO = IdempotenciaFilter.class.getName() + ".chave";
+	private static final String HASH_EM_ANDAMENTO = IdempotenciaFilter.class.getName() + ".hash";
+	private static final int TAMANHO_MAXIMO_CHAVE = 255;
+	private static final String[] CABECALHOS_GUARDADOS = {HttpHeaders.ETAG, HttpHeaders.LOCATION};
+
+	private final Cache respostas;
+
+	public IdempotenciaFilter(Cache respostas) {
+		this.respostas = respostas;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+	}
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false; // No modo assíncrono a resposta a guardar só é escrita no despacho assíncrono
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		if(isAsyncDispatch(request)) {
+			String chaveCache = (String) request.getAttribute(CHAVE_EM_ANDAMENTO);
+			if(chaveCache == null) {
+				filterChain.doFilter(request, response);
+				return;
+			}
+			// O contêiner pode despachar com o wrapper do primeiro despacho (com que a requisição assíncrona foi iniciada) ou com a resposta original
+			ContentCachingResponseWrapper resposta = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+			executar(request, resposta != null ? resposta : new ContentCachingResponseWrapper(response), filterChain, chaveCache, (String) request.getAttribute(HASH_EM_ANDAMENTO));
+			return;
+		}
+
+		String chave = request.getHeader(IDEMPOTENCY_KEY).trim();
+		UsuarioAutenticado usuario = (UsuarioAutenticado) request.getAttribute(JwtFilter.USUARIO_AUTENTICADO);
+		if(usuario == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		if(chave.isEmpty() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+			responder(response, HttpStatus.BAD_REQUEST, "Idempotency-Key inválida: informe de 1 a " + TAMANHO_MAXIMO_CHAVE + " caracteres.");
+			return;
+		}
+
+		// O corpo é lido aqui para conferir que a repetição é da mesma requisição, e entregue de novo ao resource
+		byte[] corpo = StreamUtils.copyToByteArray(request.getInputStream());
+		String hashCorpo = hash(corpo);
+		String chaveCache = usuario.getId() + ":" + request.getRequestURI() + ":" + chave;
+
+		// putIfAbsent marca a chave como em andamento: duas repetições simultâneas não executam as duas
+		Cache.ValueWrapper existente = respostas.putIfAbsent(chaveCache, RespostaGuardada.emAndamento(hashCorpo));
+		if(existente != null) {
+			repetir((RespostaGuardada) existente.get(), hashCorpo, response);
+			return;
+		}
+
+		request.setAttribute(CHAVE_EM_ANDAMENTO, chaveCache);
+		request.setAttribute(HASH_EM_ANDAMENTO, hashCorpo);
+		executar(new CorpoLidoRequest(request, corpo), new ContentCachingResponseWrapper(response), filterChain, chaveCache, hashCorpo);
+	}
+
+	private void executar(HttpServletRequest request, ContentCachingResponseWrapper resposta, FilterChain filterChain, String chaveCache, String hashCorpo) 
+			throws ServletException, IOException {
+		try {
+			filterChain.doFilter(request, resposta);
+		} catch (IOException | ServletException | RuntimeException e) {
+			respostas.evict(chaveCache);
+			throw e;
+		}
+		if(isAsyncStarted(request)) { // A chave segue em andamento até o despacho assíncrono
+			return;
+		}
+
+		if(resposta.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value() || resposta.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+			// No timeout do modo assíncrono (503) o handler pode continuar rodando e ainda gravar: a chave segue em andamento até ele terminar
+			CompletableFuture<?> termino = (CompletableFuture<?>) request.getAttribute(ExecucaoAssincronaHandlerAdapter.TERMINO_HANDLER);
+			if(termino != null) {
+				termino.whenComplete((resultado, erro) -> respostas.evict(chaveCache));
+			} else {
+				respostas.evict(chaveCache);
+			}
+		} else {
+			respostas.put(chaveCache, RespostaGuardada.concluida(hashCorpo, resposta));
+		}
+		resposta.copyBodyToResponse();
+	}
+
+	private static void repetir(RespostaGuardada guardada, String hashCorpo, HttpServletResponse response) throws IOException {
+		if(!guardada.getHashCorpo().equals(hashCorpo)) {
+			responder(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key já usada em uma requisição com outro conteúdo.");
+			return;
+		}
+		if(!guardada.isConcluida()) {
+			responder(response, HttpStatus.CONFLICT, "A requisição com esta Idempotency-Key ainda está em andamento.");
+			return;
+		}
+
+		response.setStatus(guardada.getStatus());
+		guardada.getCabecalhos().forEach(response::setHeader);
+		if(guardada.getTipoConteudo() != null) {
+			response.setContentType(guardada.getTipoConteudo());
+		}
+		response.setHeader(RESPOSTA_REPETIDA, "true");
+		response.setContentLength(guardada.getCorpo().length);
+		response.getOutputStream().write(guardada.getCorpo());
+	}
+
+	private static void responder(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		response.getWriter().write(mensagem);
+	}
+
+	private static String hash(byte[] corpo) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(corpo));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // Toda JVM tem SHA-256
+		}
+	}
+
+	@Getter
+	static class RespostaGuardada implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String hashCorpo;
+		private final boolean concluida;
+		private final int status;
+		private final String tipoConteudo;
+		private final Map<String, String> cabecalhos;
+		private final byte[] corpo;
+
+		private RespostaGuardada(String hashCorpo, boolean concluida, int status, String tipoConteudo, Map<String, String> cabecalhos, byte[] corpo) {
+			this.hashCorpo = hashCorpo;
+			this.concluida = concluida;
+			this.status = status;
+			this.tipoConteudo = tipoConteudo;
+			this.cabecalhos = cabecalhos;
+			this.corpo = corpo;
+		}
+
+		static RespostaGuardada emAndamento(String hashCorpo) {
+			return new RespostaGuardada(hashCorpo, false, 0, null, null, null);
+		}
+
+		static RespostaGuardada concluida(String hashCorpo, ContentCachingResponseWrapper resposta) {
+			Map<String, String> cabecalhos = new LinkedHashMap<>();
+			for(String cabecalho : CABECALHOS_GUARDADOS) {
+				if(resposta.getHeader(cabecalho) != null) {
+					cabecalhos.put(cabecalho, resposta.getHeader(cabecalho));
+				}
+			}
+			return new RespostaGuardada(hashCorpo, true, resposta.getStatus(), resposta.getContentType(), cabecalhos, resposta.getContentAsByteArray());
+		}
+	}
+
+	private static class CorpoLidoRequest extends HttpServletRequestWrapper { // Devolve ao resource o corpo que o filtro já leu
+
+		private final byte[] corpo;
+
+		CorpoLidoRequest(HttpServletRequest request, byte[] corpo) {
+			super(request);
+			this.corpo = corpo;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+			return new ServletInputStream() {
+
+				@Override
+				public int read() {
+					return entrada.read();
+				}
+
+				@Override
+				public int read(byte[] destino, int inicio, int tamanho) {
+					return entrada.read(destino, inicio, tamanho);
+				}
+
+				@Override
+				public boolean isFinished() {
+					return entrada.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String codificacao = getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(getInputStream(), codificacao == null ? StandardCharsets.UTF_8 : Charset.forName(codificacao)));
+		}
+
+		@Override
+		public int getContentLength() {
+			return corpo.length;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return corpo.length;
+		}
+	}
+
+}
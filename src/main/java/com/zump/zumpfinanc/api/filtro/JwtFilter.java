@@ -0,0 +1,71 @@
+package com.zump.zumpfinanc.api.filtro;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.service.JwtService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+public class JwtFilter extends OncePerRequestFilter { // Registrado para /api/* pelo AutenticacaoConfig
+	
+	public static final String USUARIO_AUTENTICADO = "usuarioAutenticado"; // Atributo da requisição lido pelos resources (@RequestAttribute)
+	
+	private static final String PREFIXO = "Bearer ";
+	
+	private final JwtService jwtService;
+	
+	public JwtFilter(JwtService jwtService) {
+		this.jwtService = jwtService;
+	}
+	
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		if(HttpMethod.OPTIONS.matches(request.getMethod())) { // Preflight do CORS não leva o token
+			return true;
+		}
+		
+		// Cadastro e login são as únicas rotas abertas
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		return HttpMethod.POST.matches(request.getMethod()) && (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+		String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if(cabecalho == null || !cabecalho.startsWith(PREFIXO)) {
+			negar(response, "Token de acesso não informado.");
+			return;
+		}
+		
+		UsuarioAutenticado usuario;
+		try {
+			usuario = jwtService.obterUsuarioAutenticado(cabecalho.substring(PREFIXO.length()).trim());
+		} catch (ErroAutenticacao e) {
+			negar(response, e.getMessage());
+			return;
+		}
+		
+		request.setAttribute(USUARIO_AUTENTICADO, usuario);
+		filterChain.doFilter(request, response);
+	}
+	
+	private static void negar(HttpServletResponse response, String mensagem) throws IOException {
+		response.setStatus(HttpStatus.UNAUTHORIZED.value());
+		response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		response.getWriter().write(mensagem);
+	}
+
+}
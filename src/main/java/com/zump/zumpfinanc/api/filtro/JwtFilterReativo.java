@@ -0,0 +1,52 @@
+package com.zump.zumpfinanc.api.filtro;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.service.JwtService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+import reactor.core.publisher.Mono;
+
+public class JwtFilterReativo implements HandlerFilterFunction<ServerResponse, ServerResponse> { // O JwtFilter das rotas do ReativoConfig
+
+	private static final String PREFIXO = "Bearer ";
+
+	private final JwtService jwtService;
+
+	public JwtFilterReativo(JwtService jwtService) {
+		this.jwtService = jwtService;
+	}
+
+	@Override
+	public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+		String cabecalho = request.headers().asHttpHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		if(cabecalho == null || !cabecalho.startsWith(PREFIXO)) {
+			return negar("Token de acesso não informado.");
+		}
+
+		UsuarioAutenticado usuario;
+		try {
+			usuario = jwtService.obterUsuarioAutenticado(cabecalho.substring(PREFIXO.length()).trim()); // Só CPU (assinatura e cache): não bloqueia o event loop
+		} catch (ErroAutenticacao e) {
+			return negar(e.getMessage());
+		}
+
+		request.attributes().put(JwtFilter.USUARIO_AUTENTICADO, usuario);
+		return next.handle(request);
+	}
+
+	private static Mono<ServerResponse> negar(String mensagem) {
+		return ServerResponse.status(HttpStatus.UNAUTHORIZED).header(HttpHeaders.WWW_AUTHENTICATE, "Bearer").contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+				.bodyValue(mensagem);
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.zump.zumpfinanc.api.resource;
+
+import java.util.Optional;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.zump.zumpfinanc.api.dto.LancamentoDTO;
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.config.ReativoConfig;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+import com.zump.zumpfinanc.model.repository.LancamentoReativoRepository;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+// Handlers das rotas do ReativoConfig, com as mesmas respostas do LancamentoResource e do UsuarioResource
+@Component
+@Profile(ReativoConfig.PERFIL)
+@RequiredArgsConstructor
+public class ConsultaReativaResource {
+
+	private static final String ACESSO_NEGADO = "Acesso negado aos dados de outro usuário.";
+
+	private final LancamentoReativoRepository repository;
+
+	// Com Accept application/x-ndjson ou application/stream+json, um lançamento por linha escrito conforme a base entrega, no ritmo
+	// em que o cliente lê (back-pressure até o R2DBC); nos demais casos o mesmo array JSON do Spring MVC
+	public Mono<ServerResponse> buscar(ServerRequest request) {
+		UsuarioAutenticado usuario = usuario(request);
+		Lancamento filtro;
+		try {
+			Optional<Long> idUsuario = parametro(request, "usuario").map(Long::valueOf);
+			if(idUsuario.isPresent() && !idUsuario.get().equals(usuario.getId())) {
+				return acessoNegado();
+			}
+			filtro = criarFiltro(request.queryParam("descricao").orElse(null), parametro(request, "mes").map(Integer::valueOf).orElse(null),
+					parametro(request, "ano").map(Integer::valueOf).orElse(null), usuario.getId());
+		} catch (NumberFormatException e) {
+			return ServerResponse.badRequest().bodyValue("Parâmetro numérico inválido.");
+		}
+
+		MediaType tipo = request.headers().accept().stream().filter(aceito -> aceito.equalsTypeAndSubtype(ReativoConfig.NDJSON)
+				|| aceito.equalsTypeAndSubtype(MediaType.APPLICATION_STREAM_JSON)).findFirst().orElse(MediaType.APPLICATION_JSON);
+		return ServerResponse.ok().contentType(tipo).body(repository.buscar(filtro).map(this::converter), LancamentoDTO.class);
+	}
+
+	public Mono<ServerResponse> obterSaldo(ServerRequest request) {
+		Long id;
+		try {
+			id = Long.valueOf(request.pathVariable("id"));
+		} catch (NumberFormatException e) {
+			return ServerResponse.badRequest().bodyValue("Parâmetro numérico inválido.");
+		}
+		if(!id.equals(usuario(request).getId())) {
+			return acessoNegado();
+		}
+
+		return repository.obterSaldo(id).flatMap(centavos -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(Dinheiro.deCentavos(centavos).toBigDecimal()));
+	}
+
+	private static UsuarioAutenticado usuario(ServerRequest request) { // Colocado pelo JwtFilterReativo
+		return (UsuarioAutenticado) request.attribute(JwtFilter.USUARIO_AUTENTICADO).get();
+	}
+
+	private static Optional<String> parametro(ServerRequest request, String nome) {
+		return request.queryParam(nome).filter(valor -> !valor.isEmpty());
+	}
+
+	private static Mono<ServerResponse> acessoNegado() {
+		return ServerResponse.status(HttpStatus.FORBIDDEN).bodyValue(ACESSO_NEGADO);
+	}
+
+	private Lancamento criarFiltro(String descricao, Integer mes, Integer ano, Long idUsuario) {
+		Lancamento lancamentoFiltro = new Lancamento();
+		lancamentoFiltro.setDescricao(descricao);
+		lancamentoFiltro.setMes(mes);
+		lancamentoFiltro.setAno(ano);
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build()); // O filtro só usa o id do usuário
+		return lancamentoFiltro;
+	}
+
+	private LancamentoDTO converter(LancamentoResumo resumo) {
+		return LancamentoDTO.builder().id(resumo.getId()).descricao(resumo.getDescricao()).valor(resumo.getValor().toBigDecimal()).moeda(resumo.getValor().getMoeda()).mes(resumo.getMes()).ano(resumo.getAno()).status(resumo.getStatus().name()).tipo(resumo.getTipo().name())
+				.usuario(resumo.getIdUsuario()).build();
+	}
+
+}
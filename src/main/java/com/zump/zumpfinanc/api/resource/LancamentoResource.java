@@ -1,29 +1,62 @@
 package com.zump.zumpfinanc.api.resource;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import com.zump.zumpfinanc.api.dto.AtualizaStatusDTO;
+import com.zump.zumpfinanc.api.dto.AtualizaStatusLoteDTO;
 import com.zump.zumpfinanc.api.dto.LancamentoDTO;
+import com.zump.zumpfinanc.api.dto.PaginaDTO;
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.exception.ErroConflito;
 import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
 import com.zump.zumpfinanc.model.entity.Lancamento;
 import com.zump.zumpfinanc.model.entity.Usuario;
 import com.zump.zumpfinanc.model.enums.StatusLancamento;
 import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+import com.zump.zumpfinanc.service.ExtratoService;
+import com.zump.zumpfinanc.service.ImportacaoLancamentoService;
 import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.LinhaImportacao;
+import com.zump.zumpfinanc.service.ResultadoAtualizacaoStatus;
+import com.zump.zumpfinanc.service.ResultadoImportacao;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
 import com.zump.zumpfinanc.service.UsuarioService;
+import com.zump.zumpfinanc.service.extrato.FormatoExtrato;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,100 +65,364 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/lancamentos")
 public class LancamentoResource {
 	
+	private static final String ACESSO_NEGADO = "Acesso negado aos dados de outro usuário.";
+	private static final String LANCAMENTO_NAO_ENCONTRADO = "Lançamento não encontrado na base de dados.";
+	private static final String IF_MATCH_INVALIDO = "Cabeçalho If-Match inválido: envie a ETag recebida na consulta do lançamento.";
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	private static final int TAMANHO_PAGINA_PADRAO = 50;
+	private static final int TAMANHO_PAGINA_MAXIMO = 500;
+	
 	private final LancamentoService service;
 	private final UsuarioService usuarioService;	
+	private final ImportacaoLancamentoService importacaoService;
+	private final ExtratoService extratoService;
+	private final ObjectMapper objectMapper;
 	
 	@GetMapping
 	public ResponseEntity buscar(@RequestParam(value = "descricao", required = false) String descricao, @RequestParam(value = "mes", required = false) Integer mes, 
-			@RequestParam(value = "ano", required = false) Integer ano, @RequestParam("usuario") Long idUsuario) {
-		Lancamento lancamentoFiltro = new Lancamento();
-		lancamentoFiltro.setDescricao(descricao);
-		lancamentoFiltro.setMes(mes);
-		lancamentoFiltro.setAno(ano);
-		
-		Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
-		if(!usuario.isPresent()) {
-			return ResponseEntity.badRequest().body("Não foi possível realizar a consulta. Usuário não encontrado para o Id informado.");
-		} else {
-			lancamentoFiltro.setUsuario(usuario.get());
+			@RequestParam(value = "ano", required = false) Integer ano, @RequestParam(value = "usuario", required = false) Long idUsuario, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(outroUsuario(idUsuario, usuario)) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
 		}
+		Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, usuario.getId());
 		
-		List<Lancamento> lancamentos =  service.buscar(lancamentoFiltro);
+		List<LancamentoDTO> lancamentos = service.buscar(lancamentoFiltro).stream().map(this::converter).collect(Collectors.toList());
 		return ResponseEntity.ok(lancamentos);
 	}
 	
+	@GetMapping("/pagina")
+	public ResponseEntity buscarPagina(@RequestParam(value = "descricao", required = false) String descricao, @RequestParam(value = "mes", required = false) Integer mes, 
+			@RequestParam(value = "ano", required = false) Integer ano, @RequestParam(value = "usuario", required = false) Long idUsuario, 
+			@RequestParam(value = "cursor", required = false) String cursor, @RequestParam(value = "tamanho", required = false) Integer tamanho, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(outroUsuario(idUsuario, usuario)) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
+		Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, usuario.getId());
+		
+		Long aposId;
+		try {
+			aposId = decodificarCursor(cursor);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Cursor de paginação inválido.");
+		}
+		
+		int tamanhoPagina = tamanho == null ? TAMANHO_PAGINA_PADRAO : Math.max(1, Math.min(tamanho, TAMANHO_PAGINA_MAXIMO));
+		
+		// Busca um registro a mais só para saber se existe próxima página
+		List<LancamentoResumo> resumos = service.buscarPagina(lancamentoFiltro, aposId, tamanhoPagina + 1);
+		boolean existeProximaPagina = resumos.size() > tamanhoPagina;
+		if(existeProximaPagina) {
+			resumos = resumos.subList(0, tamanhoPagina);
+		}
+		
+		List<LancamentoDTO> itens = resumos.stream().map(this::converter).collect(Collectors.toList());
+		String proximoCursor = existeProximaPagina ? codificarCursor(itens.get(itens.size() - 1).getId()) : null;
+		return ResponseEntity.ok(new PaginaDTO<>(itens, proximoCursor));
+	}
+	
+	@GetMapping("/exportacao")
+	public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(value = "descricao", required = false) String descricao, @RequestParam(value = "mes", required = false) Integer mes, 
+			@RequestParam(value = "ano", required = false) Integer ano, @RequestParam(value = "usuario", required = false) Long idUsuario, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(outroUsuario(idUsuario, usuario)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).contentType(MediaType.TEXT_PLAIN).body(saida -> saida.write(ACESSO_NEGADO.getBytes(StandardCharsets.UTF_8)));
+		}
+		Lancamento lancamentoFiltro = criarFiltro(descricao, mes, ano, usuario.getId());
+		
+		// Um JSON por linha (NDJSON), escrito conforme as linhas chegam do cursor, sem acumular a lista em memória
+		StreamingResponseBody corpo = saida -> {
+			ObjectWriter writer = objectMapper.writerFor(LancamentoDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(saida)) {
+				generator.setRootValueSeparator(null);
+				service.percorrer(lancamentoFiltro, resumo -> {
+					try {
+						writer.writeValue(generator, converter(resumo));
+						generator.writeRaw('\n');
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+		return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+	}
+	
 	@GetMapping("{id}")
-	public ResponseEntity obterLancamento(@PathVariable("id") Long id) {
-		return service.obterPorId(id).map(lancamento -> new ResponseEntity(converter(lancamento),HttpStatus.OK)).orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+	public ResponseEntity obterLancamento(@PathVariable("id") Long id, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		return obterDoUsuario(id, usuario).map(lancamento -> comVersao(HttpStatus.OK, lancamento)).orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
 	}
 
 	@PostMapping
-	public ResponseEntity salvar(@RequestBody LancamentoDTO dto) {
+	public ResponseEntity salvar(@RequestBody LancamentoDTO dto, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(outroUsuario(dto.getUsuario(), usuario)) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
 		try {
-			Lancamento entidade = converter(dto);
+			Lancamento entidade = converter(dto, usuario.getId());
 			entidade = service.salvar(entidade);
-			return new ResponseEntity(entidade, HttpStatus.CREATED); // return ResponseEntity.ok(entidade);
+			return comVersao(HttpStatus.CREATED, entidade); // DTO: o usuário do lançamento é só uma referência (proxy), não é carregado
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@PostMapping(value = "/importacao", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+	public ResponseEntity importar(InputStream corpo, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) throws IOException {
+		// Aceita tanto um array JSON quanto um JSON por linha (NDJSON); as linhas são lidas sob demanda, lote a lote
+		MappingIterator<LancamentoDTO> dtos = objectMapper.readerFor(LancamentoDTO.class).readValues(corpo);
+		ResultadoImportacao resultado = importacaoService.importar(lerLinhas(dtos, usuario.getId()));
+		return ResponseEntity.ok(resultado);
+	}
+	
+	@PostMapping("/extrato")
+	public ResponseEntity importarExtrato(@RequestParam(value = "usuario", required = false) Long idUsuario, @RequestParam("formato") String formato, 
+			@RequestParam(value = "codificacao", defaultValue = "UTF-8") String codificacao, @RequestParam("arquivo") MultipartFile arquivo, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) throws IOException {
+		if(outroUsuario(idUsuario, usuario)) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
+		
+		FormatoExtrato formatoExtrato;
+		Charset charset;
+		try {
+			formatoExtrato = FormatoExtrato.valueOf(formato.toUpperCase());
+			charset = Charset.forName(codificacao);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Formato (CSV ou OFX) ou codificação do extrato inválidos.");
+		}
+		
+		// O multipart fica em arquivo temporário; o conteúdo é lido em fluxo, sem carregar o extrato inteiro na memória
+		try (InputStream conteudo = arquivo.getInputStream()) {
+			ResultadoImportacao resultado = extratoService.importar(usuario.getId(), formatoExtrato, charset, conteudo);
+			return ResponseEntity.ok(resultado);
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
 	}
 	
+	// If-Match com a ETag do GET: a alteração só é gravada se ninguém alterou o lançamento depois daquela leitura (409 se alterou).
+	// Sem If-Match vale a versão lida pelo próprio service, o que ainda impede que duas alterações simultâneas se sobreponham no saldo
 	@PutMapping("{id}")
-	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
-		return service.obterPorId(id).map( entity -> {
-			try {
-				Lancamento lancamento = converter(dto);
-				lancamento.setId(entity.getId());
-				service.atualizar(lancamento);
-				return ResponseEntity.ok(lancamento);
-			} catch (RegraNegocioException e) {
-				return ResponseEntity.badRequest().body(e.getMessage());
-			}
-		}).orElseGet( () -> new ResponseEntity("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST)  );
+	public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDTO dto, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(outroUsuario(dto.getUsuario(), usuario)) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
+		// Sem buscar o lançamento antes: o UPDATE do service só encontra o registro se ele existir e for do usuário do token
+		try {
+			Lancamento lancamento = converter(dto, usuario.getId());
+			lancamento.setId(id);
+			lancamento.setVersao(versaoDoIfMatch(ifMatch));
+			lancamento = service.atualizar(lancamento);
+			return comVersao(HttpStatus.OK, lancamento);
+		} catch (ErroConflito e) {
+			return new ResponseEntity(e.getMessage(), HttpStatus.CONFLICT);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 	}
 	
 	@PutMapping("{id}/atualiza-status")
-	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto) {
-		return service.obterPorId(id).map( entity -> {
+	public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDTO dto, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		return obterDoUsuario(id, usuario).map( entity -> {
 			StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
 			
 			if(statusSelecionado == null) {
 				return ResponseEntity.badRequest().body("Não foi possível atualizar o status do lançamento, envie um status válido.");
 			}
 			try {
-				entity.setStatus(statusSelecionado);
-				service.atualizar(entity);
-				return ResponseEntity.ok(entity);
+				service.atualizarStatus(entity, statusSelecionado, versaoDoIfMatch(ifMatch));
+				return comVersao(HttpStatus.OK, entity);
+			} catch (ErroConflito e) {
+				return new ResponseEntity(e.getMessage(), HttpStatus.CONFLICT);
 			} catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
 			}
 			
-		}).orElseGet( () -> new ResponseEntity("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST)  );
+		}).orElseGet( () -> new ResponseEntity(LANCAMENTO_NAO_ENCONTRADO, HttpStatus.BAD_REQUEST)  );
+	}
+	
+	// Status de vários lançamentos de uma vez (ex.: todos os PENDENTES de um mês para EFETIVADO), em um único UPDATE na base
+	@PutMapping("atualiza-status")
+	public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDTO dto, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(outroUsuario(dto.getUsuario(), usuario)) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
+		
+		StatusLancamento statusAtual;
+		StatusLancamento novoStatus;
+		try {
+			statusAtual = dto.getStatusAtual() == null ? null : StatusLancamento.valueOf(dto.getStatusAtual());
+			novoStatus = dto.getStatus() == null ? null : StatusLancamento.valueOf(dto.getStatus());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body("Não foi possível atualizar o status dos lançamentos, envie um status válido.");
+		}
+		
+		try {
+			ResultadoAtualizacaoStatus resultado = service.atualizarStatusEmLote(usuario.getId(), dto.getIds(), dto.getAno(), dto.getMes(), statusAtual, novoStatus);
+			return ResponseEntity.ok(resultado);
+		} catch (ErroConflito e) {
+			return new ResponseEntity(e.getMessage(), HttpStatus.CONFLICT);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
 	}
 	
 	@DeleteMapping("{id}")
-	public ResponseEntity deletar(@PathVariable("id") Long id) {
-		return service.obterPorId(id).map( entity -> {
+	public ResponseEntity deletar(@PathVariable("id") Long id, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		return obterDoUsuario(id, usuario).map( entity -> {
 			service.deletar(entity);
 			return new ResponseEntity(HttpStatus.NO_CONTENT);
-		}).orElseGet( () -> new ResponseEntity("Lançamento não encontrado na base de dados.", HttpStatus.BAD_REQUEST)  );
+		}).orElseGet( () -> new ResponseEntity(LANCAMENTO_NAO_ENCONTRADO, HttpStatus.BAD_REQUEST)  );
+	}
+	
+	private static boolean outroUsuario(Long idUsuario, UsuarioAutenticado usuario) { // Sem id informado vale o usuário do token
+		return idUsuario != null && !idUsuario.equals(usuario.getId());
+	}
+	
+	private Optional<Lancamento> obterDoUsuario(Long id, UsuarioAutenticado usuario) { // Lançamento de outro usuário é tratado como inexistente
+		return service.obterPorId(id).filter(lancamento -> usuario.getId().equals(lancamento.getUsuario().getId()));
+	}
+	
+	private ResponseEntity comVersao(HttpStatus status, Lancamento lancamento) { // A versão do lançamento vai no cabeçalho ETag, para o If-Match da próxima alteração
+		ResponseEntity.BodyBuilder resposta = ResponseEntity.status(status);
+		if(lancamento.getVersao() != null) {
+			resposta.eTag(lancamento.getVersao().toString());
+		}
+		return resposta.body(converter(lancamento));
+	}
+	
+	private static Long versaoDoIfMatch(String ifMatch) { // "3" ou W/"3"; ausente ou * aceita a versão atual
+		if(ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String etag = ifMatch.trim();
+		if(etag.startsWith("W/")) {
+			etag = etag.substring(2);
+		}
+		if(etag.length() < 3 || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+			throw new RegraNegocioException(IF_MATCH_INVALIDO);
+		}
+		try {
+			return Long.valueOf(etag.substring(1, etag.length() - 1));
+		} catch (NumberFormatException e) {
+			throw new RegraNegocioException(IF_MATCH_INVALIDO);
+		}
+	}
+	
+	private Lancamento criarFiltro(String descricao, Integer mes, Integer ano, Long idUsuario) {
+		Lancamento lancamentoFiltro = new Lancamento();
+		lancamentoFiltro.setDescricao(descricao);
+		lancamentoFiltro.setMes(mes);
+		lancamentoFiltro.setAno(ano);
+		lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario).build()); // O filtro só usa o id do usuário
+		return lancamentoFiltro;
+	}
+	
+	static String codificarCursor(Long id) { // Também usados no cursor do feed de mudanças (MudancaResource)
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+	}
+	
+	static Long decodificarCursor(String cursor) { // IllegalArgumentException também cobre o NumberFormatException
+		if(cursor == null || cursor.isEmpty()) {
+			return null;
+		}
+		return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+	}
+	
+	private Iterator<LinhaImportacao> lerLinhas(MappingIterator<LancamentoDTO> dtos, Long idUsuario) {
+		return new Iterator<LinhaImportacao>() {
+			
+			private int numero = 0;
+			private boolean conteudoInvalido = false;
+			
+			@Override
+			public boolean hasNext() {
+				try {
+					return !conteudoInvalido && dtos.hasNextValue();
+				} catch (IOException e) {
+					conteudoInvalido = true; // Reportada como erro da próxima linha pelo next(); a leitura para aqui
+					return true;
+				}
+			}
+			
+			@Override
+			public LinhaImportacao next() {
+				numero++;
+				if(conteudoInvalido) {
+					return LinhaImportacao.invalida(numero, "Conteúdo JSON inválido, importação interrompida nesta linha.");
+				}
+				
+				try {
+					LancamentoDTO dto = dtos.nextValue();
+					if(dto.getUsuario() != null && !dto.getUsuario().equals(idUsuario)) {
+						return LinhaImportacao.invalida(numero, ACESSO_NEGADO);
+					}
+					return LinhaImportacao.valida(numero, converterParaImportacao(dto, idUsuario));
+				} catch (IOException e) {
+					conteudoInvalido = true;
+					return LinhaImportacao.invalida(numero, "Conteúdo JSON inválido, importação interrompida nesta linha.");
+				} catch (RegraNegocioException e) {
+					return LinhaImportacao.invalida(numero, e.getMessage());
+				} catch (IllegalArgumentException e) {
+					return LinhaImportacao.invalida(numero, "Tipo ou Status de Lançamento inválido.");
+				}
+			}
+		};
+	}
+	
+	private Lancamento converterParaImportacao(LancamentoDTO dto, Long idUsuario) { // Sem buscar o usuário: a importação confere a existência uma vez por lote
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(dto.getDescricao());
+		lancamento.setAno(dto.getAno());
+		lancamento.setMes(dto.getMes());
+		lancamento.setValor(converterValor(dto));
+		lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+		
+		if(dto.getTipo()!=null) {
+			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+		}
+		
+		if(dto.getStatus()!=null) {
+			lancamento.setStatus(StatusLancamento.valueOf(dto.getStatus()));
+		}
+		
+		return lancamento;
+	}
+	
+	// O valor da API vira centavos aqui, na borda: mais casas decimais do que a moeda tem não são arredondadas
+	private static Dinheiro converterValor(LancamentoDTO dto) {
+		if(dto.getValor() == null) {
+			return null;
+		}
+		try {
+			return Dinheiro.de(dto.getValor(), dto.getMoeda() == null ? Dinheiro.MOEDA_PADRAO : dto.getMoeda());
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Informe um Valor válido.");
+		}
+	}
+	
+	private LancamentoDTO converter(LancamentoResumo resumo) {
+		return LancamentoDTO.builder().id(resumo.getId()).descricao(resumo.getDescricao()).valor(resumo.getValor().toBigDecimal()).moeda(resumo.getValor().getMoeda()).mes(resumo.getMes()).ano(resumo.getAno()).status(resumo.getStatus().name()).tipo(resumo.getTipo().name())
+				.usuario(resumo.getIdUsuario()).build();
 	}
 	
 	private LancamentoDTO converter(Lancamento lancamento) {
-		return LancamentoDTO.builder().id(lancamento.getId()).descricao(lancamento.getDescricao()).valor(lancamento.getValor()).mes(lancamento.getMes()).ano(lancamento.getAno()).status(lancamento.getStatus().name()).tipo(lancamento.getTipo().name())
+		return LancamentoDTO.builder().id(lancamento.getId()).descricao(lancamento.getDescricao()).valor(lancamento.getValor().toBigDecimal()).moeda(lancamento.getValor().getMoeda()).mes(lancamento.getMes()).ano(lancamento.getAno()).status(lancamento.getStatus().name()).tipo(lancamento.getTipo().name())
 				.usuario(lancamento.getUsuario().getId()).build();
 	}
 	
-	private Lancamento converter(LancamentoDTO dto) {
+	private Lancamento converter(LancamentoDTO dto, Long idUsuario) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setId(dto.getId());
 		lancamento.setDescricao(dto.getDescricao());
 		lancamento.setAno(dto.getAno());
 		lancamento.setMes(dto.getMes());
-		lancamento.setValor(dto.getValor());
-		
-		Usuario usuario = usuarioService.obterPorId(dto.getUsuario()).orElseThrow( () -> new RegraNegocioException("Usuário não encontrado para o Id informado.") );
-		lancamento.setUsuario(usuario);
+		lancamento.setValor(converterValor(dto));
+		lancamento.setUsuario(usuarioService.obterReferencia(idUsuario)); // O usuário do token existe: não há exclusão de usuários
 		
 		if(dto.getTipo()!=null) {
 			lancamento.setTipo(TipoLancamento.valueOf(dto.getTipo()));
@@ -0,0 +1,94 @@
+package com.zump.zumpfinanc.api.resource;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.zump.zumpfinanc.api.dto.MudancaDTO;
+import com.zump.zumpfinanc.api.dto.PaginaDTO;
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+import com.zump.zumpfinanc.service.OutboxService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+import lombok.RequiredArgsConstructor;
+
+// Feed de mudanças do usuário, a partir do cursor "since", com long polling de até "espera" segundos
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/changes")
+public class MudancaResource {
+	
+	private static final int TAMANHO_PAGINA_PADRAO = 100;
+	private static final int TAMANHO_PAGINA_MAXIMO = 1000;
+	private static final int ESPERA_PADRAO_SEGUNDOS = 20;
+	private static final int ESPERA_MAXIMA_SEGUNDOS = 60;
+	
+	private final OutboxService outboxService;
+	
+	@GetMapping
+	public DeferredResult<ResponseEntity> obterMudancas(@RequestParam(value = "since", required = false) String since, 
+			@RequestParam(value = "tamanho", required = false) Integer tamanho, @RequestParam(value = "espera", required = false) Integer espera, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		Long posicao;
+		try {
+			posicao = LancamentoResource.decodificarCursor(since);
+		} catch (IllegalArgumentException e) {
+			return responder(ResponseEntity.badRequest().body("Cursor de mudanças inválido."));
+		}
+		
+		Long idUsuario = usuario.getId();
+		long aposPosicao = posicao == null ? 0 : posicao; // Sem cursor, desde a mudança mais antiga ainda retida
+		int tamanhoPagina = tamanho == null ? TAMANHO_PAGINA_PADRAO : Math.max(1, Math.min(tamanho, TAMANHO_PAGINA_MAXIMO));
+		int segundos = espera == null ? ESPERA_PADRAO_SEGUNDOS : Math.max(0, Math.min(espera, ESPERA_MAXIMA_SEGUNDOS));
+		if(segundos == 0) {
+			return responder(consultar(idUsuario, aposPosicao, tamanhoPagina));
+		}
+		
+		// A espera é registrada antes da consulta: uma publicação entre as duas acorda a requisição, em vez de se perder
+		CompletableFuture<Void> publicacao = outboxService.aguardarPublicacao(idUsuario);
+		ResponseEntity<PaginaDTO<MudancaDTO>> imediata = consultar(idUsuario, aposPosicao, tamanhoPagina);
+		if(!imediata.getBody().getItens().isEmpty()) {
+			publicacao.cancel(false);
+			return responder(imediata);
+		}
+		
+		// Sem thread presa durante a espera: a nova consulta roda no executor do outbox quando a publicação chega. No fim da espera consulta
+		// mais uma vez, para o que veio de outro nó ou ainda não estava na réplica quando a publicação foi notificada
+		DeferredResult<ResponseEntity> resposta = new DeferredResult<>(TimeUnit.SECONDS.toMillis(segundos));
+		publicacao.thenRun(() -> resposta.setResult(consultar(idUsuario, aposPosicao, tamanhoPagina))).exceptionally(erro -> {
+			resposta.setErrorResult(erro);
+			return null;
+		});
+		resposta.onTimeout(() -> resposta.setResult(consultar(idUsuario, aposPosicao, tamanhoPagina)));
+		resposta.onCompletion(() -> publicacao.cancel(false));
+		return resposta;
+	}
+	
+	private ResponseEntity<PaginaDTO<MudancaDTO>> consultar(Long idUsuario, long aposPosicao, int tamanhoPagina) {
+		List<MudancaDTO> itens = outboxService.obterPublicadas(idUsuario, aposPosicao, tamanhoPagina).stream().map(this::converter).collect(Collectors.toList());
+		long ultimaPosicao = itens.isEmpty() ? aposPosicao : itens.get(itens.size() - 1).getPosicao();
+		return ResponseEntity.ok(new PaginaDTO<>(itens, LancamentoResource.codificarCursor(ultimaPosicao))); // O feed sempre tem próximo cursor
+	}
+	
+	private static DeferredResult<ResponseEntity> responder(ResponseEntity resposta) {
+		DeferredResult<ResponseEntity> resultado = new DeferredResult<>();
+		resultado.setResult(resposta);
+		return resultado;
+	}
+	
+	private MudancaDTO converter(MensagemOutbox mensagem) {
+		return MudancaDTO.builder().posicao(mensagem.getPosicao()).agregado(mensagem.getAgregado().name()).id(mensagem.getIdAgregado())
+				.tipo(mensagem.getTipo().name()).ocorridoEm(mensagem.getOcorridoEm()).dados(mensagem.getDados()).build();
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.zump.zumpfinanc.api.resource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.zump.zumpfinanc.api.dto.RecorrenciaDTO;
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Recorrencia;
+import com.zump.zumpfinanc.model.enums.Periodicidade;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.service.RecorrenciaService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+import com.zump.zumpfinanc.service.UsuarioService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/recorrencias")
+public class RecorrenciaResource {
+	
+	private static final String ACESSO_NEGADO = "Acesso negado aos dados de outro usuário.";
+	
+	private final RecorrenciaService service;
+	private final UsuarioService usuarioService;
+	
+	@GetMapping
+	public ResponseEntity buscar(@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		List<RecorrenciaDTO> recorrencias = service.obterDoUsuario(usuario.getId()).stream().map(this::converter).collect(Collectors.toList());
+		return ResponseEntity.ok(recorrencias);
+	}
+	
+	// Grava o modelo e já gera os lançamentos das ocorrências vencidas; as seguintes ficam com o agendador
+	@PostMapping
+	public ResponseEntity salvar(@RequestBody RecorrenciaDTO dto, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(dto.getUsuario() != null && !dto.getUsuario().equals(usuario.getId())) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
+		try {
+			Recorrencia recorrencia = service.salvar(converter(dto, usuario.getId()));
+			return new ResponseEntity(converter(recorrencia), HttpStatus.CREATED);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	@DeleteMapping("{id}")
+	public ResponseEntity encerrar(@PathVariable("id") Long id, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		try {
+			service.encerrar(id, usuario.getId()); // Recorrência de outro usuário é tratada como inexistente
+			return new ResponseEntity(HttpStatus.NO_CONTENT);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	private RecorrenciaDTO converter(Recorrencia recorrencia) {
+		return RecorrenciaDTO.builder().id(recorrencia.getId()).descricao(recorrencia.getDescricao()).usuario(recorrencia.getUsuario().getId())
+				.valor(recorrencia.getValor().toBigDecimal()).moeda(recorrencia.getValor().getMoeda()).tipo(recorrencia.getTipo().name())
+				.periodicidade(recorrencia.getPeriodicidade().name()).mesInicio(recorrencia.getMesInicio()).anoInicio(recorrencia.getAnoInicio())
+				.parcelas(recorrencia.getParcelas()).parcelasGeradas(recorrencia.getParcelasGeradas()).ativa(recorrencia.getProximaOcorrencia() != null).build();
+	}
+	
+	private Recorrencia converter(RecorrenciaDTO dto, Long idUsuario) {
+		Recorrencia recorrencia = new Recorrencia();
+		recorrencia.setDescricao(dto.getDescricao());
+		recorrencia.setMesInicio(dto.getMesInicio());
+		recorrencia.setAnoInicio(dto.getAnoInicio());
+		recorrencia.setParcelas(dto.getParcelas());
+		recorrencia.setUsuario(usuarioService.obterReferencia(idUsuario));
+		
+		if(dto.getValor() != null) {
+			try {
+				recorrencia.setValor(Dinheiro.de(dto.getValor(), dto.getMoeda() == null ? Dinheiro.MOEDA_PADRAO : dto.getMoeda()));
+			} catch (IllegalArgumentException e) {
+				throw new RegraNegocioException("Informe um Valor válido.");
+			}
+		}
+		
+		try {
+			if(dto.getTipo() != null) {
+				recorrencia.setTipo(TipoLancamento.valueOf(dto.getTipo()));
+			}
+			if(dto.getPeriodicidade() != null) {
+				recorrencia.setPeriodicidade(Periodicidade.valueOf(dto.getPeriodicidade()));
+			}
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException("Tipo ou Periodicidade inválida.");
+		}
+		
+		return recorrencia;
+	}
+}
@@ -1,22 +1,63 @@
 package com.zump.zumpfinanc.api.resource;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import com.zump.zumpfinanc.api.dto.EventoLancamentoDTO;
+import com.zump.zumpfinanc.api.dto.ResumoAnualDTO;
+import com.zump.zumpfinanc.api.dto.ResumoMensalDTO;
+import com.zump.zumpfinanc.api.dto.TokenDTO;
+import com.zump.zumpfinanc.api.dto.TotaisDTO;
 import com.zump.zumpfinanc.api.dto.UsuarioDTO;
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
 import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.exception.ErroSobrecarga;
 import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
 import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.TotalMensal;
+import com.zump.zumpfinanc.service.AutenticacaoService;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
+import com.zump.zumpfinanc.service.JwtService;
 import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.ResumoService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
 import com.zump.zumpfinanc.service.UsuarioService;
 
 import lombok.RequiredArgsConstructor;
@@ -26,18 +67,36 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api/usuarios")
 public class UsuarioResource {
 	
+	static final String ACESSO_NEGADO = "Acesso negado aos dados de outro usuário.";
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	
 	private final UsuarioService service;
 	private final LancamentoService lancamentoService;
+	private final ResumoService resumoService;
+	private final AutenticacaoService autenticacaoService;
+	private final JwtService jwtService;
+	private final EventoLancamentoService eventoService;
+	private final ObjectMapper objectMapper;
 	
 	@PostMapping("/autenticar")
-	public ResponseEntity autenticar(@RequestBody UsuarioDTO dto) {
-		
-		try {
-			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado); // return new ResponseEntity(usuarioAutenticado, HttpStatus.OK);
-		} catch (ErroAutenticacao e) {
-			return ResponseEntity.badRequest().body(e.getMessage());
-		}		
+	public CompletableFuture<ResponseEntity> autenticar(@RequestBody UsuarioDTO dto) {
+		// A conferência da senha roda no executor de autenticação; a thread do Tomcat é liberada enquanto isso
+		return autenticacaoService.autenticar(dto.getEmail(), dto.getSenha()).<ResponseEntity>handle((usuarioAutenticado, erro) -> {
+			if(erro == null) { // O token carrega o id do usuário: as demais rotas não consultam a base para saber quem chama
+				TokenDTO token = TokenDTO.builder().id(usuarioAutenticado.getId()).nome(usuarioAutenticado.getNome()).email(usuarioAutenticado.getEmail())
+						.token(jwtService.gerarToken(usuarioAutenticado)).build();
+				return ResponseEntity.ok(token); // return new ResponseEntity(token, HttpStatus.OK);
+			}
+			
+			Throwable causa = erro instanceof CompletionException ? erro.getCause() : erro;
+			if(causa instanceof ErroAutenticacao) {
+				return ResponseEntity.badRequest().body(causa.getMessage());
+			}
+			if(causa instanceof ErroSobrecarga) {
+				return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(causa.getMessage());
+			}
+			throw new CompletionException(causa);
+		});
 	}
 
 	@PostMapping
@@ -53,15 +112,133 @@ public class UsuarioResource {
 		}		
 	}
 	
+	// Com data, o saldo ao fim daquele dia: o snapshot mais recente mais o replay dos eventos seguintes (EventoLancamentoService)
 	@GetMapping("{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable("id") Long id) {
-		Optional<Usuario> usuario = service.obterPorId(id);
+	public ResponseEntity obterSaldo(@PathVariable("id") Long id, @RequestParam(value = "data", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate data, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(!id.equals(usuario.getId())) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
+		
+		if(data == null) {
+			BigDecimal saldo = emReais(lancamentoService.obterSaldoPorUsuario(id));
+			return ResponseEntity.ok(saldo);
+		}
+		
+		try {
+			BigDecimal saldo = emReais(eventoService.obterSaldoEm(id, inicioDoDia(data.plusDays(1))));
+			return ResponseEntity.ok(saldo);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	// Histórico das alterações dos lançamentos do usuário, do dia "de" ao dia "ate" (inclusive), um evento por linha (NDJSON) na ordem em
+	// que ocorreram, escrito conforme o cursor avança
+	@GetMapping("{id}/eventos")
+	public ResponseEntity<StreamingResponseBody> obterEventos(@PathVariable("id") Long id, @RequestParam(value = "de", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate de, 
+			@RequestParam(value = "ate", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate ate, @RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(!id.equals(usuario.getId())) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).contentType(MediaType.TEXT_PLAIN).body(saida -> saida.write(ACESSO_NEGADO.getBytes(StandardCharsets.UTF_8)));
+		}
+		Instant inicio = de == null ? null : inicioDoDia(de);
+		Instant fim = ate == null ? null : inicioDoDia(ate.plusDays(1));
+		
+		StreamingResponseBody corpo = saida -> {
+			ObjectWriter writer = objectMapper.writerFor(EventoLancamentoDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(saida)) {
+				generator.setRootValueSeparator(null);
+				eventoService.percorrer(id, inicio, fim, evento -> {
+					try {
+						writer.writeValue(generator, converter(evento));
+						generator.writeRaw('\n');
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+		return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+	}
+	
+	@GetMapping("{id}/resumo")
+	public ResponseEntity obterResumo(@PathVariable("id") Long id, @RequestParam(value = "ano", required = false) Integer ano, 
+			@RequestAttribute(JwtFilter.USUARIO_AUTENTICADO) UsuarioAutenticado usuario) {
+		if(!id.equals(usuario.getId())) {
+			return new ResponseEntity(ACESSO_NEGADO, HttpStatus.FORBIDDEN);
+		}
+		
+		int anoResumo = ano == null ? LocalDate.now().getYear() : ano;
+		List<TotalMensal> totais = resumoService.obterTotaisMensais(id, anoResumo);
+		return ResponseEntity.ok(converter(id, anoResumo, totais));
+	}
+	
+	private static EventoLancamentoDTO converter(EventoLancamento evento) {
+		return EventoLancamentoDTO.builder().id(evento.getId()).lancamento(evento.getIdLancamento()).tipo(evento.getTipo().name()).ocorridoEm(evento.getOcorridoEm())
+				.versao(evento.getVersao()).deltaSaldo(emReais(evento.getDeltaSaldoCentavos())).dados(evento.getDados()).build();
+	}
+	
+	// Dias em UTC, o fuso de ocorrido_em e ate
+	private static Instant inicioDoDia(LocalDate data) {
+		return data.atStartOfDay(ZoneOffset.UTC).toInstant();
+	}
+	
+	private ResumoAnualDTO converter(Long idUsuario, int ano, List<TotalMensal> totais) {
+		// Soma em centavos; o BigDecimal só é criado na montagem do DTO
+		Totais[] meses = new Totais[12];
+		Totais[][] mesesPorStatus = new Totais[12][StatusLancamento.values().length];
+		for(int mes = 0; mes < 12; mes++) {
+			meses[mes] = new Totais();
+			for(int status = 0; status < mesesPorStatus[mes].length; status++) {
+				mesesPorStatus[mes][status] = new Totais();
+			}
+		}
+		Totais totaisDoAno = new Totais();
+		
+		for(TotalMensal total : totais) {
+			int mes = total.getMes() - 1;
+			mesesPorStatus[mes][total.getStatus().ordinal()].somar(total);
+			if(total.getStatus() != StatusLancamento.CANCELADO) {
+				meses[mes].somar(total);
+				totaisDoAno.somar(total);
+			}
+		}
+		
+		// Os 12 meses sempre presentes, com todos os status zerados quando não há lançamento
+		List<ResumoMensalDTO> resumosMensais = IntStream.range(0, 12).mapToObj(mes -> {
+			Map<String, TotaisDTO> porStatus = new LinkedHashMap<>();
+			for(StatusLancamento status : StatusLancamento.values()) {
+				porStatus.put(status.name(), mesesPorStatus[mes][status.ordinal()].converter());
+			}
+			return ResumoMensalDTO.builder().mes(mes + 1).totais(meses[mes].converter()).porStatus(porStatus).build();
+		}).collect(Collectors.toList());
+		
+		return ResumoAnualDTO.builder().usuario(idUsuario).ano(ano).totais(totaisDoAno.converter()).meses(resumosMensais).build();
+	}
+	
+	private static class Totais {
 		
-		if(!usuario.isPresent()) {
-			return new ResponseEntity(HttpStatus.NOT_FOUND);	
+		private long receitas; // Centavos
+		private long despesas;
+		private long quantidade;
+		
+		void somar(TotalMensal total) {
+			if(total.getTipo() == TipoLancamento.RECEITA) {
+				receitas = Math.addExact(receitas, total.getTotalCentavos());
+			} else {
+				despesas = Math.addExact(despesas, total.getTotalCentavos());
+			}
+			quantidade += total.getQuantidade();
+		}
+		
+		TotaisDTO converter() {
+			return TotaisDTO.builder().receitas(emReais(receitas)).despesas(emReais(despesas)).liquido(emReais(Math.subtractExact(receitas, despesas)))
+					.quantidade(quantidade).build();
 		}
 		
-		BigDecimal saldo = lancamentoService.obterSaldoPorUsuario(id);
-		return ResponseEntity.ok(saldo);
+	}
+	
+	private static BigDecimal emReais(long centavos) {
+		return Dinheiro.deCentavos(centavos).toBigDecimal();
 	}
 }
@@ -0,0 +1,50 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.service.JwtService;
+
+@Configuration
+public class AutenticacaoConfig {
+	
+	public static final String EXECUTOR_AUTENTICACAO = "executorAutenticacao";
+	public static final int ORDEM_JWT_FILTER = Ordered.LOWEST_PRECEDENCE - 10; // Antes dos filtros que leem o usuário autenticado
+	
+	@Bean
+	public PasswordEncoder passwordEncoder(@Value("${zumpfinanc.autenticacao.bcrypt.custo:10}") int custo) {
+		return new BCryptPasswordEncoder(custo);
+	}
+	
+	// O BCrypt ocupa a CPU por dezenas de ms a cada login: roda em um pool próprio, com fila limitada, para não prender
+	// as threads do Tomcat. A fila é proporcional às threads, o que limita a espera a alguns hashes; com ela cheia o envio
+	// é rejeitado na hora (AbortPolicy) e a API responde 429
+	@Bean(name = EXECUTOR_AUTENTICACAO, destroyMethod = "shutdown")
+	public ExecutorService executorAutenticacao(@Value("${zumpfinanc.autenticacao.threads:0}") int threads, 
+			@Value("${zumpfinanc.autenticacao.fila-por-thread:4}") int filaPorThread) {
+		int quantidadeThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		return new ThreadPoolExecutor(quantidadeThreads, quantidadeThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(quantidadeThreads * filaPorThread), 
+				new CustomizableThreadFactory("autenticacao-"), new ThreadPoolExecutor.AbortPolicy());
+	}
+	
+	@Bean
+	public FilterRegistrationBean<JwtFilter> jwtFilter(JwtService jwtService) {
+		FilterRegistrationBean<JwtFilter> registro = new FilterRegistrationBean<>(new JwtFilter(jwtService));
+		registro.addUrlPatterns("/api/*");
+		registro.setOrder(ORDEM_JWT_FILTER);
+		return registro;
+	}
+
+}
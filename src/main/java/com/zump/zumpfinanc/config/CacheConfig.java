@@ -0,0 +1,43 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+	
+	public static final String USUARIOS = "usuarios";
+	public static final String USUARIOS_POR_EMAIL = "usuariosPorEmail";
+	public static final String LANCAMENTOS = "lancamentos";
+	public static final String SALDOS = "saldos";
+	public static final String IDEMPOTENCIA = "idempotencia"; // Respostas guardadas por Idempotency-Key (IdempotenciaFilter)
+	
+	// Limite de tamanho e de tempo sempre presentes; recordStats alimenta as métricas cache.gets/cache.evictions do actuator
+	private static final String ESPECIFICACAO_PADRAO = "maximumSize=10000,expireAfterWrite=10m,recordStats";
+	
+	@Bean
+	public CacheManager cacheManager(Environment environment) {
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(Stream.of(USUARIOS, USUARIOS_POR_EMAIL, LANCAMENTOS, SALDOS, IDEMPOTENCIA)
+				.map(nome -> new CaffeineCache(nome, Caffeine.from(environment.getProperty("zumpfinanc.cache." + nome, ESPECIFICACAO_PADRAO)).build()))
+				.collect(Collectors.toList()));
+		cacheManager.initializeCaches();
+		
+		// Dentro de uma transação, put e evict só são aplicados depois do commit: uma leitura concorrente
+		// não volta a guardar no cache o valor de antes da alteração
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zump.zumpfinanc.api.filtro.ConsultasFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class ConsultasConfig {
+	
+	@Bean
+	public FilterRegistrationBean<ConsultasFilter> consultasFilter(MeterRegistry registry, @Value("${zumpfinanc.consultas.limite:10}") int limite, 
+			@Value("${zumpfinanc.consultas.repeticoes:3}") int repeticoes) {
+		FilterRegistrationBean<ConsultasFilter> registro = new FilterRegistrationBean<>(new ConsultasFilter(registry, limite, repeticoes));
+		registro.addUrlPatterns("/api/*");
+		return registro;
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Comandos SQL de uma requisição, agrupados pela assinatura; thread-safe por causa do modo ASSINCRONO
+public class ConsultasExecutadas {
+	
+	private static final Pattern TEXTO = Pattern.compile("'(?:[^']|'')*'");
+	private static final Pattern NUMERO = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+	private static final Pattern LISTA_IN = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+	private static final Pattern ESPACOS = Pattern.compile("\\s+");
+	
+	private final Map<String, LongAdder> quantidadePorAssinatura = new ConcurrentHashMap<>();
+	private final LongAdder total = new LongAdder();
+	
+	public void registrar(String sql) {
+		quantidadePorAssinatura.computeIfAbsent(assinatura(sql), assinatura -> new LongAdder()).increment();
+		total.increment();
+	}
+	
+	public int getTotal() {
+		return total.intValue();
+	}
+	
+	public Map<String, Integer> getQuantidadePorAssinatura() { // Cópia do momento
+		return quantidadePorAssinatura.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, entrada -> entrada.getValue().intValue(), Integer::sum, LinkedHashMap::new));
+	}
+	
+	// O mesmo comando repetido várias vezes na requisição é o sinal típico de N+1 (uma consulta por item de uma lista)
+	public Map<String, Integer> repetidas(int minimo) {
+		Map<String, Integer> repetidas = getQuantidadePorAssinatura();
+		repetidas.values().removeIf(quantidade -> quantidade < minimo);
+		return repetidas;
+	}
+	
+	public String descrever() {
+		return getQuantidadePorAssinatura().entrySet().stream()
+				.map(entrada -> entrada.getValue() + "x " + entrada.getKey())
+				.collect(Collectors.joining("\n  ", "  ", ""));
+	}
+	
+	// Mesma consulta com parâmetros diferentes tem a mesma assinatura: literais viram "?" e listas do IN viram um só "?"
+	public static String assinatura(String sql) {
+		String assinatura = ESPACOS.matcher(sql.trim().toLowerCase()).replaceAll(" ");
+		assinatura = TEXTO.matcher(assinatura).replaceAll("?");
+		assinatura = NUMERO.matcher(assinatura).replaceAll("?");
+		return LISTA_IN.matcher(assinatura).replaceAll("in (?)");
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.concurrent.Callable;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import com.zump.zumpfinanc.api.filtro.ConsultasFilter;
+
+// Conta os comandos SQL do Hibernate (statement_inspector) na thread, entre iniciar() ou continuar() e encerrar()
+public class ContadorConsultas implements StatementInspector {
+	
+	private static final ThreadLocal<ConsultasExecutadas> ATUAL = new ThreadLocal<>();
+	
+	public static void iniciar() {
+		ATUAL.set(new ConsultasExecutadas());
+	}
+	
+	// Continua em outra thread a contagem de uma requisição: handler no executor de requisições e despacho assíncrono
+	public static void continuar(ConsultasExecutadas consultas) {
+		ATUAL.set(consultas);
+	}
+	
+	public static ConsultasExecutadas encerrar() {
+		ConsultasExecutadas consultas = ATUAL.get();
+		ATUAL.remove();
+		return consultas != null ? consultas : new ConsultasExecutadas();
+	}
+
+	@Override
+	public String inspect(String sql) {
+		ConsultasExecutadas consultas = ATUAL.get();
+		if(consultas != null) {
+			consultas.registrar(sql);
+		}
+		return sql;
+	}
+
+	// Registrado pelo ExecucaoConfig: leva para a thread do executor a contagem que o ConsultasFilter abriu na requisição
+	public static class Propagacao implements CallableProcessingInterceptor {
+		
+		@Override
+		public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+			ConsultasExecutadas consultas = (ConsultasExecutadas) request.getAttribute(ConsultasFilter.CONSULTAS_EXECUTADAS, RequestAttributes.SCOPE_REQUEST);
+			if(consultas != null) {
+				continuar(consultas);
+			}
+		}
+		
+		@Override
+		public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+			ATUAL.remove();
+		}
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.zump.zumpfinanc.api.resource.LancamentoResource;
+
+// Modo ASSINCRONO: handlers no executor de requisições; sem vaga a requisição responde 429 na hora
+public class ExecucaoAssincronaHandlerAdapter extends RequestMappingHandlerAdapter {
+
+	public static final String SOBRECARGA = "Servidor sobrecarregado, tente novamente em instantes.";
+	public static final String TERMINO_HANDLER = ExecucaoAssincronaHandlerAdapter.class.getName() + ".termino"; // CompletableFuture concluído quando o handler termina
+
+	private static final String PACOTE_RESOURCES = ClassUtils.getPackageName(LancamentoResource.class);
+
+	private final AsyncTaskExecutor executor;
+	private final Semaphore vagas;
+	private final long timeout;
+
+	public ExecucaoAssincronaHandlerAdapter(AsyncTaskExecutor executor, int vagas, long timeout) {
+		this.executor = executor;
+		this.vagas = new Semaphore(vagas);
+		this.timeout = timeout;
+	}
+
+	@Override
+	protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+		return executarNoExecutor(handlerMethod) ? new HandlerAssincrono(handlerMethod) : super.createInvocableHandlerMethod(handlerMethod);
+	}
+
+	// Os handlers que já devolvem CompletableFuture (login) ou corpo em fluxo (exportação) e os controllers do Spring (erro, actuator) ficam como estão
+	private static boolean executarNoExecutor(HandlerMethod handlerMethod) {
+		if(!ClassUtils.getPackageName(handlerMethod.getBeanType()).equals(PACOTE_RESOURCES) || !ResponseEntity.class.equals(handlerMethod.getReturnType().getParameterType())) {
+			return false;
+		}
+		Class<?> corpo = ResolvableType.forMethodParameter(handlerMethod.getReturnType()).getGeneric(0).resolve();
+		return corpo == null || !StreamingResponseBody.class.isAssignableFrom(corpo);
+	}
+
+	private Object executar(Callable<Object> handler) {
+		if(!vagas.tryAcquire()) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(SOBRECARGA);
+		}
+
+		// A vaga só volta quando o handler termina: no timeout a resposta (503) sai antes, mas um handler já em execução segue ocupando
+		// thread e conexão (a interrupção não para uma chamada JDBC). Se ele nem chegou a rodar (timeout na fila), a tarefa é descartada
+		// e a vaga volta no encerramento da requisição
+		CompletableFuture<Void> termino = new CompletableFuture<>();
+		termino.whenComplete((resultado, erro) -> vagas.release());
+		RequestContextHolder.currentRequestAttributes().setAttribute(TERMINO_HANDLER, termino, RequestAttributes.SCOPE_REQUEST);
+
+		AtomicBoolean iniciado = new AtomicBoolean();
+		WebAsyncTask<Object> tarefa = new WebAsyncTask<>(timeout, executor, () -> {
+			if(!iniciado.compareAndSet(false, true)) {
+				return null; // Requisição já encerrada enquanto o handler esperava na fila
+			}
+			try {
+				return handler.call();
+			} finally {
+				termino.complete(null);
+			}
+		});
+		tarefa.onCompletion(() -> {
+			if(iniciado.compareAndSet(false, true)) {
+				termino.complete(null);
+			}
+		});
+		return tarefa;
+	}
+
+	private class HandlerAssincrono extends ServletInvocableHandlerMethod {
+
+		HandlerAssincrono(HandlerMethod handlerMethod) {
+			super(handlerMethod);
+		}
+
+		// Chamado depois da leitura dos argumentos, na thread do Tomcat: só a chamada ao resource vai para o executor.
+		// O WebAsyncTask devolvido é tratado pelo Spring MVC como um Callable (interceptors do EntityManager e do ContadorConsultas incluídos)
+		@Override
+		protected Object doInvoke(Object... args) throws Exception {
+			return executar(() -> super.doInvoke(args));
+		}
+	}
+
+}
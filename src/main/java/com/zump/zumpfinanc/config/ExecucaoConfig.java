@@ -0,0 +1,59 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.DelegatingWebMvcConfiguration;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+// Configuração do Spring MVC que escolhe onde rodam os handlers dos resources (zumpfinanc.execucao.modo)
+@Configuration
+public class ExecucaoConfig extends DelegatingWebMvcConfiguration {
+
+	public static final String EXECUTOR_REQUISICOES = "executorRequisicoes";
+
+	private final ModoExecucao modo;
+	private final int threads;
+	private final int filaPorThread;
+	private final long timeout;
+
+	// threads=0 usa o tamanho do pool de conexões: mais threads que conexões só trocariam a espera na fila do executor pela espera no Hikari,
+	// segurando a memória e o contexto de cada requisição
+	public ExecucaoConfig(@Value("${zumpfinanc.execucao.modo:SINCRONO}") ModoExecucao modo, @Value("${zumpfinanc.execucao.threads:0}") int threads,
+			@Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexoes, @Value("${zumpfinanc.execucao.fila-por-thread:4}") int filaPorThread,
+			@Value("${zumpfinanc.execucao.timeout-segundos:30}") int timeoutSegundos) {
+		this.modo = modo;
+		this.threads = threads > 0 ? threads : conexoes;
+		this.filaPorThread = filaPorThread;
+		this.timeout = TimeUnit.SECONDS.toMillis(timeoutSegundos);
+	}
+
+	// A fila não tem limite próprio: quem limita são as vagas do adaptador (threads + fila), conferidas antes do envio
+	@Bean(name = EXECUTOR_REQUISICOES, destroyMethod = "shutdown")
+	public ExecutorService executorRequisicoes() {
+		return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new CustomizableThreadFactory("requisicao-"));
+	}
+
+	@Override
+	protected RequestMappingHandlerAdapter createRequestMappingHandlerAdapter() {
+		if(modo == ModoExecucao.SINCRONO) {
+			return super.createRequestMappingHandlerAdapter();
+		}
+		return new ExecucaoAssincronaHandlerAdapter(new TaskExecutorAdapter(executorRequisicoes()), threads * (1 + filaPorThread), timeout);
+	}
+
+	@Override
+	protected void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		super.configureAsyncSupport(configurer);
+		configurer.registerCallableInterceptors(new ContadorConsultas.Propagacao());
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.zump.zumpfinanc.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zump.zumpfinanc.api.filtro.IdempotenciaFilter;
+
+@Configuration
+public class IdempotenciaConfig {
+	
+	// As respostas ficam no cache "idempotencia" (Caffeine): a expiração das chaves vem de zumpfinanc.cache.idempotencia
+	@Bean
+	public FilterRegistrationBean<IdempotenciaFilter> idempotenciaFilter(CacheManager cacheManager) {
+		FilterRegistrationBean<IdempotenciaFilter> registro = new FilterRegistrationBean<>(new IdempotenciaFilter(cacheManager.getCache(CacheConfig.IDEMPOTENCIA)));
+		registro.addUrlPatterns("/api/lancamentos");
+		registro.setOrder(AutenticacaoConfig.ORDEM_JWT_FILTER + 1);
+		return registro;
+	}
+
+}
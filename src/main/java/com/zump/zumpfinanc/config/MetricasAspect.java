@@ -0,0 +1,95 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Tempo de cada chamada aos serviços e às consultas de lançamentos
+@Aspect
+@Component
+public class MetricasAspect {
+
+	public static final String TEMPO_SERVICO = "zumpfinanc.servico";
+	public static final String TEMPO_REPOSITORIO = "zumpfinanc.repositorio";
+	public static final String ERROS = "zumpfinanc.erros";
+
+	private static final String NENHUMA = "none";
+
+	private MeterRegistry registry;
+
+	// Um serviço que chama outro propaga a mesma exceção: ela só é contada ao sair da chamada mais externa da thread
+	private ThreadLocal<int[]> profundidade = ThreadLocal.withInitial(() -> new int[1]);
+
+	public MetricasAspect(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Around("within(com.zump.zumpfinanc.service.impl..*) && execution(public * *(..))")
+	public Object medirServico(ProceedingJoinPoint chamada) throws Throwable {
+		int[] nivel = profundidade.get();
+		nivel[0]++;
+		try {
+			return medir(TEMPO_SERVICO, "servico", nomeServico(chamada), chamada);
+		} catch (RegraNegocioException | ErroAutenticacao e) {
+			if(nivel[0] == 1) {
+				registry.counter(ERROS, "tipo", e.getClass().getSimpleName(), "chave", chave(e.getMessage())).increment();
+			}
+			throw e;
+		} finally {
+			nivel[0]--;
+		}
+	}
+
+	@Around("this(com.zump.zumpfinanc.model.repository.LancamentoRepository) && execution(public * *(..))")
+	public Object medirLancamentoRepository(ProceedingJoinPoint chamada) throws Throwable {
+		return medir(TEMPO_REPOSITORIO, "repositorio", "LancamentoRepository", chamada);
+	}
+
+	@Around("execution(public * com.zump.zumpfinanc.model.repository.LancamentoConsultaRepository.*(..))")
+	public Object medirLancamentoConsultaRepository(ProceedingJoinPoint chamada) throws Throwable {
+		return medir(TEMPO_REPOSITORIO, "repositorio", "LancamentoConsultaRepository", chamada);
+	}
+
+	private Object medir(String nome, String tipo, String classe, ProceedingJoinPoint chamada) throws Throwable {
+		String excecao = NENHUMA;
+		long inicio = System.nanoTime();
+		try {
+			return chamada.proceed();
+		} catch (Throwable e) {
+			excecao = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			Timer.builder(nome)
+				.tag(tipo, classe)
+				.tag("metodo", chamada.getSignature().getName())
+				.tag("excecao", excecao)
+				.register(registry)
+				.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	// LancamentoServiceImpl -> LancamentoService, o mesmo nome da interface usada pelos resources
+	private static String nomeServico(ProceedingJoinPoint chamada) {
+		String nome = chamada.getSignature().getDeclaringType().getSimpleName();
+		return nome.endsWith("Impl") ? nome.substring(0, nome.length() - 4) : nome;
+	}
+
+	// A chave é a mensagem sem a parte variável: "Extrato inválido: linha 3 ..." conta como "Extrato inválido"
+	static String chave(String mensagem) {
+		if(mensagem == null) {
+			return NENHUMA;
+		}
+		int separador = mensagem.indexOf(':');
+		return (separador < 0 ? mensagem : mensagem.substring(0, separador)).trim();
+	}
+
+}
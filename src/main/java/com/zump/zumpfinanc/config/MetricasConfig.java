@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+@Configuration
+public class MetricasConfig {
+	
+	// Fila, threads ativas e tarefas concluídas do pool de login (executor.queued{name=autenticacao}): mostra quando o 429 está perto.
+	// O pool de conexões (hikaricp.connections.*) e os caches (cache.*) já são registrados pelo actuator
+	@Bean
+	public MeterBinder metricasExecutorAutenticacao(@Qualifier(AutenticacaoConfig.EXECUTOR_AUTENTICACAO) ExecutorService executor) {
+		return registry -> new ExecutorServiceMetrics(executor, "autenticacao", Tags.empty()).bindTo(registry);
+	}
+
+}
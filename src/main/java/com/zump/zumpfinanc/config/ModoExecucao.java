@@ -0,0 +1,8 @@
+package com.zump.zumpfinanc.config;
+
+public enum ModoExecucao { // zumpfinanc.execucao.modo: onde rodam os handlers dos resources (ExecucaoConfig)
+	
+	SINCRONO,
+	ASSINCRONO
+
+}
@@ -0,0 +1,52 @@
+package com.zump.zumpfinanc.config;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zump.zumpfinanc.service.outbox.DestinoOutbox;
+import com.zump.zumpfinanc.service.outbox.DestinoOutboxArquivo;
+import com.zump.zumpfinanc.service.outbox.DestinoOutboxMemoria;
+
+@Configuration
+public class OutboxConfig {
+	
+	public static final String EXECUTOR_OUTBOX = "executorOutbox";
+	
+	// O relay publica no arquivo (NDJSON) de zumpfinanc.outbox.arquivo, lido pelos serviços internos. A reserva do relay passa de um nó
+	// para outro, então o arquivo precisa estar num armazenamento compartilhado por todos os nós: num disco local cada nó publicaria num
+	// arquivo diferente. Sem a propriedade a aplicação não sobe, para não descartar as mensagens
+	@Bean(destroyMethod = "close")
+	@Profile("!test")
+	public DestinoOutbox destinoOutboxArquivo(@Value("${zumpfinanc.outbox.arquivo:}") String arquivo, ObjectMapper objectMapper) throws IOException {
+		if(arquivo.trim().isEmpty()) {
+			throw new IllegalStateException("Informe zumpfinanc.outbox.arquivo, num armazenamento compartilhado pelos nós, para o relay do outbox publicar as mensagens.");
+		}
+		return new DestinoOutboxArquivo(Paths.get(arquivo), objectMapper);
+	}
+	
+	// Só nos testes: as mensagens publicadas ficam na memória do nó (as últimas memoria.capacidade) e se perdem ao reiniciar
+	@Bean
+	@Profile("test")
+	public DestinoOutbox destinoOutboxMemoria(@Value("${zumpfinanc.outbox.memoria.capacidade:10000}") int capacidade) {
+		return new DestinoOutboxMemoria(capacidade);
+	}
+	
+	// Acorda as requisições do feed que esperavam uma mudança: cada uma consulta o outbox de novo nestas threads, poucas para não
+	// disputar o pool de conexões com as requisições comuns
+	@Bean(name = EXECUTOR_OUTBOX, destroyMethod = "shutdown")
+	public ExecutorService executorOutbox(@Value("${zumpfinanc.outbox.feed.threads:2}") int threads) {
+		return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new CustomizableThreadFactory("outbox-"));
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zump.zumpfinanc.api.filtro.JwtFilterReativo;
+import com.zump.zumpfinanc.api.resource.ConsultaReativaResource;
+import com.zump.zumpfinanc.service.JwtService;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+// Profile "reativo": R2DBC e WebFlux montados aqui, já que o Spring Boot 2.2 não os configura ao lado do Spring MVC
+@Configuration
+@Profile(ReativoConfig.PERFIL)
+public class ReativoConfig {
+
+	public static final String PERFIL = "reativo";
+	public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	// r2dbc:pool:postgresql://... usa o r2dbc-pool; usuário e senha são os mesmos do JDBC
+	@Bean
+	public ConnectionFactory connectionFactoryReativa(@Value("${zumpfinanc.reativo.r2dbc.url}") String url,
+			@Value("${spring.datasource.username}") String usuario, @Value("${spring.datasource.password}") String senha) {
+		return ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+				.option(ConnectionFactoryOptions.USER, usuario).option(ConnectionFactoryOptions.PASSWORD, senha).build());
+	}
+
+	@Bean
+	public DatabaseClient databaseClient(ConnectionFactory connectionFactoryReativa) {
+		return DatabaseClient.create(connectionFactoryReativa);
+	}
+
+	// Os mesmos caminhos do Spring MVC, exigindo o mesmo token
+	@Bean
+	public RouterFunction<ServerResponse> rotasReativas(ConsultaReativaResource resource, JwtService jwtService) {
+		return RouterFunctions.route(RequestPredicates.GET("/api/lancamentos"), resource::buscar)
+				.andRoute(RequestPredicates.GET("/api/usuarios/{id}/saldo"), resource::obterSaldo)
+				.filter(new JwtFilterReativo(jwtService));
+	}
+
+	// Jackson com o ObjectMapper da aplicação; NDJSON e stream+json são escritos um objeto por linha, conforme os itens chegam
+	@Bean(destroyMethod = "disposeNow")
+	public DisposableServer servidorReativo(RouterFunction<ServerResponse> rotasReativas, ObjectMapper objectMapper, @Value("${zumpfinanc.reativo.porta:8081}") int porta) {
+		Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"), NDJSON);
+		encoder.setStreamingMediaTypes(Arrays.asList(NDJSON, MediaType.APPLICATION_STREAM_JSON));
+		HandlerStrategies estrategias = HandlerStrategies.builder().codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(encoder)).build();
+
+		return HttpServer.create().port(porta).handle(new ReactorHttpHandlerAdapter(RouterFunctions.toHttpHandler(rotasReativas, estrategias))).bindNow();
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.zump.zumpfinanc.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Réplicas de leitura, habilitadas com zumpfinanc.replicas.urls
+@Configuration
+@ConditionalOnProperty("zumpfinanc.replicas.urls")
+public class ReplicaConfig {
+
+	// O roteamento e os pools (primária e réplicas) são montados aqui dentro, e não como beans: o Spring Boot inicializa a base a cada
+	// DataSource criado, pedindo o DataSource principal, que ainda estaria em criação. A conexão só é pedida ao roteamento no primeiro
+	// comando SQL (LazyConnectionDataSourceProxy), quando a transação já sabe se é readOnly.
+	// O usuário lê da primária por atraso-maximo + verificacao depois de gravar: é o atraso que uma réplica no rodízio pode ter,
+	// somado ao tempo que a verificação leva para tirá-la de lá
+	@Bean
+	@Primary
+	public DataSource dataSource(DataSourceProperties properties, Environment environment, @Value("${zumpfinanc.replicas.urls}") List<String> urls,
+			@Value("${zumpfinanc.replicas.username:${spring.datasource.username}}") String usuario, @Value("${zumpfinanc.replicas.password:${spring.datasource.password}}") String senha,
+			@Value("${zumpfinanc.replicas.maximum-pool-size:10}") int conexoes, @Value("${zumpfinanc.replicas.timeout-conexao-ms:1000}") long timeoutConexao,
+			@Value("${zumpfinanc.replicas.consulta-atraso:}") String consultaAtraso,
+			@Value("${zumpfinanc.replicas.atraso-maximo-ms:5000}") long atrasoMaximo, @Value("${zumpfinanc.replicas.verificacao-ms:5000}") long verificacao) {
+		HikariDataSource primaria = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primaria));
+
+		List<RoteamentoDataSource.Replica> replicas = new ArrayList<>();
+		for(int i = 0; i < urls.size(); i++) {
+			HikariDataSource pool = new HikariDataSource();
+			pool.setPoolName("replica-" + i);
+			pool.setJdbcUrl(urls.get(i).trim());
+			pool.setUsername(usuario);
+			pool.setPassword(senha);
+			pool.setMaximumPoolSize(conexoes);
+			pool.setReadOnly(true);
+			pool.setConnectionTimeout(timeoutConexao); // Réplica que não entrega conexão logo cede a leitura para a primária
+			pool.setInitializationFailTimeout(-1); // A aplicação sobe mesmo com a réplica fora do ar
+			replicas.add(new RoteamentoDataSource.Replica(pool.getPoolName(), pool));
+		}
+
+		return new LazyConnectionDataSourceProxy(new RoteamentoDataSource(primaria, replicas, consultaAtraso.isEmpty() ? RoteamentoDataSource.CONSULTA_ATRASO_POSTGRESQL : consultaAtraso,
+				atrasoMaximo, Duration.ofMillis(atrasoMaximo + verificacao)));
+	}
+
+	// Exposto depois do DataSource principal, para a verificação agendada das réplicas e o fechamento dos pools
+	@Bean(destroyMethod = "close")
+	public RoteamentoDataSource roteamentoDataSource(DataSource dataSource) {
+		return (RoteamentoDataSource) ((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource();
+	}
+
+	// O Spring configura o Hibernate para segurar a conexão até o fim do EntityManager, que com o open-in-view dura a requisição toda:
+	// a primeira transação decidiria a conexão das seguintes. Liberada ao fim de cada transação, cada uma é roteada de novo
+	@Bean
+	public HibernatePropertiesCustomizer conexaoPorTransacao() {
+		return propriedades -> propriedades.put(AvailableSettings.CONNECTION_HANDLING, PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+	}
+
+	// Atraso medido em cada réplica (zumpfinanc.replicas.atraso{replica}), -1 quando a última verificação falhou, e os pools em
+	// hikaricp.connections{pool}: o actuator só registra os pools que são beans
+	@Bean
+	public MeterBinder metricasReplicas(RoteamentoDataSource roteamentoDataSource) {
+		return meterRegistry -> {
+			MicrometerMetricsTrackerFactory metricasPool = new MicrometerMetricsTrackerFactory(meterRegistry);
+			((HikariDataSource) roteamentoDataSource.getPrimaria()).setMetricsTrackerFactory(metricasPool);
+			for(RoteamentoDataSource.Replica replica : roteamentoDataSource.getReplicas()) {
+				((HikariDataSource) replica.getDataSource()).setMetricsTrackerFactory(metricasPool);
+				Gauge.builder("zumpfinanc.replicas.atraso", replica, RoteamentoDataSource.Replica::getAtrasoMs).tag("replica", replica.getNome())
+					.baseUnit("milliseconds").register(meterRegistry);
+			}
+		};
+	}
+
+}
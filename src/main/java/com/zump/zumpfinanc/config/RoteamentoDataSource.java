@@ -0,0 +1,221 @@
+package com.zump.zumpfinanc.config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+// Transações readOnly nas réplicas, em rodízio, e as demais na primária; lido através do LazyConnectionDataSourceProxy
+@Slf4j
+public class RoteamentoDataSource extends AbstractDataSource implements Closeable {
+
+	// Em segundos; 0 quando a réplica já aplicou tudo o que recebeu (sem escrita na primária o replay_timestamp fica parado)
+	public static final String CONSULTA_ATRASO_POSTGRESQL = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+			+ "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+	private static final int TIMEOUT_VERIFICACAO_SEGUNDOS = 2;
+
+	private static final ThreadLocal<Boolean> LEITURA_NA_PRIMARIA = new ThreadLocal<>();
+
+	private final DataSource primaria;
+	private final List<Replica> replicas;
+	private final String consultaAtraso;
+	private final long atrasoMaximoMs;
+	private final Cache<Long, Boolean> escritasRecentes; // Usuários que gravaram há menos que a janela de aderência
+	private final AtomicInteger proxima = new AtomicInteger();
+
+	public RoteamentoDataSource(DataSource primaria, List<Replica> replicas, String consultaAtraso, long atrasoMaximoMs, Duration aderencia) {
+		this.primaria = primaria;
+		this.replicas = replicas;
+		this.consultaAtraso = consultaAtraso;
+		this.atrasoMaximoMs = atrasoMaximoMs;
+		this.escritasRecentes = Caffeine.newBuilder().expireAfterWrite(aderencia).maximumSize(100000).build();
+		verificarReplicas();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			registrarEscrita();
+			return primaria.getConnection();
+		}
+
+		if(LEITURA_NA_PRIMARIA.get() != null) {
+			return primaria.getConnection();
+		}
+
+		// Leia o que escreveu: depois de gravar, o usuário lê da primária até as réplicas poderem ter alcançado a escrita.
+		// Só vale neste nó e para as escritas feitas em requisições do próprio usuário (jobs e outros nós não marcam ninguém)
+		Long usuario = usuarioDaRequisicao();
+		if(usuario != null && escritasRecentes.getIfPresent(usuario) != null) {
+			return primaria.getConnection();
+		}
+
+		int inicio = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+		for(int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get((inicio + i) % replicas.size());
+			if(!replica.disponivel) {
+				continue;
+			}
+			try {
+				return replica.dataSource.getConnection();
+			} catch (SQLTransientConnectionException e) { // Pool da réplica esgotado: a réplica continua no rodízio
+				log.debug("Sem conexão livre na réplica {}.", replica.nome);
+			} catch (SQLException e) {
+				replica.indisponibilizar(e);
+			}
+		}
+		return primaria.getConnection(); // Nenhuma réplica disponível e em dia
+	}
+
+	// Leituras que alimentam os caches (saldo, lançamento e usuário por id): o valor lido fica em cache para todos os leitores do nó
+	// por minutos, então não pode vir de uma réplica atrasada. A conexão é pedida dentro da leitura (LazyConnectionDataSourceProxy),
+	// mesmo que a transação readOnly tenha começado antes
+	public static <T> T lerDaPrimaria(Supplier<T> leitura) {
+		if(LEITURA_NA_PRIMARIA.get() != null) {
+			return leitura.get();
+		}
+		LEITURA_NA_PRIMARIA.set(Boolean.TRUE);
+		try {
+			return leitura.get();
+		} finally {
+			LEITURA_NA_PRIMARIA.remove();
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		throw new UnsupportedOperationException("Usuário e senha são os de cada pool.");
+	}
+
+	// Réplica fora do ar ou atrasada além do máximo sai do rodízio até a próxima verificação que a encontrar em dia
+	@Scheduled(fixedDelayString = "${zumpfinanc.replicas.verificacao-ms:5000}")
+	public void verificarReplicas() {
+		for(Replica replica : replicas) {
+			try (Connection conexao = replica.dataSource.getConnection(); Statement comando = conexao.createStatement()) {
+				comando.setQueryTimeout(TIMEOUT_VERIFICACAO_SEGUNDOS);
+				try (ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+					resultado.next();
+					Number segundos = (Number) resultado.getObject(1);
+					replica.atualizar(segundos == null ? 0 : Math.round(segundos.doubleValue() * 1000), atrasoMaximoMs);
+				}
+			} catch (SQLException e) {
+				replica.indisponibilizar(e);
+			}
+		}
+	}
+
+	public DataSource getPrimaria() {
+		return primaria;
+	}
+
+	public List<Replica> getReplicas() {
+		return replicas;
+	}
+
+	@Override
+	public void close() {
+		if(primaria instanceof Closeable) {
+			try {
+				((Closeable) primaria).close();
+			} catch (Exception e) {
+				log.warn("Falha ao fechar o pool da primária.", e);
+			}
+		}
+		for(Replica replica : replicas) {
+			if(replica.dataSource instanceof Closeable) {
+				try {
+					((Closeable) replica.dataSource).close();
+				} catch (Exception e) {
+					log.warn("Falha ao fechar o pool da réplica {}.", replica.nome, e);
+				}
+			}
+		}
+	}
+
+	// Marcado no commit, e não na entrega da conexão: a janela de aderência conta a partir de quando a escrita ficou visível
+	private void registrarEscrita() {
+		if(!TransactionSynchronizationManager.isActualTransactionActive() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		Long usuario = usuarioDaRequisicao();
+		if(usuario != null) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					escritasRecentes.put(usuario, Boolean.TRUE);
+				}
+			});
+		}
+	}
+
+	// A sessão é o usuário do token; no modo ASSINCRONO os atributos da requisição também chegam à thread do executor
+	private static Long usuarioDaRequisicao() {
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		if(atributos == null) {
+			return null;
+		}
+		Object usuario = atributos.getAttribute(JwtFilter.USUARIO_AUTENTICADO, RequestAttributes.SCOPE_REQUEST);
+		return usuario instanceof UsuarioAutenticado ? ((UsuarioAutenticado) usuario).getId() : null;
+	}
+
+	@Getter
+	public static class Replica {
+
+		private final String nome;
+		private final DataSource dataSource;
+		private volatile boolean disponivel;
+		private volatile long atrasoMs = -1; // -1 enquanto não há verificação bem-sucedida
+
+		public Replica(String nome, DataSource dataSource) {
+			this.nome = nome;
+			this.dataSource = dataSource;
+		}
+
+		void atualizar(long atrasoMs, long atrasoMaximoMs) {
+			boolean emDia = atrasoMs <= atrasoMaximoMs;
+			if(emDia != disponivel) {
+				if(emDia) {
+					log.info("Réplica {} no rodízio de leitura (atraso de {} ms).", nome, atrasoMs);
+				} else {
+					log.warn("Réplica {} fora do rodízio de leitura: atraso de {} ms, acima do máximo de {} ms.", nome, atrasoMs, atrasoMaximoMs);
+				}
+			}
+			this.atrasoMs = atrasoMs;
+			this.disponivel = emDia;
+		}
+
+		void indisponibilizar(SQLException e) {
+			if(disponivel) {
+				log.warn("Réplica {} fora do rodízio de leitura: {}", nome, e.getMessage());
+			}
+			this.disponivel = false;
+			this.atrasoMs = -1;
+		}
+
+	}
+
+}
@@ -0,0 +1,8 @@
+package com.zump.zumpfinanc.exception;
+
+public class ErroConflito extends RuntimeException {
+
+	public ErroConflito(String mensagem) {
+		super(mensagem);
+	}
+}
@@ -0,0 +1,8 @@
+package com.zump.zumpfinanc.exception;
+
+public class ErroSobrecarga extends RuntimeException {
+
+	public ErroSobrecarga(String mensagem) {
+		super(mensagem);
+	}
+}
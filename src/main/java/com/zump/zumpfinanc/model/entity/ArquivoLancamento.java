@@ -0,0 +1,30 @@
+package com.zump.zumpfinanc.model.entity;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "arquivo_lancamento", schema = "financas")
+public class ArquivoLancamento { // Ano arquivado: a partição saiu de financas.lancamento e o ano não recebe mais lançamentos
+
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@Column(name = "arquivado_em")
+	private Instant arquivadoEm;
+	
+}
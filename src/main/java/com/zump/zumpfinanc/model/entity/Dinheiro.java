@@ -0,0 +1,93 @@
+package com.zump.zumpfinanc.model.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+// Valor monetário exato em unidades mínimas da moeda (centavos para BRL)
+@Getter
+@ToString
+@Embeddable
+@EqualsAndHashCode
+@NoArgsConstructor(access = AccessLevel.PROTECTED) // Usado pelo Hibernate
+public class Dinheiro implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String MOEDA_PADRAO = "BRL";
+
+	@Column(name = "valor_centavos")
+	private long centavos;
+
+	@Column(name = "moeda", length = 3)
+	private String moeda;
+
+	private Dinheiro(long centavos, String moeda) {
+		this.centavos = centavos;
+		this.moeda = moeda;
+	}
+
+	public static Dinheiro deCentavos(long centavos, String moeda) {
+		casasDecimais(moeda); // Confere o código da moeda
+		return new Dinheiro(centavos, moeda);
+	}
+
+	public static Dinheiro deCentavos(long centavos) {
+		return new Dinheiro(centavos, MOEDA_PADRAO);
+	}
+
+	public static Dinheiro de(BigDecimal valor) {
+		return de(valor, MOEDA_PADRAO);
+	}
+
+	// Mais casas decimais do que a moeda tem (10.001 em BRL) ou um valor fora do long é IllegalArgumentException, nunca arredondamento
+	public static Dinheiro de(BigDecimal valor, String moeda) {
+		try {
+			return new Dinheiro(valor.setScale(casasDecimais(moeda), RoundingMode.UNNECESSARY).unscaledValue().longValueExact(), moeda);
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Valor inválido para a moeda " + moeda + ": " + valor.toPlainString(), e);
+		}
+	}
+
+	public BigDecimal toBigDecimal() {
+		return BigDecimal.valueOf(centavos, casasDecimais(moeda));
+	}
+
+	public Dinheiro somar(Dinheiro outro) {
+		if(!moeda.equals(outro.moeda)) {
+			throw new IllegalArgumentException("Não é possível somar " + moeda + " com " + outro.moeda + ".");
+		}
+		return new Dinheiro(Math.addExact(centavos, outro.centavos), moeda);
+	}
+
+	public int signum() {
+		return Long.signum(centavos);
+	}
+
+	public static int casasDecimais(String moeda) {
+		if(MOEDA_PADRAO.equals(moeda)) {
+			return 2;
+		}
+		int casas;
+		try {
+			casas = Currency.getInstance(moeda).getDefaultFractionDigits();
+		} catch (NullPointerException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Moeda inválida: " + moeda, e);
+		}
+		if(casas < 0) { // Ex.: XAU (ouro) não tem unidade mínima
+			throw new IllegalArgumentException("Moeda sem unidade mínima: " + moeda);
+		}
+		return casas;
+	}
+
+}
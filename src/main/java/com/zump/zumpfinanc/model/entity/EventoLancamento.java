@@ -0,0 +1,60 @@
+package com.zump.zumpfinanc.model.entity;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "evento_lancamento", schema = "financas", indexes = {
+		@Index(name = "idx_evento_lancamento_usuario_ocorrido", columnList = "id_usuario, ocorrido_em, id"), // Leitura por intervalo dentro do usuário: replay do saldo e exportação
+		@Index(name = "idx_evento_lancamento_lancamento", columnList = "id_lancamento, id") // Histórico de um lançamento
+})
+public class EventoLancamento { // Alteração de um lançamento, só inserida e nunca alterada: o histórico que o UPDATE do lançamento sobrescreve
+
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.IDENTITY) // Gravado em JDBC (EventoLancamentoRepository), fora do contexto de persistência
+	private Long id;
+	
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "id_lancamento") // Sem chave estrangeira: o evento continua depois da exclusão ou do arquivamento do lançamento
+	private Long idLancamento;
+	
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoEvento tipo;
+	
+	@Column(name = "ocorrido_em")
+	private Instant ocorridoEm;
+	
+	@Column(name = "versao") // Versão do lançamento depois da alteração (antes dela, na exclusão)
+	private Long versao;
+	
+	@Column(name = "delta_saldo_centavos") // Variação do saldo EFETIVADO do usuário causada pela alteração
+	private Long deltaSaldoCentavos;
+	
+	@Column(name = "dados", length = 2000) // JSON compacto, numa linha: as colunas alteradas
+	private String dados;
+	
+}
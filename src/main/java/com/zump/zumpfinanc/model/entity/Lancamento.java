@@ -1,22 +1,33 @@
 package com.zump.zumpfinanc.model.entity;
 
-import java.math.BigDecimal;
+import java.text.Normalizer;
 import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
+import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import com.zump.zumpfinanc.model.enums.StatusLancamento;
 import com.zump.zumpfinanc.model.enums.TipoLancamento;
 
@@ -24,35 +35,49 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Data // = @Getter, @Setter, @ToString, @EqualsAndHashCode e Contrutores
 @Entity
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "lancamento", schema = "financas")
+@Table(name = "lancamento", schema = "financas", indexes = {
+		@Index(name = "idx_lancamento_usuario_id", columnList = "id_usuario, id"), // Paginação por cursor (keyset) sobre o id, dentro do usuário
+		@Index(name = "idx_lancamento_usuario_ano_mes", columnList = "id_usuario, ano, mes, id"), // Filtros por igualdade da busca, já na ordem de retorno
+		@Index(name = "idx_lancamento_hash_conteudo_usuario", columnList = "hash_conteudo, id_usuario, ano", unique = true), // Deduplicação de extratos: hash na frente para a busca por IN (lote de hashes) usar o índice
+		@Index(name = "idx_lancamento_recorrencia_parcela", columnList = "id_recorrencia, parcela, ano", unique = true) // Cada ocorrência de uma recorrência é gravada uma única vez
+}) // No PostgreSQL a tabela é particionada por ano (011-lancamento-particionado.sql): os índices únicos levam o ano, coluna da partição
 public class Lancamento {
+	
+	private static final Pattern MARCAS_DE_ACENTUACAO = Pattern.compile("\\p{M}+");
 
 	@Id
 	@Column(name = "id")
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_sequence") // Sequence (e não IDENTITY) para o Hibernate conseguir agrupar os INSERTs em lote
+	@SequenceGenerator(name = "lancamento_sequence", schema = "financas", sequenceName = "lancamento_id_seq", allocationSize = 50) // Reserva 50 ids por ida à base
 	private Long id;
 	
 	@Column(name = "descricao")
 	private String descricao;
 	
+	@JsonIgnore
+	@Column(name = "descricao_busca") // Descrição em minúsculas e sem acentos, mantida pela própria entidade, para o filtro não depender de LOWER() na consulta
+	private String descricaoBusca;
+	
 	@Column(name = "mes")
 	private Integer mes;
 	
 	@Column(name = "ano")
 	private Integer ano;
 	
-	@ManyToOne
+	@ToString.Exclude // Imprimir o lançamento não carrega o usuário
+	@ManyToOne(fetch = FetchType.LAZY) // Só o id (a FK) é lido com o lançamento; getUsuario().getId() não vai à base
 	@JoinColumn(name = "id_usuario") // * Neste caso não teria como omitir pois o nomes da propriedade e da coluna são diferentes
 	private Usuario usuario;
 	
-	@Column(name = "valor")
-	private BigDecimal valor;
+	@Embedded // Colunas valor_centavos e moeda
+	private Dinheiro valor;
 	
 	@Column(name = "data_cadastro") // *
 	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)// ** Converte LocalDate para a coluna do BD
@@ -66,4 +91,35 @@ public class Lancamento {
 	@Enumerated(value = EnumType.STRING) // ***
 	private StatusLancamento status;
 	
+	@JsonIgnore
+	@Column(name = "hash_conteudo") // SHA-256 da transação de extrato bancário que originou o lançamento (null para os cadastrados manualmente)
+	private String hashConteudo;
+	
+	@JsonIgnore
+	@Version // Bloqueio otimista: exposta na API como ETag e conferida pelo If-Match das alterações
+	@Column(name = "versao", nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL") // Como no 010-versao-lancamento.sql: INSERT sem a versão começa em 0
+	private Long versao;
+	
+	@JsonIgnore
+	@Column(name = "id_recorrencia") // Recorrência que gerou o lançamento (null para os demais)
+	private Long idRecorrencia;
+	
+	@JsonIgnore
+	@Column(name = "parcela") // Número da ocorrência na recorrência, a partir de 1
+	private Integer parcela;
+	
+	@PrePersist
+	@PreUpdate
+	void atualizarDescricaoBusca() {
+		this.descricaoBusca = normalizar(descricao);
+	}
+	
+	public static String normalizar(String texto) {
+		if(texto == null) {
+			return null;
+		}
+		String semAcentos = MARCAS_DE_ACENTUACAO.matcher(Normalizer.normalize(texto.trim(), Normalizer.Form.NFD)).replaceAll("");
+		return semAcentos.toLowerCase(Locale.ROOT);
+	}
+	
 }
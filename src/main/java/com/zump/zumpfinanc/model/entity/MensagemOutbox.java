@@ -0,0 +1,62 @@
+package com.zump.zumpfinanc.model.entity;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import com.zump.zumpfinanc.model.enums.Agregado;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox", schema = "financas", indexes = {
+		@Index(name = "idx_outbox_posicao", columnList = "posicao", unique = true), // Dois relays nunca publicam a mesma posição
+		@Index(name = "idx_outbox_usuario_posicao", columnList = "id_usuario, posicao") // Feed de mudanças do usuário a partir do cursor
+})
+public class MensagemOutbox { // Mudança a publicar para os consumidores externos, gravada na mesma transação da alteração que a causou
+
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.IDENTITY) // Gravada em JDBC (MensagemOutboxRepository), como o log de eventos
+	private Long id;
+	
+	@Column(name = "agregado")
+	@Enumerated(value = EnumType.STRING)
+	private Agregado agregado;
+	
+	@Column(name = "id_agregado") // Id do lançamento ou do usuário alterado
+	private Long idAgregado;
+	
+	@Column(name = "id_usuario") // Dono da mudança: o feed só entrega ao próprio usuário
+	private Long idUsuario;
+	
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoEvento tipo;
+	
+	@Column(name = "ocorrido_em")
+	private Instant ocorridoEm;
+	
+	@Column(name = "dados", length = 2000) // JSON compacto, numa linha
+	private String dados;
+	
+	@Column(name = "posicao") // Ordem de publicação, atribuída pelo relay; null enquanto pendente
+	private Long posicao;
+	
+}
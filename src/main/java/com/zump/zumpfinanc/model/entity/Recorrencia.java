@@ -0,0 +1,100 @@
+package com.zump.zumpfinanc.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import com.zump.zumpfinanc.model.enums.Periodicidade;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "recorrencia", schema = "financas", indexes = {
+		@Index(name = "idx_recorrencia_proxima_ocorrencia", columnList = "proxima_ocorrencia, id"), // Recorrências com ocorrência vencida, na ordem do agendador
+		@Index(name = "idx_recorrencia_usuario", columnList = "id_usuario, id")
+})
+public class Recorrencia { // Modelo de um lançamento que se repete (aluguel, salário); o agendador gera um Lancamento por ocorrência vencida
+
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recorrencia_sequence")
+	@SequenceGenerator(name = "recorrencia_sequence", schema = "financas", sequenceName = "recorrencia_id_seq", allocationSize = 50)
+	private Long id;
+	
+	@Column(name = "descricao")
+	private String descricao;
+	
+	@ToString.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_usuario")
+	private Usuario usuario;
+	
+	@Embedded
+	private Dinheiro valor;
+	
+	@Column(name = "tipo")
+	@Enumerated(value = EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Column(name = "periodicidade")
+	@Enumerated(value = EnumType.STRING)
+	private Periodicidade periodicidade;
+	
+	@Column(name = "mes_inicio")
+	private Integer mesInicio;
+	
+	@Column(name = "ano_inicio")
+	private Integer anoInicio;
+	
+	@Column(name = "parcelas") // null: sem data de término
+	private Integer parcelas;
+	
+	// Marca d'água: ocorrências já gravadas em lancamento, atualizada na mesma transação que as insere. Uma execução
+	// interrompida desfaz as duas coisas juntas e a próxima recomeça da mesma parcela
+	@Column(name = "parcelas_geradas")
+	private int parcelasGeradas;
+	
+	@Column(name = "proxima_ocorrencia") // Mês da próxima ocorrência (ano * 12 + mes - 1); null quando encerrada ou todas as parcelas foram geradas
+	private Integer proximaOcorrencia;
+	
+	// Bloqueio otimista: o encerrar também incrementa a versão, e o lote do agendador que leu a recorrência antes falha no flush
+	// em vez de sobrescrever a próxima ocorrência com a marca d'água antiga
+	@Version
+	@Column(name = "versao", nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL") // Como no 014-versao-recorrencia.sql
+	private Long versao;
+	
+	public static int competencia(int ano, int mes) {
+		return ano * 12 + mes - 1;
+	}
+	
+	public int competenciaDaParcela(int indice) { // Índice a partir de 0
+		return competencia(anoInicio, mesInicio) + indice * periodicidade.getMeses();
+	}
+	
+	public void avancar(int novasParcelasGeradas) {
+		parcelasGeradas = novasParcelasGeradas;
+		proximaOcorrencia = parcelas != null && parcelasGeradas >= parcelas ? null : competenciaDaParcela(parcelasGeradas);
+	}
+	
+}
@@ -0,0 +1,33 @@
+package com.zump.zumpfinanc.model.entity;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "reserva_particao", schema = "financas")
+public class ReservaParticao { // Lease de uma partição de trabalho agendado: só o nó dono processa a partição até a reserva expirar
+
+	@Id
+	@Column(name = "chave") // Tarefa e número da partição, ex.: "recorrencias:3"
+	private String chave;
+	
+	@Column(name = "dono")
+	private String dono;
+	
+	@Column(name = "expira_em")
+	private Instant expiraEm;
+	
+}
@@ -0,0 +1,30 @@
+package com.zump.zumpfinanc.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "resumo_mensal", schema = "financas")
+public class ResumoMensal { // Soma dos lançamentos por usuário, ano, mês, tipo e status, mantida a cada alteração de lançamento
+
+	@EmbeddedId
+	private ChaveResumoMensal chave;
+	
+	@Column(name = "total_centavos") // Em centavos da moeda padrão
+	private Long totalCentavos;
+	
+	@Column(name = "quantidade")
+	private Long quantidade;
+	
+}
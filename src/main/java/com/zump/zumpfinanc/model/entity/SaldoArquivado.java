@@ -0,0 +1,28 @@
+package com.zump.zumpfinanc.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "saldo_arquivado", schema = "financas")
+public class SaldoArquivado { // Soma dos lançamentos EFETIVADOS dos anos arquivados, que a reconciliação não enxerga mais em financas.lancamento
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "valor_centavos") // Em centavos da moeda padrão
+	private Long valorCentavos;
+	
+}
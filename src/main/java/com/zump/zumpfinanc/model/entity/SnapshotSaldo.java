@@ -0,0 +1,45 @@
+package com.zump.zumpfinanc.model.entity;
+
+import java.time.Instant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "snapshot_saldo", schema = "financas", indexes = {
+		@Index(name = "idx_snapshot_saldo_usuario_ate", columnList = "id_usuario, ate") // O snapshot mais recente antes de um instante
+})
+public class SnapshotSaldo { // Saldo EFETIVADO do usuário somado até um instante: o ponto de partida do replay dos eventos
+
+	@Id
+	@Column(name = "id")
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "ate") // Exclusivo: soma os eventos ocorridos antes deste instante
+	private Instant ate;
+	
+	@Column(name = "valor_centavos") // Em centavos da moeda padrão
+	private Long valorCentavos;
+	
+	@Column(name = "inicial") // Saldo de partida gravado pela migração (012) para quem já tinha lançamentos: antes dele não há eventos
+	private Boolean inicial;
+	
+}
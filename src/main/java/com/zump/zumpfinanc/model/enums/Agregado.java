@@ -0,0 +1,7 @@
+package com.zump.zumpfinanc.model.enums;
+
+public enum Agregado {
+
+	LANCAMENTO,
+	USUARIO
+}
@@ -0,0 +1,17 @@
+package com.zump.zumpfinanc.model.enums;
+
+public enum Periodicidade {
+
+	MENSAL(1),
+	ANUAL(12);
+	
+	private final int meses; // Intervalo entre duas ocorrências
+	
+	Periodicidade(int meses) {
+		this.meses = meses;
+	}
+	
+	public int getMeses() {
+		return meses;
+	}
+}
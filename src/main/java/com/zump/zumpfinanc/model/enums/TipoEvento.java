@@ -0,0 +1,9 @@
+package com.zump.zumpfinanc.model.enums;
+
+public enum TipoEvento {
+
+	CRIADO,
+	ATUALIZADO,
+	STATUS_ALTERADO,
+	EXCLUIDO
+}
@@ -0,0 +1,25 @@
+package com.zump.zumpfinanc.model.projection;
+
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class GrupoSituacao { // Lançamentos com a mesma situação (usuário, tipo, status, ano e mês) somados: a unidade dos ajustes em lote do saldo e do resumo
+	
+	private Long idUsuario;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private Integer ano;
+	private Integer mes;
+	private Long totalCentavos;
+	private Long quantidade;
+	
+	public SituacaoLancamento comoSituacao() { // A contribuição no saldo é linear no valor: o grupo vale como um único lançamento com o total
+		return new SituacaoLancamento(idUsuario, tipo, status, totalCentavos, ano, mes);
+	}
+
+}
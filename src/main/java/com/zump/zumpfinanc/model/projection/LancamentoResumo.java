@@ -0,0 +1,27 @@
+package com.zump.zumpfinanc.model.projection;
+
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LancamentoResumo { // Somente as colunas expostas pela API, sem montar a entidade nem o Usuario
+	
+	private Long id;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private Long idUsuario;
+	private Dinheiro valor;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	
+	public LancamentoResumo(Long id, String descricao, Integer mes, Integer ano, Long idUsuario, long valorCentavos, String moeda, TipoLancamento tipo, StatusLancamento status) {
+		this(id, descricao, mes, ano, idUsuario, Dinheiro.deCentavos(valorCentavos, moeda), tipo, status);
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.zump.zumpfinanc.model.projection;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+@Data
+@AllArgsConstructor
+public class SituacaoLancamento { // Colunas de um lançamento que influenciam o saldo e o resumo mensal do usuário
+	
+	private Long idUsuario;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private Long valorCentavos; // Os agregados (saldo e resumo) são somados em centavos, na moeda padrão
+	private Integer ano;
+	private Integer mes;
+	
+	@EqualsAndHashCode.Exclude // Não é uma coluna do saldo: é a versão lida junto, conferida no UPDATE do lançamento
+	private Long versao;
+	
+	public SituacaoLancamento(Long idUsuario, TipoLancamento tipo, StatusLancamento status, Long valorCentavos, Integer ano, Integer mes) {
+		this(idUsuario, tipo, status, valorCentavos, ano, mes, null);
+	}
+	
+	public static SituacaoLancamento de(Lancamento lancamento) {
+		Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		return new SituacaoLancamento(idUsuario, lancamento.getTipo(), lancamento.getStatus(), 
+				lancamento.getValor() == null ? null : lancamento.getValor().getCentavos(), lancamento.getAno(), lancamento.getMes(), lancamento.getVersao());
+	}
+	
+	public SituacaoLancamento comStatus(StatusLancamento novoStatus) {
+		return new SituacaoLancamento(idUsuario, tipo, novoStatus, valorCentavos, ano, mes, versao);
+	}
+	
+	public long contribuicaoNoSaldo() { // Somente lançamentos EFETIVADOS entram no saldo
+		if(status != StatusLancamento.EFETIVADO || valorCentavos == null || tipo == null) {
+			return 0;
+		}
+		return tipo == TipoLancamento.RECEITA ? valorCentavos : Math.negateExact(valorCentavos);
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.zump.zumpfinanc.model.projection;
+
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+
+public interface TotalMensal { // Linha agrupada por ano, mês, tipo e status (projeção pelos aliases da consulta)
+	
+	Integer getAno();
+	
+	Integer getMes();
+	
+	TipoLancamento getTipo();
+	
+	StatusLancamento getStatus();
+	
+	Long getTotalCentavos();
+	
+	Long getQuantidade();
+
+}
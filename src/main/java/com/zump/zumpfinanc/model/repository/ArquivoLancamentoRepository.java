@@ -0,0 +1,13 @@
+package com.zump.zumpfinanc.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.zump.zumpfinanc.model.entity.ArquivoLancamento;
+
+public interface ArquivoLancamentoRepository extends JpaRepository<ArquivoLancamento, Integer>{
+	
+	@Query(value = "SELECT MAX(a.ano) FROM ArquivoLancamento a")
+	Integer obterUltimoAno();
+
+}
@@ -0,0 +1,149 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+
+@Repository
+public class EventoLancamentoRepository { // Log de eventos em JDBC puro: INSERTs em lote, gravados na hora na conexão da transação, e leitura por intervalo em cursor
+	
+	private static final int TAMANHO_LOTE = 50; // O mesmo do hibernate.jdbc.batch_size
+	private static final int TAMANHO_LOTE_CURSOR = 500;
+	
+	private static final String INSERIR = "INSERT INTO financas.evento_lancamento (id_usuario, id_lancamento, tipo, ocorrido_em, versao, delta_saldo_centavos, dados) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?)";
+	private static final String COLUNAS = "id, id_usuario, id_lancamento, tipo, ocorrido_em, versao, delta_saldo_centavos, dados";
+	private static final String CONTRIBUICAO_NO_SALDO = "CASE WHEN tipo = 'RECEITA' THEN valor_centavos ELSE -valor_centavos END";
+	
+	private JdbcTemplate jdbcTemplate;
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+	private NamedParameterJdbcTemplate jdbcTemplateCursor;
+	
+	public EventoLancamentoRepository(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		
+		// O PostgreSQL só usa cursor no servidor com fetchSize definido e dentro de transação (sem autocommit)
+		JdbcTemplate cursor = new JdbcTemplate(dataSource);
+		cursor.setFetchSize(TAMANHO_LOTE_CURSOR);
+		this.jdbcTemplateCursor = new NamedParameterJdbcTemplate(cursor);
+	}
+	
+	// Sem o EntityManager: as atualizações em massa do lançamento limpam o contexto de persistência, o que descartaria um evento ainda não descarregado
+	public void inserir(Collection<EventoLancamento> eventos) {
+		jdbcTemplate.batchUpdate(INSERIR, eventos, TAMANHO_LOTE, (ps, evento) -> {
+			ps.setLong(1, evento.getIdUsuario());
+			ps.setLong(2, evento.getIdLancamento());
+			ps.setString(3, evento.getTipo().name());
+			InstanteUtc.definir(ps, 4, evento.getOcorridoEm());
+			ps.setObject(5, evento.getVersao());
+			ps.setLong(6, evento.getDeltaSaldoCentavos());
+			ps.setString(7, evento.getDados());
+		});
+	}
+	
+	// Um evento por lançamento da seleção, num único INSERT ... SELECT com a mesma seleção do UPDATE em lote (LancamentoStatusRepositoryImpl),
+	// executado antes dele para ler o status anterior. O novo status é uma constante do enum, escrita direto no SQL
+	public int inserirMudancaDeStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus, 
+			Instant ocorridoEm) {
+		// A seleção exclui quem já está no novo status: efetivar soma a contribuição inteira; sair de EFETIVADO a retira
+		String delta = novoStatus == StatusLancamento.EFETIVADO ? CONTRIBUICAO_NO_SALDO 
+				: "CASE WHEN status = 'EFETIVADO' THEN -(" + CONTRIBUICAO_NO_SALDO + ") ELSE 0 END";
+		StringBuilder sql = new StringBuilder("INSERT INTO financas.evento_lancamento (id_usuario, id_lancamento, tipo, ocorrido_em, versao, delta_saldo_centavos, dados) ")
+				.append("SELECT id_usuario, id, '").append(TipoEvento.STATUS_ALTERADO.name()).append("', :ocorridoEm, versao + 1, ").append(delta)
+				.append(", ").append(dadosMudancaDeStatus(novoStatus));
+		
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		parametros.put("ocorridoEm", InstanteUtc.parametro(ocorridoEm));
+		selecaoMudancaDeStatus(sql, parametros, idUsuario, ids, ano, mes, statusAtual, novoStatus);
+		return namedJdbcTemplate.update(sql.toString(), new MapSqlParameterSource(parametros));
+	}
+	
+	// O mesmo JSON do registrarMudancaDeStatus, montado no SQL com o status anterior de cada linha
+	static String dadosMudancaDeStatus(StatusLancamento novoStatus) {
+		return "'{\"status\":\"" + novoStatus.name() + "\",\"statusAnterior\":\"' || status || '\"}'";
+	}
+	
+	// FROM e WHERE da mudança de status em lote, também usados na cópia para o outbox (MensagemOutboxRepository)
+	static void selecaoMudancaDeStatus(StringBuilder sql, Map<String, Object> parametros, Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, 
+			StatusLancamento statusAtual, StatusLancamento novoStatus) {
+		sql.append(" FROM financas.lancamento WHERE id_usuario = :idUsuario AND status <> :novoStatus");
+		parametros.put("idUsuario", idUsuario);
+		parametros.put("novoStatus", novoStatus.name());
+		
+		if(ids != null && !ids.isEmpty()) {
+			sql.append(" AND id IN (:ids)");
+			parametros.put("ids", ids);
+		}
+		
+		if(ano != null) {
+			sql.append(" AND ano = :ano");
+			parametros.put("ano", ano);
+		}
+		
+		if(mes != null) {
+			sql.append(" AND mes = :mes");
+			parametros.put("mes", mes);
+		}
+		
+		if(statusAtual != null) {
+			sql.append(" AND status = :statusAtual");
+			parametros.put("statusAtual", statusAtual.name());
+		}
+	}
+	
+	// Soma da variação do saldo dos eventos em [de, ate), pelo índice (id_usuario, ocorrido_em); null quando não há evento no intervalo
+	public Long somarDeltas(Long idUsuario, Instant de, Instant ate) {
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		StringBuilder sql = new StringBuilder("SELECT SUM(delta_saldo_centavos) FROM financas.evento_lancamento WHERE id_usuario = :idUsuario");
+		intervalo(sql, parametros, idUsuario, de, ate);
+		return namedJdbcTemplate.queryForObject(sql.toString(), new MapSqlParameterSource(parametros), Long.class);
+	}
+	
+	// Eventos em [de, ate) na ordem em que ocorreram, entregues conforme o cursor avança; de e ate são opcionais
+	public void percorrer(Long idUsuario, Instant de, Instant ate, Consumer<EventoLancamento> consumidor) {
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		StringBuilder sql = new StringBuilder("SELECT ").append(COLUNAS).append(" FROM financas.evento_lancamento WHERE id_usuario = :idUsuario");
+		intervalo(sql, parametros, idUsuario, de, ate);
+		sql.append(" ORDER BY ocorrido_em, id");
+		jdbcTemplateCursor.query(sql.toString(), new MapSqlParameterSource(parametros), resultSet -> {
+			consumidor.accept(mapear(resultSet));
+		});
+	}
+	
+	private static void intervalo(StringBuilder sql, Map<String, Object> parametros, Long idUsuario, Instant de, Instant ate) {
+		parametros.put("idUsuario", idUsuario);
+		
+		if(de != null) {
+			sql.append(" AND ocorrido_em >= :de");
+			parametros.put("de", InstanteUtc.parametro(de));
+		}
+		
+		if(ate != null) {
+			sql.append(" AND ocorrido_em < :ate");
+			parametros.put("ate", InstanteUtc.parametro(ate));
+		}
+	}
+	
+	private static EventoLancamento mapear(ResultSet rs) throws SQLException {
+		return EventoLancamento.builder().id(rs.getLong("id")).idUsuario(rs.getLong("id_usuario")).idLancamento(rs.getLong("id_lancamento"))
+				.tipo(TipoEvento.valueOf(rs.getString("tipo"))).ocorridoEm(InstanteUtc.ler(rs, "ocorrido_em")).versao((Long) rs.getObject("versao"))
+				.deltaSaldoCentavos(rs.getLong("delta_saldo_centavos")).dados(rs.getString("dados")).build();
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.function.BooleanSupplier;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.springframework.dao.ConcurrencyFailureException;
+
+// Primeira linha de um acumulador (saldo, resumo), num savepoint direto na conexão JDBC: a chave duplicada não marca a transação para rollback.
+// O cálculo da primeira linha já enxerga a alteração corrente; se outra transação gravou a linha antes, esta alteração entra pelo UPDATE
+public final class InsercaoSeAusente {
+	
+	private static final String CHAVE_DUPLICADA = "23505";
+	
+	private InsercaoSeAusente() {
+	}
+	
+	// acumular e inserir retornam false quando não houve linha atualizada / a chave já existia
+	public static void acumularOuInserir(BooleanSupplier acumular, BooleanSupplier inserir, String descricao) {
+		if(acumular.getAsBoolean() || inserir.getAsBoolean() || acumular.getAsBoolean()) {
+			return;
+		}
+		// REPEATABLE READ (atualização em lote): a linha gravada depois do início da transação não é visível ao UPDATE
+		throw new ConcurrencyFailureException(descricao + " criado por outra transação.");
+	}
+	
+	static boolean inserir(EntityManager entityManager, String sql, Object... parametros) { // false: a chave já existia
+		return entityManager.unwrap(Session.class).doReturningWork(conexao -> {
+			Savepoint savepoint = conexao.setSavepoint();
+			try(PreparedStatement comando = conexao.prepareStatement(sql)) {
+				for(int i = 0; i < parametros.length; i++) {
+					comando.setObject(i + 1, parametros[i]);
+				}
+				comando.executeUpdate();
+			} catch (SQLException e) {
+				conexao.rollback(savepoint);
+				if(CHAVE_DUPLICADA.equals(e.getSQLState())) {
+					return false;
+				}
+				throw e;
+			}
+			conexao.releaseSavepoint(savepoint);
+			return true;
+		});
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.springframework.jdbc.core.SqlTypeValue;
+
+// Instantes nas colunas TIMESTAMP em UTC, como o Hibernate grava com hibernate.jdbc.time_zone
+final class InstanteUtc {
+	
+	private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+	
+	private InstanteUtc() {
+	}
+	
+	static void definir(PreparedStatement comando, int indice, Instant instante) throws SQLException {
+		comando.setTimestamp(indice, instante == null ? null : Timestamp.from(instante), Calendar.getInstance(UTC)); // Calendar não é thread-safe
+	}
+	
+	static SqlTypeValue parametro(Instant instante) { // Para JdbcTemplate e NamedParameterJdbcTemplate
+		return (comando, indice, tipo, nome) -> definir(comando, indice, instante);
+	}
+	
+	static Instant ler(ResultSet resultado, String coluna) throws SQLException {
+		Timestamp valor = resultado.getTimestamp(coluna, Calendar.getInstance(UTC));
+		return valor == null ? null : valor.toInstant();
+	}
+	
+}
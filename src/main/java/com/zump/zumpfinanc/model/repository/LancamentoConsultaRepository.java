@@ -0,0 +1,96 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+
+@Repository
+public class LancamentoConsultaRepository { // Consultas de leitura em JDBC puro: paginação por cursor (keyset) e leitura em fluxo
+	
+	private static final int TAMANHO_LOTE_CURSOR = 500;
+	
+	private static final RowMapper<LancamentoResumo> MAPEADOR = LancamentoConsultaRepository::mapear;
+	
+	private NamedParameterJdbcTemplate jdbcTemplate;
+	private NamedParameterJdbcTemplate jdbcTemplateCursor;
+	
+	public LancamentoConsultaRepository(DataSource dataSource) {
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		
+		// O PostgreSQL só usa cursor no servidor com fetchSize definido e dentro de transação (sem autocommit)
+		JdbcTemplate cursor = new JdbcTemplate(dataSource);
+		cursor.setFetchSize(TAMANHO_LOTE_CURSOR);
+		this.jdbcTemplateCursor = new NamedParameterJdbcTemplate(cursor);
+	}
+	
+	public List<LancamentoResumo> buscarPagina(Lancamento filtro, Long aposId, int limite) {
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		StringBuilder sql = montarConsulta(filtro, parametros);
+		
+		if(aposId != null) {
+			sql.append(" AND id > :aposId");
+			parametros.put("aposId", aposId);
+		}
+		
+		sql.append(" ORDER BY id LIMIT :limite");
+		parametros.put("limite", limite);
+		
+		return jdbcTemplate.query(sql.toString(), new MapSqlParameterSource(parametros), MAPEADOR);
+	}
+	
+	public void percorrer(Lancamento filtro, Consumer<LancamentoResumo> consumidor) {
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		StringBuilder sql = montarConsulta(filtro, parametros).append(" ORDER BY id");
+		jdbcTemplateCursor.query(sql.toString(), new MapSqlParameterSource(parametros), resultSet -> {
+			consumidor.accept(mapear(resultSet, 0));
+		});
+	}
+	
+	// Também usada pelo LancamentoReativoRepository (R2DBC): os mesmos filtros, com parâmetros nomeados
+	static StringBuilder montarConsulta(Lancamento filtro, Map<String, Object> parametros) {
+		StringBuilder sql = new StringBuilder("SELECT id, descricao, mes, ano, id_usuario, valor_centavos, moeda, tipo, status FROM financas.lancamento WHERE id_usuario = :idUsuario");
+		parametros.put("idUsuario", filtro.getUsuario().getId());
+		
+		if(filtro.getAno() != null) {
+			sql.append(" AND ano = :ano");
+			parametros.put("ano", filtro.getAno());
+		}
+		
+		if(filtro.getMes() != null) {
+			sql.append(" AND mes = :mes");
+			parametros.put("mes", filtro.getMes());
+		}
+		
+		String descricao = Lancamento.normalizar(filtro.getDescricao());
+		if(descricao != null && !descricao.isEmpty()) {
+			sql.append(" AND descricao_busca LIKE :descricao ESCAPE '\\'");
+			parametros.put("descricao", "%" + LancamentoSpecifications.escaparLike(descricao) + "%");
+		}
+		
+		return sql;
+	}
+	
+	private static LancamentoResumo mapear(ResultSet rs, int linha) throws SQLException {
+		String tipo = rs.getString("tipo");
+		String status = rs.getString("status");
+		return new LancamentoResumo(rs.getLong("id"), rs.getString("descricao"), (Integer) rs.getObject("mes"), (Integer) rs.getObject("ano"), rs.getLong("id_usuario"), 
+				rs.getLong("valor_centavos"), rs.getString("moeda"), tipo == null ? null : TipoLancamento.valueOf(tipo), status == null ? null : StatusLancamento.valueOf(status));
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.zump.zumpfinanc.config.ReativoConfig;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile(ReativoConfig.PERFIL)
+public class LancamentoReativoRepository { // Leituras em R2DBC (profile reativo): as linhas chegam sob demanda de quem consome o Flux
+
+	private static final String SALDO_CONSOLIDADO = "SELECT valor_centavos FROM financas.saldo_usuario WHERE id_usuario = :idUsuario";
+
+	// O mesmo cálculo do SaldoService.calcularSaldo: EFETIVADOS de financas.lancamento mais o saldo dos anos arquivados
+	private static final String SALDO_CALCULADO = "SELECT COALESCE((SELECT SUM(CASE WHEN tipo = 'RECEITA' THEN valor_centavos ELSE -valor_centavos END) "
+			+ "FROM financas.lancamento WHERE id_usuario = :idUsuario AND status = 'EFETIVADO'), 0) "
+			+ "+ COALESCE((SELECT valor_centavos FROM financas.saldo_arquivado WHERE id_usuario = :idUsuario), 0)";
+
+	private DatabaseClient databaseClient;
+
+	public LancamentoReativoRepository(DatabaseClient databaseClient) {
+		this.databaseClient = databaseClient;
+	}
+
+	// Mesmos filtros e ordem da busca do LancamentoService
+	public Flux<LancamentoResumo> buscar(Lancamento filtro) {
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		StringBuilder sql = LancamentoConsultaRepository.montarConsulta(filtro, parametros).append(" ORDER BY ano, mes, id");
+
+		DatabaseClient.GenericExecuteSpec consulta = databaseClient.execute(sql.toString());
+		for(Map.Entry<String, Object> parametro : parametros.entrySet()) {
+			consulta = consulta.bind(parametro.getKey(), parametro.getValue());
+		}
+		return consulta.map((row, metadados) -> mapear(row)).all();
+	}
+
+	// Saldo consolidado (saldo_usuario) e, para quem ainda não tem, o calculado dos lançamentos, como o SaldoService.obterSaldo
+	public Mono<Long> obterSaldo(Long idUsuario) {
+		return databaseClient.execute(SALDO_CONSOLIDADO).bind("idUsuario", idUsuario).map((row, metadados) -> emCentavos(row.get(0)))
+				.first()
+				.switchIfEmpty(databaseClient.execute(SALDO_CALCULADO).bind("idUsuario", idUsuario).map((row, metadados) -> emCentavos(row.get(0))).first());
+	}
+
+	private static LancamentoResumo mapear(Row row) {
+		String tipo = row.get("tipo", String.class);
+		String status = row.get("status", String.class);
+		return new LancamentoResumo(row.get("id", Long.class), row.get("descricao", String.class), row.get("mes", Integer.class), row.get("ano", Integer.class),
+				row.get("id_usuario", Long.class), row.get("valor_centavos", Long.class), row.get("moeda", String.class), tipo == null ? null : TipoLancamento.valueOf(tipo),
+				status == null ? null : StatusLancamento.valueOf(status));
+	}
+
+	private static long emCentavos(Object valor) { // SUM de BIGINT vem como NUMERIC no PostgreSQL e no H2
+		return ((Number) valor).longValue();
+	}
+
+}
@@ -1,17 +1,73 @@
 package com.zump.zumpfinanc.model.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.zump.zumpfinanc.config.CacheConfig;
 import com.zump.zumpfinanc.model.entity.Lancamento;
 import com.zump.zumpfinanc.model.enums.StatusLancamento;
 import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.projection.TotalMensal;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long>{
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, JpaSpecificationExecutor<Lancamento>, LancamentoResumoRepository, LancamentoStatusRepository {
+	
+	@Override
+	@Cacheable(cacheNames = CacheConfig.LANCAMENTOS, unless = "#result == null")
+	Optional<Lancamento> findById(Long id);
 
-	@Query(value = "SELECT SUM(l.valor) FROM Lancamento l JOIN l.usuario u WHERE u.id = :idUsuario AND l.tipo = :tipo AND l.status = :status GROUP BY u")
-	BigDecimal obterSaldoPorTipoLancamentoEUsuarioEStatus(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status);
+	@Query(value = "SELECT SUM(l.valor.centavos) FROM Lancamento l JOIN l.usuario u WHERE u.id = :idUsuario AND l.tipo = :tipo AND l.status = :status GROUP BY u")
+	Long obterSaldoPorTipoLancamentoEUsuarioEStatus(@Param("idUsuario") Long idUsuario, @Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status);
+	
+	// Lê a situação gravada na base, sem descarregar (flush) alterações pendentes da entidade em memória
+	@QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+	@Query(value = "SELECT new com.zump.zumpfinanc.model.projection.SituacaoLancamento(l.usuario.id, l.tipo, l.status, l.valor.centavos, l.ano, l.mes, l.versao) FROM Lancamento l WHERE l.id = :id")
+	Optional<SituacaoLancamento> obterSituacao(@Param("id") Long id);
+	
+	// Resumo do ano direto dos lançamentos: uma consulta agrupada, filtrada pelo índice (id_usuario, ano, mes)
+	@Query(value = "SELECT l.ano AS ano, l.mes AS mes, l.tipo AS tipo, l.status AS status, SUM(l.valor.centavos) AS totalCentavos, COUNT(l) AS quantidade "
+			+ "FROM Lancamento l WHERE l.usuario.id = :idUsuario AND l.ano = :ano GROUP BY l.ano, l.mes, l.tipo, l.status")
+	List<TotalMensal> obterTotaisMensais(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+	
+	@Query(value = "SELECT l.ano AS ano, l.mes AS mes, l.tipo AS tipo, l.status AS status, SUM(l.valor.centavos) AS totalCentavos, COUNT(l) AS quantidade "
+			+ "FROM Lancamento l WHERE l.usuario.id = :idUsuario GROUP BY l.ano, l.mes, l.tipo, l.status")
+	List<TotalMensal> obterTotaisMensais(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value = "SELECT l.ano AS ano, l.mes AS mes, l.tipo AS tipo, l.status AS status, SUM(l.valor.centavos) AS totalCentavos, COUNT(l) AS quantidade FROM Lancamento l "
+			+ "WHERE l.usuario.id = :idUsuario AND l.ano = :ano AND l.mes = :mes AND l.tipo = :tipo AND l.status = :status GROUP BY l.ano, l.mes, l.tipo, l.status")
+	Optional<TotalMensal> obterTotalMensal(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes, 
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status);
+	
+	@Query(value = "SELECT l.hashConteudo FROM Lancamento l WHERE l.usuario.id = :idUsuario AND l.hashConteudo IN :hashes")
+	List<String> obterHashesExistentes(@Param("idUsuario") Long idUsuario, @Param("hashes") Collection<String> hashes);
+	
+	// Atualização direta, sem carregar a entidade antes (merge); o usuário entra no WHERE, então só altera lançamento do próprio usuário.
+	// A versão também: 0 linhas quando outra requisição alterou o lançamento depois da versão esperada (bloqueio otimista).
+	// O ano gravado (lido com a situação anterior) restringe o UPDATE à partição do ano no PostgreSQL; mudar o ano move a linha de partição.
+	// clearAutomatically: uma cópia do lançamento já carregada no contexto não sobrescreve a alteração no flush
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE Lancamento l SET l.descricao = :descricao, l.descricaoBusca = :descricaoBusca, l.mes = :mes, l.ano = :ano, l.valor.centavos = :valorCentavos, l.valor.moeda = :moeda, "
+			+ "l.tipo = :tipo, l.status = :status, l.versao = l.versao + 1 WHERE l.id = :id AND l.ano = :anoAnterior AND l.usuario.id = :idUsuario AND l.versao = :versao")
+	int atualizar(@Param("id") Long id, @Param("anoAnterior") Integer anoAnterior, @Param("idUsuario") Long idUsuario, @Param("descricao") String descricao, 
+			@Param("descricaoBusca") String descricaoBusca, @Param("mes") Integer mes, @Param("ano") Integer ano, @Param("valorCentavos") long valorCentavos, @Param("moeda") String moeda, 
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status, @Param("versao") Long versao);
+	
+	@Modifying(clearAutomatically = true)
+	@Query(value = "UPDATE Lancamento l SET l.status = :status, l.versao = l.versao + 1 WHERE l.id = :id AND l.ano = :ano AND l.versao = :versao")
+	int atualizarStatus(@Param("id") Long id, @Param("ano") Integer ano, @Param("status") StatusLancamento status, @Param("versao") Long versao);
+	
+	@Modifying(clearAutomatically = true)
+	@Query(value = "DELETE FROM Lancamento l WHERE l.id = :id AND l.ano = :ano")
+	int excluir(@Param("id") Long id, @Param("ano") Integer ano);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+
+public interface LancamentoResumoRepository { // Implementado por LancamentoResumoRepositoryImpl e exposto pelo LancamentoRepository
+	
+	List<LancamentoResumo> buscarResumos(Specification<Lancamento> especificacao, Sort ordenacao);
+
+}
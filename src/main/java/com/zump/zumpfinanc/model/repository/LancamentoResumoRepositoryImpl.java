@@ -0,0 +1,41 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+
+public class LancamentoResumoRepositoryImpl implements LancamentoResumoRepository {
+	
+	private EntityManager entityManager;
+	
+	public LancamentoResumoRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	// Os mesmos filtros (Specification) da busca de entidades, mas o SELECT traz só as colunas da API e monta o LancamentoResumo direto
+	// (SELECT new): sem entidades no contexto de persistência, sem snapshot para o dirty checking e sem o JOIN com o usuário, lido pela FK
+	@Override
+	public List<LancamentoResumo> buscarResumos(Specification<Lancamento> especificacao, Sort ordenacao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoResumo> consulta = cb.createQuery(LancamentoResumo.class);
+		Root<Lancamento> root = consulta.from(Lancamento.class);
+		
+		consulta.select(cb.construct(LancamentoResumo.class, root.get("id"), root.get("descricao"), root.get("mes"), root.get("ano"), root.get("usuario").get("id"), 
+				root.get("valor").get("centavos"), root.get("valor").get("moeda"), root.get("tipo"), root.get("status")));
+		consulta.where(especificacao.toPredicate(root, consulta, cb));
+		consulta.orderBy(QueryUtils.toOrders(ordenacao, root, cb));
+		
+		return entityManager.createQuery(consulta).getResultList();
+	}
+
+}
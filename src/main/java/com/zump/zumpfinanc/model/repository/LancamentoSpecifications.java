@@ -0,0 +1,48 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.criteria.Predicate;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+
+public final class LancamentoSpecifications {
+	
+	// Mesma ordem do índice idx_lancamento_usuario_ano_mes, evitando ordenação na base
+	public static final Sort ORDENACAO_BUSCA = Sort.by("ano", "mes", "id");
+	
+	private LancamentoSpecifications() {
+	}
+	
+	// Usuário, ano e mês por igualdade (índice composto); descrição contra a coluna já normalizada, sem LOWER() na consulta
+	public static Specification<Lancamento> filtro(Lancamento lancamentoFiltro) {
+		return (root, query, cb) -> {
+			List<Predicate> predicados = new ArrayList<>();
+			predicados.add(cb.equal(root.get("usuario").get("id"), lancamentoFiltro.getUsuario().getId()));
+			
+			if(lancamentoFiltro.getAno() != null) {
+				predicados.add(cb.equal(root.get("ano"), lancamentoFiltro.getAno()));
+			}
+			
+			if(lancamentoFiltro.getMes() != null) {
+				predicados.add(cb.equal(root.get("mes"), lancamentoFiltro.getMes()));
+			}
+			
+			String descricao = Lancamento.normalizar(lancamentoFiltro.getDescricao());
+			if(descricao != null && !descricao.isEmpty()) {
+				predicados.add(cb.like(root.get("descricaoBusca"), "%" + escaparLike(descricao) + "%", '\\'));
+			}
+			
+			return cb.and(predicados.toArray(new Predicate[0]));
+		};
+	}
+	
+	public static String escaparLike(String texto) {
+		return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+
+public interface LancamentoStatusRepository { // Implementado por LancamentoStatusRepositoryImpl e exposto pelo LancamentoRepository
+	
+	// Seleção: lançamentos do usuário que ainda não estão no novo status, restritos pelos ids, ano, mês e status atual que vierem preenchidos
+	
+	List<GrupoSituacao> agruparParaMudancaDeStatus(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus);
+	
+	int atualizarStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus);
+
+}
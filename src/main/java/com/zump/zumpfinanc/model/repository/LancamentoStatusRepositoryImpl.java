@@ -0,0 +1,87 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+
+public class LancamentoStatusRepositoryImpl implements LancamentoStatusRepository {
+	
+	private EntityManager entityManager;
+	
+	public LancamentoStatusRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	// Os lançamentos que a atualização vai alterar, já somados por situação: uma linha por mês/tipo/status, e não por lançamento
+	@Override
+	public List<GrupoSituacao> agruparParaMudancaDeStatus(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<GrupoSituacao> consulta = cb.createQuery(GrupoSituacao.class);
+		Root<Lancamento> root = consulta.from(Lancamento.class);
+		
+		Path<Long> usuario = root.get("usuario").get("id");
+		consulta.select(cb.construct(GrupoSituacao.class, usuario, root.get("tipo"), root.get("status"), root.get("ano"), root.get("mes"), 
+				cb.sum(root.get("valor").<Long>get("centavos")), cb.count(root)));
+		consulta.where(selecao(cb, root, idUsuario, ids, ano, mes, statusAtual, novoStatus));
+		consulta.groupBy(usuario, root.get("tipo"), root.get("status"), root.get("ano"), root.get("mes"));
+		
+		return entityManager.createQuery(consulta).getResultList();
+	}
+
+	// Um único UPDATE ... WHERE para toda a seleção, sem carregar os lançamentos; a versão de cada um é incrementada (bloqueio otimista).
+	// Como no clearAutomatically das atualizações do LancamentoRepository, o contexto é limpo para nenhuma cópia antiga sobrescrever o status no flush
+	@Override
+	public int atualizarStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> atualizacao = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> root = atualizacao.from(Lancamento.class);
+		
+		Expression<Long> proximaVersao = cb.sum(root.<Long>get("versao"), 1l);
+		atualizacao.set(root.<StatusLancamento>get("status"), novoStatus);
+		atualizacao.set(root.<Long>get("versao"), proximaVersao);
+		atualizacao.where(selecao(cb, root, idUsuario, ids, ano, mes, statusAtual, novoStatus));
+		
+		int atualizados = entityManager.createQuery(atualizacao).executeUpdate();
+		entityManager.clear();
+		return atualizados;
+	}
+	
+	private static Predicate[] selecao(CriteriaBuilder cb, Root<Lancamento> root, Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, 
+			StatusLancamento statusAtual, StatusLancamento novoStatus) {
+		List<Predicate> predicados = new ArrayList<>();
+		predicados.add(cb.equal(root.get("usuario").get("id"), idUsuario));
+		predicados.add(cb.notEqual(root.get("status"), novoStatus));
+		
+		if(ids != null && !ids.isEmpty()) {
+			predicados.add(root.get("id").in(ids));
+		}
+		
+		if(ano != null) {
+			predicados.add(cb.equal(root.get("ano"), ano));
+		}
+		
+		if(mes != null) {
+			predicados.add(cb.equal(root.get("mes"), mes));
+		}
+		
+		if(statusAtual != null) {
+			predicados.add(cb.equal(root.get("status"), statusAtual));
+		}
+		
+		return predicados.toArray(new Predicate[0]);
+	}
+
+}
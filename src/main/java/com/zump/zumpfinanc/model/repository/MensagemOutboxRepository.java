@@ -0,0 +1,114 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.zump.zumpfinanc.exception.ErroConflito;
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+import com.zump.zumpfinanc.model.enums.Agregado;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+
+@Repository
+public class MensagemOutboxRepository { // Outbox em JDBC puro, como o EventoLancamentoRepository: gravado na conexão da transação da alteração
+	
+	private static final int TAMANHO_LOTE = 50; // O mesmo do hibernate.jdbc.batch_size
+	
+	private static final String INSERIR = "INSERT INTO financas.outbox (agregado, id_agregado, id_usuario, tipo, ocorrido_em, dados) VALUES (?, ?, ?, ?, ?, ?)";
+	private static final String COLUNAS = "id, agregado, id_agregado, id_usuario, tipo, ocorrido_em, dados, posicao";
+	
+	private JdbcTemplate jdbcTemplate;
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+	
+	public MensagemOutboxRepository(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+	}
+	
+	public void inserir(Collection<MensagemOutbox> mensagens) {
+		jdbcTemplate.batchUpdate(INSERIR, mensagens, TAMANHO_LOTE, (ps, mensagem) -> {
+			ps.setString(1, mensagem.getAgregado().name());
+			ps.setLong(2, mensagem.getIdAgregado());
+			ps.setLong(3, mensagem.getIdUsuario());
+			ps.setString(4, mensagem.getTipo().name());
+			InstanteUtc.definir(ps, 5, mensagem.getOcorridoEm());
+			ps.setString(6, mensagem.getDados());
+		});
+	}
+	
+	// Uma mensagem por lançamento da mudança de status em lote, com a mesma seleção e os mesmos dados do evento (EventoLancamentoRepository),
+	// executado antes do UPDATE
+	public int inserirMudancaDeStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus, 
+			Instant ocorridoEm) {
+		StringBuilder sql = new StringBuilder("INSERT INTO financas.outbox (agregado, id_agregado, id_usuario, tipo, ocorrido_em, dados) ")
+				.append("SELECT '").append(Agregado.LANCAMENTO.name()).append("', id, id_usuario, '").append(TipoEvento.STATUS_ALTERADO.name()).append("', :ocorridoEm, ")
+				.append(EventoLancamentoRepository.dadosMudancaDeStatus(novoStatus));
+		
+		Map<String, Object> parametros = new LinkedHashMap<>();
+		parametros.put("ocorridoEm", InstanteUtc.parametro(ocorridoEm));
+		EventoLancamentoRepository.selecaoMudancaDeStatus(sql, parametros, idUsuario, ids, ano, mes, statusAtual, novoStatus);
+		return namedJdbcTemplate.update(sql.toString(), new MapSqlParameterSource(parametros));
+	}
+	
+	// Ainda sem posição, na ordem de inserção
+	public List<MensagemOutbox> obterPendentes(int limite) {
+		return jdbcTemplate.query("SELECT " + COLUNAS + " FROM financas.outbox WHERE posicao IS NULL ORDER BY id LIMIT ?", 
+				(rs, linha) -> mapear(rs), limite);
+	}
+	
+	// 0 quando nada foi publicado
+	public long obterUltimaPosicao() {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(posicao), 0) FROM financas.outbox", Long.class);
+	}
+	
+	// Só atribui a quem continua pendente: uma mensagem publicada por outro relay no meio do lote desfaz o lote inteiro
+	public void atribuirPosicoes(List<MensagemOutbox> mensagens) {
+		int[][] atualizados = jdbcTemplate.batchUpdate("UPDATE financas.outbox SET posicao = ? WHERE id = ? AND posicao IS NULL", mensagens, TAMANHO_LOTE, (ps, mensagem) -> {
+			ps.setLong(1, mensagem.getPosicao());
+			ps.setLong(2, mensagem.getId());
+		});
+		for(int[] lote : atualizados) {
+			for(int quantidade : lote) {
+				if(quantidade != 1 && quantidade != Statement.SUCCESS_NO_INFO) {
+					throw new ErroConflito("Mensagem do outbox publicada por outro relay.");
+				}
+			}
+		}
+	}
+	
+	// Mudanças do usuário depois da posição, pelo índice (id_usuario, posicao)
+	public List<MensagemOutbox> obterPublicadas(Long idUsuario, long aposPosicao, int limite) {
+		return jdbcTemplate.query("SELECT " + COLUNAS + " FROM financas.outbox WHERE id_usuario = ? AND posicao > ? ORDER BY posicao LIMIT ?", 
+				(rs, linha) -> mapear(rs), idUsuario, aposPosicao, limite);
+	}
+	
+	// Usuários com mudança publicada em (aposPosicao, atePosicao]
+	public List<Long> obterUsuariosPublicados(long aposPosicao, long atePosicao) {
+		return jdbcTemplate.queryForList("SELECT DISTINCT id_usuario FROM financas.outbox WHERE posicao > ? AND posicao <= ?", Long.class, aposPosicao, atePosicao);
+	}
+	
+	// A última posição publicada nunca é excluída: a próxima é calculada a partir dela e os cursores dos consumidores continuam valendo
+	public int excluirPublicadas(Instant antes, long ultimaPosicao) {
+		return jdbcTemplate.update("DELETE FROM financas.outbox WHERE posicao < ? AND ocorrido_em < ?", ultimaPosicao, InstanteUtc.parametro(antes));
+	}
+	
+	private static MensagemOutbox mapear(ResultSet rs) throws SQLException {
+		return MensagemOutbox.builder().id(rs.getLong("id")).agregado(Agregado.valueOf(rs.getString("agregado"))).idAgregado(rs.getLong("id_agregado"))
+				.idUsuario(rs.getLong("id_usuario")).tipo(TipoEvento.valueOf(rs.getString("tipo"))).ocorridoEm(InstanteUtc.ler(rs, "ocorrido_em"))
+				.dados(rs.getString("dados")).posicao((Long) rs.getObject("posicao")).build();
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zump.zumpfinanc.model.entity.Recorrencia;
+
+public interface RecorrenciaRepository extends JpaRepository<Recorrencia, Long>{
+	
+	// Partição pelo resto do id: cada nó do agendador só lê as recorrências das partições que reservou
+	@Query(value = "SELECT r FROM Recorrencia r WHERE r.proximaOcorrencia <= :ate AND MOD(r.id, :particoes) = :particao ORDER BY r.proximaOcorrencia, r.id")
+	List<Recorrencia> obterVencidas(@Param("ate") Integer ate, @Param("particoes") int particoes, @Param("particao") int particao, Pageable pagina);
+	
+	@Query(value = "SELECT r FROM Recorrencia r WHERE r.usuario.id = :idUsuario ORDER BY r.id")
+	List<Recorrencia> obterDoUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Modifying // Incrementa a versão: um lote do agendador em andamento sobre a mesma recorrência é desfeito no flush
+	@Query(value = "UPDATE Recorrencia r SET r.proximaOcorrencia = null, r.versao = r.versao + 1 WHERE r.id = :id AND r.usuario.id = :idUsuario")
+	int encerrar(@Param("id") Long id, @Param("idUsuario") Long idUsuario);
+
+}
@@ -0,0 +1,32 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zump.zumpfinanc.model.entity.ReservaParticao;
+
+public interface ReservaParticaoRepository extends JpaRepository<ReservaParticao, String>{
+	
+	// Renova a própria reserva ou assume uma expirada; o UPDATE condicional é atômico, então dois nós nunca ficam com a mesma partição
+	@Modifying
+	@Query(value = "UPDATE ReservaParticao r SET r.dono = :dono, r.expiraEm = :expiraEm WHERE r.chave = :chave AND (r.dono = :dono OR r.expiraEm < :agora)")
+	int reservar(@Param("chave") String chave, @Param("dono") String dono, @Param("expiraEm") Instant expiraEm, @Param("agora") Instant agora);
+	
+	// Bloqueia a própria reserva ainda válida até o fim da transação: quem for assumi-la espera o commit
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = "SELECT r FROM ReservaParticao r WHERE r.chave = :chave AND r.dono = :dono AND r.expiraEm > :agora")
+	Optional<ReservaParticao> obterPropriaParaAtualizacao(@Param("chave") String chave, @Param("dono") String dono, @Param("agora") Instant agora);
+	
+	@Modifying
+	@Query(value = "UPDATE ReservaParticao r SET r.expiraEm = :agora WHERE r.chave = :chave AND r.dono = :dono")
+	int liberar(@Param("chave") String chave, @Param("dono") String dono, @Param("agora") Instant agora);
+
+}
@@ -0,0 +1,10 @@
+package com.zump.zumpfinanc.model.repository;
+
+import com.zump.zumpfinanc.model.entity.ResumoMensal;
+
+public interface ResumoMensalInclusaoRepository { // Implementado por ResumoMensalInclusaoRepositoryImpl e exposto pelo ResumoMensalRepository
+	
+	// Grava a primeira linha do mês/tipo/status; false quando outra transação já gravou (a alteração corrente entra pelo acumular)
+	boolean inserirSeAusente(ResumoMensal resumo);
+
+}
@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.model.repository;
+
+import javax.persistence.EntityManager;
+
+import com.zump.zumpfinanc.model.entity.ChaveResumoMensal;
+import com.zump.zumpfinanc.model.entity.ResumoMensal;
+
+public class ResumoMensalInclusaoRepositoryImpl implements ResumoMensalInclusaoRepository {
+	
+	private EntityManager entityManager;
+	
+	public ResumoMensalInclusaoRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public boolean inserirSeAusente(ResumoMensal resumo) {
+		ChaveResumoMensal chave = resumo.getChave();
+		return InsercaoSeAusente.inserir(entityManager, "INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total_centavos, quantidade) VALUES (?, ?, ?, ?, ?, ?, ?)", 
+				chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo().name(), chave.getStatus().name(), resumo.getTotalCentavos(), resumo.getQuantidade());
+	}
+
+}
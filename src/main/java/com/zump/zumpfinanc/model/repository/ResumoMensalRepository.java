@@ -0,0 +1,33 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zump.zumpfinanc.model.entity.ChaveResumoMensal;
+import com.zump.zumpfinanc.model.entity.ResumoMensal;
+import com.zump.zumpfinanc.model.projection.TotalMensal;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ChaveResumoMensal>, ResumoMensalInclusaoRepository {
+	
+	@Modifying
+	@Query(value = "UPDATE ResumoMensal r SET r.totalCentavos = r.totalCentavos + :total, r.quantidade = r.quantidade + :quantidade WHERE r.chave.idUsuario = :#{#chave.idUsuario} "
+			+ "AND r.chave.ano = :#{#chave.ano} AND r.chave.mes = :#{#chave.mes} AND r.chave.tipo = :#{#chave.tipo} AND r.chave.status = :#{#chave.status}")
+	int acumular(@Param("chave") ChaveResumoMensal chave, @Param("total") long total, @Param("quantidade") long quantidade);
+	
+	@Query(value = "SELECT r.chave.ano AS ano, r.chave.mes AS mes, r.chave.tipo AS tipo, r.chave.status AS status, r.totalCentavos AS totalCentavos, r.quantidade AS quantidade "
+			+ "FROM ResumoMensal r WHERE r.chave.idUsuario = :idUsuario AND r.chave.ano = :ano AND r.quantidade > 0") // Linhas zeradas (todos os lançamentos saíram) ficam na tabela
+	List<TotalMensal> obterTotais(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+	
+	@Modifying
+	@Query(value = "DELETE FROM ResumoMensal r WHERE r.chave.idUsuario = :idUsuario")
+	int excluirDoUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Modifying
+	@Query(value = "DELETE FROM ResumoMensal r WHERE r.chave.idUsuario = :idUsuario AND r.chave.ano > :ano")
+	int excluirDoUsuarioApos(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+
+}
@@ -0,0 +1,9 @@
+package com.zump.zumpfinanc.model.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.zump.zumpfinanc.model.entity.SaldoArquivado;
+
+public interface SaldoArquivadoRepository extends JpaRepository<SaldoArquivado, Long>{
+
+}
@@ -0,0 +1,8 @@
+package com.zump.zumpfinanc.model.repository;
+
+public interface SaldoUsuarioInclusaoRepository { // Implementado por SaldoUsuarioInclusaoRepositoryImpl e exposto pelo SaldoUsuarioRepository
+	
+	// Grava o primeiro saldo do usuário; false quando outra transação já gravou (a linha dela vale, e a alteração corrente entra pelo acumular)
+	boolean inserirSeAusente(Long idUsuario, long valorCentavos);
+
+}
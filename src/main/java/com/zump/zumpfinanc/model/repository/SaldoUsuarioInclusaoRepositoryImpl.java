@@ -0,0 +1,18 @@
+package com.zump.zumpfinanc.model.repository;
+
+import javax.persistence.EntityManager;
+
+public class SaldoUsuarioInclusaoRepositoryImpl implements SaldoUsuarioInclusaoRepository {
+	
+	private EntityManager entityManager;
+	
+	public SaldoUsuarioInclusaoRepositoryImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public boolean inserirSeAusente(Long idUsuario, long valorCentavos) {
+		return InsercaoSeAusente.inserir(entityManager, "INSERT INTO financas.saldo_usuario (id_usuario, valor_centavos) VALUES (?, ?)", idUsuario, valorCentavos);
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zump.zumpfinanc.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long>, SaldoUsuarioInclusaoRepository {
+	
+	@Modifying
+	@Query(value = "UPDATE SaldoUsuario s SET s.valorCentavos = s.valorCentavos + :delta WHERE s.idUsuario = :idUsuario")
+	int acumular(@Param("idUsuario") Long idUsuario, @Param("delta") long delta);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = "SELECT s FROM SaldoUsuario s WHERE s.idUsuario = :idUsuario")
+	Optional<SaldoUsuario> obterParaAtualizacao(@Param("idUsuario") Long idUsuario);
+
+}
@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.model.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.zump.zumpfinanc.model.entity.SnapshotSaldo;
+
+public interface SnapshotSaldoRepository extends JpaRepository<SnapshotSaldo, Long>{
+	
+	// Com PageRequest.of(0, 1): o snapshot mais recente até o instante, lido pelo índice (id_usuario, ate)
+	@Query(value = "SELECT s FROM SnapshotSaldo s WHERE s.idUsuario = :idUsuario AND s.ate <= :instante ORDER BY s.ate DESC")
+	List<SnapshotSaldo> obterAte(@Param("idUsuario") Long idUsuario, @Param("instante") Instant instante, Pageable pagina);
+	
+	@Query(value = "SELECT s FROM SnapshotSaldo s WHERE s.idUsuario = :idUsuario AND s.inicial = true")
+	Optional<SnapshotSaldo> obterInicial(@Param("idUsuario") Long idUsuario);
+
+}
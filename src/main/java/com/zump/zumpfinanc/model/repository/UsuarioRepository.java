@@ -1,15 +1,46 @@
 package com.zump.zumpfinanc.model.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.zump.zumpfinanc.config.CacheConfig;
 import com.zump.zumpfinanc.model.entity.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
 	
 	boolean existsByEmail(String email);
 	
+	@Cacheable(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, unless = "#result == null")
 	Optional<Usuario> findByEmail(String email);
 	
+	@Override
+	@Cacheable(cacheNames = CacheConfig.USUARIOS, unless = "#result == null") // Não guarda ausência: o usuário pode ser cadastrado em seguida
+	Optional<Usuario> findById(Long id);
+	
+	@Query(value = "SELECT u.id FROM Usuario u ORDER BY u.id")
+	List<Long> obterIds();
+	
+	@Query(value = "SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+	List<Long> obterIdsExistentes(@Param("ids") Collection<Long> ids);
+	
+	// Troca condicionada à senha lida no login: se outro login já migrou a senha, não altera nada
+	@Modifying
+	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#id"),
+			@CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, key = "#email")
+	})
+	@Query(value = "UPDATE Usuario u SET u.senha = :senha WHERE u.id = :id AND u.email = :email AND u.senha = :senhaAnterior")
+	int atualizarSenha(@Param("id") Long id, @Param("email") String email, @Param("senhaAnterior") String senhaAnterior, @Param("senha") String senha);
+	
 }
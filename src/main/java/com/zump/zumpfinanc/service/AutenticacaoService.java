@@ -0,0 +1,11 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.zump.zumpfinanc.model.entity.Usuario;
+
+public interface AutenticacaoService {
+	
+	CompletableFuture<Usuario> autenticar(String email, String senha);
+
+}
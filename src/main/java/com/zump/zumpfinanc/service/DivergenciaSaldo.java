@@ -0,0 +1,14 @@
+package com.zump.zumpfinanc.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DivergenciaSaldo {
+	
+	private Long idUsuario;
+	private Long saldoConsolidado; // Centavos que estavam na tabela saldo_usuario (null se não existia)
+	private Long saldoCalculado; // Centavos recalculados a partir da tabela lancamento
+
+}
@@ -0,0 +1,32 @@
+package com.zump.zumpfinanc.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+
+public interface EventoLancamentoService {
+	
+	void registrarCriacoes(Collection<Lancamento> lancamentos);
+	
+	void registrarAtualizacao(SituacaoLancamento anterior, Lancamento atual);
+	
+	void registrarMudancaDeStatus(Long idLancamento, SituacaoLancamento anterior, StatusLancamento novoStatus);
+	
+	int registrarMudancaDeStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus);
+	
+	void registrarExclusao(Long idLancamento, SituacaoLancamento anterior);
+	
+	long obterSaldoEm(Long idUsuario, Instant instante);
+	
+	void percorrer(Long idUsuario, Instant de, Instant ate, Consumer<EventoLancamento> consumidor);
+	
+	int registrarSnapshots();
+	
+	int registrarSnapshots(Instant ate);
+
+}
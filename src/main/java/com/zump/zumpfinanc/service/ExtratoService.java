@@ -0,0 +1,12 @@
+package com.zump.zumpfinanc.service;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import com.zump.zumpfinanc.service.extrato.FormatoExtrato;
+
+public interface ExtratoService {
+	
+	ResultadoImportacao importar(Long idUsuario, FormatoExtrato formato, Charset codificacao, InputStream conteudo);
+
+}
@@ -0,0 +1,9 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.Iterator;
+
+public interface ImportacaoLancamentoService {
+	
+	ResultadoImportacao importar(Iterator<LinhaImportacao> linhas);
+
+}
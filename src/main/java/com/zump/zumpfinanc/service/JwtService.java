@@ -0,0 +1,11 @@
+package com.zump.zumpfinanc.service;
+
+import com.zump.zumpfinanc.model.entity.Usuario;
+
+public interface JwtService {
+	
+	String gerarToken(Usuario usuario);
+	
+	UsuarioAutenticado obterUsuarioAutenticado(String token);
+
+}
@@ -1,28 +1,37 @@
 package com.zump.zumpfinanc.service;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.zump.zumpfinanc.model.entity.Lancamento;
 import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
 
 public interface LancamentoService {
 	
 	Lancamento salvar(Lancamento lancamento);
 	
-	Lancamento atualizar(Lancamento lancamento);
+	Lancamento atualizar(Lancamento lancamento); // Com a versão do lançamento preenchida, só altera se ela ainda for a atual (senão ErroConflito)
 	
 	void deletar(Lancamento lancamento);
 	
-	List<Lancamento> buscar(Lancamento lancamentoFiltro);
+	List<LancamentoResumo> buscar(Lancamento lancamentoFiltro);
 	
-	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
+	List<LancamentoResumo> buscarPagina(Lancamento lancamentoFiltro, Long aposId, int tamanho);
+	
+	void percorrer(Lancamento lancamentoFiltro, Consumer<LancamentoResumo> consumidor);
+	
+	void atualizarStatus(Lancamento lancamento, StatusLancamento status, Long versaoEsperada); // versaoEsperada null: aceita a versão atual
+	
+	// Muda o status de todos os lançamentos selecionados (ids e/ou ano, mês e status atual) em um único UPDATE
+	ResultadoAtualizacaoStatus atualizarStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus);
 	
 	void validar(Lancamento lancamento);
 	
 	Optional<Lancamento> obterPorId(Long id);
 	
-	BigDecimal obterSaldoPorUsuario(Long id);
+	long obterSaldoPorUsuario(Long id); // Em centavos da moeda padrão
 	
 }
@@ -0,0 +1,24 @@
+package com.zump.zumpfinanc.service;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LinhaImportacao {
+	
+	private int numero;
+	private Lancamento lancamento;
+	private String erro; // Preenchido quando a linha já não pôde ser convertida em Lancamento
+	
+	public static LinhaImportacao valida(int numero, Lancamento lancamento) {
+		return new LinhaImportacao(numero, lancamento, null);
+	}
+	
+	public static LinhaImportacao invalida(int numero, String erro) {
+		return new LinhaImportacao(numero, null, erro);
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.zump.zumpfinanc.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+
+public interface OutboxService {
+	
+	void registrarEventos(Collection<EventoLancamento> eventos);
+	
+	int registrarMudancaDeStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus, 
+			Instant ocorridoEm);
+	
+	void registrarCriacaoUsuario(Usuario usuario);
+	
+	int publicarPendentes();
+	
+	int excluirPublicadas();
+	
+	List<MensagemOutbox> obterPublicadas(Long idUsuario, long aposPosicao, int limite);
+	
+	CompletableFuture<Void> aguardarPublicacao(Long idUsuario);
+
+}
@@ -0,0 +1,13 @@
+package com.zump.zumpfinanc.service;
+
+public interface ParticaoLancamentoService {
+	
+	void garantirParticao(Integer ano);
+	
+	void conferirFalhaDeGravacao(RuntimeException erro, Integer ano);
+	
+	int manterParticoes();
+	
+	void arquivar(int ano);
+
+}
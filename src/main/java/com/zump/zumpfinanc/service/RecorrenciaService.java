@@ -0,0 +1,20 @@
+package com.zump.zumpfinanc.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import com.zump.zumpfinanc.model.entity.Recorrencia;
+
+public interface RecorrenciaService {
+	
+	Recorrencia salvar(Recorrencia recorrencia);
+	
+	List<Recorrencia> obterDoUsuario(Long idUsuario);
+	
+	void encerrar(Long id, Long idUsuario);
+	
+	int materializarVencidas();
+	
+	int materializar(YearMonth ate);
+
+}
@@ -0,0 +1,13 @@
+package com.zump.zumpfinanc.service;
+
+import java.time.Duration;
+
+public interface ReservaParticaoService {
+	
+	boolean reservar(String chave, Duration duracao);
+	
+	boolean confirmar(String chave);
+	
+	void liberar(String chave);
+
+}
@@ -0,0 +1,22 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+
+import lombok.Data;
+
+@Data
+public class ResultadoAtualizacaoStatus {
+	
+	private long atualizados;
+	private Map<StatusLancamento, Long> porStatusAnterior = new EnumMap<>(StatusLancamento.class);
+	
+	public void registrar(GrupoSituacao grupo) {
+		atualizados += grupo.getQuantidade();
+		porStatusAnterior.merge(grupo.getStatus(), grupo.getQuantidade(), Long::sum);
+	}
+
+}
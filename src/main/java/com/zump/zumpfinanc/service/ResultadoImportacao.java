@@ -0,0 +1,40 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ResultadoImportacao {
+	
+	static final int LIMITE_ERROS_DETALHADOS = 1000; // Acima disso só a contagem cresce, para um arquivo ruim não estourar a memória
+	
+	private int importados;
+	private int duplicados;
+	private int rejeitados;
+	private List<ErroImportacao> erros = new ArrayList<>();
+	
+	public void registrarImportados(int quantidade) {
+		importados += quantidade;
+	}
+	
+	public void registrarDuplicado() {
+		duplicados++;
+	}
+	
+	public void registrarErro(int linha, String mensagem) {
+		rejeitados++;
+		if(erros.size() < LIMITE_ERROS_DETALHADOS) {
+			erros.add(new ErroImportacao(linha, mensagem));
+		}
+	}
+	
+	@Data
+	public static class ErroImportacao {
+		
+		private final int linha;
+		private final String mensagem;
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.projection.TotalMensal;
+
+public interface ResumoService {
+	
+	void registrarAlteracao(SituacaoLancamento anterior, SituacaoLancamento atual);
+	
+	void registrarInclusoes(Collection<SituacaoLancamento> inclusoes);
+	
+	void registrarMudancaDeStatus(Collection<GrupoSituacao> anteriores, StatusLancamento novoStatus);
+	
+	List<TotalMensal> obterTotaisMensais(Long idUsuario, Integer ano);
+	
+	void reconstruir(Long idUsuario);
+
+}
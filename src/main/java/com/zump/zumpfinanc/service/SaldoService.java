@@ -0,0 +1,24 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+
+public interface SaldoService {
+	
+	void registrarAlteracao(SituacaoLancamento anterior, SituacaoLancamento atual);
+	
+	void registrarInclusoes(Collection<SituacaoLancamento> inclusoes);
+	
+	void registrarMudancaDeStatus(Collection<GrupoSituacao> anteriores, StatusLancamento novoStatus);
+	
+	long obterSaldo(Long idUsuario);
+	
+	long calcularSaldo(Long idUsuario);
+	
+	List<DivergenciaSaldo> reconciliar();
+
+}
@@ -0,0 +1,15 @@
+package com.zump.zumpfinanc.service;
+
+import java.time.Instant;
+
+import lombok.Data;
+
+@Data
+public class UsuarioAutenticado { // Dados do usuário vindos só do token, sem consulta à base
+	
+	private final Long id;
+	private final String email;
+	private final String nome;
+	private final Instant expiracao;
+
+}
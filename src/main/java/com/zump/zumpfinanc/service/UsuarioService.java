@@ -13,4 +13,8 @@ public interface UsuarioService {
 	void validarEmail(String email);
 
 	Optional<Usuario> obterPorId(Long id);
+	
+	boolean existe(Long id);
+	
+	Usuario obterReferencia(Long id);
 }
@@ -0,0 +1,55 @@
+package com.zump.zumpfinanc.service.extrato;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+final class ConversorExtrato { // Formatos de data e valor aceitos nos extratos (padrão brasileiro e ISO)
+	
+	private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	private static final DateTimeFormatter DATA_OFX = DateTimeFormatter.BASIC_ISO_DATE;
+	
+	private ConversorExtrato() {
+	}
+	
+	static LocalDate lerData(String texto) {
+		String data = texto.trim();
+		try {
+			if(data.indexOf('/') > 0) {
+				return LocalDate.parse(data, DATA_BRASILEIRA);
+			}
+			if(data.length() >= 10 && data.charAt(4) == '-') { // O fuso do OFX ("[-3:BRT]") também tem '-'
+				return LocalDate.parse(data.length() > 10 ? data.substring(0, 10) : data);
+			}
+			return LocalDate.parse(data.length() > 8 ? data.substring(0, 8) : data, DATA_OFX); // OFX: AAAAMMDD[HHMMSS[.XXX][-3:BRT]]
+		} catch (DateTimeParseException | StringIndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Data inválida: " + texto);
+		}
+	}
+	
+	// Aceita "1.234,56", "1234.56", "-50,00", "R$ 10,00" e "(10,00)" (negativo entre parênteses)
+	static BigDecimal lerValor(String texto) {
+		String valor = texto.replace("R$", "").replace(" ", "").replace("\u00A0", "");
+		boolean negativo = valor.startsWith("(") && valor.endsWith(")");
+		if(negativo) {
+			valor = valor.substring(1, valor.length() - 1);
+		}
+		
+		int virgula = valor.lastIndexOf(',');
+		int ponto = valor.lastIndexOf('.');
+		if(virgula > ponto) {
+			valor = valor.replace(".", "").replace(',', '.');
+		} else {
+			valor = valor.replace(",", "");
+		}
+		
+		try {
+			BigDecimal resultado = new BigDecimal(valor);
+			return negativo ? resultado.negate() : resultado;
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Valor inválido: " + texto);
+		}
+	}
+
+}
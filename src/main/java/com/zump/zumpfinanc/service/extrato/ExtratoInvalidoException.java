@@ -0,0 +1,16 @@
+package com.zump.zumpfinanc.service.extrato;
+
+public class ExtratoInvalidoException extends RuntimeException { // Erro em uma transação específica; a leitura do arquivo continua
+	
+	private final int linha;
+	
+	public ExtratoInvalidoException(int linha, String mensagem) {
+		super(mensagem);
+		this.linha = linha;
+	}
+	
+	public int getLinha() {
+		return linha;
+	}
+
+}
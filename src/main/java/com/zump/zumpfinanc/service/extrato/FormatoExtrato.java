@@ -0,0 +1,7 @@
+package com.zump.zumpfinanc.service.extrato;
+
+public enum FormatoExtrato {
+
+	CSV,
+	OFX
+}
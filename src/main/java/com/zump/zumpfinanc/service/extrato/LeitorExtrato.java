@@ -0,0 +1,22 @@
+package com.zump.zumpfinanc.service.extrato;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+public interface LeitorExtrato extends Closeable {
+	
+	// Próxima transação do arquivo, ou null no fim; lança ExtratoInvalidoException para uma transação ilegível
+	TransacaoExtrato proxima() throws IOException;
+	
+	static LeitorExtrato para(FormatoExtrato formato, Reader reader) throws IOException {
+		switch (formato) {
+			case OFX:
+				return new LeitorExtratoOfx(reader);
+			case CSV:
+			default:
+				return new LeitorExtratoCsv(reader);
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.zump.zumpfinanc.service.extrato;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+
+// Lê o CSV linha a linha; o cabeçalho define a ordem das colunas data, descricao, valor e, opcionalmente, identificador
+public class LeitorExtratoCsv implements LeitorExtrato {
+	
+	private final BufferedReader reader;
+	private final char separador;
+	private final int colunaData;
+	private final int colunaDescricao;
+	private final int colunaValor;
+	private final int colunaIdentificador;
+	private final int quantidadeMinimaColunas;
+	private int linha = 1;
+	
+	LeitorExtratoCsv(Reader reader) throws IOException {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024);
+		
+		String cabecalho = this.reader.readLine();
+		if(cabecalho == null) {
+			throw new ExtratoInvalidoException(1, "Arquivo CSV vazio.");
+		}
+		if(cabecalho.startsWith("\uFEFF")) {
+			cabecalho = cabecalho.substring(1);
+		}
+		
+		this.separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+		List<String> colunas = new ArrayList<>();
+		for(String coluna : dividir(cabecalho)) {
+			colunas.add(Lancamento.normalizar(coluna));
+		}
+		
+		this.colunaData = colunas.indexOf("data");
+		this.colunaDescricao = colunas.indexOf("descricao");
+		this.colunaValor = colunas.indexOf("valor");
+		this.colunaIdentificador = colunas.indexOf("identificador");
+		if(colunaData < 0 || colunaDescricao < 0 || colunaValor < 0) {
+			throw new ExtratoInvalidoException(1, "O cabeçalho do CSV deve conter as colunas data, descricao e valor.");
+		}
+		this.quantidadeMinimaColunas = Math.max(colunaData, Math.max(colunaDescricao, colunaValor)) + 1;
+	}
+
+	@Override
+	public TransacaoExtrato proxima() throws IOException {
+		String texto;
+		do {
+			texto = reader.readLine();
+			linha++;
+			if(texto == null) {
+				return null;
+			}
+		} while(texto.trim().isEmpty());
+		
+		List<String> campos = dividir(texto);
+		if(campos.size() < quantidadeMinimaColunas) {
+			throw new ExtratoInvalidoException(linha, "Quantidade de colunas menor que a do cabeçalho.");
+		}
+		
+		try {
+			String identificador = colunaIdentificador >= 0 && colunaIdentificador < campos.size() && !campos.get(colunaIdentificador).isEmpty() ? campos.get(colunaIdentificador) : null;
+			return new TransacaoExtrato(linha, ConversorExtrato.lerData(campos.get(colunaData)), campos.get(colunaDescricao), ConversorExtrato.lerValor(campos.get(colunaValor)), identificador);
+		} catch (IllegalArgumentException e) {
+			throw new ExtratoInvalidoException(linha, e.getMessage());
+		}
+	}
+	
+	private List<String> dividir(String texto) { // Campos entre aspas podem conter o separador; "" dentro de aspas é uma aspa
+		List<String> campos = new ArrayList<>();
+		StringBuilder atual = new StringBuilder();
+		boolean entreAspas = false;
+		
+		for(int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if(c == '"') {
+				if(entreAspas && i + 1 < texto.length() && texto.charAt(i + 1) == '"') {
+					atual.append('"');
+					i++;
+				} else {
+					entreAspas = !entreAspas;
+				}
+			} else if(c == separador && !entreAspas) {
+				campos.add(atual.toString().trim());
+				atual.setLength(0);
+			} else {
+				atual.append(c);
+			}
+		}
+		
+		campos.add(atual.toString().trim());
+		return campos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
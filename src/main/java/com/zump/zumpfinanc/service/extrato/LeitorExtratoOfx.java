@@ -0,0 +1,106 @@
+package com.zump.zumpfinanc.service.extrato;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Lê OFX 1.x (SGML, sem tags de fechamento nos campos) e 2.x (XML) tag a tag, guardando em memória só a transação corrente
+public class LeitorExtratoOfx implements LeitorExtrato {
+	
+	private static final int TAMANHO_MAXIMO_TEXTO = 4096; // Protege a memória contra arquivos corrompidos sem '<' / '>'
+	
+	private final PushbackReader reader;
+	private int linha = 1;
+	
+	LeitorExtratoOfx(Reader reader) {
+		this.reader = new PushbackReader(reader instanceof BufferedReader ? reader : new BufferedReader(reader, 64 * 1024));
+	}
+
+	@Override
+	public TransacaoExtrato proxima() throws IOException {
+		Map<String, String> campos = null;
+		int linhaInicial = 0;
+		String tag;
+		
+		while((tag = proximaTag()) != null) {
+			if(tag.equals("STMTTRN")) {
+				campos = new HashMap<>();
+				linhaInicial = linha;
+			} else if(tag.equals("/STMTTRN")) {
+				if(campos != null) {
+					return converter(campos, linhaInicial);
+				}
+			} else if(campos != null && !tag.startsWith("/")) {
+				String valor = lerTexto();
+				if(!valor.isEmpty()) {
+					campos.put(tag, valor);
+				}
+			}
+		}
+		
+		return null;
+	}
+	
+	private TransacaoExtrato converter(Map<String, String> campos, int linhaInicial) {
+		String data = campos.get("DTPOSTED");
+		String valor = campos.get("TRNAMT");
+		if(data == null || valor == null) {
+			throw new ExtratoInvalidoException(linhaInicial, "Transação OFX sem DTPOSTED ou TRNAMT.");
+		}
+		
+		String descricao = campos.containsKey("MEMO") ? campos.get("MEMO") : campos.get("NAME");
+		try {
+			return new TransacaoExtrato(linhaInicial, ConversorExtrato.lerData(data), descricao, ConversorExtrato.lerValor(valor), campos.get("FITID"));
+		} catch (IllegalArgumentException e) {
+			throw new ExtratoInvalidoException(linhaInicial, e.getMessage());
+		}
+	}
+	
+	private String proximaTag() throws IOException {
+		int c;
+		while((c = ler()) != -1 && c != '<') {
+			// Ignora o cabeçalho OFX e o texto fora das tags
+		}
+		if(c == -1) {
+			return null;
+		}
+		
+		StringBuilder tag = new StringBuilder();
+		while((c = ler()) != -1 && c != '>' && tag.length() < TAMANHO_MAXIMO_TEXTO) {
+			tag.append((char) c);
+		}
+		return tag.toString().trim().toUpperCase(Locale.ROOT);
+	}
+	
+	private String lerTexto() throws IOException { // Texto até a próxima tag, que fica para a próxima leitura
+		StringBuilder texto = new StringBuilder();
+		int c;
+		while((c = ler()) != -1 && c != '<') {
+			if(texto.length() < TAMANHO_MAXIMO_TEXTO) {
+				texto.append((char) c);
+			}
+		}
+		if(c == '<') {
+			reader.unread(c);
+		}
+		return texto.toString().trim().replace("&lt;", "<").replace("&gt;", ">").replace("&amp;", "&");
+	}
+	
+	private int ler() throws IOException {
+		int c = reader.read();
+		if(c == '\n') {
+			linha++;
+		}
+		return c;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
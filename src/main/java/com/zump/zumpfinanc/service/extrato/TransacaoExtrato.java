@@ -0,0 +1,19 @@
+package com.zump.zumpfinanc.service.extrato;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TransacaoExtrato {
+	
+	private int linha;
+	private LocalDate data;
+	private String descricao;
+	private BigDecimal valor; // Negativo para débitos, positivo para créditos
+	private String identificador; // FITID do OFX ou coluna "identificador" do CSV; pode ser null
+	
+}
@@ -0,0 +1,38 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.zump.zumpfinanc.config.AutenticacaoConfig;
+import com.zump.zumpfinanc.exception.ErroSobrecarga;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.service.AutenticacaoService;
+import com.zump.zumpfinanc.service.UsuarioService;
+
+@Service
+public class AutenticacaoServiceImpl implements AutenticacaoService {
+	
+	public static final String SOBRECARGA = "Muitas tentativas de login simultâneas. Tente novamente em instantes.";
+	
+	private UsuarioService usuarioService;
+	private ExecutorService executor;
+	
+	public AutenticacaoServiceImpl(UsuarioService usuarioService, @Qualifier(AutenticacaoConfig.EXECUTOR_AUTENTICACAO) ExecutorService executor) {
+		this.usuarioService = usuarioService;
+		this.executor = executor;
+	}
+
+	@Override
+	public CompletableFuture<Usuario> autenticar(String email, String senha) {
+		try {
+			return CompletableFuture.supplyAsync(() -> usuarioService.autenticar(email, senha), executor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(new ErroSobrecarga(SOBRECARGA));
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.SnapshotSaldo;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.EventoLancamentoRepository;
+import com.zump.zumpfinanc.model.repository.SnapshotSaldoRepository;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
+import com.zump.zumpfinanc.service.OutboxService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class EventoLancamentoServiceImpl implements EventoLancamentoService {
+	
+	private static final PageRequest MAIS_RECENTE = PageRequest.of(0, 1);
+	
+	private EventoLancamentoRepository repository;
+	private SnapshotSaldoRepository snapshotRepository;
+	private UsuarioRepository usuarioRepository;
+	private OutboxService outboxService;
+	private ObjectMapper objectMapper;
+	private TransactionTemplate transactionTemplate;
+	private Duration margemSnapshot;
+	
+	public EventoLancamentoServiceImpl(EventoLancamentoRepository repository, SnapshotSaldoRepository snapshotRepository, UsuarioRepository usuarioRepository, 
+			OutboxService outboxService, ObjectMapper objectMapper, PlatformTransactionManager transactionManager, @Value("${zumpfinanc.eventos.snapshot.margem-segundos:300}") long margemSnapshot) {
+		this.repository = repository;
+		this.snapshotRepository = snapshotRepository;
+		this.usuarioRepository = usuarioRepository;
+		this.outboxService = outboxService;
+		this.objectMapper = objectMapper;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.margemSnapshot = Duration.ofSeconds(margemSnapshot);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarCriacoes(Collection<Lancamento> lancamentos) {
+		Instant agora = Instant.now();
+		List<EventoLancamento> eventos = lancamentos.stream().map(lancamento -> {
+			SituacaoLancamento situacao = SituacaoLancamento.de(lancamento);
+			return evento(TipoEvento.CRIADO, lancamento.getId(), situacao, agora, situacao.contribuicaoNoSaldo(), dados(lancamento));
+		}).collect(Collectors.toList());
+		inserir(eventos); // Um INSERT em lote, e não um por lançamento incluído
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarAtualizacao(SituacaoLancamento anterior, Lancamento atual) {
+		SituacaoLancamento situacao = SituacaoLancamento.de(atual);
+		long delta = Math.subtractExact(situacao.contribuicaoNoSaldo(), anterior.contribuicaoNoSaldo());
+		inserir(Collections.singletonList(evento(TipoEvento.ATUALIZADO, atual.getId(), situacao, Instant.now(), delta, dados(atual))));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarMudancaDeStatus(Long idLancamento, SituacaoLancamento anterior, StatusLancamento novoStatus) {
+		SituacaoLancamento atual = anterior.comStatus(novoStatus);
+		atual.setVersao(anterior.getVersao() == null ? null : anterior.getVersao() + 1);
+		long delta = Math.subtractExact(atual.contribuicaoNoSaldo(), anterior.contribuicaoNoSaldo());
+		String dados = objectMapper.createObjectNode().put("status", novoStatus.name()).put("statusAnterior", anterior.getStatus().name()).toString();
+		inserir(Collections.singletonList(evento(TipoEvento.STATUS_ALTERADO, idLancamento, atual, Instant.now(), delta, dados)));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int registrarMudancaDeStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus) {
+		Instant agora = Instant.now();
+		int eventos = repository.inserirMudancaDeStatusEmLote(idUsuario, ids, ano, mes, statusAtual, novoStatus, agora);
+		outboxService.registrarMudancaDeStatusEmLote(idUsuario, ids, ano, mes, statusAtual, novoStatus, agora); // Mesma seleção, ainda antes do UPDATE
+		return eventos;
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarExclusao(Long idLancamento, SituacaoLancamento anterior) {
+		ObjectNode dados = objectMapper.createObjectNode().put("ano", anterior.getAno()).put("mes", anterior.getMes()).put("valorCentavos", anterior.getValorCentavos())
+				.put("tipo", anterior.getTipo().name()).put("status", anterior.getStatus().name());
+		inserir(Collections.singletonList(evento(TipoEvento.EXCLUIDO, idLancamento, anterior, Instant.now(), Math.negateExact(anterior.contribuicaoNoSaldo()), 
+				dados.toString())));
+	}
+
+	// O snapshot mais recente até o instante mais o replay dos eventos depois dele: no máximo um intervalo entre snapshots, nunca o histórico todo
+	@Override
+	@Transactional(readOnly = true)
+	public long obterSaldoEm(Long idUsuario, Instant instante) {
+		Optional<SnapshotSaldo> snapshot = ultimoSnapshot(idUsuario, instante);
+		if(!snapshot.isPresent()) {
+			snapshotRepository.obterInicial(idUsuario).ifPresent(inicial -> {
+				throw new RegraNegocioException("Histórico de saldo disponível somente a partir de " + inicial.getAte() + ".");
+			});
+		}
+		
+		long base = snapshot.map(SnapshotSaldo::getValorCentavos).orElse(0l); // Sem snapshot o usuário começou depois do log: o saldo parte de zero
+		Long delta = repository.somarDeltas(idUsuario, snapshot.map(SnapshotSaldo::getAte).orElse(null), instante);
+		return delta == null ? base : Math.addExact(base, delta);
+	}
+
+	@Override
+	@Transactional(readOnly = true) // Mantém a conexão fora do autocommit para o cursor do JDBC
+	public void percorrer(Long idUsuario, Instant de, Instant ate, Consumer<EventoLancamento> consumidor) {
+		repository.percorrer(idUsuario, de, ate, consumidor);
+	}
+
+	// Os eventos são datados quando a alteração é feita, não no commit: o snapshot só fecha o que ocorreu há mais que a margem, quando as
+	// transações que gravaram esses eventos já terminaram. Um evento que ficasse de fora não seria mais somado pelos snapshots seguintes
+	@Override
+	@Scheduled(cron = "${zumpfinanc.eventos.snapshot.cron:0 30 3 * * *}")
+	public int registrarSnapshots() {
+		return registrarSnapshots(Instant.now().minus(margemSnapshot));
+	}
+
+	@Override
+	public int registrarSnapshots(Instant ate) {
+		int registrados = 0;
+		
+		for(Long idUsuario : usuarioRepository.obterIds()) {
+			// Uma transação por usuário, como na reconciliação do saldo
+			if(Boolean.TRUE.equals(transactionTemplate.execute(status -> registrarSnapshot(idUsuario, ate)))) {
+				registrados++;
+			}
+		}
+		
+		log.info("Snapshots de saldo até {} concluídos, {} registrado(s).", ate, registrados);
+		return registrados;
+	}
+	
+	private boolean registrarSnapshot(Long idUsuario, Instant ate) {
+		Optional<SnapshotSaldo> anterior = ultimoSnapshot(idUsuario, ate);
+		if(anterior.isPresent() && !anterior.get().getAte().isBefore(ate)) {
+			return false;
+		}
+		
+		Long delta = repository.somarDeltas(idUsuario, anterior.map(SnapshotSaldo::getAte).orElse(null), ate);
+		if(delta == null) {
+			return false; // Nenhum evento desde o último snapshot: o replay a partir dele continua curto
+		}
+		
+		long base = anterior.map(SnapshotSaldo::getValorCentavos).orElse(0l);
+		snapshotRepository.save(SnapshotSaldo.builder().idUsuario(idUsuario).ate(ate).valorCentavos(Math.addExact(base, delta)).inicial(false).build());
+		return true;
+	}
+	
+	private Optional<SnapshotSaldo> ultimoSnapshot(Long idUsuario, Instant instante) {
+		return snapshotRepository.obterAte(idUsuario, instante, MAIS_RECENTE).stream().findFirst();
+	}
+	
+	private void inserir(List<EventoLancamento> eventos) { // Cada evento também vai para o outbox, na mesma transação
+		repository.inserir(eventos);
+		outboxService.registrarEventos(eventos);
+	}
+	
+	private static EventoLancamento evento(TipoEvento tipo, Long idLancamento, SituacaoLancamento situacao, Instant ocorridoEm, long delta, String dados) {
+		return EventoLancamento.builder().idUsuario(situacao.getIdUsuario()).idLancamento(idLancamento).tipo(tipo).ocorridoEm(ocorridoEm).versao(situacao.getVersao())
+				.deltaSaldoCentavos(delta).dados(dados).build();
+	}
+	
+	private String dados(Lancamento lancamento) { // O estado completo depois da criação ou da atualização
+		return objectMapper.createObjectNode().put("descricao", lancamento.getDescricao()).put("ano", lancamento.getAno()).put("mes", lancamento.getMes())
+				.put("valorCentavos", lancamento.getValor().getCentavos()).put("moeda", lancamento.getValor().getMoeda()).put("tipo", lancamento.getTipo().name())
+				.put("status", lancamento.getStatus().name()).toString();
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.stereotype.Service;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.service.ExtratoService;
+import com.zump.zumpfinanc.service.ImportacaoLancamentoService;
+import com.zump.zumpfinanc.service.LinhaImportacao;
+import com.zump.zumpfinanc.service.ResultadoImportacao;
+import com.zump.zumpfinanc.service.extrato.ExtratoInvalidoException;
+import com.zump.zumpfinanc.service.extrato.FormatoExtrato;
+import com.zump.zumpfinanc.service.extrato.LeitorExtrato;
+import com.zump.zumpfinanc.service.extrato.TransacaoExtrato;
+
+@Service
+public class ExtratoServiceImpl implements ExtratoService {
+	
+	private static final int TAMANHO_MAXIMO_DESCRICAO = 255;
+	private static final char[] HEXADECIMAL = "0123456789abcdef".toCharArray();
+	
+	private ImportacaoLancamentoService importacaoService;
+	
+	public ExtratoServiceImpl(ImportacaoLancamentoService importacaoService) {
+		this.importacaoService = importacaoService;
+	}
+
+	@Override
+	public ResultadoImportacao importar(Long idUsuario, FormatoExtrato formato, Charset codificacao, InputStream conteudo) {
+		try (LeitorExtrato leitor = LeitorExtrato.para(formato, new InputStreamReader(conteudo, codificacao))) {
+			// O arquivo é lido sob demanda pelo importador, um lote de cada vez: a memória não cresce com o tamanho do extrato
+			return importacaoService.importar(new LinhasExtrato(leitor, idUsuario));
+		} catch (ExtratoInvalidoException e) {
+			throw new RegraNegocioException("Extrato inválido: " + e.getMessage());
+		} catch (IOException | UncheckedIOException e) {
+			throw new RegraNegocioException("Não foi possível ler o extrato enviado.");
+		}
+	}
+	
+	static Lancamento converter(TransacaoExtrato transacao, Long idUsuario, String hashConteudo) {
+		String descricao = transacao.getDescricao() == null ? null : transacao.getDescricao().trim();
+		if(descricao != null && descricao.length() > TAMANHO_MAXIMO_DESCRICAO) {
+			descricao = descricao.substring(0, TAMANHO_MAXIMO_DESCRICAO);
+		}
+		
+		return Lancamento.builder()
+				.descricao(descricao)
+				.mes(transacao.getData().getMonthValue())
+				.ano(transacao.getData().getYear())
+				.dataCadastro(transacao.getData())
+				.valor(Dinheiro.de(transacao.getValor().abs()))
+				.tipo(transacao.getValor().signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA) // O sinal do valor no extrato define o tipo
+				.status(StatusLancamento.EFETIVADO) // Transação de extrato já aconteceu na conta
+				.usuario(Usuario.builder().id(idUsuario).build())
+				.hashConteudo(hashConteudo)
+				.build();
+	}
+	
+	private static class LinhasExtrato implements Iterator<LinhaImportacao> {
+		
+		private final LeitorExtrato leitor;
+		private final Long idUsuario;
+		private final MessageDigest sha256;
+		
+		// Transações idênticas no mesmo dia (dois cafés de mesmo valor) são diferenciadas pela ordem em que aparecem;
+		// como os extratos vêm ordenados por data, basta lembrar as do dia corrente
+		private final Map<String, Integer> ocorrenciasNoDia = new HashMap<>();
+		private LocalDate diaCorrente;
+		
+		private LinhaImportacao proxima;
+		private boolean fim;
+		
+		LinhasExtrato(LeitorExtrato leitor, Long idUsuario) {
+			this.leitor = leitor;
+			this.idUsuario = idUsuario;
+			try {
+				this.sha256 = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if(proxima == null && !fim) {
+				proxima = ler();
+				fim = proxima == null;
+			}
+			return !fim;
+		}
+
+		@Override
+		public LinhaImportacao next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			LinhaImportacao linha = proxima;
+			proxima = null;
+			return linha;
+		}
+		
+		private LinhaImportacao ler() {
+			TransacaoExtrato transacao;
+			try {
+				transacao = leitor.proxima();
+			} catch (ExtratoInvalidoException e) {
+				return LinhaImportacao.invalida(e.getLinha(), e.getMessage());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			
+			if(transacao == null) {
+				return null;
+			}
+			try {
+				return LinhaImportacao.valida(transacao.getLinha(), converter(transacao, idUsuario, calcularHash(transacao)));
+			} catch (IllegalArgumentException e) { // Valor com mais casas decimais do que centavos
+				return LinhaImportacao.invalida(transacao.getLinha(), "Valor inválido: " + transacao.getValor().toPlainString());
+			}
+		}
+		
+		private String calcularHash(TransacaoExtrato transacao) {
+			String discriminador = transacao.getIdentificador();
+			String chave = transacao.getData() + "|" + transacao.getValor().stripTrailingZeros().toPlainString() + "|" + Lancamento.normalizar(transacao.getDescricao());
+			
+			if(discriminador == null) {
+				if(!transacao.getData().equals(diaCorrente)) {
+					diaCorrente = transacao.getData();
+					ocorrenciasNoDia.clear();
+				}
+				discriminador = "#" + ocorrenciasNoDia.merge(chave, 1, Integer::sum);
+			}
+			
+			byte[] hash = sha256.digest((chave + "|" + discriminador).getBytes(StandardCharsets.UTF_8));
+			char[] hexadecimal = new char[hash.length * 2];
+			for(int i = 0; i < hash.length; i++) {
+				hexadecimal[i * 2] = HEXADECIMAL[(hash[i] >> 4) & 0xF];
+				hexadecimal[i * 2 + 1] = HEXADECIMAL[hash[i] & 0xF];
+			}
+			return new String(hexadecimal);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,179 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zump.zumpfinanc.config.CacheConfig;
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
+import com.zump.zumpfinanc.service.ImportacaoLancamentoService;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.LinhaImportacao;
+import com.zump.zumpfinanc.service.ParticaoLancamentoService;
+import com.zump.zumpfinanc.service.ResultadoImportacao;
+import com.zump.zumpfinanc.service.ResumoService;
+import com.zump.zumpfinanc.service.SaldoService;
+
+@Service
+public class ImportacaoLancamentoServiceImpl implements ImportacaoLancamentoService {
+	
+	static final int TAMANHO_LOTE = 500; // Múltiplo do hibernate.jdbc.batch_size; cada lote é uma transação
+	
+	private LancamentoRepository repository;
+	private UsuarioRepository usuarioRepository;
+	private LancamentoService lancamentoService;
+	private SaldoService saldoService;
+	private ResumoService resumoService;
+	private ParticaoLancamentoService particaoService;
+	private EventoLancamentoService eventoService;
+	private EntityManager entityManager;
+	private TransactionTemplate transactionTemplate;
+	
+	public ImportacaoLancamentoServiceImpl(LancamentoRepository repository, UsuarioRepository usuarioRepository, LancamentoService lancamentoService, SaldoService saldoService, 
+			ResumoService resumoService, ParticaoLancamentoService particaoService, EventoLancamentoService eventoService, EntityManager entityManager, 
+			PlatformTransactionManager transactionManager) {
+		this.repository = repository;
+		this.usuarioRepository = usuarioRepository;
+		this.lancamentoService = lancamentoService;
+		this.saldoService = saldoService;
+		this.resumoService = resumoService;
+		this.particaoService = particaoService;
+		this.eventoService = eventoService;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.SALDOS, allEntries = true) // A importação pode alterar o saldo de vários usuários
+	public ResultadoImportacao importar(Iterator<LinhaImportacao> linhas) {
+		ResultadoImportacao resultado = new ResultadoImportacao();
+		List<LinhaImportacao> lote = new ArrayList<>(TAMANHO_LOTE);
+		
+		while(linhas.hasNext()) {
+			lote.add(linhas.next());
+			if(lote.size() == TAMANHO_LOTE) {
+				importarLote(lote, resultado);
+				lote.clear();
+			}
+		}
+		
+		if(!lote.isEmpty()) {
+			importarLote(lote, resultado);
+		}
+		
+		return resultado;
+	}
+	
+	private void importarLote(List<LinhaImportacao> lote, ResultadoImportacao resultado) {
+		transactionTemplate.execute(status -> {
+			Set<Long> usuariosExistentes = obterUsuariosExistentes(lote);
+			Set<String> conteudosJaImportados = obterConteudosJaImportados(lote);
+			List<Lancamento> validos = new ArrayList<>(lote.size());
+			
+			for(LinhaImportacao linha : lote) {
+				if(linha.getErro() != null) {
+					resultado.registrarErro(linha.getNumero(), linha.getErro());
+					continue;
+				}
+				
+				Lancamento lancamento = linha.getLancamento();
+				try {
+					lancamentoService.validar(lancamento);
+					particaoService.garantirParticao(lancamento.getAno()); // Ano arquivado vira erro da linha
+				} catch (RegraNegocioException e) {
+					resultado.registrarErro(linha.getNumero(), e.getMessage());
+					continue;
+				}
+				
+				Long idUsuario = lancamento.getUsuario().getId();
+				if(!usuariosExistentes.contains(idUsuario)) {
+					resultado.registrarErro(linha.getNumero(), "Usuário não encontrado para o Id informado.");
+					continue;
+				}
+				
+				if(lancamento.getHashConteudo() != null && !conteudosJaImportados.add(chaveConteudo(idUsuario, lancamento.getHashConteudo()))) {
+					resultado.registrarDuplicado(); // Já existe na base ou repetido no próprio arquivo
+					continue;
+				}
+				
+				lancamento.setId(null);
+				lancamento.setUsuario(usuarioRepository.getOne(idUsuario)); // Referência (proxy), sem SELECT no usuário
+				if(lancamento.getStatus() == null) {
+					lancamento.setStatus(StatusLancamento.PENDENTE);
+				}
+				validos.add(lancamento);
+			}
+			
+			repository.saveAll(validos);
+			List<SituacaoLancamento> inclusoes = validos.stream().map(SituacaoLancamento::de).collect(Collectors.toList());
+			saldoService.registrarInclusoes(inclusoes);
+			resumoService.registrarInclusoes(inclusoes);
+			eventoService.registrarCriacoes(validos);
+			
+			// Descarrega os INSERTs em lote e esvazia o contexto de persistência, que com o open-in-view sobrevive entre os lotes.
+			// Uma falta de partição (ano arquivado por outro nó) faz este nó reler o catálogo: na próxima importação o ano vira erro da linha
+			try {
+				entityManager.flush();
+			} catch (PersistenceException e) {
+				particaoService.conferirFalhaDeGravacao(e, null);
+				throw e;
+			}
+			entityManager.clear();
+			
+			resultado.registrarImportados(validos.size());
+			return null;
+		});
+	}
+	
+	private Set<Long> obterUsuariosExistentes(List<LinhaImportacao> lote) {
+		Set<Long> ids = new HashSet<>();
+		for(LinhaImportacao linha : lote) {
+			if(linha.getLancamento() != null && linha.getLancamento().getUsuario() != null && linha.getLancamento().getUsuario().getId() != null) {
+				ids.add(linha.getLancamento().getUsuario().getId());
+			}
+		}
+		return ids.isEmpty() ? ids : new HashSet<>(usuarioRepository.obterIdsExistentes(ids)); // Uma consulta por lote, não por linha
+	}
+	
+	private Set<String> obterConteudosJaImportados(List<LinhaImportacao> lote) {
+		Map<Long, Set<String>> hashesPorUsuario = new HashMap<>();
+		for(LinhaImportacao linha : lote) {
+			Lancamento lancamento = linha.getLancamento();
+			if(lancamento != null && lancamento.getHashConteudo() != null && lancamento.getUsuario() != null && lancamento.getUsuario().getId() != null) {
+				hashesPorUsuario.computeIfAbsent(lancamento.getUsuario().getId(), id -> new HashSet<>()).add(lancamento.getHashConteudo());
+			}
+		}
+		
+		Set<String> existentes = new HashSet<>();
+		hashesPorUsuario.forEach((idUsuario, hashes) -> {
+			for(String hash : repository.obterHashesExistentes(idUsuario, hashes)) {
+				existentes.add(chaveConteudo(idUsuario, hash));
+			}
+		});
+		return existentes;
+	}
+	
+	private static String chaveConteudo(Long idUsuario, String hash) {
+		return idUsuario + ":" + hash;
+	}
+
+}
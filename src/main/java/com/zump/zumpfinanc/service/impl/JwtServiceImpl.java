@@ -0,0 +1,110 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.service.JwtService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+@Service
+public class JwtServiceImpl implements JwtService {
+	
+	public static final String TOKEN_INVALIDO = "Token de acesso inválido ou expirado.";
+	
+	private static final SignatureAlgorithm ALGORITMO = SignatureAlgorithm.HS256;
+	private static final int TAMANHO_MINIMO_CHAVE = 32; // 256 bits, o tamanho do HMAC-SHA256
+	
+	private final Key chave;
+	private final Duration expiracao;
+	
+	// Token já verificado -> usuário: a assinatura HMAC e o parse do JSON ficam só na primeira requisição de cada token.
+	// Cada entrada expira junto com o próprio token, e o tamanho limitado descarta primeiro os menos usados
+	private final Cache<String, UsuarioAutenticado> usuariosPorToken;
+	
+	public JwtServiceImpl(@Value("${zumpfinanc.jwt.chave}") String chave, @Value("${zumpfinanc.jwt.expiracao-minutos:30}") long expiracaoMinutos, 
+			@Value("${zumpfinanc.jwt.cache.tamanho:10000}") long tamanhoCache) {
+		// Chave curta é rejeitada na inicialização: a aplicação não sobe com uma chave fácil de descobrir por força bruta
+		byte[] bytesChave = chave.getBytes(StandardCharsets.UTF_8);
+		if(bytesChave.length < TAMANHO_MINIMO_CHAVE) {
+			throw new IllegalArgumentException("A chave do JWT (zumpfinanc.jwt.chave) precisa ter pelo menos " + TAMANHO_MINIMO_CHAVE + " bytes.");
+		}
+		
+		// Chave montada uma vez só; passar a String ao jjwt a decodificaria de novo a cada token
+		this.chave = new SecretKeySpec(bytesChave, ALGORITMO.getJcaName());
+		this.expiracao = Duration.ofMinutes(expiracaoMinutos);
+		this.usuariosPorToken = Caffeine.newBuilder().maximumSize(tamanhoCache).expireAfter(new ExpiracaoDoToken()).build();
+	}
+
+	@Override
+	public String gerarToken(Usuario usuario) {
+		Instant agora = Instant.now();
+		return Jwts.builder()
+				.setSubject(usuario.getId().toString())
+				.claim("email", usuario.getEmail())
+				.claim("nome", usuario.getNome())
+				.setIssuedAt(Date.from(agora))
+				.setExpiration(Date.from(agora.plus(expiracao)))
+				.signWith(ALGORITMO, chave)
+				.compact();
+	}
+
+	@Override
+	public UsuarioAutenticado obterUsuarioAutenticado(String token) {
+		UsuarioAutenticado usuario = usuariosPorToken.getIfPresent(token);
+		if(usuario != null) {
+			return usuario;
+		}
+		
+		Claims claims;
+		try {
+			claims = Jwts.parser().setSigningKey(chave).parseClaimsJws(token).getBody();
+		} catch (JwtException | IllegalArgumentException e) { // Assinatura, formato ou expiração
+			throw new ErroAutenticacao(TOKEN_INVALIDO);
+		}
+		if(claims.getSubject() == null || claims.getExpiration() == null) {
+			throw new ErroAutenticacao(TOKEN_INVALIDO);
+		}
+		
+		usuario = new UsuarioAutenticado(Long.valueOf(claims.getSubject()), claims.get("email", String.class), claims.get("nome", String.class), 
+				claims.getExpiration().toInstant());
+		usuariosPorToken.put(token, usuario);
+		return usuario;
+	}
+	
+	private static class ExpiracaoDoToken implements Expiry<String, UsuarioAutenticado> {
+		
+		@Override
+		public long expireAfterCreate(String token, UsuarioAutenticado usuario, long tempoAtual) {
+			return Math.max(0, Duration.between(Instant.now(), usuario.getExpiracao()).toNanos());
+		}
+		
+		@Override
+		public long expireAfterUpdate(String token, UsuarioAutenticado usuario, long tempoAtual, long duracaoAtual) {
+			return duracaoAtual;
+		}
+		
+		@Override
+		public long expireAfterRead(String token, UsuarioAutenticado usuario, long tempoAtual, long duracaoAtual) {
+			return duracaoAtual;
+		}
+	}
+
+}
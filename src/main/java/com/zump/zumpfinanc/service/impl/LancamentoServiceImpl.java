@@ -1,66 +1,211 @@
 package com.zump.zumpfinanc.service.impl;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.zump.zumpfinanc.config.CacheConfig;
+import com.zump.zumpfinanc.config.RoteamentoDataSource;
+import com.zump.zumpfinanc.exception.ErroConflito;
 import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
 import com.zump.zumpfinanc.model.entity.Lancamento;
 import com.zump.zumpfinanc.model.enums.StatusLancamento;
-import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoConsultaRepository;
 import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoSpecifications;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
 import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.ParticaoLancamentoService;
+import com.zump.zumpfinanc.service.ResultadoAtualizacaoStatus;
+import com.zump.zumpfinanc.service.ResumoService;
+import com.zump.zumpfinanc.service.SaldoService;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 	
+	private static final String LANCAMENTO_NAO_ENCONTRADO = "Lançamento não encontrado na base de dados.";
+	private static final String LANCAMENTO_ALTERADO = "Lançamento alterado por outra requisição. Obtenha a versão atual e tente novamente.";
+	private static final String LANCAMENTOS_ALTERADOS = "Lançamentos alterados por outra requisição durante a atualização em lote. Tente novamente.";
+	private static final int IDS_POR_ATUALIZACAO = 1000; // Limite da lista do IN
+	
 	private LancamentoRepository repository;
+	private LancamentoConsultaRepository consultaRepository;
+	private SaldoService saldoService;
+	private ResumoService resumoService;
+	private ParticaoLancamentoService particaoService;
+	private EventoLancamentoService eventoService;
 	
-	public LancamentoServiceImpl(LancamentoRepository repository) {
+	public LancamentoServiceImpl(LancamentoRepository repository, LancamentoConsultaRepository consultaRepository, SaldoService saldoService, ResumoService resumoService, 
+			ParticaoLancamentoService particaoService, EventoLancamentoService eventoService) {
 		this.repository = repository;
+		this.consultaRepository = consultaRepository;
+		this.saldoService = saldoService;
+		this.resumoService = resumoService;
+		this.particaoService = particaoService;
+		this.eventoService = eventoService;
 	}
 
 	@Override
 	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.SALDOS, key = "#lancamento.usuario.id")
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
+		particaoService.garantirParticao(lancamento.getAno());
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		Lancamento lancamentoSalvo;
+		try { // INSERT já aqui, e não no commit: a falta da partição do ano vira a mensagem de ano arquivado
+			lancamentoSalvo = repository.saveAndFlush(lancamento);
+		} catch (DataIntegrityViolationException e) {
+			particaoService.conferirFalhaDeGravacao(e, lancamento.getAno());
+			throw e;
+		}
+		registrarAlteracao(null, SituacaoLancamento.de(lancamentoSalvo));
+		eventoService.registrarCriacoes(Collections.singletonList(lancamentoSalvo));
+		return lancamentoSalvo;
 	}
 
 	@Override
 	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.LANCAMENTOS, key = "#lancamento.id"),
+			@CacheEvict(cacheNames = CacheConfig.SALDOS, key = "#lancamento.usuario.id")
+	})
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		
+		// A situação anterior (usada no saldo) também confirma que o lançamento existe e é do usuário, sem carregar a entidade
+		SituacaoLancamento anterior = repository.obterSituacao(lancamento.getId())
+				.filter(situacao -> situacao.getIdUsuario().equals(lancamento.getUsuario().getId()))
+				.orElseThrow(() -> new RegraNegocioException(LANCAMENTO_NAO_ENCONTRADO));
+		if(lancamento.getStatus() == null) {
+			lancamento.setStatus(anterior.getStatus());
+		}
+		Long versao = conferirVersao(lancamento.getVersao(), anterior);
+		particaoService.garantirParticao(lancamento.getAno());
+		
+		int atualizados;
+		try {
+			atualizados = repository.atualizar(lancamento.getId(), anterior.getAno(), lancamento.getUsuario().getId(), lancamento.getDescricao(), Lancamento.normalizar(lancamento.getDescricao()), 
+					lancamento.getMes(), lancamento.getAno(), lancamento.getValor().getCentavos(), lancamento.getValor().getMoeda(), lancamento.getTipo(), lancamento.getStatus(), versao);
+		} catch (DataIntegrityViolationException e) {
+			particaoService.conferirFalhaDeGravacao(e, lancamento.getAno());
+			throw e;
+		}
+		if(atualizados == 0) {
+			throw erroDeConcorrencia(lancamento.getId());
+		}
+		lancamento.setVersao(proximaVersao(versao));
+		
+		registrarAlteracao(anterior, SituacaoLancamento.de(lancamento));
+		eventoService.registrarAtualizacao(anterior, lancamento);
+		return lancamento;
 	}
 
 	@Override
 	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.LANCAMENTOS, key = "#lancamento.id"),
+			@CacheEvict(cacheNames = CacheConfig.SALDOS, key = "#lancamento.usuario.id")
+	})
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
-		repository.delete(lancamento);
+		SituacaoLancamento anterior = repository.obterSituacao(lancamento.getId()).orElse(null);
+		if(anterior == null) {
+			return; // Já excluído
+		}
+		repository.excluir(lancamento.getId(), anterior.getAno()); // Com o ano, o DELETE só procura na partição do ano
+		registrarAlteracao(anterior, null);
+		eventoService.registrarExclusao(lancamento.getId(), anterior);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
-		Example example = Example.of(lancamentoFiltro, ExampleMatcher.matching().withIgnoreCase().withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
+	public List<LancamentoResumo> buscar(Lancamento lancamentoFiltro) {
+		return repository.buscarResumos(LancamentoSpecifications.filtro(lancamentoFiltro), LancamentoSpecifications.ORDENACAO_BUSCA);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoResumo> buscarPagina(Lancamento lancamentoFiltro, Long aposId, int tamanho) {
+		return consultaRepository.buscarPagina(lancamentoFiltro, aposId, tamanho);
+	}
+	
+	@Override
+	@Transactional(readOnly = true) // Mantém a conexão fora do autocommit para o cursor do JDBC
+	public void percorrer(Lancamento lancamentoFiltro, Consumer<LancamentoResumo> consumidor) {
+		consultaRepository.percorrer(lancamentoFiltro, consumidor);
 	}
 
 	@Override
-	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
+	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.LANCAMENTOS, key = "#lancamento.id"),
+			@CacheEvict(cacheNames = CacheConfig.SALDOS, key = "#lancamento.usuario.id")
+	})
+	public void atualizarStatus(Lancamento lancamento, StatusLancamento status, Long versaoEsperada) {
+		Objects.requireNonNull(lancamento.getId());
+		SituacaoLancamento anterior = repository.obterSituacao(lancamento.getId()).orElseThrow(() -> new RegraNegocioException(LANCAMENTO_NAO_ENCONTRADO));
+		Long versao = conferirVersao(versaoEsperada, anterior);
+		
+		if(repository.atualizarStatus(lancamento.getId(), anterior.getAno(), status, versao) == 0) {
+			throw erroDeConcorrencia(lancamento.getId());
+		}
 		lancamento.setStatus(status);
-		atualizar(lancamento);
+		lancamento.setVersao(proximaVersao(versao));
+		
+		registrarAlteracao(anterior, anterior.comStatus(status));
+		eventoService.registrarMudancaDeStatus(lancamento.getId(), anterior, status);
+	}
+
+	// Soma por situação e UPDATE no mesmo instantâneo (REPEATABLE READ): o saldo e o resumo recebem exatamente a variação dos lançamentos
+	// alterados, um ajuste por usuário e por mês/tipo/status, e o log de eventos um evento por lançamento, inserido da mesma seleção antes
+	// do UPDATE. Se outra transação mexer na seleção no meio, a contagem não bate (ou a base recusa o UPDATE) e tudo é desfeito com
+	// ErroConflito. Os ids alterados não são lidos, então o cache de lançamentos é esvaziado
+	@Override
+	@Transactional(isolation = Isolation.REPEATABLE_READ)
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.LANCAMENTOS, allEntries = true),
+			@CacheEvict(cacheNames = CacheConfig.SALDOS, key = "#idUsuario")
+	})
+	public ResultadoAtualizacaoStatus atualizarStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus) {
+		Objects.requireNonNull(idUsuario);
+		validarSelecao(ids, ano, mes, novoStatus);
+		
+		List<GrupoSituacao> grupos = repository.agruparParaMudancaDeStatus(idUsuario, ids, ano, mes, statusAtual, novoStatus);
+		ResultadoAtualizacaoStatus resultado = new ResultadoAtualizacaoStatus();
+		grupos.forEach(resultado::registrar);
+		if(resultado.getAtualizados() == 0) {
+			return resultado;
+		}
+		
+		try {
+			int eventos = eventoService.registrarMudancaDeStatusEmLote(idUsuario, ids, ano, mes, statusAtual, novoStatus);
+			int atualizados = repository.atualizarStatusEmLote(idUsuario, ids, ano, mes, statusAtual, novoStatus);
+			if(atualizados != resultado.getAtualizados() || eventos != atualizados) {
+				throw new ErroConflito(LANCAMENTOS_ALTERADOS);
+			}
+			saldoService.registrarMudancaDeStatus(grupos, novoStatus);
+			resumoService.registrarMudancaDeStatus(grupos, novoStatus);
+		} catch (ConcurrencyFailureException e) { // Falha de serialização da base (PostgreSQL) no REPEATABLE READ
+			throw new ErroConflito(LANCAMENTOS_ALTERADOS);
+		}
+		return resultado;
 	}
 
 	@Override
@@ -81,34 +226,68 @@ public class LancamentoServiceImpl implements LancamentoService {
 			throw new RegraNegocioException("Informe um Usuário.");
 		}
 		
-		if(lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1) {
+		if(lancamento.getValor() == null || lancamento.getValor().signum() < 1) {
 			throw new RegraNegocioException("Informe um Valor válido.");
 		}
 		
+		if(!Dinheiro.MOEDA_PADRAO.equals(lancamento.getValor().getMoeda())) { // Saldo e resumo são somados numa única moeda
+			throw new RegraNegocioException("Informe uma Moeda válida.");
+		}
+		
 		if(lancamento.getTipo() == null) {
 			throw new RegraNegocioException("Informe um Tipo de Lancamento.");	
 		}
 	}
 
 	@Override
-	public Optional<Lancamento> obterPorId(Long id) {
-		return repository.findById(id);
+	@Transactional(readOnly = true)
+	public Optional<Lancamento> obterPorId(Long id) { // Cópia: a instância do cache é compartilhada, e quem chama altera o lançamento (status, versão)
+		return RoteamentoDataSource.lerDaPrimaria(() -> repository.findById(id)).map(lancamento -> lancamento.toBuilder().build()); // Vai para o cache LANCAMENTOS
 	}
 
 	@Override
-	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
-		BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuarioEStatus(id, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+	@Transactional(readOnly = true)
+	public long obterSaldoPorUsuario(Long id) {
+		return saldoService.obterSaldo(id);
+	}
+	
+	private static void validarSelecao(Collection<Long> ids, Integer ano, Integer mes, StatusLancamento novoStatus) {
+		if(novoStatus == null) {
+			throw new RegraNegocioException("Informe um Status válido.");
+		}
 		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
+		if((ids == null || ids.isEmpty()) && ano == null) { // Sem nenhum dos dois, a atualização alcançaria todo o histórico do usuário
+			throw new RegraNegocioException("Informe os ids ou o ano dos lançamentos.");
 		}
 		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
+		if(ids != null && ids.size() > IDS_POR_ATUALIZACAO) {
+			throw new RegraNegocioException("Informe no máximo " + IDS_POR_ATUALIZACAO + " ids por atualização.");
 		}
 		
-		return receitas.subtract(despesas);
+		if(mes != null && (mes < 1 || mes > 12)) {
+			throw new RegraNegocioException("Informe um Mês válido.");
+		}
+	}
+	
+	// A versão lida com a situação anterior vai no WHERE do UPDATE: o saldo é ajustado a partir exatamente do que foi substituído
+	private static Long conferirVersao(Long versaoEsperada, SituacaoLancamento anterior) {
+		if(versaoEsperada != null && !versaoEsperada.equals(anterior.getVersao())) {
+			throw new ErroConflito(LANCAMENTO_ALTERADO);
+		}
+		return anterior.getVersao();
+	}
+	
+	private static Long proximaVersao(Long versao) {
+		return versao == null ? null : versao + 1;
+	}
+	
+	private RuntimeException erroDeConcorrencia(Long id) { // O UPDATE não achou a versão lida: alterado ou excluído por outra requisição nesse intervalo
+		return repository.obterSituacao(id).isPresent() ? new ErroConflito(LANCAMENTO_ALTERADO) : new RegraNegocioException(LANCAMENTO_NAO_ENCONTRADO);
+	}
+	
+	private void registrarAlteracao(SituacaoLancamento anterior, SituacaoLancamento atual) { // Valores consolidados mantidos junto com o lançamento
+		saldoService.registrarAlteracao(anterior, atual);
+		resumoService.registrarAlteracao(anterior, atual);
 	}
 
 }
@@ -0,0 +1,191 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zump.zumpfinanc.config.OutboxConfig;
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.Agregado;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+import com.zump.zumpfinanc.model.repository.MensagemOutboxRepository;
+import com.zump.zumpfinanc.service.OutboxService;
+import com.zump.zumpfinanc.service.ReservaParticaoService;
+import com.zump.zumpfinanc.service.outbox.DestinoOutbox;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+	
+	static final String TAREFA = "outbox";
+	static final int TAMANHO_LOTE = 500; // Mensagens publicadas por transação
+	
+	private MensagemOutboxRepository repository;
+	private ReservaParticaoService reservaService;
+	private DestinoOutbox destino;
+	private ObjectMapper objectMapper;
+	private ExecutorService executor;
+	private TransactionTemplate transactionTemplate;
+	private Duration duracaoReserva;
+	private Duration retencao;
+	
+	// Requisições do feed (GET /api/changes) esperando uma mudança do usuário. Alterado só dentro das operações do mapa (compute/remove), que
+	// bloqueiam a entrada: quem se registra depois de uma notificação cai num conjunto novo, nunca num já percorrido
+	private final Map<Long, Set<CompletableFuture<Void>>> aguardando = new ConcurrentHashMap<>();
+	private final AtomicLong ultimaNotificada = new AtomicLong(-1); // -1 até a primeira passada, que só marca onde o outbox está
+	
+	public OutboxServiceImpl(MensagemOutboxRepository repository, ReservaParticaoService reservaService, DestinoOutbox destino, ObjectMapper objectMapper, 
+			@Qualifier(OutboxConfig.EXECUTOR_OUTBOX) ExecutorService executor, PlatformTransactionManager transactionManager, 
+			@Value("${zumpfinanc.outbox.relay.reserva-segundos:30}") long segundosReserva, @Value("${zumpfinanc.outbox.retencao-dias:7}") long diasRetencao) {
+		this.repository = repository;
+		this.reservaService = reservaService;
+		this.destino = destino;
+		this.objectMapper = objectMapper;
+		this.executor = executor;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.duracaoReserva = Duration.ofSeconds(segundosReserva);
+		this.retencao = Duration.ofDays(diasRetencao);
+	}
+
+	// Todo evento de lançamento vira mensagem: o EventoLancamentoService é o ponto único das alterações (cadastro, importação, recorrências)
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarEventos(Collection<EventoLancamento> eventos) {
+		repository.inserir(eventos.stream().map(evento -> MensagemOutbox.builder().agregado(Agregado.LANCAMENTO).idAgregado(evento.getIdLancamento())
+				.idUsuario(evento.getIdUsuario()).tipo(evento.getTipo()).ocorridoEm(evento.getOcorridoEm()).dados(evento.getDados()).build())
+				.collect(Collectors.toList()));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public int registrarMudancaDeStatusEmLote(Long idUsuario, Collection<Long> ids, Integer ano, Integer mes, StatusLancamento statusAtual, StatusLancamento novoStatus, 
+			Instant ocorridoEm) {
+		return repository.inserirMudancaDeStatusEmLote(idUsuario, ids, ano, mes, statusAtual, novoStatus, ocorridoEm);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarCriacaoUsuario(Usuario usuario) {
+		String dados = objectMapper.createObjectNode().put("nome", usuario.getNome()).put("email", usuario.getEmail()).toString(); // Nunca a senha
+		repository.inserir(Collections.singletonList(MensagemOutbox.builder().agregado(Agregado.USUARIO).idAgregado(usuario.getId()).idUsuario(usuario.getId())
+				.tipo(TipoEvento.CRIADO).ocorridoEm(Instant.now()).dados(dados).build()));
+	}
+
+	// Relay: só o nó com a reserva do outbox publica. Cada lote bloqueia a reserva, recebe as posições seguintes à última publicada e vai
+	// para o destino na mesma transação que as grava. Em todos os nós, a passada termina acordando o feed dos usuários com mudanças novas
+	@Override
+	@Scheduled(fixedDelayString = "${zumpfinanc.outbox.relay.intervalo-ms:500}", initialDelayString = "${zumpfinanc.outbox.relay.intervalo-ms:500}")
+	public int publicarPendentes() {
+		int publicadas = 0;
+		try {
+			if(reservaService.reservar(TAREFA, duracaoReserva)) {
+				int publicadasNoLote;
+				do {
+					publicadasNoLote = transactionTemplate.execute(status -> publicarLote());
+					publicadas += publicadasNoLote;
+				} while(publicadasNoLote == TAMANHO_LOTE && reservaService.reservar(TAREFA, duracaoReserva));
+			}
+		} finally {
+			notificar();
+		}
+		
+		if(publicadas > 0) {
+			log.debug("{} mensagem(ns) do outbox publicada(s).", publicadas);
+		}
+		return publicadas;
+	}
+	
+	private int publicarLote() {
+		if(!reservaService.confirmar(TAREFA)) { // A reserva pode ter expirado e passado a outro nó durante o lote anterior
+			return 0;
+		}
+		
+		List<MensagemOutbox> pendentes = repository.obterPendentes(TAMANHO_LOTE);
+		if(pendentes.isEmpty()) {
+			return 0;
+		}
+		
+		long posicao = repository.obterUltimaPosicao();
+		for(MensagemOutbox mensagem : pendentes) {
+			mensagem.setPosicao(++posicao);
+		}
+		repository.atribuirPosicoes(pendentes);
+		destino.publicar(pendentes);
+		return pendentes.size();
+	}
+	
+	private void notificar() {
+		long ultima = repository.obterUltimaPosicao();
+		long anterior = ultimaNotificada.getAndSet(ultima);
+		if(anterior < 0 || ultima <= anterior || aguardando.isEmpty()) {
+			return;
+		}
+		
+		for(Long idUsuario : repository.obterUsuariosPublicados(anterior, ultima)) {
+			Set<CompletableFuture<Void>> futuros = aguardando.remove(idUsuario);
+			if(futuros != null) {
+				// Completados no executor do outbox: a nova consulta de cada requisição roda lá, e não na thread do agendador
+				futuros.forEach(futuro -> executor.execute(() -> futuro.complete(null)));
+			}
+		}
+	}
+
+	// A última mensagem publicada fica, mesmo antiga (MensagemOutboxRepository.excluirPublicadas). Um consumidor parado por mais que a retenção
+	// perde as mudanças excluídas e precisa recomeçar de uma busca completa
+	@Override
+	@Scheduled(cron = "${zumpfinanc.outbox.retencao.cron:0 45 3 * * *}")
+	public int excluirPublicadas() {
+		int excluidas = repository.excluirPublicadas(Instant.now().minus(retencao), repository.obterUltimaPosicao());
+		log.info("{} mensagem(ns) do outbox publicada(s) há mais de {} dia(s) excluída(s).", excluidas, retencao.toDays());
+		return excluidas;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<MensagemOutbox> obterPublicadas(Long idUsuario, long aposPosicao, int limite) {
+		return repository.obterPublicadas(idUsuario, aposPosicao, limite);
+	}
+
+	// Completado depois da próxima publicação de uma mudança do usuário, em qualquer nó. Quem espera se registra antes de consultar o outbox:
+	// o que for publicado depois da consulta sempre acorda a espera. Cancelar o futuro (fim da requisição) tira o registro
+	@Override
+	public CompletableFuture<Void> aguardarPublicacao(Long idUsuario) {
+		CompletableFuture<Void> futuro = new CompletableFuture<>();
+		aguardando.compute(idUsuario, (id, futuros) -> {
+			Set<CompletableFuture<Void>> conjunto = futuros == null ? new HashSet<>() : futuros;
+			conjunto.add(futuro);
+			return conjunto;
+		});
+		futuro.whenComplete((resultado, erro) -> aguardando.computeIfPresent(idUsuario, (id, futuros) -> {
+			futuros.remove(futuro);
+			return futuros.isEmpty() ? null : futuros;
+		}));
+		return futuro;
+	}
+
+}
@@ -0,0 +1,214 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.time.Instant;
+import java.time.Year;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.ArquivoLancamento;
+import com.zump.zumpfinanc.model.repository.ArquivoLancamentoRepository;
+import com.zump.zumpfinanc.service.ParticaoLancamentoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Partições anuais de financas.lancamento no PostgreSQL (011-lancamento-particionado.sql); desabilitado no H2 dos testes
+@Slf4j
+@Service
+public class ParticaoLancamentoServiceImpl implements ParticaoLancamentoService {
+
+	private static final String PREFIXO_PARTICAO = "lancamento_";
+	private static final Pattern NOME_PARTICAO = Pattern.compile(PREFIXO_PARTICAO + "\\d{4}"); // Outras tabelas anexadas (ex.: uma DEFAULT) ficam de fora
+	private static final String SEM_PARTICAO = "no partition of relation"; // Mensagem do PostgreSQL para linha sem partição (SQLState 23514)
+
+	private JdbcTemplate jdbcTemplate;
+	private ArquivoLancamentoRepository arquivoRepository;
+	private TransactionTemplate transactionTemplate;
+	private TransactionTemplate novaTransacao;
+	private boolean habilitado;
+	private int anosAFrente;
+	private int anosAtras;
+	private int anosRetidos;
+
+	// Anos com partição já conferida por este nó: a gravação de um lançamento só vai à base no primeiro lançamento de cada ano.
+	// Cache do nó: um ano arquivado por outro nó só é percebido aqui quando a gravação falha por falta de partição (conferirFalhaDeGravacao)
+	private final Set<Integer> anosComParticao = ConcurrentHashMap.newKeySet();
+	private volatile Integer ultimoAnoArquivado;
+
+	public ParticaoLancamentoServiceImpl(JdbcTemplate jdbcTemplate, ArquivoLancamentoRepository arquivoRepository, PlatformTransactionManager transactionManager,
+			@Value("${zumpfinanc.lancamento.particoes.habilitado:false}") boolean habilitado, @Value("${zumpfinanc.lancamento.particoes.anos-a-frente:2}") int anosAFrente,
+			@Value("${zumpfinanc.lancamento.particoes.anos-atras:10}") int anosAtras, @Value("${zumpfinanc.lancamento.particoes.anos-retidos:0}") int anosRetidos) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.arquivoRepository = arquivoRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.novaTransacao = new TransactionTemplate(transactionManager);
+		this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.habilitado = habilitado;
+		this.anosAFrente = anosAFrente;
+		this.anosAtras = anosAtras;
+		this.anosRetidos = anosRetidos;
+	}
+
+	// Chamado antes de gravar um lançamento. A partição é criada numa transação própria: o DDL bloqueia a tabela pai e não pode
+	// ficar segurando o bloqueio até o fim da transação do lançamento. Só anos dentro da janela (anos-atras .. anos-a-frente) criam
+	// partição: fora dela, o ano do lançamento só é aceito se a partição já existir (ex.: anos trazidos pelo 011-lancamento-particionado.sql)
+	@Override
+	public void garantirParticao(Integer ano) {
+		if(!habilitado || ano == null || anosComParticao.contains(ano)) {
+			return;
+		}
+
+		Integer arquivado = ultimoAnoArquivado;
+		if(arquivado != null && ano <= arquivado) {
+			throw anoArquivado(ano);
+		}
+
+		int anoAtual = Year.now().getValue();
+		if(ano < anoAtual - anosAtras || ano > anoAtual + anosAFrente) {
+			if(!jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, "financas." + PREFIXO_PARTICAO + ano)) {
+				throw new RegraNegocioException("Informe um Ano entre " + (anoAtual - anosAtras) + " e " + (anoAtual + anosAFrente) + ".");
+			}
+			anosComParticao.add(ano);
+			return;
+		}
+
+		Boolean criada = novaTransacao.execute(status -> jdbcTemplate.queryForObject("SELECT financas.criar_particao_lancamento(?)", Boolean.class, ano));
+		if(!Boolean.TRUE.equals(criada)) { // Arquivado por outro nó
+			throw anoArquivado(ano);
+		}
+		anosComParticao.add(ano);
+	}
+
+	// Chamado quando a gravação de lançamentos falha. Se faltou a partição (o ano foi arquivado por outro nó depois que este guardou o ano),
+	// relê o catálogo e responde como ano arquivado em vez do erro de SQL. A releitura usa uma transação própria: a do lançamento já falhou
+	@Override
+	public void conferirFalhaDeGravacao(RuntimeException erro, Integer ano) { // ano null: gravação em lote, de vários anos
+		String mensagem = NestedExceptionUtils.getMostSpecificCause(erro).getMessage();
+		if(!habilitado || mensagem == null || !mensagem.contains(SEM_PARTICAO)) {
+			return;
+		}
+
+		novaTransacao.execute(status -> {
+			ultimoAnoArquivado = arquivoRepository.obterUltimoAno();
+			anosComParticao.retainAll(obterAnosAnexados());
+			return null;
+		});
+		log.warn("Gravação de lançamentos sem partição: catálogo de partições relido (último ano arquivado: {}).", ultimoAnoArquivado);
+
+		Integer arquivado = ultimoAnoArquivado;
+		if(ano != null && arquivado != null && ano <= arquivado) {
+			throw anoArquivado(ano);
+		}
+	}
+
+	// Cria as partições dos próximos anos antes de chegarem e, com anos-retidos > 0, arquiva as dos anos mais antigos que isso.
+	// Arquivamentos interrompidos (queda do nó no meio) são concluídos na execução seguinte
+	@Override
+	@Scheduled(cron = "${zumpfinanc.lancamento.particoes.cron:0 0 2 * * *}")
+	public int manterParticoes() {
+		if(!habilitado) {
+			return 0;
+		}
+
+		ultimoAnoArquivado = arquivoRepository.obterUltimoAno();
+		arquivoRepository.findAll().forEach(arquivo -> concluirArquivamento(arquivo.getAno()));
+
+		int anoAtual = Year.now().getValue();
+		Set<Integer> anexados = obterAnosAnexados();
+		int criadas = 0;
+		for(int ano = anoAtual; ano <= anoAtual + anosAFrente; ano++) {
+			if(!anexados.contains(ano)) {
+				garantirParticao(ano);
+				criadas++;
+			}
+		}
+
+		if(anosRetidos > 0) {
+			for(Integer ano : anexados) { // Em ordem crescente: arquivar exige o ano mais antigo
+				if(ano >= anoAtual - anosRetidos) {
+					break;
+				}
+				arquivar(ano);
+			}
+		}
+
+		if(criadas > 0) {
+			log.info("{} partição(ões) de lançamentos criada(s) até {}.", criadas, anoAtual + anosAFrente);
+		}
+		return criadas;
+	}
+
+	// Tira o ano de financas.lancamento sem bloquear as gravações dos demais anos: DETACH ... CONCURRENTLY só espera as transações em
+	// andamento na tabela. O saldo EFETIVADO do ano passa para saldo_arquivado e a tabela vai para o schema financas_arquivo.
+	// Os anos saem do mais antigo para o mais recente, então "ano <= último arquivado" identifica um ano arquivado
+	@Override
+	public void arquivar(int ano) {
+		if(!habilitado) {
+			throw new RegraNegocioException("O arquivamento exige as partições do PostgreSQL.");
+		}
+
+		TreeSet<Integer> anexados = obterAnosAnexados();
+		if(ano >= Year.now().getValue() || anexados.isEmpty() || anexados.first() != ano) {
+			throw new RegraNegocioException("Só o ano mais antigo com lançamentos, anterior ao ano atual, pode ser arquivado.");
+		}
+
+		try { // A partir daqui nenhum nó cria de novo a partição do ano
+			transactionTemplate.execute(status -> arquivoRepository.saveAndFlush(ArquivoLancamento.builder().ano(ano).arquivadoEm(Instant.now()).build()));
+		} catch (DataIntegrityViolationException e) {
+			return; // Outro nó já está arquivando o ano
+		}
+		ultimoAnoArquivado = ano;
+		anosComParticao.remove(ano);
+		concluirArquivamento(ano);
+	}
+
+	private void concluirArquivamento(int ano) {
+		String particao = "financas." + PREFIXO_PARTICAO + ano;
+
+		// Fora de transação: o CONCURRENTLY não roda dentro de uma. Um DETACH CONCURRENTLY interrompido deixa a partição pendente (FINALIZE)
+		List<Boolean> pendente = jdbcTemplate.queryForList("SELECT i.inhdetachpending FROM pg_inherits i WHERE i.inhrelid = to_regclass(?)", Boolean.class, particao);
+		if(!pendente.isEmpty()) {
+			jdbcTemplate.execute("ALTER TABLE financas.lancamento DETACH PARTITION " + particao + (pendente.get(0) ? " FINALIZE" : " CONCURRENTLY"));
+		}
+
+		transactionTemplate.execute(status -> {
+			// O bloqueio da linha do ano serializa dois nós concluindo o mesmo arquivamento: o segundo já não acha a tabela no schema financas
+			jdbcTemplate.queryForList("SELECT ano FROM financas.arquivo_lancamento WHERE ano = ? FOR UPDATE", ano);
+			if(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, particao)) {
+				jdbcTemplate.update("INSERT INTO financas.saldo_arquivado (id_usuario, valor_centavos) "
+						+ "SELECT id_usuario, SUM(CASE WHEN tipo = 'RECEITA' THEN valor_centavos ELSE -valor_centavos END) FROM " + particao + " WHERE status = 'EFETIVADO' GROUP BY id_usuario "
+						+ "ON CONFLICT (id_usuario) DO UPDATE SET valor_centavos = financas.saldo_arquivado.valor_centavos + EXCLUDED.valor_centavos");
+				jdbcTemplate.execute("ALTER TABLE " + particao + " SET SCHEMA financas_arquivo");
+				log.info("Lançamentos de {} arquivados em financas_arquivo.{}{}.", ano, PREFIXO_PARTICAO, ano);
+			}
+			return null;
+		});
+	}
+
+	private TreeSet<Integer> obterAnosAnexados() {
+		TreeSet<Integer> anos = new TreeSet<>();
+		jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'financas.lancamento'::regclass "
+				+ "AND NOT i.inhdetachpending", String.class).stream()
+				.filter(nome -> NOME_PARTICAO.matcher(nome).matches())
+				.forEach(nome -> anos.add(Integer.valueOf(nome.substring(PREFIXO_PARTICAO.length()))));
+		return anos;
+	}
+
+	private static RegraNegocioException anoArquivado(Integer ano) {
+		return new RegraNegocioException("Os lançamentos de " + ano + " foram arquivados e não podem mais ser incluídos ou alterados.");
+	}
+
+}
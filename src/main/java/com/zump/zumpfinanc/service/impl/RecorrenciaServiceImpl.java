@@ -0,0 +1,254 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Recorrencia;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.RecorrenciaRepository;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.ParticaoLancamentoService;
+import com.zump.zumpfinanc.service.RecorrenciaService;
+import com.zump.zumpfinanc.service.ReservaParticaoService;
+import com.zump.zumpfinanc.service.ResumoService;
+import com.zump.zumpfinanc.service.SaldoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class RecorrenciaServiceImpl implements RecorrenciaService {
+	
+	static final String TAREFA = "recorrencias";
+	static final int TAMANHO_LOTE = 100; // Recorrências por transação; os lançamentos gerados saem em INSERTs agrupados (hibernate.jdbc.batch_size)
+	static final int PARCELAS_MAXIMAS = 600; // 50 anos de parcelas mensais
+	static final int MESES_RETROATIVOS_MAXIMOS = 24; // As ocorrências já vencidas são geradas dentro do POST: o início no passado limita esse volume
+	static final int RELEITURAS_MAXIMAS = 3; // Lotes desfeitos seguidos antes de deixar a partição para a próxima execução
+	
+	private RecorrenciaRepository repository;
+	private ReservaParticaoService reservaService;
+	private LancamentoRepository lancamentoRepository;
+	private LancamentoService lancamentoService;
+	private SaldoService saldoService;
+	private ResumoService resumoService;
+	private ParticaoLancamentoService particaoService;
+	private EventoLancamentoService eventoService;
+	private EntityManager entityManager;
+	private TransactionTemplate transactionTemplate;
+	private int particoes;
+	private Duration duracaoReserva;
+	
+	public RecorrenciaServiceImpl(RecorrenciaRepository repository, ReservaParticaoService reservaService, LancamentoRepository lancamentoRepository, 
+			LancamentoService lancamentoService, SaldoService saldoService, ResumoService resumoService, ParticaoLancamentoService particaoService, 
+			EventoLancamentoService eventoService, EntityManager entityManager, PlatformTransactionManager transactionManager, @Value("${zumpfinanc.recorrencia.particoes:8}") int particoes, 
+			@Value("${zumpfinanc.recorrencia.reserva-segundos:300}") long segundosReserva) {
+		this.repository = repository;
+		this.reservaService = reservaService;
+		this.lancamentoRepository = lancamentoRepository;
+		this.lancamentoService = lancamentoService;
+		this.saldoService = saldoService;
+		this.resumoService = resumoService;
+		this.particaoService = particaoService;
+		this.eventoService = eventoService;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.particoes = particoes;
+		this.duracaoReserva = Duration.ofSeconds(segundosReserva);
+	}
+
+	@Override
+	@Transactional
+	public Recorrencia salvar(Recorrencia recorrencia) {
+		validar(recorrencia);
+		recorrencia.setId(null);
+		recorrencia.avancar(0);
+		recorrencia = repository.save(recorrencia);
+		
+		YearMonth mesAtual = YearMonth.now();
+		gerar(recorrencia, Recorrencia.competencia(mesAtual.getYear(), mesAtual.getMonthValue()), new ArrayList<>()); // As ocorrências já vencidas entram na hora
+		descarregar();
+		return recorrencia;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Recorrencia> obterDoUsuario(Long idUsuario) {
+		return repository.obterDoUsuario(idUsuario);
+	}
+
+	@Override
+	@Transactional
+	public void encerrar(Long id, Long idUsuario) { // Os lançamentos já gerados continuam; só as próximas ocorrências deixam de existir
+		if(repository.encerrar(id, idUsuario) == 0) {
+			throw new RegraNegocioException("Recorrência não encontrada na base de dados.");
+		}
+	}
+
+	@Override
+	@Scheduled(cron = "${zumpfinanc.recorrencia.cron:0 */15 * * * *}")
+	public int materializarVencidas() {
+		return materializar(YearMonth.now());
+	}
+
+	// Cada nó percorre todas as partições, mas só processa as que conseguir reservar: vários nós dividem o trabalho sem gerar a mesma ocorrência duas vezes.
+	// A reserva é renovada a cada lote; se expirar no meio (nó lento) e outro nó assumir, este para na renovação seguinte
+	@Override
+	public int materializar(YearMonth ate) {
+		int competencia = Recorrencia.competencia(ate.getYear(), ate.getMonthValue());
+		int gerados = 0;
+		
+		for(int particao = 0; particao < particoes; particao++) {
+			String chave = TAREFA + ":" + particao;
+			if(!reservaService.reservar(chave, duracaoReserva)) {
+				continue;
+			}
+			try {
+				int geradosNoLote;
+				int releituras = 0;
+				do {
+					geradosNoLote = materializarLote(competencia, particao);
+					gerados += Math.max(geradosNoLote, 0);
+					releituras = geradosNoLote == 0 ? releituras + 1 : 0;
+				} while(geradosNoLote >= 0 && releituras < RELEITURAS_MAXIMAS && reservaService.reservar(chave, duracaoReserva));
+				
+				if(releituras == RELEITURAS_MAXIMAS) {
+					log.error("Partição {} de recorrências desfeita {} vezes seguidas; fica para a próxima execução.", particao, RELEITURAS_MAXIMAS);
+				}
+			} finally {
+				reservaService.liberar(chave);
+			}
+		}
+		
+		if(gerados > 0) {
+			log.info("{} lançamento(s) gerado(s) a partir de recorrências até {}.", gerados, ate);
+		}
+		return gerados;
+	}
+	
+	// Uma transação por lote: os lançamentos, a marca d'água das recorrências, o saldo e o resumo mensal são gravados juntos. Retorna -1 quando não há mais recorrências vencidas.
+	// Uma recorrência encerrada durante o lote muda de versão, e uma parcela já gravada por outro nó colide no índice único: o lote inteiro é desfeito e relido
+	private int materializarLote(int competencia, int particao) {
+		try {
+			return gerarLote(competencia, particao);
+		} catch (OptimisticLockException | ObjectOptimisticLockingFailureException e) {
+			log.warn("Lote da partição {} de recorrências desfeito por alteração concorrente; será relido.", particao);
+			return 0;
+		} catch (DataIntegrityViolationException | PersistenceException e) {
+			if(!(e.getCause() instanceof ConstraintViolationException)) {
+				throw e;
+			}
+			log.warn("Lote da partição {} de recorrências desfeito por parcela já gravada; será relido.", particao);
+			return 0;
+		}
+	}
+	
+	private int gerarLote(int competencia, int particao) {
+		return transactionTemplate.execute(status -> {
+			List<Recorrencia> vencidas = repository.obterVencidas(competencia, particoes, particao, PageRequest.of(0, TAMANHO_LOTE));
+			if(vencidas.isEmpty()) {
+				return -1;
+			}
+			
+			List<Lancamento> lancamentos = new ArrayList<>();
+			for(Recorrencia recorrencia : vencidas) {
+				gerar(recorrencia, competencia, lancamentos);
+			}
+			
+			// Descarrega os INSERTs em lote e esvazia o contexto de persistência entre os lotes
+			descarregar();
+			entityManager.clear();
+			return lancamentos.size();
+		});
+	}
+	
+	private void gerar(Recorrencia recorrencia, int competencia, List<Lancamento> lancamentos) {
+		int inicio = lancamentos.size();
+		int parcela = recorrencia.getParcelasGeradas();
+		while(recorrencia.getProximaOcorrencia() != null && recorrencia.getProximaOcorrencia() <= competencia) {
+			lancamentos.add(criarLancamento(recorrencia, parcela));
+			recorrencia.avancar(++parcela);
+		}
+		
+		List<Lancamento> novos = lancamentos.subList(inicio, lancamentos.size());
+		if(novos.isEmpty()) {
+			return;
+		}
+		novos.forEach(lancamento -> particaoService.garantirParticao(lancamento.getAno()));
+		lancamentoRepository.saveAll(novos);
+		List<SituacaoLancamento> inclusoes = novos.stream().map(SituacaoLancamento::de).collect(Collectors.toList());
+		saldoService.registrarInclusoes(inclusoes);
+		resumoService.registrarInclusoes(inclusoes);
+		eventoService.registrarCriacoes(novos);
+	}
+	
+	private void descarregar() { // Uma falta de partição (ano arquivado por outro nó) faz este nó reler o catálogo de partições
+		try {
+			entityManager.flush();
+		} catch (PersistenceException e) {
+			particaoService.conferirFalhaDeGravacao(e, null);
+			throw e;
+		}
+	}
+	
+	private static Lancamento criarLancamento(Recorrencia recorrencia, int indice) {
+		int competencia = recorrencia.competenciaDaParcela(indice);
+		String descricao = recorrencia.getParcelas() == null ? recorrencia.getDescricao() 
+				: recorrencia.getDescricao() + " (" + (indice + 1) + "/" + recorrencia.getParcelas() + ")";
+		return Lancamento.builder()
+				.descricao(descricao)
+				.mes(competencia % 12 + 1)
+				.ano(competencia / 12)
+				.valor(recorrencia.getValor())
+				.tipo(recorrencia.getTipo())
+				.status(StatusLancamento.PENDENTE)
+				.dataCadastro(LocalDate.now())
+				.usuario(recorrencia.getUsuario())
+				.idRecorrencia(recorrencia.getId())
+				.parcela(indice + 1)
+				.build();
+	}
+	
+	private void validar(Recorrencia recorrencia) {
+		if(recorrencia.getPeriodicidade() == null) {
+			throw new RegraNegocioException("Informe uma Periodicidade válida.");
+		}
+		
+		if(recorrencia.getParcelas() != null && (recorrencia.getParcelas() < 1 || recorrencia.getParcelas() > PARCELAS_MAXIMAS)) {
+			throw new RegraNegocioException("Informe um número de Parcelas entre 1 e " + PARCELAS_MAXIMAS + ".");
+		}
+		
+		// Descrição, mês, ano, usuário, valor e tipo seguem as mesmas regras do lançamento gerado
+		lancamentoService.validar(Lancamento.builder().descricao(recorrencia.getDescricao()).mes(recorrencia.getMesInicio()).ano(recorrencia.getAnoInicio())
+				.usuario(recorrencia.getUsuario()).valor(recorrencia.getValor()).tipo(recorrencia.getTipo()).build());
+		
+		YearMonth inicioMinimo = YearMonth.now().minusMonths(MESES_RETROATIVOS_MAXIMOS);
+		if(YearMonth.of(recorrencia.getAnoInicio(), recorrencia.getMesInicio()).isBefore(inicioMinimo)) {
+			throw new RegraNegocioException("Informe um início a partir de " + inicioMinimo.getMonthValue() + "/" + inicioMinimo.getYear() + ".");
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zump.zumpfinanc.model.entity.ReservaParticao;
+import com.zump.zumpfinanc.model.repository.ReservaParticaoRepository;
+import com.zump.zumpfinanc.service.ReservaParticaoService;
+
+// Reservas (leases) do trabalho agendado dividido entre os nós: as partições das recorrências e o relay do outbox
+@Service
+public class ReservaParticaoServiceImpl implements ReservaParticaoService {
+	
+	private ReservaParticaoRepository repository;
+	private TransactionTemplate transactionTemplate;
+	private String no;
+	
+	public ReservaParticaoServiceImpl(ReservaParticaoRepository repository, PlatformTransactionManager transactionManager, 
+			@Value("${zumpfinanc.recorrencia.no:}") String no) {
+		this.repository = repository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.no = no.isEmpty() ? UUID.randomUUID().toString() : no; // Identifica este nó nas reservas
+	}
+
+	// Reserva a chave para este nó, renovando a própria reserva ou assumindo uma expirada
+	@Override
+	public boolean reservar(String chave, Duration duracao) {
+		Instant agora = Instant.now();
+		Instant expiraEm = agora.plus(duracao);
+		return transactionTemplate.execute(status -> {
+			if(repository.reservar(chave, no, expiraEm, agora) > 0) {
+				return true;
+			}
+			if(repository.existsById(chave)) {
+				return false; // Reservada por outro nó
+			}
+			try { // Primeira execução da partição
+				repository.saveAndFlush(ReservaParticao.builder().chave(chave).dono(no).expiraEm(expiraEm).build());
+				return true;
+			} catch (DataIntegrityViolationException e) {
+				status.setRollbackOnly(); // Outro nó criou a reserva ao mesmo tempo
+				return false;
+			}
+		});
+	}
+
+	// Na transação de quem chama: a reserva continua deste nó até o commit dela
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public boolean confirmar(String chave) {
+		return repository.obterPropriaParaAtualizacao(chave, no, Instant.now()).isPresent();
+	}
+
+	@Override
+	public void liberar(String chave) {
+		transactionTemplate.execute(status -> repository.liberar(chave, no, Instant.now()));
+	}
+
+}
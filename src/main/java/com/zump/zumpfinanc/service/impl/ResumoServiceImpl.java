@@ -0,0 +1,147 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zump.zumpfinanc.model.entity.ChaveResumoMensal;
+import com.zump.zumpfinanc.model.entity.ResumoMensal;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.projection.TotalMensal;
+import com.zump.zumpfinanc.model.repository.ArquivoLancamentoRepository;
+import com.zump.zumpfinanc.model.repository.InsercaoSeAusente;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.ResumoMensalRepository;
+import com.zump.zumpfinanc.service.ResumoService;
+
+@Service
+public class ResumoServiceImpl implements ResumoService {
+	
+	private ResumoMensalRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private ArquivoLancamentoRepository arquivoRepository;
+	private boolean usarConsolidado;
+	
+	public ResumoServiceImpl(ResumoMensalRepository repository, LancamentoRepository lancamentoRepository, ArquivoLancamentoRepository arquivoRepository, 
+			@Value("${zumpfinanc.resumo.consolidado:true}") boolean usarConsolidado) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.arquivoRepository = arquivoRepository;
+		this.usarConsolidado = usarConsolidado;
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarAlteracao(SituacaoLancamento anterior, SituacaoLancamento atual) {
+		Map<ChaveResumoMensal, Variacao> variacoes = new HashMap<>();
+		
+		if(anterior != null) {
+			acumularVariacao(variacoes, anterior, -1);
+		}
+		
+		if(atual != null) {
+			acumularVariacao(variacoes, atual, 1);
+		}
+		
+		aplicar(variacoes);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarInclusoes(Collection<SituacaoLancamento> inclusoes) {
+		Map<ChaveResumoMensal, Variacao> variacoes = new HashMap<>();
+		
+		for(SituacaoLancamento inclusao : inclusoes) {
+			acumularVariacao(variacoes, inclusao, 1);
+		}
+		
+		aplicar(variacoes); // Uma atualização por mês/tipo/status, e não por lançamento incluído
+	}
+	
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarMudancaDeStatus(Collection<GrupoSituacao> anteriores, StatusLancamento novoStatus) {
+		Map<ChaveResumoMensal, Variacao> variacoes = new HashMap<>();
+		
+		for(GrupoSituacao grupo : anteriores) { // O grupo sai do status anterior e entra no novo, com o total e a quantidade de uma vez
+			SituacaoLancamento anterior = grupo.comoSituacao();
+			acumularVariacao(variacoes, anterior, -1, grupo.getQuantidade());
+			acumularVariacao(variacoes, anterior.comStatus(novoStatus), 1, grupo.getQuantidade());
+		}
+		
+		aplicar(variacoes);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<TotalMensal> obterTotaisMensais(Long idUsuario, Integer ano) {
+		if(usarConsolidado) {
+			return repository.obterTotais(idUsuario, ano);
+		}
+		return lancamentoRepository.obterTotaisMensais(idUsuario, ano);
+	}
+
+	@Override
+	@Transactional
+	public void reconstruir(Long idUsuario) { // Recalcula todo o resumo do usuário a partir dos lançamentos
+		Integer ultimoAnoArquivado = arquivoRepository.obterUltimoAno();
+		if(ultimoAnoArquivado == null) {
+			repository.excluirDoUsuario(idUsuario);
+		} else { // Os lançamentos dos anos arquivados não estão mais na tabela: o resumo desses anos fica como está
+			repository.excluirDoUsuarioApos(idUsuario, ultimoAnoArquivado);
+		}
+		repository.saveAll(lancamentoRepository.obterTotaisMensais(idUsuario).stream()
+				.map(total -> criarResumo(new ChaveResumoMensal(idUsuario, total.getAno(), total.getMes(), total.getTipo(), total.getStatus()), total))
+				.collect(Collectors.toList()));
+	}
+	
+	private void acumularVariacao(Map<ChaveResumoMensal, Variacao> variacoes, SituacaoLancamento situacao, int sinal) {
+		acumularVariacao(variacoes, situacao, sinal, 1);
+	}
+	
+	private void acumularVariacao(Map<ChaveResumoMensal, Variacao> variacoes, SituacaoLancamento situacao, int sinal, long quantidade) {
+		if(situacao.getIdUsuario() == null || situacao.getAno() == null || situacao.getMes() == null || situacao.getTipo() == null 
+				|| situacao.getStatus() == null || situacao.getValorCentavos() == null) {
+			return;
+		}
+		
+		ChaveResumoMensal chave = new ChaveResumoMensal(situacao.getIdUsuario(), situacao.getAno(), situacao.getMes(), situacao.getTipo(), situacao.getStatus());
+		Variacao variacao = variacoes.computeIfAbsent(chave, c -> new Variacao());
+		variacao.total = Math.addExact(variacao.total, sinal < 0 ? Math.negateExact(situacao.getValorCentavos()) : situacao.getValorCentavos());
+		variacao.quantidade += sinal < 0 ? -quantidade : quantidade;
+	}
+	
+	private void aplicar(Map<ChaveResumoMensal, Variacao> variacoes) {
+		variacoes.forEach((chave, variacao) -> {
+			if(variacao.total == 0 && variacao.quantidade == 0) {
+				return; // Ex.: só a descrição mudou
+			}
+			
+			// Sem lançamentos no mês/tipo/status não há linha a criar
+			InsercaoSeAusente.acumularOuInserir(() -> repository.acumular(chave, variacao.total, variacao.quantidade) > 0, 
+					() -> lancamentoRepository.obterTotalMensal(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipo(), chave.getStatus())
+							.map(total -> repository.inserirSeAusente(criarResumo(chave, total))).orElse(true), "Resumo mensal " + chave);
+		});
+	}
+	
+	private static ResumoMensal criarResumo(ChaveResumoMensal chave, TotalMensal total) {
+		return ResumoMensal.builder().chave(chave).totalCentavos(total.getTotalCentavos()).quantidade(total.getQuantidade()).build();
+	}
+	
+	private static class Variacao {
+		
+		private long total; // Centavos
+		private long quantidade;
+		
+	}
+
+}
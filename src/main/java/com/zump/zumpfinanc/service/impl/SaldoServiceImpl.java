@@ -0,0 +1,168 @@
+package com.zump.zumpfinanc.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zump.zumpfinanc.config.CacheConfig;
+import com.zump.zumpfinanc.config.RoteamentoDataSource;
+import com.zump.zumpfinanc.model.entity.SaldoArquivado;
+import com.zump.zumpfinanc.model.entity.SaldoUsuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.GrupoSituacao;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.InsercaoSeAusente;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.SaldoArquivadoRepository;
+import com.zump.zumpfinanc.model.repository.SaldoUsuarioRepository;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.DivergenciaSaldo;
+import com.zump.zumpfinanc.service.SaldoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class SaldoServiceImpl implements SaldoService {
+	
+	private SaldoUsuarioRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private UsuarioRepository usuarioRepository;
+	private SaldoArquivadoRepository saldoArquivadoRepository;
+	private TransactionTemplate transactionTemplate;
+	
+	public SaldoServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository, UsuarioRepository usuarioRepository, 
+			SaldoArquivadoRepository saldoArquivadoRepository, PlatformTransactionManager transactionManager) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.usuarioRepository = usuarioRepository;
+		this.saldoArquivadoRepository = saldoArquivadoRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY) // Sempre na mesma transação da alteração do lançamento
+	public void registrarAlteracao(SituacaoLancamento anterior, SituacaoLancamento atual) {
+		Map<Long, long[]> deltas = new HashMap<>();
+		
+		if(anterior != null && anterior.getIdUsuario() != null) {
+			somar(deltas, anterior.getIdUsuario(), Math.negateExact(anterior.contribuicaoNoSaldo()));
+		}
+		
+		if(atual != null && atual.getIdUsuario() != null) {
+			somar(deltas, atual.getIdUsuario(), atual.contribuicaoNoSaldo());
+		}
+		
+		aplicar(deltas);
+	}
+	
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarInclusoes(Collection<SituacaoLancamento> inclusoes) {
+		Map<Long, long[]> deltas = new HashMap<>();
+		
+		for(SituacaoLancamento inclusao : inclusoes) {
+			somar(deltas, inclusao.getIdUsuario(), inclusao.contribuicaoNoSaldo());
+		}
+		
+		aplicar(deltas); // Uma atualização por usuário, e não por lançamento incluído
+	}
+	
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarMudancaDeStatus(Collection<GrupoSituacao> anteriores, StatusLancamento novoStatus) {
+		Map<Long, long[]> deltas = new HashMap<>();
+		
+		for(GrupoSituacao grupo : anteriores) {
+			SituacaoLancamento anterior = grupo.comoSituacao();
+			somar(deltas, grupo.getIdUsuario(), Math.subtractExact(anterior.comStatus(novoStatus).contribuicaoNoSaldo(), anterior.contribuicaoNoSaldo()));
+		}
+		
+		aplicar(deltas);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	@Cacheable(cacheNames = CacheConfig.SALDOS)
+	public long obterSaldo(Long idUsuario) {
+		return RoteamentoDataSource.lerDaPrimaria(() -> repository.findById(idUsuario).map(SaldoUsuario::getValorCentavos).orElseGet(() -> calcularSaldo(idUsuario)));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public long calcularSaldo(Long idUsuario) {
+		Long receitas = lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
+		Long despesas = lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(idUsuario, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO);
+		long arquivado = saldoArquivadoRepository.findById(idUsuario).map(SaldoArquivado::getValorCentavos).orElse(0l); // Anos que já saíram de financas.lancamento
+		
+		return Math.addExact(Math.subtractExact(receitas == null ? 0 : receitas, despesas == null ? 0 : despesas), arquivado);
+	}
+
+	@Override
+	@Scheduled(cron = "${zumpfinanc.saldo.reconciliacao.cron:0 0 3 * * *}")
+	@CacheEvict(cacheNames = CacheConfig.SALDOS, allEntries = true) // Saldos corrigidos não podem continuar em cache
+	public List<DivergenciaSaldo> reconciliar() {
+		List<DivergenciaSaldo> divergencias = new ArrayList<>();
+		
+		for(Long idUsuario : usuarioRepository.obterIds()) {
+			// Uma transação por usuário: o bloqueio da linha de saldo fica curto e não segura os demais usuários
+			DivergenciaSaldo divergencia = transactionTemplate.execute(status -> reconciliar(idUsuario));
+			if(divergencia != null) {
+				log.warn("Saldo divergente para o usuário {}: consolidado {}, calculado {}.", idUsuario, divergencia.getSaldoConsolidado(), divergencia.getSaldoCalculado());
+				divergencias.add(divergencia);
+			}
+		}
+		
+		log.info("Reconciliação de saldos concluída, {} divergência(s) corrigida(s).", divergencias.size());
+		return divergencias;
+	}
+	
+	private DivergenciaSaldo reconciliar(Long idUsuario) {
+		Optional<SaldoUsuario> consolidado = repository.obterParaAtualizacao(idUsuario);
+		long calculado = calcularSaldo(idUsuario);
+		
+		if(consolidado.isPresent() && consolidado.get().getValorCentavos() == calculado) {
+			return null;
+		}
+		
+		repository.save(SaldoUsuario.builder().idUsuario(idUsuario).valorCentavos(calculado).build());
+		
+		if(!consolidado.isPresent() && calculado == 0) {
+			return null; // Apenas inicializa o saldo de quem ainda não tinha movimento
+		}
+		return new DivergenciaSaldo(idUsuario, consolidado.map(SaldoUsuario::getValorCentavos).orElse(null), calculado);
+	}
+	
+	// Um acumulador mutável (long[1]) por usuário: somar não cria um Long a cada lançamento, como faria o Map.merge
+	private static void somar(Map<Long, long[]> deltas, Long idUsuario, long centavos) {
+		long[] delta = deltas.computeIfAbsent(idUsuario, id -> new long[1]);
+		delta[0] = Math.addExact(delta[0], centavos);
+	}
+	
+	private void aplicar(Map<Long, long[]> deltas) {
+		deltas.forEach((idUsuario, delta) -> {
+			if(delta[0] != 0) {
+				acumular(idUsuario, delta[0]);
+			}
+		});
+	}
+	
+	private void acumular(Long idUsuario, long delta) {
+		InsercaoSeAusente.acumularOuInserir(() -> repository.acumular(idUsuario, delta) > 0, 
+				() -> repository.inserirSeAusente(idUsuario, calcularSaldo(idUsuario)), "Saldo do usuário " + idUsuario);
+	}
+
+}
@@ -1,45 +1,113 @@
 package com.zump.zumpfinanc.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Optional;
+import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zump.zumpfinanc.config.CacheConfig;
+import com.zump.zumpfinanc.config.RoteamentoDataSource;
 import com.zump.zumpfinanc.exception.ErroAutenticacao;
 import com.zump.zumpfinanc.exception.RegraNegocioException;
 import com.zump.zumpfinanc.model.entity.Usuario;
 import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.OutboxService;
 import com.zump.zumpfinanc.service.UsuarioService;
 
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
 	
+	// A mesma mensagem para email desconhecido e senha errada: a resposta não revela se a conta existe
+	private static final String CREDENCIAIS_INVALIDAS = "Email ou senha inválidos.";
+	
 	private UsuarioRepository repository;
+	private PasswordEncoder passwordEncoder;
+	private OutboxService outboxService;
+	
+	// Hash de uma senha qualquer, com o mesmo custo das senhas reais: conferido quando o email não existe ou a senha
+	// em texto puro não bate, para que o tempo de resposta não revele se a conta existe
+	private final String hashFicticio;
 	
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	// Ids de usuários já confirmados na base. Usuários não são excluídos pela aplicação, então um id
+	// confirmado continua válido e não precisa de nova consulta; só os ids desconhecidos vão à base.
+	// Limitado a zumpfinanc.usuario.ids-existentes.tamanho: o id que sai é só consultado de novo
+	private final Cache<Long, Boolean> idsExistentes;
+	
+	public UsuarioServiceImpl(UsuarioRepository repository, PasswordEncoder passwordEncoder, OutboxService outboxService,
+			@Value("${zumpfinanc.usuario.ids-existentes.tamanho:100000}") long tamanhoIdsExistentes) {
 		this.repository = repository;
+		this.passwordEncoder = passwordEncoder;
+		this.outboxService = outboxService;
+		this.idsExistentes = Caffeine.newBuilder().maximumSize(tamanhoIdsExistentes).build();
+		this.hashFicticio = passwordEncoder.encode(UUID.randomUUID().toString());
 	}
 
 	@Override
 	public Usuario autenticar(String email, String senha) {
-		Optional<Usuario> usuario = repository.findByEmail(email);
+		Optional<Usuario> usuario = RoteamentoDataSource.lerDaPrimaria(() -> repository.findByEmail(email)); // Vai para o cache USUARIOS_POR_EMAIL
 		
 		if(!usuario.isPresent()) {
-			throw new ErroAutenticacao("Usuário não encontrado para o email informado.");
+			conferirSenhaFicticia();
+			throw new ErroAutenticacao(CREDENCIAIS_INVALIDAS);
 		}
 		
-		if(!usuario.get().getSenha().equals(senha)) {
-			throw new ErroAutenticacao("Senha inválida.");
+		if(!conferirSenha(usuario.get(), senha)) {
+			throw new ErroAutenticacao(CREDENCIAIS_INVALIDAS);
 		}
 		
 		return usuario.get();
 	}
+	
+	private boolean conferirSenha(Usuario usuario, String senha) {
+		String senhaGravada = usuario.getSenha();
+		if(senha != null && senhaCriptografada(senhaGravada)) {
+			return passwordEncoder.matches(senha, senhaGravada);
+		}
+		
+		// Cadastro anterior ao BCrypt, com a senha em texto puro: compara em tempo constante e, se bater, grava o hash no lugar
+		if(senha == null || senhaGravada == null || !MessageDigest.isEqual(senhaGravada.getBytes(StandardCharsets.UTF_8), senha.getBytes(StandardCharsets.UTF_8))) {
+			conferirSenhaFicticia();
+			return false;
+		}
+		
+		String hash = passwordEncoder.encode(senha);
+		repository.atualizarSenha(usuario.getId(), usuario.getEmail(), senhaGravada, hash);
+		usuario.setSenha(hash);
+		return true;
+	}
+	
+	private void conferirSenhaFicticia() {
+		passwordEncoder.matches("", hashFicticio);
+	}
+	
+	private static boolean senhaCriptografada(String senha) { // Formato modular do BCrypt: $2a$10$ + 53 caracteres
+		return senha != null && senha.length() == 60 && senha.startsWith("$2");
+	}
 
 	@Override
 	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = CacheConfig.USUARIOS, key = "#result.id"),
+			@CacheEvict(cacheNames = CacheConfig.USUARIOS_POR_EMAIL, key = "#result.email")
+	})
 	public Usuario salvarUsuario(Usuario usuario) {
 		validarEmail(usuario.getEmail());
-		return repository.save(usuario);
+		if(usuario.getSenha() != null) {
+			usuario.setSenha(passwordEncoder.encode(usuario.getSenha()));
+		}
+		Usuario usuarioSalvo = repository.save(usuario);
+		outboxService.registrarCriacaoUsuario(usuarioSalvo);
+		idsExistentes.put(usuarioSalvo.getId(), Boolean.TRUE);
+		return usuarioSalvo;
 	}
 
 	@Override
@@ -51,8 +119,31 @@ public class UsuarioServiceImpl implements UsuarioService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Usuario> obterPorId(Long id) {		
-		return repository.findById(id);
+		return RoteamentoDataSource.lerDaPrimaria(() -> repository.findById(id)); // Vai para o cache USUARIOS
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean existe(Long id) {
+		if(id == null) {
+			return false;
+		}
+		if(idsExistentes.getIfPresent(id) != null) {
+			return true;
+		}
+		
+		boolean existe = repository.existsById(id);
+		if(existe) {
+			idsExistentes.put(id, Boolean.TRUE);
+		}
+		return existe;
+	}
+
+	@Override
+	public Usuario obterReferencia(Long id) { // Proxy só com o id (getOne), para associar ao lançamento sem SELECT no usuário
+		return repository.getOne(id);
 	}
 
 }
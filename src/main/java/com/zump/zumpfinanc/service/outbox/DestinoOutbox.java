@@ -0,0 +1,12 @@
+package com.zump.zumpfinanc.service.outbox;
+
+import java.util.List;
+
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+
+// Destino do relay do outbox, chamado dentro da transação que grava as posições: entrega pelo menos uma vez
+public interface DestinoOutbox {
+	
+	void publicar(List<MensagemOutbox> mensagens);
+
+}
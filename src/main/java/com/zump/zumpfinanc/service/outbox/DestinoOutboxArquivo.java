@@ -0,0 +1,56 @@
+package com.zump.zumpfinanc.service.outbox;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+
+// Acrescenta cada lote ao arquivo NDJSON e só retorna com o lote no disco (force)
+public class DestinoOutboxArquivo implements DestinoOutbox, Closeable {
+	
+	private final FileChannel arquivo;
+	private final ObjectMapper objectMapper;
+	
+	public DestinoOutboxArquivo(Path caminho, ObjectMapper objectMapper) throws IOException {
+		this.arquivo = FileChannel.open(caminho, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public synchronized void publicar(List<MensagemOutbox> mensagens) {
+		StringBuilder linhas = new StringBuilder();
+		for(MensagemOutbox mensagem : mensagens) {
+			ObjectNode linha = objectMapper.createObjectNode().put("posicao", mensagem.getPosicao()).put("agregado", mensagem.getAgregado().name())
+					.put("id", mensagem.getIdAgregado()).put("usuario", mensagem.getIdUsuario()).put("tipo", mensagem.getTipo().name())
+					.put("ocorridoEm", mensagem.getOcorridoEm().toString());
+			linha.putRawValue("dados", new RawValue(mensagem.getDados())); // Já em JSON
+			linhas.append(linha.toString()).append('\n');
+		}
+		
+		try {
+			ByteBuffer conteudo = ByteBuffer.wrap(linhas.toString().getBytes(StandardCharsets.UTF_8));
+			while(conteudo.hasRemaining()) {
+				arquivo.write(conteudo);
+			}
+			arquivo.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		arquivo.close();
+	}
+
+}
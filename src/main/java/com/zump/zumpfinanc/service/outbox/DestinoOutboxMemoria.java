@@ -0,0 +1,33 @@
+package com.zump.zumpfinanc.service.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+
+public class DestinoOutboxMemoria implements DestinoOutbox { // Guarda as últimas mensagens publicadas; o destino sem zumpfinanc.outbox.arquivo
+	
+	private final int capacidade;
+	private final Deque<MensagemOutbox> mensagens = new ArrayDeque<>();
+	
+	public DestinoOutboxMemoria(int capacidade) {
+		this.capacidade = capacidade;
+	}
+
+	@Override
+	public synchronized void publicar(List<MensagemOutbox> publicadas) {
+		for(MensagemOutbox mensagem : publicadas) {
+			if(mensagens.size() == capacidade) {
+				mensagens.removeFirst();
+			}
+			mensagens.addLast(mensagem);
+		}
+	}
+	
+	public synchronized List<MensagemOutbox> obterPublicadas() {
+		return new ArrayList<>(mensagens);
+	}
+
+}
@@ -0,0 +1,13 @@
+-- Saldo consolidado por usuário, mantido pelo LancamentoService na mesma transação de cada alteração.
+CREATE TABLE IF NOT EXISTS financas.saldo_usuario (
+	id_usuario BIGINT NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+	valor NUMERIC(16, 2) NOT NULL DEFAULT 0
+);
+
+-- Carga inicial a partir dos lançamentos já EFETIVADOS (a reconciliação agendada também recompõe a tabela).
+INSERT INTO financas.saldo_usuario (id_usuario, valor)
+SELECT u.id, COALESCE(SUM(CASE WHEN l.tipo = 'RECEITA' THEN l.valor ELSE -l.valor END), 0)
+FROM financas.usuario u
+LEFT JOIN financas.lancamento l ON l.id_usuario = u.id AND l.status = 'EFETIVADO'
+GROUP BY u.id
+ON CONFLICT (id_usuario) DO NOTHING;
@@ -0,0 +1,2 @@
+-- Paginação por cursor (keyset): "WHERE id_usuario = ? AND id > ? ORDER BY id LIMIT ?" vira uma leitura sequencial no índice.
+CREATE INDEX IF NOT EXISTS idx_lancamento_usuario_id ON financas.lancamento (id_usuario, id);
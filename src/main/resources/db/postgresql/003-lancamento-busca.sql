@@ -0,0 +1,13 @@
+-- Busca de lançamentos: igualdade em (id_usuario, ano, mes) primeiro e descrição por trigramas sobre a coluna normalizada.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS descricao_busca VARCHAR(255);
+
+-- Mesma normalização de Lancamento.normalizar (minúsculas e sem acentos) para as linhas já existentes.
+UPDATE financas.lancamento SET descricao_busca = lower(unaccent(trim(descricao))) WHERE descricao_busca IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_lancamento_usuario_ano_mes ON financas.lancamento (id_usuario, ano, mes, id);
+
+-- O GIN de trigramas atende "descricao_busca LIKE '%termo%'", o que nenhum índice B-tree consegue.
+CREATE INDEX IF NOT EXISTS idx_lancamento_descricao_busca_trgm ON financas.lancamento USING gin (descricao_busca gin_trgm_ops);
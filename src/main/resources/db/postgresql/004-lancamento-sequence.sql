@@ -0,0 +1,4 @@
+-- O id do lançamento passa a vir da sequence em blocos de 50 (allocationSize do @SequenceGenerator, otimizador pooled-lo).
+-- A sequence do antigo SERIAL é reaproveitada: incremento ajustado e valor posicionado acima do maior id existente.
+ALTER SEQUENCE financas.lancamento_id_seq INCREMENT BY 50;
+SELECT setval('financas.lancamento_id_seq', COALESCE((SELECT MAX(id) FROM financas.lancamento), 0) + 1, false);
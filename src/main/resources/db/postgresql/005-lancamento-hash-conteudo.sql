@@ -0,0 +1,3 @@
+-- Deduplicação de extratos importados: hash do conteúdo de cada transação, único por usuário (nulo nos lançamentos manuais).
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS hash_conteudo VARCHAR(64);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_lancamento_hash_conteudo_usuario ON financas.lancamento (hash_conteudo, id_usuario);
@@ -0,0 +1,16 @@
+-- Resumo mensal consolidado: soma e quantidade dos lançamentos por usuário, ano, mês, tipo e status.
+-- Mantido pela aplicação a cada alteração de lançamento; a carga inicial agrupa os lançamentos existentes.
+CREATE TABLE IF NOT EXISTS financas.resumo_mensal (
+	id_usuario BIGINT NOT NULL REFERENCES financas.usuario (id),
+	ano INTEGER NOT NULL,
+	mes INTEGER NOT NULL,
+	tipo VARCHAR(20) NOT NULL,
+	status VARCHAR(20) NOT NULL,
+	total NUMERIC(16, 2) NOT NULL,
+	quantidade BIGINT NOT NULL,
+	PRIMARY KEY (id_usuario, ano, mes, tipo, status)
+);
+
+INSERT INTO financas.resumo_mensal (id_usuario, ano, mes, tipo, status, total, quantidade)
+SELECT id_usuario, ano, mes, tipo, status, SUM(valor), COUNT(*) FROM financas.lancamento GROUP BY id_usuario, ano, mes, tipo, status
+ON CONFLICT (id_usuario, ano, mes, tipo, status) DO UPDATE SET total = EXCLUDED.total, quantidade = EXCLUDED.quantidade;
@@ -0,0 +1,2 @@
+-- Senhas passam a ser gravadas em BCrypt (60 caracteres); as senhas em texto puro são trocadas pelo hash no próximo login com sucesso.
+ALTER TABLE financas.usuario ALTER COLUMN senha TYPE VARCHAR(255);
@@ -0,0 +1,19 @@
+-- Valores passam a ser gravados em centavos (BIGINT) com o código da moeda; saldo e resumo mensal são somados sobre os centavos.
+-- Valores com mais de duas casas decimais são arredondados (ROUND) na conversão.
+BEGIN;
+
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS valor_centavos BIGINT;
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS moeda CHAR(3) NOT NULL DEFAULT 'BRL';
+UPDATE financas.lancamento SET valor_centavos = ROUND(valor * 100) WHERE valor IS NOT NULL;
+ALTER TABLE financas.lancamento DROP COLUMN valor;
+
+ALTER TABLE financas.saldo_usuario ADD COLUMN IF NOT EXISTS valor_centavos BIGINT NOT NULL DEFAULT 0;
+UPDATE financas.saldo_usuario SET valor_centavos = ROUND(valor * 100);
+ALTER TABLE financas.saldo_usuario DROP COLUMN valor;
+
+ALTER TABLE financas.resumo_mensal ADD COLUMN IF NOT EXISTS total_centavos BIGINT NOT NULL DEFAULT 0;
+UPDATE financas.resumo_mensal SET total_centavos = ROUND(total * 100);
+ALTER TABLE financas.resumo_mensal ALTER COLUMN total_centavos DROP DEFAULT;
+ALTER TABLE financas.resumo_mensal DROP COLUMN total;
+
+COMMIT;
@@ -0,0 +1,32 @@
+-- Recorrências (aluguel, salário): modelo de lançamento repetido mensal ou anualmente, com N parcelas ou sem término.
+-- parcelas_geradas é a marca d'água do agendador, atualizada na mesma transação que insere os lançamentos.
+CREATE SEQUENCE IF NOT EXISTS financas.recorrencia_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS financas.recorrencia (
+	id BIGINT NOT NULL PRIMARY KEY,
+	descricao VARCHAR(255) NOT NULL,
+	id_usuario BIGINT NOT NULL REFERENCES financas.usuario (id),
+	valor_centavos BIGINT NOT NULL,
+	moeda CHAR(3) NOT NULL DEFAULT 'BRL',
+	tipo VARCHAR(20) NOT NULL,
+	periodicidade VARCHAR(20) NOT NULL,
+	mes_inicio INTEGER NOT NULL,
+	ano_inicio INTEGER NOT NULL,
+	parcelas INTEGER,
+	parcelas_geradas INTEGER NOT NULL DEFAULT 0,
+	proxima_ocorrencia INTEGER
+);
+CREATE INDEX IF NOT EXISTS idx_recorrencia_proxima_ocorrencia ON financas.recorrencia (proxima_ocorrencia, id) WHERE proxima_ocorrencia IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_recorrencia_usuario ON financas.recorrencia (id_usuario, id);
+
+-- Cada ocorrência gerada guarda a recorrência e a parcela; o índice único impede a mesma ocorrência duas vezes, mesmo com vários nós
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS id_recorrencia BIGINT REFERENCES financas.recorrencia (id);
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS parcela INTEGER;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_lancamento_recorrencia_parcela ON financas.lancamento (id_recorrencia, parcela);
+
+-- Reservas (lease) das partições de trabalho agendado: o nó dono processa a partição até expira_em
+CREATE TABLE IF NOT EXISTS financas.reserva_particao (
+	chave VARCHAR(50) NOT NULL PRIMARY KEY,
+	dono VARCHAR(100) NOT NULL,
+	expira_em TIMESTAMP NOT NULL
+);
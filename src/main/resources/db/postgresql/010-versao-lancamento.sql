@@ -0,0 +1,6 @@
+-- Bloqueio otimista dos lançamentos: a versão é incrementada a cada alteração e exposta na API como ETag (If-Match no PUT).
+BEGIN;
+
+ALTER TABLE financas.lancamento ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
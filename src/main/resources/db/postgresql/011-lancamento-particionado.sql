@@ -0,0 +1,63 @@
+-- Lançamentos particionados por ano (RANGE): consultas com "ano = ?" leem só a partição do ano (partition pruning).
+-- Requer PostgreSQL 14+ (DETACH PARTITION ... CONCURRENTLY no arquivamento). A cópia dos dados bloqueia a tabela: executar em janela de manutenção.
+-- Em tabela particionada as chaves únicas incluem a coluna da partição: a PK passa a (id, ano) e os índices únicos também recebem o ano
+-- (o hash do conteúdo e a parcela da recorrência já determinam o ano, então a regra de unicidade não muda). O id sozinho continua único
+-- por vir da sequence, mas a base não confere mais entre partições.
+BEGIN;
+
+-- A sequence do antigo SERIAL continua gerando os ids; sem isto ela seria excluída com a tabela antiga
+ALTER SEQUENCE financas.lancamento_id_seq OWNED BY NONE;
+ALTER TABLE financas.lancamento RENAME TO lancamento_sem_particao;
+ALTER INDEX IF EXISTS financas.lancamento_pkey RENAME TO lancamento_sem_particao_pkey;
+
+CREATE TABLE financas.lancamento (
+	LIKE financas.lancamento_sem_particao INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+	PRIMARY KEY (id, ano)
+) PARTITION BY RANGE (ano);
+
+ALTER TABLE financas.lancamento ADD FOREIGN KEY (id_usuario) REFERENCES financas.usuario (id);
+ALTER TABLE financas.lancamento ADD FOREIGN KEY (id_recorrencia) REFERENCES financas.recorrencia (id);
+
+-- Anos já arquivados (partição desanexada e movida para o schema financas_arquivo) e o saldo EFETIVADO que saiu com eles,
+-- somado pela reconciliação do saldo
+CREATE SCHEMA IF NOT EXISTS financas_arquivo;
+
+CREATE TABLE IF NOT EXISTS financas.arquivo_lancamento (
+	ano INTEGER NOT NULL PRIMARY KEY,
+	arquivado_em TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS financas.saldo_arquivado (
+	id_usuario BIGINT NOT NULL PRIMARY KEY REFERENCES financas.usuario (id),
+	valor_centavos BIGINT NOT NULL
+);
+
+-- Cria (se ainda não existir) a partição de um ano; retorna false para ano arquivado (ou anterior a um arquivado), que não recebe mais lançamentos.
+-- Chamada pelo ParticaoLancamentoService no agendamento (anos seguintes) e antes de gravar um lançamento de ano ainda sem partição
+CREATE OR REPLACE FUNCTION financas.criar_particao_lancamento(p_ano INTEGER) RETURNS BOOLEAN AS $$
+BEGIN
+	IF EXISTS (SELECT 1 FROM financas.arquivo_lancamento WHERE ano >= p_ano) THEN
+		RETURN false;
+	END IF;
+	PERFORM pg_advisory_xact_lock(hashtext('financas.lancamento'), p_ano); -- Dois nós criando a mesma partição
+	EXECUTE format('CREATE TABLE IF NOT EXISTS financas.%I PARTITION OF financas.lancamento FOR VALUES FROM (%s) TO (%s)', 'lancamento_' || p_ano, p_ano, p_ano + 1);
+	RETURN true;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT financas.criar_particao_lancamento(ano) FROM (SELECT DISTINCT ano FROM financas.lancamento_sem_particao) anos;
+SELECT financas.criar_particao_lancamento(CAST(EXTRACT(YEAR FROM CURRENT_DATE) AS INTEGER) + n) FROM generate_series(0, 2) n;
+
+INSERT INTO financas.lancamento SELECT * FROM financas.lancamento_sem_particao;
+DROP TABLE financas.lancamento_sem_particao;
+
+-- Índices criados depois da cópia, no pai: cada partição recebe o seu (e as partições criadas depois também)
+CREATE INDEX idx_lancamento_usuario_id ON financas.lancamento (id_usuario, id);
+CREATE INDEX idx_lancamento_usuario_ano_mes ON financas.lancamento (id_usuario, ano, mes, id);
+CREATE INDEX idx_lancamento_descricao_busca_trgm ON financas.lancamento USING gin (descricao_busca gin_trgm_ops);
+CREATE UNIQUE INDEX idx_lancamento_hash_conteudo_usuario ON financas.lancamento (hash_conteudo, id_usuario, ano);
+CREATE UNIQUE INDEX idx_lancamento_recorrencia_parcela ON financas.lancamento (id_recorrencia, parcela, ano);
+
+COMMIT;
+
+ANALYZE financas.lancamento;
@@ -0,0 +1,36 @@
+-- Log de eventos dos lançamentos (criado, atualizado, status alterado, excluído): só recebe INSERTs, na mesma transação da alteração.
+-- dados guarda em JSON compacto (uma linha) as colunas alteradas; o índice (id_usuario, ocorrido_em) atende as leituras por intervalo
+CREATE TABLE IF NOT EXISTS financas.evento_lancamento (
+	id BIGSERIAL PRIMARY KEY,
+	id_usuario BIGINT NOT NULL,
+	id_lancamento BIGINT NOT NULL,
+	tipo VARCHAR(20) NOT NULL,
+	ocorrido_em TIMESTAMP NOT NULL,
+	versao BIGINT,
+	delta_saldo_centavos BIGINT NOT NULL,
+	dados VARCHAR(2000) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_evento_lancamento_usuario_ocorrido ON financas.evento_lancamento (id_usuario, ocorrido_em, id);
+CREATE INDEX IF NOT EXISTS idx_evento_lancamento_lancamento ON financas.evento_lancamento (id_lancamento, id);
+
+-- Snapshots periódicos do saldo EFETIVADO: o saldo em uma data é o snapshot anterior a ela mais os eventos seguintes
+CREATE TABLE IF NOT EXISTS financas.snapshot_saldo (
+	id BIGSERIAL PRIMARY KEY,
+	id_usuario BIGINT NOT NULL REFERENCES financas.usuario (id),
+	ate TIMESTAMP NOT NULL,
+	valor_centavos BIGINT NOT NULL,
+	inicial BOOLEAN NOT NULL DEFAULT FALSE
+);
+CREATE INDEX IF NOT EXISTS idx_snapshot_saldo_usuario_ate ON financas.snapshot_saldo (id_usuario, ate);
+
+-- O histórico anterior a esta migração não está no log: o saldo de cada usuário agora (lançamentos EFETIVADOS mais os anos arquivados)
+-- vira o snapshot inicial, e o saldo de datas anteriores a ele não é respondido. Executar com a aplicação parada.
+-- ate e ocorrido_em em UTC (hibernate.jdbc.time_zone)
+INSERT INTO financas.snapshot_saldo (id_usuario, ate, valor_centavos, inicial)
+SELECT u.id, now() AT TIME ZONE 'UTC',
+	COALESCE((SELECT SUM(CASE WHEN l.tipo = 'RECEITA' THEN l.valor_centavos ELSE -l.valor_centavos END) FROM financas.lancamento l
+		WHERE l.id_usuario = u.id AND l.status = 'EFETIVADO'), 0)
+	+ COALESCE((SELECT a.valor_centavos FROM financas.saldo_arquivado a WHERE a.id_usuario = u.id), 0),
+	TRUE
+FROM financas.usuario u
+WHERE NOT EXISTS (SELECT 1 FROM financas.snapshot_saldo s WHERE s.id_usuario = u.id AND s.inicial);
@@ -0,0 +1,15 @@
+-- Outbox das mudanças para os consumidores externos: gravado na mesma transação da alteração do lançamento ou do usuário. O relay
+-- atribui a posicao (ordem de publicação) ao publicar; o índice parcial atende a leitura das pendentes, que fica pequeno com o relay em dia
+CREATE TABLE IF NOT EXISTS financas.outbox (
+	id BIGSERIAL PRIMARY KEY,
+	agregado VARCHAR(20) NOT NULL,
+	id_agregado BIGINT NOT NULL,
+	id_usuario BIGINT NOT NULL,
+	tipo VARCHAR(20) NOT NULL,
+	ocorrido_em TIMESTAMP NOT NULL,
+	dados VARCHAR(2000) NOT NULL,
+	posicao BIGINT
+);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_outbox_posicao ON financas.outbox (posicao);
+CREATE INDEX IF NOT EXISTS idx_outbox_usuario_posicao ON financas.outbox (id_usuario, posicao);
+CREATE INDEX IF NOT EXISTS idx_outbox_pendente ON financas.outbox (id) WHERE posicao IS NULL;
@@ -0,0 +1,7 @@
+-- Bloqueio otimista das recorrências: o encerramento incrementa a versão, e o lote do agendador que leu a recorrência antes
+-- é desfeito no flush em vez de regravar a próxima ocorrência por cima do encerramento.
+BEGIN;
+
+ALTER TABLE financas.recorrencia ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
@@ -0,0 +1,91 @@
+package com.zump.zumpfinanc.api.filtro;
+
+import javax.servlet.DispatcherType;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.zump.zumpfinanc.config.ContadorConsultas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ConsultasFilterTest {
+	
+	MeterRegistry registry = new SimpleMeterRegistry();
+	ConsultasFilter filter = new ConsultasFilter(registry, 2, 3);
+	ContadorConsultas contador = new ContadorConsultas();
+	
+	@Test
+	public void deveRegistrarAQuantidadeDeComandosEOsRepetidosDaRequisicao() throws Exception {
+		// Cenário
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		
+		// Ação/Execução
+		filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+			req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/lancamentos");
+			contador.inspect("select * from financas.lancamento where id_usuario = ?");
+			for(int i = 1; i <= 3; i++) {
+				contador.inspect("select * from financas.usuario where id = " + i);
+			}
+		});
+		
+		// Verificação
+		Assertions.assertThat(registry.get(ConsultasFilter.CONSULTAS).tag("method", "GET").tag("uri", "/api/lancamentos").summary().totalAmount()).isEqualTo(4);
+		Assertions.assertThat(registry.get(ConsultasFilter.CONSULTAS_REPETIDAS).tag("uri", "/api/lancamentos").counter().count()).isEqualTo(1);
+	}
+	
+	@Test
+	public void naoDeveContarComandosForaDaRequisicao() throws Exception {
+		// Cenário
+		contador.inspect("select 1");
+		
+		// Ação/Execução
+		filter.doFilter(new MockHttpServletRequest("GET", "/api/lancamentos/1"), new MockHttpServletResponse(), (req, res) -> {});
+		
+		// Verificação
+		Assertions.assertThat(registry.get(ConsultasFilter.CONSULTAS).tag("uri", "UNKNOWN").summary().totalAmount()).isEqualTo(0);
+		Assertions.assertThat(registry.find(ConsultasFilter.CONSULTAS_REPETIDAS).counter()).isNull();
+	}
+
+	@Test
+	public void deveRegistrarAsConsultasDoHandlerAssincronoSoAoFimDoDespachoAssincrono() throws Exception {
+		// Cenário
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos/1");
+		request.setAsyncSupported(true);
+		request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/lancamentos/{id}");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		// Ação/Execução
+		filter.doFilter(request, response, (req, res) -> { // O handler vai para outra thread, que continua a contagem da requisição
+			StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, response);
+			WebAsyncUtils.getAsyncManager(req).setAsyncWebRequest(asyncWebRequest);
+			asyncWebRequest.startAsync();
+			Thread executor = new Thread(() -> {
+				new ContadorConsultas.Propagacao().preProcess(asyncWebRequest, null);
+				contador.inspect("select * from financas.lancamento where id = ?");
+				new ContadorConsultas.Propagacao().postProcess(asyncWebRequest, null, null);
+			});
+			executor.start();
+			try {
+				executor.join();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		boolean registradaAntesDoDespacho = registry.find(ConsultasFilter.CONSULTAS).summary() != null;
+		request.setDispatcherType(DispatcherType.ASYNC);
+		request.setAsyncStarted(false);
+		filter.doFilter(request, response, (req, res) -> contador.inspect("select * from financas.usuario where id = ?"));
+		
+		// Verificação
+		Assertions.assertThat(registradaAntesDoDespacho).isFalse();
+		Assertions.assertThat(registry.get(ConsultasFilter.CONSULTAS).tag("uri", "/api/lancamentos/{id}").summary().totalAmount()).isEqualTo(2);
+	}
+
+}
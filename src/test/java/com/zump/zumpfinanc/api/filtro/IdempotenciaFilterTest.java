@@ -0,0 +1,174 @@
+package com.zump.zumpfinanc.api.filtro;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import com.zump.zumpfinanc.config.ExecucaoAssincronaHandlerAdapter;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+public class IdempotenciaFilterTest { // Testes Unitários, sem contexto
+	
+	static final UsuarioAutenticado USUARIO = new UsuarioAutenticado(1l, "usuario@email.com", "usuario", Instant.now().plusSeconds(600));
+	
+	IdempotenciaFilter filter = new IdempotenciaFilter(new ConcurrentMapCache("idempotencia"));
+	AtomicInteger execucoes = new AtomicInteger();
+	
+	@Test
+	public void deveRepetirARespostaGuardadaSemExecutarDeNovo() throws Exception {
+		// Ação/Execução
+		MockHttpServletResponse primeira = enviar("chave-1", "{\"descricao\":\"Aluguel\"}");
+		MockHttpServletResponse repetida = enviar("chave-1", "{\"descricao\":\"Aluguel\"}");
+		
+		// Verificação
+		Assertions.assertThat(execucoes.get()).isEqualTo(1);
+		Assertions.assertThat(repetida.getStatus()).isEqualTo(201);
+		Assertions.assertThat(repetida.getContentAsString()).isEqualTo(primeira.getContentAsString()).isEqualTo("{\"id\":1,\"descricao\":\"Aluguel\"}");
+		Assertions.assertThat(repetida.getHeader("ETag")).isEqualTo("\"0\"");
+		Assertions.assertThat(repetida.getHeader(IdempotenciaFilter.RESPOSTA_REPETIDA)).isEqualTo("true");
+		Assertions.assertThat(primeira.getHeader(IdempotenciaFilter.RESPOSTA_REPETIDA)).isNull();
+	}
+	
+	@Test
+	public void deveRecusarAMesmaChaveComOutroConteudo() throws Exception {
+		// Ação/Execução
+		enviar("chave-1", "{\"descricao\":\"Aluguel\"}");
+		MockHttpServletResponse outroConteudo = enviar("chave-1", "{\"descricao\":\"Mercado\"}");
+		
+		// Verificação
+		Assertions.assertThat(outroConteudo.getStatus()).isEqualTo(422);
+		Assertions.assertThat(execucoes.get()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveExecutarDeNovoDepoisDeUmErroInterno() throws Exception {
+		// Cenário
+		FilterChain comErro = (request, response) -> {
+			execucoes.incrementAndGet();
+			((HttpServletResponse) response).setStatus(503);
+		};
+		
+		// Ação/Execução
+		filter.doFilter(criarRequest("chave-1", "{}"), new MockHttpServletResponse(), comErro);
+		MockHttpServletResponse novaTentativa = enviar("chave-1", "{}");
+		
+		// Verificação
+		Assertions.assertThat(execucoes.get()).isEqualTo(2);
+		Assertions.assertThat(novaTentativa.getStatus()).isEqualTo(201);
+	}
+	
+	@Test
+	public void deveGuardarARespostaDoDespachoAssincrono() throws Exception {
+		// Cenário
+		MockHttpServletRequest request = criarRequest("chave-1", "{}");
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, (req, res) -> { // Modo assíncrono: o resource roda no executor e ainda não respondeu
+			execucoes.incrementAndGet();
+			WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(req);
+			asyncManager.setTaskExecutor(new TaskExecutorAdapter(Runnable::run)); // Conclui o handler na hora
+			asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest((HttpServletRequest) req, (HttpServletResponse) res));
+			try {
+				asyncManager.startCallableProcessing(() -> "concluido");
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		MockHttpServletResponse emAndamento = enviar("chave-1", "{}");
+		
+		// Ação/Execução
+		request.setAsyncStarted(false); // Despacho assíncrono: o resultado concorrente já está no WebAsyncManager
+		filter.doFilter(request, response, (req, res) -> {
+			((HttpServletResponse) res).setStatus(201);
+			res.getWriter().write("{\"id\":7}");
+		});
+		MockHttpServletResponse repetida = enviar("chave-1", "{}");
+		
+		// Verificação
+		Assertions.assertThat(emAndamento.getStatus()).isEqualTo(409);
+		Assertions.assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+		Assertions.assertThat(repetida.getStatus()).isEqualTo(201);
+		Assertions.assertThat(repetida.getContentAsString()).isEqualTo("{\"id\":7}");
+		Assertions.assertThat(execucoes.get()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveManterAChaveEmAndamentoAteOHandlerTerminarDepoisDoTimeout() throws Exception {
+		// Cenário
+		CompletableFuture<Void> termino = new CompletableFuture<>(); // Handler ainda rodando no executor
+		filter.doFilter(criarRequest("chave-1", "{}"), new MockHttpServletResponse(), (req, res) -> {
+			execucoes.incrementAndGet();
+			req.setAttribute(ExecucaoAssincronaHandlerAdapter.TERMINO_HANDLER, termino);
+			((HttpServletResponse) res).setStatus(503); // Timeout do modo assíncrono
+		});
+		
+		// Ação/Execução
+		MockHttpServletResponse comHandlerRodando = enviar("chave-1", "{}");
+		termino.complete(null);
+		MockHttpServletResponse depoisDoHandler = enviar("chave-1", "{}");
+		
+		// Verificação
+		Assertions.assertThat(comHandlerRodando.getStatus()).isEqualTo(409);
+		Assertions.assertThat(depoisDoHandler.getStatus()).isEqualTo(201);
+		Assertions.assertThat(execucoes.get()).isEqualTo(2);
+	}
+	
+	@Test
+	public void naoDeveGuardarRequisicoesSemChave() throws Exception {
+		// Cenário
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/lancamentos");
+		request.setAttribute(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		MockFilterChain chain = new MockFilterChain();
+		
+		// Ação/Execução
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		
+		// Verificação
+		Assertions.assertThat(chain.getRequest()).isSameAs(request);
+	}
+	
+	private MockHttpServletResponse enviar(String chave, String corpo) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(criarRequest(chave, corpo), response, (request, resposta) -> {
+			execucoes.incrementAndGet();
+			String recebido = lerCorpo(request.getInputStream());
+			HttpServletResponse http = (HttpServletResponse) resposta;
+			http.setStatus(201);
+			http.setHeader("ETag", "\"0\"");
+			http.setContentType("application/json");
+			http.getWriter().write(recebido.replace("{", "{\"id\":1,")); // O resource recebe o corpo que o filtro já leu
+		});
+		return response;
+	}
+	
+	private static MockHttpServletRequest criarRequest(String chave, String corpo) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/lancamentos");
+		request.setAttribute(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		request.addHeader(IdempotenciaFilter.IDEMPOTENCY_KEY, chave);
+		request.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+		return request;
+	}
+	
+	private static String lerCorpo(java.io.InputStream entrada) throws IOException {
+		return StreamUtils.copyToString(entrada, StandardCharsets.UTF_8);
+	}
+
+}
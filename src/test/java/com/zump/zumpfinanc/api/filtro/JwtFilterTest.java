@@ -0,0 +1,80 @@
+package com.zump.zumpfinanc.api.filtro;
+
+import java.time.Instant;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.service.JwtService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+public class JwtFilterTest {
+	
+	JwtService jwtService = Mockito.mock(JwtService.class);
+	JwtFilter filter = new JwtFilter(jwtService);
+	
+	@Test
+	public void deveColocarOUsuarioDoTokenNaRequisicao() throws Exception {
+		// Cenário
+		UsuarioAutenticado usuario = new UsuarioAutenticado(1l, "usuario@email.com", "usuario", Instant.now().plusSeconds(600));
+		Mockito.when(jwtService.obterUsuarioAutenticado("abc")).thenReturn(usuario);
+		
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		request.addHeader("Authorization", "Bearer abc");
+		MockFilterChain chain = new MockFilterChain();
+		
+		// Ação/Execução
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		
+		// Verificação
+		Assertions.assertThat(request.getAttribute(JwtFilter.USUARIO_AUTENTICADO)).isSameAs(usuario);
+		Assertions.assertThat(chain.getRequest()).isNotNull();
+	}
+	
+	@Test
+	public void deveRetornarUnauthorizedSemTokenOuComTokenInvalido() throws Exception {
+		// Cenário
+		Mockito.when(jwtService.obterUsuarioAutenticado("invalido")).thenThrow(new ErroAutenticacao("Token de acesso inválido ou expirado."));
+		
+		MockHttpServletRequest semToken = new MockHttpServletRequest("GET", "/api/lancamentos");
+		MockHttpServletRequest tokenInvalido = new MockHttpServletRequest("GET", "/api/lancamentos");
+		tokenInvalido.addHeader("Authorization", "Bearer invalido");
+		MockHttpServletResponse respostaSemToken = new MockHttpServletResponse();
+		MockHttpServletResponse respostaTokenInvalido = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		
+		// Ação/Execução
+		filter.doFilter(semToken, respostaSemToken, chain);
+		filter.doFilter(tokenInvalido, respostaTokenInvalido, new MockFilterChain());
+		
+		// Verificação
+		Assertions.assertThat(respostaSemToken.getStatus()).isEqualTo(401);
+		Assertions.assertThat(respostaTokenInvalido.getStatus()).isEqualTo(401);
+		Assertions.assertThat(respostaTokenInvalido.getContentAsString()).isEqualTo("Token de acesso inválido ou expirado.");
+		Assertions.assertThat(chain.getRequest()).isNull();
+	}
+	
+	@Test
+	public void deveLiberarOLoginEOCadastroSemToken() throws Exception {
+		// Cenário
+		MockHttpServletRequest login = new MockHttpServletRequest("POST", "/api/usuarios/autenticar");
+		MockHttpServletRequest cadastro = new MockHttpServletRequest("POST", "/api/usuarios");
+		MockFilterChain chainLogin = new MockFilterChain();
+		MockFilterChain chainCadastro = new MockFilterChain();
+		
+		// Ação/Execução
+		filter.doFilter(login, new MockHttpServletResponse(), chainLogin);
+		filter.doFilter(cadastro, new MockHttpServletResponse(), chainCadastro);
+		
+		// Verificação
+		Assertions.assertThat(chainLogin.getRequest()).isNotNull();
+		Assertions.assertThat(chainCadastro.getRequest()).isNotNull();
+		Mockito.verifyNoInteractions(jwtService);
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.zump.zumpfinanc.api.resource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zump.zumpfinanc.api.dto.LancamentoDTO;
+import com.zump.zumpfinanc.config.ReativoConfig;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.SaldoUsuario;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoReativoRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.SaldoUsuarioRepository;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.JwtService;
+
+import reactor.netty.DisposableServer;
+import reactor.test.StepVerifier;
+
+// O R2DBC do H2 abre a mesma base em memória do JDBC (db); sem @Transactional, já que o R2DBC não enxerga a transação do teste
+@SpringBootTest(properties = {"zumpfinanc.reativo.r2dbc.url=r2dbc:h2:mem:///db?options=DB_CLOSE_DELAY=-1", "zumpfinanc.reativo.porta=0"})
+@ActiveProfiles({"test", ReativoConfig.PERFIL}) // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ConsultaReativaResourceTest {
+
+	@Autowired
+	DisposableServer servidor;
+
+	@Autowired
+	LancamentoReativoRepository reativoRepository;
+
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+
+	@Autowired
+	UsuarioRepository usuarioRepository;
+
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+
+	@Autowired
+	JwtService jwtService;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	WebTestClient cliente;
+	Usuario usuario;
+	String token;
+
+	@BeforeEach
+	public void setUp() {
+		// O Spring 5.2 só lê NDJSON com o decoder registrado para ele
+		Jackson2JsonDecoder decoder = new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON, ReativoConfig.NDJSON);
+		cliente = WebTestClient.bindToServer().baseUrl("http://localhost:" + servidor.port())
+				.exchangeStrategies(ExchangeStrategies.builder().codecs(codecs -> codecs.defaultCodecs().jackson2JsonDecoder(decoder)).build()).build();
+		usuario = usuarioRepository.save(Usuario.builder().nome("usuario").email("reativo@email.com").senha("senha").build());
+		token = jwtService.gerarToken(usuario);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		lancamentoRepository.deleteAll(lancamentoRepository.findAll().stream().filter(lancamento -> usuario.getId().equals(lancamento.getUsuario().getId()))::iterator);
+		saldoRepository.findById(usuario.getId()).ifPresent(saldoRepository::delete);
+		usuarioRepository.delete(usuario);
+	}
+
+	@Test
+	public void deveBuscarOsLancamentosDoUsuarioEmNdjsonComOsFiltros() {
+		// Cenário
+		salvar("Aluguel de março", 2023, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 150000);
+		salvar("Salário", 2023, 3, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500000);
+		salvar("Aluguel de abril", 2023, 4, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 150000);
+
+		// Ação/Execução
+		List<LancamentoDTO> lancamentos = cliente.get().uri("/api/lancamentos?ano=2023&descricao=aluguel").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.accept(ReativoConfig.NDJSON).exchange()
+				.expectStatus().isOk().expectHeader().contentTypeCompatibleWith(ReativoConfig.NDJSON)
+				.returnResult(LancamentoDTO.class).getResponseBody().collectList().block();
+
+		// Verificação
+		Assertions.assertThat(lancamentos).extracting(LancamentoDTO::getDescricao).containsExactly("Aluguel de março", "Aluguel de abril");
+		Assertions.assertThat(lancamentos.get(0).getValor()).isEqualByComparingTo("1500.00");
+		Assertions.assertThat(lancamentos.get(0).getUsuario()).isEqualTo(usuario.getId());
+		Assertions.assertThat(lancamentos.get(1).getStatus()).isEqualTo("PENDENTE");
+	}
+
+	@Test
+	public void deveEntregarOsLancamentosConformeADemanda() {
+		// Cenário
+		for(int mes = 1; mes <= 5; mes++) {
+			salvar("Lançamento " + mes, 2023, mes, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100);
+		}
+		Lancamento filtro = Lancamento.builder().usuario(usuario).build();
+
+		// Ação/Execução e Verificação
+		StepVerifier.create(reativoRepository.buscar(filtro), 2)
+			.assertNext(resumo -> Assertions.assertThat(resumo.getMes()).isEqualTo(1))
+			.assertNext(resumo -> Assertions.assertThat(resumo.getMes()).isEqualTo(2))
+			.thenRequest(1)
+			.assertNext(resumo -> Assertions.assertThat(resumo.getMes()).isEqualTo(3))
+			.thenCancel()
+			.verify();
+	}
+
+	@Test
+	public void naoDeveBuscarLancamentosDeOutroUsuario() {
+		// Ação/Execução e Verificação
+		cliente.get().uri("/api/lancamentos?usuario=" + (usuario.getId() + 1)).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).exchange()
+			.expectStatus().isForbidden();
+	}
+
+	@Test
+	public void naoDeveBuscarLancamentosSemToken() {
+		// Ação/Execução e Verificação
+		cliente.get().uri("/api/lancamentos").exchange()
+			.expectStatus().isUnauthorized().expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+	}
+
+	@Test
+	public void deveObterOSaldoConsolidado() {
+		// Cenário
+		saldoRepository.save(SaldoUsuario.builder().idUsuario(usuario.getId()).valorCentavos(123456l).build());
+
+		// Ação/Execução
+		BigDecimal saldo = obterSaldo();
+
+		// Verificação
+		Assertions.assertThat(saldo).isEqualByComparingTo("1234.56");
+	}
+
+	@Test
+	public void deveCalcularOSaldoDosEfetivadosQuandoNaoHaConsolidado() {
+		// Cenário
+		salvar("Salário", 2023, 3, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 500000);
+		salvar("Aluguel", 2023, 3, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 150000);
+		salvar("Conta", 2023, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 99900);
+
+		// Ação/Execução
+		BigDecimal saldo = obterSaldo();
+
+		// Verificação
+		Assertions.assertThat(saldo).isEqualByComparingTo("3500.00");
+	}
+
+	private BigDecimal obterSaldo() {
+		return cliente.get().uri("/api/usuarios/{id}/saldo", usuario.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token).exchange()
+				.expectStatus().isOk().expectBody(BigDecimal.class).returnResult().getResponseBody();
+	}
+
+	private void salvar(String descricao, int ano, int mes, TipoLancamento tipo, StatusLancamento status, long centavos) {
+		lancamentoRepository.save(Lancamento.builder().descricao(descricao).ano(ano).mes(mes).usuario(usuario).valor(Dinheiro.deCentavos(centavos))
+				.tipo(tipo).status(status).dataCadastro(LocalDate.now()).build());
+	}
+
+}
@@ -0,0 +1,225 @@
+package com.zump.zumpfinanc.api.resource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.exception.ErroConflito;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+import com.zump.zumpfinanc.model.repository.LancamentoRepositoryTest;
+import com.zump.zumpfinanc.service.ExtratoService;
+import com.zump.zumpfinanc.service.ImportacaoLancamentoService;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.LinhaImportacao;
+import com.zump.zumpfinanc.service.ResultadoAtualizacaoStatus;
+import com.zump.zumpfinanc.service.ResultadoImportacao;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+import com.zump.zumpfinanc.service.UsuarioService;
+
+@AutoConfigureMockMvc
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = LancamentoResource.class)
+public class LancamentoResourceTest {
+	
+	static final String API = "/api/lancamentos";
+	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	static final UsuarioAutenticado USUARIO = new UsuarioAutenticado(1l, "usuario@email.com", "usuario", Instant.now().plusSeconds(600)); // Posto pelo JwtFilter
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	LancamentoService service;
+	
+	@MockBean
+	UsuarioService usuarioService;
+	
+	@MockBean
+	ImportacaoLancamentoService importacaoService;
+	
+	@MockBean
+	ExtratoService extratoService;
+	
+	@Test
+	public void deveBuscarLancamentosComOIdDoUsuarioSemOUsuarioAninhado() throws Exception {
+		// Cenário
+		Mockito.when(service.buscar(Mockito.any(Lancamento.class))).thenReturn(Arrays.asList(criarResumo(1l), criarResumo(2l)));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("?ano=2022")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("length()").value(2))
+		.andExpect(MockMvcResultMatchers.jsonPath("[0].usuario").value(1)).andExpect(MockMvcResultMatchers.jsonPath("[1].tipo").value("RECEITA"));
+	}
+	
+	@Test
+	public void deveRetornarUmaPaginaComCursorParaAProximaQuandoHouverMaisRegistros() throws Exception {
+		// Cenário
+		Mockito.when(service.buscarPagina(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.eq(3)))
+			.thenReturn(Arrays.asList(criarResumo(1l), criarResumo(2l), criarResumo(3l)));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1&tamanho=2")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(2))
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[1].id").value(2)).andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").value("Mg"));
+	}
+	
+	@Test
+	public void deveRetornarAUltimaPaginaSemCursor() throws Exception {
+		// Cenário
+		Mockito.when(service.buscarPagina(Mockito.any(Lancamento.class), Mockito.eq(2l), Mockito.eq(3))).thenReturn(Arrays.asList(criarResumo(3l)));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1&tamanho=2&cursor=Mg")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").doesNotExist());
+	}
+	
+	@Test
+	public void deveRetornarBadRequestParaCursorInvalido() throws Exception {
+		// Cenário
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/pagina?usuario=1&cursor=@@")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveImportarLancamentosEnviadosUmPorLinha() throws Exception {
+		// Cenário
+		String ndjson = "{\"descricao\":\"Aluguel\",\"mes\":1,\"ano\":2022,\"usuario\":1,\"valor\":1500,\"tipo\":\"DESPESA\"}\n"
+				+ "{\"descricao\":\"Salario\",\"mes\":1,\"ano\":2022,\"usuario\":1,\"valor\":5000,\"tipo\":\"INVALIDO\"}\n"
+				+ "{\"descricao\":\"Cafe\",\"mes\":1,\"ano\":2022,\"usuario\":1,\"valor\":10.005,\"tipo\":\"DESPESA\"}\n";
+		
+		List<LinhaImportacao> linhasRecebidas = new ArrayList<>();
+		Mockito.when(importacaoService.importar(Mockito.any(Iterator.class))).thenAnswer(invocacao -> {
+			((Iterator<LinhaImportacao>) invocacao.getArgument(0)).forEachRemaining(linhasRecebidas::add);
+			return new ResultadoImportacao();
+		});
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/importacao")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON).contentType("application/x-ndjson").content(ndjson);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk());
+		Assertions.assertThat(linhasRecebidas).hasSize(3);
+		Assertions.assertThat(linhasRecebidas.get(0).getLancamento().getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(linhasRecebidas.get(0).getLancamento().getValor()).isEqualTo(Dinheiro.deCentavos(150000l));
+		Assertions.assertThat(linhasRecebidas.get(0).getLancamento().getUsuario().getId()).isEqualTo(1l);
+		Assertions.assertThat(linhasRecebidas.get(1).getErro()).isNotNull();
+		Assertions.assertThat(linhasRecebidas.get(2).getErro()).isEqualTo("Informe um Valor válido."); // Fração de centavo não é arredondada
+		Mockito.verify(usuarioService, Mockito.never()).existe(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRetornarForbiddenAoConsultarLancamentosDeOutroUsuario() throws Exception {
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/pagina?usuario=2")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verifyNoInteractions(service);
+	}
+	
+	@Test
+	public void deveRetornarAVersaoDoLancamentoNaETag() throws Exception {
+		// Cenário
+		Mockito.when(service.obterPorId(5l)).thenReturn(Optional.of(criarLancamento(5l, 3l)));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/5")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\""));
+	}
+	
+	@Test
+	public void deveRetornarConflictQuandoOIfMatchNaoForAVersaoAtual() throws Exception {
+		// Cenário
+		Lancamento lancamento = criarLancamento(5l, 3l);
+		Mockito.when(service.obterPorId(5l)).thenReturn(Optional.of(lancamento));
+		Mockito.doThrow(new ErroConflito("Lançamento alterado por outra requisição.")).when(service).atualizarStatus(lancamento, StatusLancamento.EFETIVADO, 2l);
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder desatualizado = MockMvcRequestBuilders.put(API.concat("/5/atualiza-status")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO)
+				.header("If-Match", "\"2\"").contentType(JSON).content("{\"status\":\"EFETIVADO\"}");
+		MockHttpServletRequestBuilder invalido = MockMvcRequestBuilders.put(API.concat("/5/atualiza-status")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO)
+				.header("If-Match", "versao-2").contentType(JSON).content("{\"status\":\"EFETIVADO\"}");
+		
+		// Verificação
+		mvc.perform(desatualizado).andExpect(MockMvcResultMatchers.status().isConflict());
+		mvc.perform(invalido).andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Mockito.verify(service, Mockito.times(1)).atualizarStatus(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveAtualizarOStatusDosLancamentosDoMesEmLote() throws Exception {
+		// Cenário
+		ResultadoAtualizacaoStatus resultado = new ResultadoAtualizacaoStatus();
+		resultado.setAtualizados(12);
+		Mockito.when(service.atualizarStatusEmLote(1l, null, 2022, 1, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO)).thenReturn(resultado);
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.put(API.concat("/atualiza-status")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO)
+				.contentType(JSON).content("{\"ano\":2022,\"mes\":1,\"statusAtual\":\"PENDENTE\",\"status\":\"EFETIVADO\"}");
+		MockHttpServletRequestBuilder statusInvalido = MockMvcRequestBuilders.put(API.concat("/atualiza-status")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO)
+				.contentType(JSON).content("{\"ano\":2022,\"status\":\"PAGO\"}");
+		MockHttpServletRequestBuilder outroUsuario = MockMvcRequestBuilders.put(API.concat("/atualiza-status")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO)
+				.contentType(JSON).content("{\"usuario\":2,\"ano\":2022,\"status\":\"EFETIVADO\"}");
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("atualizados").value(12));
+		mvc.perform(statusInvalido).andExpect(MockMvcResultMatchers.status().isBadRequest());
+		mvc.perform(outroUsuario).andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verify(service, Mockito.times(1)).atualizarStatusEmLote(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+	}
+	
+	private static Lancamento criarLancamento(Long id, Long versao) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(id);
+		lancamento.setVersao(versao);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		return lancamento;
+	}
+	
+	public static LancamentoResumo criarResumo(Long id) {
+		return new LancamentoResumo(id, "lancamento qualquer", 1, 2022, 1l, Dinheiro.de(BigDecimal.valueOf(10)), TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+	}
+
+}
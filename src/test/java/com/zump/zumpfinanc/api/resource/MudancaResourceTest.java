@@ -0,0 +1,127 @@
+package com.zump.zumpfinanc.api.resource;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+import com.zump.zumpfinanc.model.enums.Agregado;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+import com.zump.zumpfinanc.service.OutboxService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+@AutoConfigureMockMvc
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = MudancaResource.class)
+public class MudancaResourceTest {
+	
+	static final String API = "/api/changes";
+	static final UsuarioAutenticado USUARIO = new UsuarioAutenticado(1l, "usuario@email.com", "usuario", Instant.now().plusSeconds(600)); // Posto pelo JwtFilter
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@MockBean
+	OutboxService service;
+	
+	@Test
+	public void deveRetornarAsMudancasPublicadasDepoisDoCursor() throws Exception {
+		// Cenário
+		Mockito.when(service.aguardarPublicacao(1l)).thenReturn(new CompletableFuture<>());
+		Mockito.when(service.obterPublicadas(1l, 5l, 100)).thenReturn(Arrays.asList(mensagem(6l, TipoEvento.CRIADO), mensagem(7l, TipoEvento.STATUS_ALTERADO)));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API).param("since", LancamentoResource.codificarCursor(5l))
+				.requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		
+		// Verificação
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn())).andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[0].posicao").value(6)).andExpect(MockMvcResultMatchers.jsonPath("itens[0].agregado").value("LANCAMENTO"))
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[0].id").value(10)).andExpect(MockMvcResultMatchers.jsonPath("itens[1].tipo").value("STATUS_ALTERADO"))
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[1].dados.status").value("EFETIVADO"))
+		.andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").value(LancamentoResource.codificarCursor(7l)));
+	}
+	
+	@Test
+	public void deveResponderQuandoUmaMudancaForPublicadaDuranteAEspera() throws Exception {
+		// Cenário
+		CompletableFuture<Void> publicacao = new CompletableFuture<>();
+		Mockito.when(service.aguardarPublicacao(1l)).thenReturn(publicacao);
+		Mockito.when(service.obterPublicadas(1l, 0l, 100)).thenReturn(Collections.emptyList(), Collections.singletonList(mensagem(1l, TipoEvento.CRIADO)));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API).param("espera", "30").requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		MvcResult resultado = mvc.perform(request).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		Assertions.assertThatThrownBy(() -> resultado.getAsyncResult(0)).isInstanceOf(IllegalStateException.class); // Sem mudança, a requisição fica aberta
+		publicacao.complete(null);
+		
+		// Verificação
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("itens[0].posicao").value(1))
+		.andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").value(LancamentoResource.codificarCursor(1l)));
+		Assertions.assertThat(publicacao).isDone();
+	}
+	
+	@Test
+	public void deveResponderAPaginaVaziaComOMesmoCursorAoFimDaEspera() throws Exception {
+		// Cenário
+		CompletableFuture<Void> publicacao = new CompletableFuture<>();
+		Mockito.when(service.aguardarPublicacao(1l)).thenReturn(publicacao);
+		Mockito.when(service.obterPublicadas(1l, 3l, 10)).thenReturn(Collections.emptyList());
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API).param("since", LancamentoResource.codificarCursor(3l)).param("tamanho", "10")
+				.param("espera", "1").requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		MvcResult resultado = mvc.perform(request).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		MockAsyncContext contexto = (MockAsyncContext) resultado.getRequest().getAsyncContext();
+		for(AsyncListener listener : contexto.getListeners()) { // O MockMvc não dispara o timeout sozinho
+			listener.onTimeout(new AsyncEvent(contexto));
+		}
+		
+		// Verificação
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andExpect(MockMvcResultMatchers.status().isOk())
+		.andExpect(MockMvcResultMatchers.jsonPath("itens").isEmpty())
+		.andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").value(LancamentoResource.codificarCursor(3l)));
+		Mockito.verify(service, Mockito.times(2)).obterPublicadas(1l, 3l, 10); // Consulta de novo no fim da espera
+		Assertions.assertThat(publicacao).isCancelled();
+	}
+	
+	@Test
+	public void naoDeveAceitarUmCursorInvalido() throws Exception {
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API).param("since", "nao-e-cursor").requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		
+		// Verificação
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn())).andExpect(MockMvcResultMatchers.status().isBadRequest());
+		Mockito.verify(service, Mockito.never()).aguardarPublicacao(Mockito.anyLong());
+	}
+	
+	private static MensagemOutbox mensagem(Long posicao, TipoEvento tipo) {
+		return MensagemOutbox.builder().id(posicao).agregado(Agregado.LANCAMENTO).idAgregado(10l).idUsuario(1l).tipo(tipo).ocorridoEm(Instant.now())
+				.dados("{\"status\":\"EFETIVADO\"}").posicao(posicao).build();
+	}
+
+}
@@ -1,5 +1,13 @@
 package com.zump.zumpfinanc.api.resource;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -11,16 +19,29 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zump.zumpfinanc.api.dto.UsuarioDTO;
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
 import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.exception.ErroSobrecarga;
 import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
 import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.service.AutenticacaoService;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
+import com.zump.zumpfinanc.service.JwtService;
 import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.ResumoService;
+import com.zump.zumpfinanc.service.ResumoServiceTest;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
 import com.zump.zumpfinanc.service.UsuarioService;
 
 @AutoConfigureMockMvc
@@ -31,6 +52,7 @@ public class UsuarioResourceTest {
 	
 	static final String API = "/api/usuarios";
 	static final MediaType JSON = MediaType.APPLICATION_JSON;
+	static final UsuarioAutenticado USUARIO = new UsuarioAutenticado(1l, "usuario@email.com", "usuario", Instant.now().plusSeconds(600)); // Posto pelo JwtFilter
 	
 	@Autowired
 	MockMvc mvc;
@@ -41,6 +63,18 @@ public class UsuarioResourceTest {
 	@MockBean
 	LancamentoService lancamentoService;
 	
+	@MockBean
+	ResumoService resumoService;
+	
+	@MockBean
+	AutenticacaoService autenticacaoService;
+	
+	@MockBean
+	JwtService jwtService;
+	
+	@MockBean
+	EventoLancamentoService eventoService;
+	
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception {
 		// Cenário
@@ -50,7 +84,8 @@ public class UsuarioResourceTest {
 		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
 		Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 		
-		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(autenticacaoService.autenticar(email, senha)).thenReturn(CompletableFuture.completedFuture(usuario));
+		Mockito.when(jwtService.gerarToken(usuario)).thenReturn("token");
 		
 		String json = new ObjectMapper().writeValueAsString(dto);
 		
@@ -58,8 +93,9 @@ public class UsuarioResourceTest {
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON).contentType(JSON).content(json);
 		
 		// Verificação
-		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
-		.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome())).andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn())).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
+		.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome())).andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+		.andExpect(MockMvcResultMatchers.jsonPath("token").value("token")).andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
 	
 	}
 	
@@ -71,7 +107,7 @@ public class UsuarioResourceTest {
 		
 		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
 		
-		Mockito.when(service.autenticar(email, senha)).thenThrow(ErroAutenticacao.class);
+		Mockito.when(autenticacaoService.autenticar(email, senha)).thenReturn(CompletableFuture.failedFuture(new ErroAutenticacao("Email ou senha inválidos.")));
 		
 		String json = new ObjectMapper().writeValueAsString(dto);
 		
@@ -79,7 +115,25 @@ public class UsuarioResourceTest {
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON).contentType(JSON).content(json);
 		
 		// Verificação
-		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isBadRequest());
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn())).andExpect(MockMvcResultMatchers.status().isBadRequest());
+	
+	}
+	
+	@Test
+	public void deveRetornarTooManyRequestsQuandoOExecutorDeAutenticacaoEstiverCheio() throws Exception {
+		// Cenário
+		UsuarioDTO dto = UsuarioDTO.builder().email("usuario@email.com").senha("123").build();
+		
+		Mockito.when(autenticacaoService.autenticar(dto.getEmail(), dto.getSenha())).thenReturn(CompletableFuture.failedFuture(new ErroSobrecarga("Sobrecarga")));
+		
+		String json = new ObjectMapper().writeValueAsString(dto);
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.post(API.concat("/autenticar")).accept(JSON).contentType(JSON).content(json);
+		
+		// Verificação
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(mvc.perform(request).andReturn())).andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+		.andExpect(MockMvcResultMatchers.header().string("Retry-After", "1"));
 	
 	}
 	
@@ -122,4 +176,94 @@ public class UsuarioResourceTest {
 	
 	}
 
+	@Test
+	public void deveRetornarOSaldoEmReaisAPartirDosCentavos() throws Exception {
+		// Cenário
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenReturn(-1205l);
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().string("-12.05"));
+	}
+	
+	@Test
+	public void deveRetornarOSaldoAoFimDaDataInformada() throws Exception {
+		// Cenário
+		Instant fimDoDia = Instant.parse("2023-04-01T00:00:00Z"); // Dias em UTC
+		Mockito.when(eventoService.obterSaldoEm(1l, fimDoDia)).thenReturn(123456l);
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/saldo?data=2023-03-31")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.content().string("1234.56"));
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(Mockito.anyLong());
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveEscreverOsEventosDoUsuarioUmPorLinha() throws Exception {
+		// Cenário
+		Mockito.doAnswer(invocacao -> {
+			Consumer<EventoLancamento> consumidor = invocacao.getArgument(3);
+			consumidor.accept(EventoLancamento.builder().id(1l).idUsuario(1l).idLancamento(10l).tipo(TipoEvento.CRIADO).ocorridoEm(Instant.now()).versao(0l)
+					.deltaSaldoCentavos(0l).dados("{\"descricao\":\"Salário\",\"status\":\"PENDENTE\"}").build());
+			consumidor.accept(EventoLancamento.builder().id(2l).idUsuario(1l).idLancamento(10l).tipo(TipoEvento.STATUS_ALTERADO).ocorridoEm(Instant.now()).versao(1l)
+					.deltaSaldoCentavos(500000l).dados("{\"status\":\"EFETIVADO\",\"statusAnterior\":\"PENDENTE\"}").build());
+			return null;
+		}).when(eventoService).percorrer(Mockito.eq(1l), Mockito.any(), Mockito.isNull(), Mockito.any(Consumer.class));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/eventos?de=2023-01-01")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		MvcResult resultado = mvc.perform(request).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		
+		// Verificação
+		String[] linhas = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson")).andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+		Assertions.assertThat(linhas).hasSize(2);
+		Assertions.assertThat(linhas[0]).contains("\"tipo\":\"CRIADO\"").contains("\"dados\":{\"descricao\":\"Salário\"");
+		Assertions.assertThat(linhas[1]).contains("\"deltaSaldo\":5000.00").contains("\"statusAnterior\":\"PENDENTE\"");
+	}
+	
+	@Test
+	public void naoDeveRetornarOsEventosDeOutroUsuario() throws Exception {
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/2/eventos")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verifyNoInteractions(eventoService);
+	}
+
+	@Test
+	public void deveRetornarOResumoDoAnoComOsDozeMesesEOsTotaisPorStatus() throws Exception {
+		// Cenário
+		Mockito.when(resumoService.obterTotaisMensais(1l, 2022)).thenReturn(Arrays.asList(
+				ResumoServiceTest.criarTotal(3, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 100000l, 2),
+				ResumoServiceTest.criarTotal(3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 30000l, 1),
+				ResumoServiceTest.criarTotal(3, TipoLancamento.DESPESA, StatusLancamento.CANCELADO, 5000l, 1)));
+		
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/1/resumo?ano=2022")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isOk()).andExpect(MockMvcResultMatchers.jsonPath("meses.length()").value(12))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[2].totais.receitas").value(1000.00)).andExpect(MockMvcResultMatchers.jsonPath("meses[2].totais.despesas").value(300.00))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[2].totais.liquido").value(700.00))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[2].porStatus.CANCELADO.despesas").value(50.00))
+		.andExpect(MockMvcResultMatchers.jsonPath("meses[0].totais.quantidade").value(0)).andExpect(MockMvcResultMatchers.jsonPath("totais.quantidade").value(3));
+	}
+	
+	@Test
+	public void deveRetornarForbiddenAoPedirOResumoDeOutroUsuario() throws Exception {
+		// Ação/Execução
+		MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(API.concat("/2/resumo?ano=2022")).requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(JSON);
+		
+		// Verificação
+		mvc.perform(request).andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verifyNoInteractions(resumoService);
+	}
+
 }
@@ -0,0 +1,140 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.service.UsuarioService;
+
+// mvn test -Pbenchmark -Dtest=AutenticacaoBenchmark [-Dbenchmark.concorrencia=4,16,64] [-Dbenchmark.segundos=10] [-Dbenchmark.p99=250]
+// Carga fechada via HTTP: cada cliente faz um login atrás do outro (esperando o Retry-After quando recebe 429); 10% dos logins usam um email inexistente e 10% uma senha errada
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class AutenticacaoBenchmark {
+	
+	private static final int USUARIOS = 50;
+	private static final String SENHA = "senha-do-benchmark";
+	
+	@LocalServerPort
+	int porta;
+	
+	@Autowired
+	UsuarioService usuarioService;
+	
+	@Test
+	public void deveMedirLoginsPorSegundoComP99Limitado() throws Exception {
+		for(int i = 0; i < USUARIOS; i++) {
+			usuarioService.salvarUsuario(Usuario.builder().nome("login " + i).email("login" + i + "@email.com").senha(SENHA).build());
+		}
+		
+		int segundos = Integer.getInteger("benchmark.segundos", 10);
+		long p99Alvo = Long.getLong("benchmark.p99", 250);
+		HttpClient cliente = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+		URI uri = URI.create("http://localhost:" + porta + "/api/usuarios/autenticar");
+		
+		executar(cliente, uri, 4, 2); // Aquecimento
+		
+		double melhorVazao = 0;
+		int melhorConcorrencia = 0;
+		for(int concorrencia : concorrencias()) {
+			Resultado resultado = executar(cliente, uri, concorrencia, segundos);
+			long p99 = resultado.percentil(0.99);
+			System.out.println(String.format("[benchmark] %3d clientes: %7.1f logins/s  p50=%6d ms  p99=%6d ms  max=%6d ms  (%d respondidos, %d rejeitados com 429)", 
+					concorrencia, resultado.vazao(segundos), resultado.percentil(0.50), p99, resultado.percentil(1.0), resultado.respondidos, resultado.rejeitados.get()));
+			if(p99 <= p99Alvo && resultado.vazao(segundos) > melhorVazao) {
+				melhorVazao = resultado.vazao(segundos);
+				melhorConcorrencia = concorrencia;
+			}
+		}
+		System.out.println(String.format("[benchmark] vazão máxima com p99 <= %d ms: %.1f logins/s (%d clientes, %d processadores)", 
+				p99Alvo, melhorVazao, melhorConcorrencia, Runtime.getRuntime().availableProcessors()));
+	}
+	
+	private static Resultado executar(HttpClient cliente, URI uri, int concorrencia, int segundos) throws Exception {
+		long fim = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+		Resultado resultado = new Resultado();
+		ExecutorService clientes = Executors.newFixedThreadPool(concorrencia);
+		try {
+			List<Future<List<Long>>> tempos = new ArrayList<>();
+			for(int c = 0; c < concorrencia; c++) {
+				tempos.add(clientes.submit(() -> {
+					List<Long> temposDoCliente = new ArrayList<>();
+					while(System.nanoTime() < fim) {
+						HttpRequest request = HttpRequest.newBuilder(uri).header("Content-Type", "application/json")
+								.POST(HttpRequest.BodyPublishers.ofString(corpoAleatorio())).build();
+						long inicio = System.nanoTime();
+						HttpResponse<Void> response = cliente.send(request, HttpResponse.BodyHandlers.discarding());
+						long tempo = System.nanoTime() - inicio;
+						if(response.statusCode() == 429) { // Respeita o Retry-After, como um cliente de verdade
+							resultado.rejeitados.incrementAndGet();
+							Thread.sleep(response.headers().firstValueAsLong("Retry-After").orElse(1) * 1000);
+						} else {
+							temposDoCliente.add(tempo);
+						}
+					}
+					return temposDoCliente;
+				}));
+			}
+			
+			List<Long> todos = new ArrayList<>();
+			for(Future<List<Long>> tempo : tempos) {
+				todos.addAll(tempo.get());
+			}
+			resultado.tempos = todos.stream().mapToLong(Long::longValue).sorted().toArray();
+			resultado.respondidos = todos.size();
+		} finally {
+			clientes.shutdownNow();
+		}
+		return resultado;
+	}
+	
+	private static String corpoAleatorio() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int sorteio = random.nextInt(10);
+		String email = sorteio == 0 ? "inexistente" + random.nextInt(1000) + "@email.com" : "login" + random.nextInt(USUARIOS) + "@email.com";
+		String senha = sorteio == 1 ? "senha-errada" : SENHA;
+		return "{\"email\":\"" + email + "\",\"senha\":\"" + senha + "\"}";
+	}
+	
+	private static int[] concorrencias() {
+		return Arrays.stream(System.getProperty("benchmark.concorrencia", "1,2,4,8,16,32,64,128").split(",")).mapToInt(c -> Integer.parseInt(c.trim())).toArray();
+	}
+	
+	private static class Resultado {
+		long[] tempos = new long[0];
+		int respondidos;
+		AtomicLong rejeitados = new AtomicLong();
+		
+		double vazao(int segundos) {
+			return respondidos / (double) segundos;
+		}
+		
+		long percentil(double percentil) {
+			return tempos.length == 0 ? 0 : Cronometro.percentil(tempos, percentil) / 1_000_000;
+		}
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.service.LancamentoService;
+
+@Tag("benchmark") // mvn test -Pbenchmark -Dtest=BuscaLancamentoBenchmark [-Dbenchmark.tamanhos=10000,100000]
+@SpringBootTest
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class BuscaLancamentoBenchmark {
+	
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Test
+	public void deveMedirALatenciaDaBuscaPorVolumeDeLancamentosDoUsuario() {
+		GeradorDados gerador = new GeradorDados(jdbcTemplate);
+		
+		for(int quantidade : tamanhos()) {
+			Long idUsuario = gerador.criarUsuario("busca" + quantidade + "@email.com");
+			gerador.criarLancamentos(idUsuario, quantidade, 42);
+			
+			Cronometro.medir(quantidade + " linhas - ano e mês", 5, 30, () -> service.buscar(filtro(idUsuario, 2020, 6, null)));
+			Cronometro.medir(quantidade + " linhas - ano, mês e descrição", 5, 30, () -> service.buscar(filtro(idUsuario, 2020, 6, "mercado")));
+			Cronometro.medir(quantidade + " linhas - ano e descrição", 3, 10, () -> service.buscar(filtro(idUsuario, 2020, null, "farmacia")));
+		}
+	}
+	
+	private static Lancamento filtro(Long idUsuario, Integer ano, Integer mes, String descricao) {
+		return Lancamento.builder().usuario(Usuario.builder().id(idUsuario).build()).ano(ano).mes(mes).descricao(descricao).build();
+	}
+	
+	private static int[] tamanhos() {
+		return Arrays.stream(System.getProperty("benchmark.tamanhos", "10000,100000,1000000").split(",")).mapToInt(t -> Integer.parseInt(t.trim())).toArray();
+	}
+
+}
@@ -0,0 +1,266 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zump.zumpfinanc.service.SaldoService;
+
+// mvn test -Pbenchmark -Dtest=CargaHttpBenchmark [-Dcarga.concorrencia=16] [-Dcarga.segundos=30] [-Dcarga.aquecimento=5]
+//     [-Dcarga.taxa=0] [-Dcarga.usuarios=20] [-Dcarga.lancamentos=5000] [-Dcarga.mix=BUSCA:50,CRIACAO:15,STATUS:15,SALDO:20]
+// Sobe a aplicação inteira numa porta local sobre o H2 do profile test, popula a base e dispara os cenários via HTTP, com token
+// de cada usuário. carga.taxa=0 é carga fechada (cada cliente manda a próxima requisição assim que recebe a resposta); com uma
+// taxa (requisições/s no total) a latência conta a partir do horário previsto de envio, sem esconder a fila (omissão coordenada).
+// Os histogramas completos ficam em target/carga/<cenário>.hgrm (formato do HdrHistogram, para o plotter)
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class CargaHttpBenchmark {
+	
+	private static final long LATENCIA_MAXIMA = TimeUnit.MINUTES.toNanos(1);
+	
+	enum Cenario { BUSCA, CRIACAO, STATUS, SALDO }
+	
+	@LocalServerPort
+	int porta;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient cliente = HttpClient.newBuilder().executor(Executors.newCachedThreadPool()).build();
+	
+	@Test
+	public void deveMedirRequisicoesPorSegundoELatenciaDosCenariosMistos() throws Exception {
+		int concorrencia = Integer.getInteger("carga.concorrencia", 16);
+		int segundos = Integer.getInteger("carga.segundos", 30);
+		int aquecimento = Integer.getInteger("carga.aquecimento", 5);
+		int taxa = Integer.getInteger("carga.taxa", 0);
+		Map<Cenario, Integer> mix = mix(System.getProperty("carga.mix", "BUSCA:50,CRIACAO:15,STATUS:15,SALDO:20"));
+		
+		List<Sessao> sessoes = popular(Integer.getInteger("carga.usuarios", 20), Integer.getInteger("carga.lancamentos", 5000));
+		
+		executar(sessoes, mix, concorrencia, taxa, aquecimento, new EnumMap<>(Cenario.class));
+		
+		Map<Cenario, Medida> medidas = new EnumMap<>(Cenario.class);
+		long inicio = System.nanoTime();
+		executar(sessoes, mix, concorrencia, taxa, segundos, medidas);
+		double duracao = (System.nanoTime() - inicio) / 1_000_000_000.0;
+		
+		relatar(medidas, duracao, concorrencia, taxa);
+	}
+	
+	// Usuários e lançamentos gravados via JDBC em lote; cada usuário faz login pela API para obter o token
+	private List<Sessao> popular(int usuarios, int lancamentosPorUsuario) throws Exception {
+		GeradorDados gerador = new GeradorDados(jdbcTemplate);
+		List<Sessao> sessoes = new ArrayList<>();
+		for(Long idUsuario : gerador.criarUsuarios("carga", usuarios)) {
+			gerador.criarLancamentos(idUsuario, lancamentosPorUsuario, idUsuario);
+			List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM financas.lancamento WHERE id_usuario = ? ORDER BY id LIMIT 500", Long.class, idUsuario);
+			sessoes.add(new Sessao(idUsuario, entrar("carga" + (sessoes.size()) + "@email.com"), new CopyOnWriteArrayList<>(ids)));
+		}
+		saldoService.reconciliar(); // A carga via JDBC não passa pelo saldo consolidado
+		return sessoes;
+	}
+	
+	private String entrar(String email) throws Exception {
+		HttpResponse<String> response = cliente.send(requisicao("/api/usuarios/autenticar", null)
+				.POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\",\"senha\":\"senha\"}")).build(), HttpResponse.BodyHandlers.ofString());
+		if(response.statusCode() != 200) {
+			throw new IllegalStateException("Login de " + email + " falhou: " + response.statusCode() + " " + response.body());
+		}
+		return objectMapper.readTree(response.body()).get("token").asText();
+	}
+	
+	private void executar(List<Sessao> sessoes, Map<Cenario, Integer> mix, int concorrencia, int taxa, int segundos, Map<Cenario, Medida> medidas) throws Exception {
+		for(Cenario cenario : Cenario.values()) {
+			medidas.putIfAbsent(cenario, new Medida());
+		}
+		long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+		long intervalo = taxa > 0 ? TimeUnit.SECONDS.toNanos(1) * concorrencia / taxa : 0; // Entre envios de um mesmo cliente
+		
+		ExecutorService clientes = Executors.newFixedThreadPool(concorrencia);
+		try {
+			List<Future<?>> execucoes = new ArrayList<>();
+			for(int c = 0; c < concorrencia; c++) {
+				Sessao sessao = sessoes.get(c % sessoes.size());
+				long deslocamento = intervalo * c / concorrencia; // Espalha os clientes dentro do intervalo
+				execucoes.add(clientes.submit(() -> {
+					long previsto = System.nanoTime() + deslocamento;
+					while(previsto < fim) {
+						if(intervalo > 0) {
+							long espera = previsto - System.nanoTime();
+							if(espera > 0) {
+								TimeUnit.NANOSECONDS.sleep(espera);
+							}
+						}
+						long inicio = intervalo > 0 ? previsto : System.nanoTime();
+						Cenario cenario = sortear(mix);
+						boolean sucesso = enviar(cenario, sessao);
+						medidas.get(cenario).registrar(Math.min(System.nanoTime() - inicio, LATENCIA_MAXIMA), sucesso);
+						previsto = intervalo > 0 ? previsto + intervalo : System.nanoTime();
+					}
+					return null;
+				}));
+			}
+			for(Future<?> execucao : execucoes) {
+				execucao.get();
+			}
+		} finally {
+			clientes.shutdownNow();
+		}
+	}
+	
+	private boolean enviar(Cenario cenario, Sessao sessao) throws IOException, InterruptedException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		HttpRequest.Builder requisicao;
+		switch (cenario) {
+			case BUSCA:
+				int ano = GeradorDados.ANO_INICIAL + random.nextInt(GeradorDados.QUANTIDADE_ANOS);
+				requisicao = requisicao("/api/lancamentos?ano=" + ano + "&mes=" + (1 + random.nextInt(12)), sessao.token).GET();
+				break;
+			case CRIACAO:
+				String lancamento = String.format("{\"descricao\":\"Carga %d\",\"mes\":%d,\"ano\":%d,\"valor\":%d.%02d,\"tipo\":\"%s\"}", random.nextInt(1000), 
+						1 + random.nextInt(12), GeradorDados.ANO_INICIAL + random.nextInt(GeradorDados.QUANTIDADE_ANOS), 1 + random.nextInt(5000), random.nextInt(100), 
+						random.nextBoolean() ? "RECEITA" : "DESPESA");
+				requisicao = requisicao("/api/lancamentos", sessao.token).POST(HttpRequest.BodyPublishers.ofString(lancamento));
+				break;
+			case STATUS:
+				Long id = sessao.idsLancamentos.get(random.nextInt(sessao.idsLancamentos.size()));
+				String status = new String[] {"PENDENTE", "EFETIVADO", "CANCELADO"}[random.nextInt(3)];
+				requisicao = requisicao("/api/lancamentos/" + id + "/atualiza-status", sessao.token).PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"" + status + "\"}"));
+				break;
+			default:
+				requisicao = requisicao("/api/usuarios/" + sessao.idUsuario + "/saldo", sessao.token).GET();
+		}
+		
+		HttpResponse<String> response = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+		if(cenario == Cenario.CRIACAO && response.statusCode() == 201) { // Lançamentos novos também entram no sorteio das trocas de status
+			JsonNode criado = objectMapper.readTree(response.body());
+			sessao.idsLancamentos.add(criado.get("id").asLong());
+		}
+		return response.statusCode() / 100 == 2;
+	}
+	
+	private HttpRequest.Builder requisicao(String caminho, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho)).header("Content-Type", "application/json");
+		return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+	}
+	
+	private void relatar(Map<Cenario, Medida> medidas, double duracao, int concorrencia, int taxa) throws IOException {
+		Path diretorio = Paths.get("target", "carga");
+		Files.createDirectories(diretorio);
+		
+		Histogram total = new Histogram(LATENCIA_MAXIMA, 3);
+		long erros = 0;
+		System.out.println(String.format("[benchmark] carga %s com %d clientes por %.0f s", taxa > 0 ? "aberta de " + taxa + " req/s" : "fechada", concorrencia, duracao));
+		for(Map.Entry<Cenario, Medida> medida : medidas.entrySet()) {
+			Histogram histograma = medida.getValue().recorder.getIntervalHistogram();
+			total.add(histograma);
+			erros += medida.getValue().erros.get();
+			imprimir(medida.getKey().name(), histograma, medida.getValue().erros.get(), duracao);
+			gravar(diretorio.resolve(medida.getKey().name().toLowerCase() + ".hgrm"), histograma);
+		}
+		imprimir("TOTAL", total, erros, duracao);
+		gravar(diretorio.resolve("total.hgrm"), total);
+	}
+	
+	private static void imprimir(String nome, Histogram histograma, long erros, double duracao) {
+		System.out.println(String.format("[benchmark] %-8s %8.1f req/s  p50=%7.2f  p90=%7.2f  p99=%7.2f  p99.9=%7.2f  max=%8.2f ms  (n=%d, erros=%d)", nome, 
+				histograma.getTotalCount() / duracao, ms(histograma.getValueAtPercentile(50)), ms(histograma.getValueAtPercentile(90)), 
+				ms(histograma.getValueAtPercentile(99)), ms(histograma.getValueAtPercentile(99.9)), ms(histograma.getMaxValue()), histograma.getTotalCount(), erros));
+	}
+	
+	private static void gravar(Path arquivo, Histogram histograma) throws IOException {
+		try (PrintStream saida = new PrintStream(Files.newOutputStream(arquivo))) {
+			histograma.outputPercentileDistribution(saida, 1_000_000.0); // Valores em ms
+		}
+	}
+	
+	private static double ms(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+	
+	private static Cenario sortear(Map<Cenario, Integer> mix) {
+		int sorteio = ThreadLocalRandom.current().nextInt(mix.values().stream().mapToInt(Integer::intValue).sum());
+		for(Map.Entry<Cenario, Integer> peso : mix.entrySet()) {
+			sorteio -= peso.getValue();
+			if(sorteio < 0) {
+				return peso.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+	
+	private static Map<Cenario, Integer> mix(String configuracao) {
+		Map<Cenario, Integer> mix = new EnumMap<>(Cenario.class);
+		for(String peso : configuracao.split(",")) {
+			String[] partes = peso.trim().split(":");
+			mix.put(Cenario.valueOf(partes[0].trim().toUpperCase()), Integer.valueOf(partes[1].trim()));
+		}
+		return mix;
+	}
+	
+	private static class Sessao {
+		
+		final Long idUsuario;
+		final String token;
+		final List<Long> idsLancamentos;
+		
+		Sessao(Long idUsuario, String token, List<Long> idsLancamentos) {
+			this.idUsuario = idUsuario;
+			this.token = token;
+			this.idsLancamentos = idsLancamentos;
+		}
+	}
+	
+	private static class Medida {
+		
+		final Recorder recorder = new Recorder(LATENCIA_MAXIMA, 3);
+		final AtomicLong erros = new AtomicLong();
+		
+		void registrar(long nanos, boolean sucesso) {
+			recorder.recordValue(nanos);
+			if(!sucesso) {
+				erros.incrementAndGet();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.util.Arrays;
+
+public final class Cronometro { // Medição simples de latência (aquecimento + N execuções) para os benchmarks de integração
+	
+	private Cronometro() {
+	}
+	
+	public static void medir(String nome, int aquecimento, int iteracoes, Runnable operacao) {
+		for(int i = 0; i < aquecimento; i++) {
+			operacao.run();
+		}
+		
+		long[] tempos = new long[iteracoes];
+		for(int i = 0; i < iteracoes; i++) {
+			long inicio = System.nanoTime();
+			operacao.run();
+			tempos[i] = System.nanoTime() - inicio;
+		}
+		
+		Arrays.sort(tempos);
+		System.out.println(String.format("[benchmark] %-45s p50=%8.3f ms  p95=%8.3f ms  p99=%8.3f ms  max=%8.3f ms  (n=%d)", nome, 
+				ms(percentil(tempos, 0.50)), ms(percentil(tempos, 0.95)), ms(percentil(tempos, 0.99)), ms(tempos[tempos.length - 1]), iteracoes));
+	}
+	
+	public static long percentil(long[] temposOrdenados, double percentil) {
+		int indice = (int) Math.ceil(percentil * temposOrdenados.length) - 1;
+		return temposOrdenados[Math.max(0, Math.min(indice, temposOrdenados.length - 1))];
+	}
+	
+	private static double ms(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zump.zumpfinanc.ZumpfinancApplication;
+import com.zump.zumpfinanc.config.ModoExecucao;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.JwtService;
+
+// mvn test -Pbenchmark -Dtest=ExecucaoBenchmark [-Dexecucao.latencia-ms=50] [-Dexecucao.concorrencia=400] [-Dexecucao.segundos=20]
+//     [-Dexecucao.aquecimento=5] [-Dexecucao.conexoes=10] [-Dexecucao.tomcat-threads=200]
+// Sobe a aplicação uma vez em cada modo de execução (zumpfinanc.execucao.modo), sobre o H2 do profile test com latência injetada
+// em cada comando SQL (LatenciaConsultas), e mede a busca de lançamentos em carga fechada com mais clientes que threads do Tomcat.
+// No modo SINCRONO as requisições esperam conexão presas nas threads do Tomcat; no ASSINCRONO esperam na fila do executor de
+// requisições (do tamanho do pool de conexões) e, com as vagas esgotadas, recebem 429 na hora
+@Tag("benchmark")
+public class ExecucaoBenchmark {
+
+	private static final long LATENCIA_MAXIMA = TimeUnit.MINUTES.toNanos(1);
+
+	private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(Executors.newCachedThreadPool()).build();
+
+	@Test
+	public void deveCompararAVazaoDosModosDeExecucaoComLatenciaNaBase() throws Exception {
+		LatenciaConsultas.latencia = Integer.getInteger("execucao.latencia-ms", 50);
+		int concorrencia = Integer.getInteger("execucao.concorrencia", 400);
+		int segundos = Integer.getInteger("execucao.segundos", 20);
+		int aquecimento = Integer.getInteger("execucao.aquecimento", 5);
+
+		for(ModoExecucao modo : ModoExecucao.values()) {
+			try (ConfigurableApplicationContext contexto = iniciar(modo)) {
+				int porta = contexto.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+				GeradorDados gerador = new GeradorDados(contexto.getBean(JdbcTemplate.class));
+				Long idUsuario = gerador.criarUsuario("execucao@email.com");
+				gerador.criarLancamentos(idUsuario, 5000, 42);
+				String token = contexto.getBean(JwtService.class).gerarToken(contexto.getBean(UsuarioRepository.class).findById(idUsuario).get());
+
+				executar(porta, token, concorrencia, aquecimento, new Medida());
+				Medida medida = new Medida();
+				long inicio = System.nanoTime();
+				executar(porta, token, concorrencia, segundos, medida);
+				relatar(modo, medida, (System.nanoTime() - inicio) / 1_000_000_000.0, concorrencia);
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext iniciar(ModoExecucao modo) {
+		// Como argumentos da linha de comando, que valem sobre o application.properties
+		return new SpringApplicationBuilder(ZumpfinancApplication.class).profiles("test").run(
+				"--server.port=0",
+				"--server.tomcat.max-threads=" + Integer.getInteger("execucao.tomcat-threads", 200),
+				"--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("execucao.conexoes", 10),
+				"--spring.datasource.url=jdbc:h2:mem:execucao-" + modo + ";DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas",
+				"--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + LatenciaConsultas.class.getName(),
+				"--zumpfinanc.execucao.modo=" + modo);
+	}
+
+	private void executar(int porta, String token, int concorrencia, int segundos, Medida medida) throws Exception {
+		long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+		ExecutorService clientes = Executors.newFixedThreadPool(concorrencia);
+		try {
+			List<Future<?>> execucoes = new ArrayList<>();
+			for(int c = 0; c < concorrencia; c++) {
+				execucoes.add(clientes.submit(() -> {
+					while(System.nanoTime() < fim) {
+						ThreadLocalRandom random = ThreadLocalRandom.current();
+						int ano = GeradorDados.ANO_INICIAL + random.nextInt(GeradorDados.QUANTIDADE_ANOS);
+						HttpRequest requisicao = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/lancamentos?ano=" + ano + "&mes=" + (1 + random.nextInt(12))))
+								.header("Authorization", "Bearer " + token).GET().build();
+						long inicio = System.nanoTime();
+						HttpResponse<Void> response = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+						medida.registrar(response.statusCode(), Math.min(System.nanoTime() - inicio, LATENCIA_MAXIMA));
+						if(response.statusCode() == 429) { // O cliente respeita o Retry-After antes de tentar de novo
+							TimeUnit.SECONDS.sleep(response.headers().firstValueAsLong("Retry-After").orElse(1));
+						}
+					}
+					return null;
+				}));
+			}
+			for(Future<?> execucao : execucoes) {
+				execucao.get();
+			}
+		} finally {
+			clientes.shutdownNow();
+		}
+	}
+
+	private static void relatar(ModoExecucao modo, Medida medida, double duracao, int concorrencia) {
+		Histogram atendidas = medida.atendidas.getIntervalHistogram();
+		Histogram recusadas = medida.recusadas.getIntervalHistogram();
+		System.out.println(String.format("[benchmark] %-10s %d clientes, %d ms por comando: %7.1f req/s atendidas  p50=%8.2f  p99=%8.2f  max=%8.2f ms"
+				+ "  | 429: %7.1f req/s  p99=%6.2f ms  | erros=%d", modo, concorrencia, LatenciaConsultas.latencia, atendidas.getTotalCount() / duracao,
+				ms(atendidas.getValueAtPercentile(50)), ms(atendidas.getValueAtPercentile(99)), ms(atendidas.getMaxValue()), recusadas.getTotalCount() / duracao,
+				ms(recusadas.getValueAtPercentile(99)), medida.erros.get()));
+	}
+
+	private static double ms(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static class Medida {
+
+		final Recorder atendidas = new Recorder(LATENCIA_MAXIMA, 3);
+		final Recorder recusadas = new Recorder(LATENCIA_MAXIMA, 3);
+		final AtomicLong erros = new AtomicLong();
+
+		void registrar(int status, long nanos) {
+			if(status / 100 == 2) {
+				atendidas.recordValue(nanos);
+			} else if(status == 429) {
+				recusadas.recordValue(nanos);
+			} else {
+				erros.incrementAndGet();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.service.ExtratoService;
+import com.zump.zumpfinanc.service.ResultadoImportacao;
+import com.zump.zumpfinanc.service.extrato.FormatoExtrato;
+
+// mvn test -Pbenchmark -Dtest=ExtratoBenchmark [-Dbenchmark.extrato.mb=100]
+// Com o H2 em memória a própria tabela ocupa o heap dos testes; para o arquivo de 100 MB aponte o profile test para um PostgreSQL
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ExtratoBenchmark {
+	
+	private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
+	@Autowired
+	ExtratoService extratoService;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Test
+	public void deveImportarUmExtratoGrandeComHeapLimitado() throws IOException {
+		long megabytes = Long.getLong("benchmark.extrato.mb", 20);
+		GeradorDados gerador = new GeradorDados(jdbcTemplate);
+		Long idUsuario = gerador.criarUsuario("extrato@email.com");
+		
+		Path arquivo = Files.createTempFile("extrato-benchmark", ".csv");
+		try {
+			long tamanho = gerarCsv(arquivo, megabytes * 1024 * 1024);
+			
+			System.gc();
+			ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+			
+			long inicio = System.nanoTime();
+			ResultadoImportacao resultado;
+			try (InputStream conteudo = Files.newInputStream(arquivo)) {
+				resultado = extratoService.importar(idUsuario, FormatoExtrato.CSV, StandardCharsets.UTF_8, conteudo);
+			}
+			double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+			
+			System.out.println(String.format("[benchmark] extrato CSV de %.1f MB: %d importados, %d rejeitados em %.1f s (%.0f linhas/s); pico de heap %d MB (máximo %d MB)", 
+					tamanho / (1024.0 * 1024.0), resultado.getImportados(), resultado.getRejeitados(), segundos, resultado.getImportados() / segundos, 
+					picoDeHeap() / (1024 * 1024), Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+		} finally {
+			Files.deleteIfExists(arquivo);
+		}
+	}
+	
+	private static long gerarCsv(Path arquivo, long tamanhoAlvo) throws IOException {
+		LocalDate data = LocalDate.of(2015, 1, 1);
+		long escritos = 0;
+		int linha = 0;
+		
+		try (BufferedWriter writer = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+			String cabecalho = "Data;Descrição;Valor;Identificador\n";
+			writer.write(cabecalho);
+			escritos += cabecalho.length();
+			
+			while(escritos < tamanhoAlvo) {
+				if(++linha % 200 == 0) {
+					data = data.plusDays(1);
+				}
+				String registro = String.format("%s;Compra no estabelecimento %d;%s%d,%02d;TX%d\n", data.format(DATA_BRASILEIRA), linha % 5000, 
+						linha % 7 == 0 ? "" : "-", linha % 900, linha % 100, linha);
+				writer.write(registro);
+				escritos += registro.length();
+			}
+		}
+		return escritos;
+	}
+	
+	private static long picoDeHeap() {
+		return ManagementFactory.getMemoryPoolMXBeans().stream().filter(pool -> pool.getType() == MemoryType.HEAP)
+				.mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+	}
+
+}
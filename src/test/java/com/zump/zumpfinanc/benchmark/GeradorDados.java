@@ -0,0 +1,98 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+
+public class GeradorDados { // Popula a base via JDBC em lote, bem mais rápido que passar pelo JPA, para os benchmarks
+	
+	public static final int ANO_INICIAL = 2015;
+	public static final int QUANTIDADE_ANOS = 10;
+	
+	private static final String[] DESCRICOES = {"Salário", "Aluguel", "Mercado", "Energia elétrica", "Internet", "Farmácia", "Combustível", "Restaurante", "Condomínio", "Academia"};
+	private static final String[] TIPOS = {"RECEITA", "DESPESA"};
+	private static final String[] STATUS = {"PENDENTE", "EFETIVADO", "CANCELADO"};
+	private static final int TAMANHO_LOTE = 1000;
+	private static final int BLOCO_SEQUENCE = 50; // allocationSize do @SequenceGenerator de Lancamento (otimizador pooled-lo)
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final String proximoValorSequence;
+	private long proximoId;
+	private int idsRestantesNoBloco;
+	
+	public GeradorDados(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		boolean postgresql = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName()));
+		this.proximoValorSequence = postgresql ? "SELECT nextval('financas.lancamento_id_seq')" : "SELECT NEXT VALUE FOR financas.lancamento_id_seq"; // H2 ou PostgreSQL (ParticionamentoBenchmark)
+	}
+	
+	public Long criarUsuario(String email) {
+		KeyHolder chave = new GeneratedKeyHolder();
+		jdbcTemplate.update(conexao -> {
+			PreparedStatement ps = conexao.prepareStatement("INSERT INTO financas.usuario (nome, email, senha) VALUES (?, ?, ?)", new String[] {"id"});
+			ps.setString(1, email);
+			ps.setString(2, email);
+			ps.setString(3, "senha");
+			return ps;
+		}, chave);
+		return chave.getKey().longValue();
+	}
+	
+	public List<Long> criarUsuarios(String prefixo, int quantidade) {
+		List<Long> ids = new ArrayList<>();
+		for(int i = 0; i < quantidade; i++) {
+			ids.add(criarUsuario(prefixo + i + "@email.com"));
+		}
+		return ids;
+	}
+	
+	// Lançamentos distribuídos uniformemente em QUANTIDADE_ANOS anos a partir de ANO_INICIAL; a semente torna a carga reproduzível
+	public void criarLancamentos(Long idUsuario, int quantidade, long semente) {
+		Random random = new Random(semente);
+		List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+		
+		for(int i = 0; i < quantidade; i++) {
+			String descricao = DESCRICOES[random.nextInt(DESCRICOES.length)] + " " + (i % 97);
+			int ano = ANO_INICIAL + random.nextInt(QUANTIDADE_ANOS);
+			int mes = 1 + random.nextInt(12);
+			long valorCentavos = 1 + random.nextInt(500_000);
+			lote.add(new Object[] {proximoIdLancamento(), descricao, Lancamento.normalizar(descricao), mes, ano, idUsuario, valorCentavos, Dinheiro.MOEDA_PADRAO, Date.valueOf(LocalDate.of(ano, mes, 1)),
+					TIPOS[random.nextInt(TIPOS.length)], STATUS[random.nextInt(STATUS.length)]});
+			
+			if(lote.size() == TAMANHO_LOTE) {
+				inserir(lote);
+				lote.clear();
+			}
+		}
+		
+		if(!lote.isEmpty()) {
+			inserir(lote);
+		}
+	}
+	
+	// Usa a mesma sequence do Hibernate, reservando blocos do mesmo tamanho, para não colidir com os ids gerados pela aplicação
+	private long proximoIdLancamento() {
+		if(idsRestantesNoBloco == 0) {
+			proximoId = jdbcTemplate.queryForObject(proximoValorSequence, Long.class);
+			idsRestantesNoBloco = BLOCO_SEQUENCE;
+		}
+		idsRestantesNoBloco--;
+		return proximoId++;
+	}
+	
+	private void inserir(List<Object[]> lote) {
+		jdbcTemplate.batchUpdate("INSERT INTO financas.lancamento (id, descricao, descricao_busca, mes, ano, id_usuario, valor_centavos, moeda, data_cadastro, tipo, status, versao) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", lote);
+	}
+
+}
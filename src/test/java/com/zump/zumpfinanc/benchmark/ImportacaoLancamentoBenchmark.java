@@ -0,0 +1,77 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.service.ImportacaoLancamentoService;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.LinhaImportacao;
+import com.zump.zumpfinanc.service.ResultadoImportacao;
+
+@Tag("benchmark") // mvn test -Pbenchmark -Dtest=ImportacaoLancamentoBenchmark [-Dbenchmark.linhas=50000]
+@SpringBootTest
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ImportacaoLancamentoBenchmark {
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	ImportacaoLancamentoService importacaoService;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Test
+	public void deveCompararAVazaoDaImportacaoEmLoteComOCadastroLinhaALinha() {
+		int linhas = Integer.getInteger("benchmark.linhas", 20000);
+		GeradorDados gerador = new GeradorDados(jdbcTemplate);
+		
+		// Aquecimento dos dois caminhos (JIT, pool de conexões, sequence)
+		Long idAquecimento = gerador.criarUsuario("aquecimento.importacao@email.com");
+		IntStream.range(0, 500).forEach(i -> lancamentoService.salvar(criarLancamento(idAquecimento, i)));
+		importacaoService.importar(gerarLinhas(idAquecimento, 2000));
+		
+		Long idLinhaALinha = gerador.criarUsuario("linha.a.linha@email.com");
+		long inicio = System.nanoTime();
+		IntStream.range(0, linhas).forEach(i -> lancamentoService.salvar(criarLancamento(idLinhaALinha, i)));
+		double vazaoLinhaALinha = vazao(linhas, System.nanoTime() - inicio);
+		
+		Long idEmLote = gerador.criarUsuario("em.lote@email.com");
+		inicio = System.nanoTime();
+		ResultadoImportacao resultado = importacaoService.importar(gerarLinhas(idEmLote, linhas));
+		double vazaoEmLote = vazao(resultado.getImportados(), System.nanoTime() - inicio);
+		
+		System.out.println(String.format("[benchmark] %d lançamentos: linha a linha %.0f linhas/s, importação em lote %.0f linhas/s (%.1fx)", 
+				linhas, vazaoLinhaALinha, vazaoEmLote, vazaoEmLote / vazaoLinhaALinha));
+	}
+	
+	private static Iterator<LinhaImportacao> gerarLinhas(Long idUsuario, int quantidade) {
+		return IntStream.range(0, quantidade).mapToObj(i -> LinhaImportacao.valida(i + 1, criarLancamento(idUsuario, i))).iterator();
+	}
+	
+	private static Lancamento criarLancamento(Long idUsuario, int indice) {
+		return Lancamento.builder().descricao("Lançamento importado " + indice).mes(1 + indice % 12).ano(2020).valor(Dinheiro.de(BigDecimal.valueOf(10)))
+				.tipo(TipoLancamento.DESPESA).usuario(Usuario.builder().id(idUsuario).build()).build();
+	}
+	
+	private static double vazao(int linhas, long nanos) {
+		return linhas / (nanos / 1_000_000_000.0);
+	}
+
+}
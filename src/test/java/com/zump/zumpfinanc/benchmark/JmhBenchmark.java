@@ -0,0 +1,100 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// mvn test -Pbenchmark -Dtest=JmhBenchmark [-Dbenchmark.jmh.incluir=Serializacao] [-Dbenchmark.jmh.resultado=../jmh/main.json]
+//                                          [-Dbenchmark.jmh.base=../jmh/main.json] [-Dbenchmark.jmh.tolerancia=10]
+// Roda os benchmarks JMH do pacote benchmark.jmh e grava o resultado em JSON. Com uma base (o JSON de outro commit), compara
+// benchmark a benchmark e falha se algum ficou mais lento que a tolerância (%), além da margem de erro das duas medições
+@Tag("benchmark")
+public class JmhBenchmark {
+	
+	@Test
+	public void deveExecutarOsBenchmarksJmhECompararComABase() throws Exception {
+		Path resultado = Paths.get(System.getProperty("benchmark.jmh.resultado", "target/jmh/resultado.json")).toAbsolutePath();
+		Files.createDirectories(resultado.getParent());
+		
+		Options opcoes = new OptionsBuilder()
+				.include(JmhBenchmark.class.getPackage().getName() + "\\.jmh\\..*" + System.getProperty("benchmark.jmh.incluir", ""))
+				.warmupIterations(Integer.getInteger("benchmark.jmh.aquecimento", 3)).warmupTime(TimeValue.seconds(1))
+				.measurementIterations(Integer.getInteger("benchmark.jmh.iteracoes", 5)).measurementTime(TimeValue.seconds(1))
+				.forks(Integer.getInteger("benchmark.jmh.forks", 1))
+				.jvmArgsAppend("-Xmx2g")
+				.resultFormat(ResultFormatType.JSON).result(resultado.toString())
+				.build();
+		new Runner(opcoes).run();
+		System.out.println("[benchmark] resultado JMH gravado em " + resultado);
+		
+		String base = System.getProperty("benchmark.jmh.base");
+		if(base != null) {
+			double tolerancia = Double.parseDouble(System.getProperty("benchmark.jmh.tolerancia", "10"));
+			List<String> regressoes = comparar(Paths.get(base), resultado, tolerancia);
+			Assertions.assertThat(regressoes).as("Benchmarks mais lentos que a base além de %s%%", tolerancia).isEmpty();
+		}
+	}
+	
+	private static List<String> comparar(Path base, Path atual, double tolerancia) throws IOException {
+		Map<String, JsonNode> medidasBase = lerMedidas(base);
+		List<String> regressoes = new ArrayList<>();
+		
+		for(Map.Entry<String, JsonNode> medida : lerMedidas(atual).entrySet()) {
+			JsonNode anterior = medidasBase.get(medida.getKey());
+			if(anterior == null) {
+				System.out.println(String.format("[benchmark] %-90s (novo, sem base)", medida.getKey()));
+				continue;
+			}
+			
+			// Todos os benchmarks medem tempo médio por operação: maior é pior
+			double scoreAnterior = anterior.get("score").asDouble();
+			double scoreAtual = medida.getValue().get("score").asDouble();
+			double erro = valorOuZero(anterior.get("scoreError")) + valorOuZero(medida.getValue().get("scoreError"));
+			double variacao = (scoreAtual - scoreAnterior) / scoreAnterior * 100;
+			boolean regressao = variacao > tolerancia && scoreAtual - scoreAnterior > erro;
+			
+			System.out.println(String.format("[benchmark] %-90s %12.3f -> %12.3f %s  %+7.1f%%%s", medida.getKey(), scoreAnterior, scoreAtual, 
+					medida.getValue().get("scoreUnit").asText(), variacao, regressao ? "  REGRESSÃO" : ""));
+			if(regressao) {
+				regressoes.add(String.format("%s: %+.1f%%", medida.getKey(), variacao));
+			}
+		}
+		return regressoes;
+	}
+	
+	// Chave = benchmark + parâmetros, para casar as mesmas medidas entre duas execuções
+	private static Map<String, JsonNode> lerMedidas(Path arquivo) throws IOException {
+		Map<String, JsonNode> medidas = new LinkedHashMap<>();
+		for(JsonNode resultado : new ObjectMapper().readTree(arquivo.toFile())) {
+			StringBuilder chave = new StringBuilder(resultado.get("benchmark").asText());
+			JsonNode parametros = resultado.get("params");
+			if(parametros != null) {
+				parametros.fields().forEachRemaining(parametro -> chave.append(' ').append(parametro.getKey()).append('=').append(parametro.getValue().asText()));
+			}
+			medidas.put(chave.toString(), resultado.get("primaryMetric"));
+		}
+		return medidas;
+	}
+	
+	private static double valorOuZero(JsonNode valor) { // scoreError vem como "NaN" quando há uma única iteração
+		return valor == null || Double.isNaN(valor.asDouble()) ? 0 : valor.asDouble();
+	}
+
+}
@@ -0,0 +1,74 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.util.function.IntConsumer;
+
+import javax.servlet.FilterChain;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.service.impl.JwtServiceImpl;
+
+// mvn test -Pbenchmark -Dtest=JwtFilterBenchmark [-Dbenchmark.requisicoes=200000]
+// Custo do filtro por requisição, sem servidor nem base: token já verificado (cache) x token novo (assinatura + parse)
+@Tag("benchmark")
+public class JwtFilterBenchmark {
+	
+	private static final FilterChain CADEIA_VAZIA = (request, response) -> { };
+	
+	@Test
+	public void deveMedirOCustoDoFiltroPorRequisicao() {
+		int requisicoes = Integer.getInteger("benchmark.requisicoes", 200_000);
+		JwtServiceImpl jwtService = new JwtServiceImpl("chave-do-benchmark-com-pelo-menos-32-bytes", 30, requisicoes);
+		JwtFilter filter = new JwtFilter(jwtService);
+		
+		String[] tokens = new String[requisicoes];
+		for(int i = 0; i < requisicoes; i++) {
+			tokens[i] = jwtService.gerarToken(Usuario.builder().id((long) i).email("usuario" + i + "@email.com").nome("usuario " + i).build());
+		}
+		String tokenRecorrente = tokens[0];
+		
+		medir("sem filtro (só a requisição de teste)", requisicoes, i -> executar(null, null));
+		medir("token novo (assinatura + parse)", requisicoes, i -> executar(filter, tokens[i]));
+		medir("token já verificado (cache)", requisicoes, i -> executar(filter, tokenRecorrente));
+	}
+	
+	private static void executar(JwtFilter filter, String token) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lancamentos");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		try {
+			if(filter == null) {
+				CADEIA_VAZIA.doFilter(request, response);
+				return;
+			}
+			request.addHeader("Authorization", "Bearer " + token);
+			filter.doFilter(request, response, CADEIA_VAZIA);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+		if(response.getStatus() != 200) {
+			throw new IllegalStateException("Filtro recusou o token: " + response.getStatus());
+		}
+	}
+	
+	private static void medir(String nome, int requisicoes, IntConsumer operacao) {
+		// Aquecimento do JIT com o último décimo dos tokens (que entram no cache); a medição usa os demais, ainda não verificados
+		int aquecimento = requisicoes / 10;
+		for(int i = requisicoes - aquecimento; i < requisicoes; i++) {
+			operacao.accept(i);
+		}
+		
+		int medidas = requisicoes - aquecimento;
+		long inicio = System.nanoTime();
+		for(int i = 0; i < medidas; i++) {
+			operacao.accept(i);
+		}
+		long nanos = System.nanoTime() - inicio;
+		System.out.println(String.format("[benchmark] %-45s %8.2f µs/requisição  (n=%d)", nome, nanos / 1000.0 / medidas, medidas));
+	}
+
+}
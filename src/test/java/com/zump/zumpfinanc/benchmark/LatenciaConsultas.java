@@ -0,0 +1,23 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.zump.zumpfinanc.config.ContadorConsultas;
+
+// Statement inspector do ExecucaoBenchmark: cada comando SQL do Hibernate espera "latência" ms antes de ser preparado, com a conexão
+// já retirada do pool, simulando uma base lenta sem precisar de uma
+public class LatenciaConsultas extends ContadorConsultas {
+
+	static volatile long latencia;
+
+	@Override
+	public String inspect(String sql) {
+		try {
+			TimeUnit.MILLISECONDS.sleep(latencia);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return super.inspect(sql);
+	}
+
+}
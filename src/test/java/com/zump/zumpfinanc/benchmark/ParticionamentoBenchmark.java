@@ -0,0 +1,98 @@
+package com.zump.zumpfinanc.benchmark;
+
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.ParticaoLancamentoService;
+import com.zump.zumpfinanc.service.SaldoService;
+
+// mvn test -Pbenchmark -Dtest=ParticionamentoBenchmark -Dbenchmark.postgresql=true [-Dspring.datasource.url=jdbc:postgresql://...] [-Dbenchmark.lancamentos=1000000]
+// Sem o perfil "test": roda no PostgreSQL do application.properties, com as migrações de db/postgresql aplicadas (011: lançamentos particionados).
+// A mesma carga de QUANTIDADE_ANOS anos é copiada para uma tabela sem partição, e as mesmas consultas são medidas nas duas
+@Tag("benchmark")
+@SpringBootTest(properties = "zumpfinanc.outbox.arquivo=target/outbox-benchmark.ndjson")
+@ExtendWith(SpringExtension.class)
+@EnabledIfSystemProperty(named = "benchmark.postgresql", matches = "true")
+public class ParticionamentoBenchmark {
+
+	private static final String SEM_PARTICAO = "financas.lancamento_benchmark_sem_particao";
+	private static final String BUSCA = "SELECT id, descricao, mes, ano, valor_centavos, tipo, status FROM %s WHERE id_usuario = ? AND ano = ? AND mes = ? ORDER BY ano, mes, id";
+	private static final String BUSCA_DESCRICAO = "SELECT id, descricao, mes, ano, valor_centavos, tipo, status FROM %s WHERE id_usuario = ? AND ano = ? AND descricao_busca LIKE ? ORDER BY ano, mes, id";
+	private static final String RESUMO = "SELECT mes, tipo, status, SUM(valor_centavos), COUNT(*) FROM %s WHERE id_usuario = ? AND ano = ? GROUP BY mes, tipo, status";
+	private static final String SALDO = "SELECT SUM(CASE WHEN tipo = 'RECEITA' THEN valor_centavos ELSE -valor_centavos END) FROM %s WHERE id_usuario = ? AND status = 'EFETIVADO'";
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	SaldoService saldoService;
+
+	@Autowired
+	ParticaoLancamentoService particaoService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void deveCompararBuscaESaldoComETemParticoesPorAno() {
+		int quantidade = Integer.getInteger("benchmark.lancamentos", 1_000_000);
+		GeradorDados gerador = new GeradorDados(jdbcTemplate);
+		Long idUsuario = gerador.criarUsuario("particao" + System.currentTimeMillis() + "@email.com");
+		List<Long> outrosUsuarios = gerador.criarUsuarios("particao-ruido" + System.currentTimeMillis() + "-", 9);
+
+		try {
+			for(int ano = GeradorDados.ANO_INICIAL; ano < GeradorDados.ANO_INICIAL + GeradorDados.QUANTIDADE_ANOS; ano++) {
+				particaoService.garantirParticao(ano);
+			}
+			gerador.criarLancamentos(idUsuario, quantidade, 42);
+			for(Long outro : outrosUsuarios) { // A tabela com 10x o volume do usuário medido
+				gerador.criarLancamentos(outro, quantidade, outro);
+			}
+
+			jdbcTemplate.execute("CREATE TABLE " + SEM_PARTICAO + " AS SELECT * FROM financas.lancamento");
+			jdbcTemplate.execute("CREATE INDEX ON " + SEM_PARTICAO + " (id_usuario, ano, mes, id)");
+			jdbcTemplate.execute("CREATE INDEX ON " + SEM_PARTICAO + " (id_usuario, id)");
+			jdbcTemplate.execute("CREATE INDEX ON " + SEM_PARTICAO + " USING gin (descricao_busca gin_trgm_ops)");
+			jdbcTemplate.execute("ANALYZE financas.lancamento");
+			jdbcTemplate.execute("ANALYZE " + SEM_PARTICAO);
+
+			int ano = GeradorDados.ANO_INICIAL + 5;
+			String plano = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + String.format(BUSCA, "financas.lancamento").replaceFirst("\\?", idUsuario.toString())
+					.replaceFirst("\\?", String.valueOf(ano)).replaceFirst("\\?", "6"), String.class));
+			Assertions.assertThat(plano).contains("lancamento_" + ano).doesNotContain("lancamento_" + (ano - 1)); // Só a partição do ano
+
+			for(String tabela : new String[] {"financas.lancamento", SEM_PARTICAO}) {
+				String nome = quantidade * 10 + " linhas, " + (tabela.equals(SEM_PARTICAO) ? "sem partição" : "particionada");
+				Cronometro.medir(nome + " - ano e mês", 5, 50, () -> jdbcTemplate.queryForList(String.format(BUSCA, tabela), idUsuario, ano, 6));
+				Cronometro.medir(nome + " - ano e descrição", 3, 20, () -> jdbcTemplate.queryForList(String.format(BUSCA_DESCRICAO, tabela), idUsuario, ano, "%mercado%"));
+				Cronometro.medir(nome + " - resumo do ano", 3, 20, () -> jdbcTemplate.queryForList(String.format(RESUMO, tabela), idUsuario, ano));
+				Cronometro.medir(nome + " - saldo (todos os anos)", 2, 10, () -> jdbcTemplate.queryForObject(String.format(SALDO, tabela), Long.class, idUsuario));
+			}
+
+			// Os mesmos caminhos pela aplicação (Criteria da busca e consultas JPQL do saldo), já sobre a tabela particionada
+			Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(idUsuario).build()).ano(ano).mes(6).build();
+			Cronometro.medir("aplicação - LancamentoService.buscar", 5, 50, () -> lancamentoService.buscar(filtro));
+			Cronometro.medir("aplicação - SaldoService.calcularSaldo", 2, 10, () -> saldoService.calcularSaldo(idUsuario));
+		} finally {
+			jdbcTemplate.execute("DROP TABLE IF EXISTS " + SEM_PARTICAO);
+			outrosUsuarios.add(idUsuario);
+			for(Long id : outrosUsuarios) {
+				jdbcTemplate.update("DELETE FROM financas.lancamento WHERE id_usuario = ?", id);
+				jdbcTemplate.update("DELETE FROM financas.usuario WHERE id = ?", id);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package com.zump.zumpfinanc.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.ResumoMensalRepository;
+import com.zump.zumpfinanc.service.ResumoService;
+
+@Tag("benchmark") // mvn test -Pbenchmark -Dtest=ResumoBenchmark -Dtestes.jvm=-Xmx2g [-Dbenchmark.lancamentos=200000] (a base H2 em memória não cabe no heap padrão do perfil)
+@SpringBootTest
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ResumoBenchmark {
+	
+	@Autowired
+	ResumoService resumoService;
+	
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	
+	@Autowired
+	ResumoMensalRepository resumoRepository;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Test
+	public void deveCompararOResumoAgrupadoNaHoraComATabelaConsolidada() {
+		int quantidade = Integer.getInteger("benchmark.lancamentos", 1_000_000);
+		GeradorDados gerador = new GeradorDados(jdbcTemplate);
+		Long idUsuario = gerador.criarUsuario("resumo@email.com");
+		gerador.criarLancamentos(idUsuario, quantidade, 42);
+		resumoService.reconstruir(idUsuario); // A carga via JDBC não passa pelo LancamentoService
+		
+		int ano = GeradorDados.ANO_INICIAL + 5;
+		Cronometro.medir(quantidade + " linhas - agrupando os lançamentos", 3, 20, () -> lancamentoRepository.obterTotaisMensais(idUsuario, ano));
+		Cronometro.medir(quantidade + " linhas - tabela resumo_mensal", 20, 200, () -> resumoRepository.obterTotais(idUsuario, ano));
+	}
+
+}
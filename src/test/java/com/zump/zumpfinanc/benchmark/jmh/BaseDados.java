@@ -0,0 +1,56 @@
+package com.zump.zumpfinanc.benchmark.jmh;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zump.zumpfinanc.ZumpfinancApplication;
+import com.zump.zumpfinanc.benchmark.GeradorDados;
+import com.zump.zumpfinanc.service.SaldoService;
+
+// Aplicação completa sobre o H2 do profile test, populada com N usuários x M lançamentos por usuário.
+// Sobe uma vez por combinação de parâmetros (trial), dentro do fork do JMH
+@State(Scope.Benchmark)
+public class BaseDados {
+	
+	@Param({"5"})
+	public int usuarios;
+	
+	@Param({"1000", "10000", "100000"})
+	public int lancamentosPorUsuario;
+	
+	ConfigurableApplicationContext contexto;
+	List<Long> idsUsuarios;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = new SpringApplicationBuilder(ZumpfinancApplication.class).profiles("test")
+				.properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN", 
+						"logging.level.org.springframework.beans.factory.support=ERROR").run(); // Sem o aviso do H2 já fechado no fim do fork
+		
+		GeradorDados gerador = new GeradorDados(contexto.getBean(JdbcTemplate.class));
+		idsUsuarios = gerador.criarUsuarios("jmh", usuarios);
+		for(int i = 0; i < idsUsuarios.size(); i++) {
+			gerador.criarLancamentos(idsUsuarios.get(i), lancamentosPorUsuario, 42 + i);
+		}
+		contexto.getBean(SaldoService.class).reconciliar(); // A carga via JDBC não passa pelo saldo consolidado
+	}
+	
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	<T> T bean(Class<T> tipo) {
+		return contexto.getBean(tipo);
+	}
+
+}
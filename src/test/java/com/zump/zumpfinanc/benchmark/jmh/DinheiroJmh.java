@@ -0,0 +1,89 @@
+package com.zump.zumpfinanc.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+
+// Somas do saldo e dos deltas por usuário (registrarInclusoes) em centavos (long) e, para comparação, no antigo caminho em BigDecimal
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DinheiroJmh {
+
+	private static final int USUARIOS = 50;
+
+	@Param({"1000", "100000"})
+	public int tamanho;
+
+	long[] centavos;
+	BigDecimal[] valores;
+	boolean[] receitas;
+	long[] usuarios;
+
+	@Setup(Level.Trial)
+	public void iniciar() {
+		Random random = new Random(42);
+		centavos = new long[tamanho];
+		valores = new BigDecimal[tamanho];
+		receitas = new boolean[tamanho];
+		usuarios = new long[tamanho];
+		for(int i = 0; i < tamanho; i++) {
+			centavos[i] = 1 + random.nextInt(500_000);
+			valores[i] = Dinheiro.deCentavos(centavos[i]).toBigDecimal();
+			receitas[i] = random.nextBoolean();
+			usuarios[i] = 1 + random.nextInt(USUARIOS);
+		}
+	}
+
+	@Benchmark
+	public long somarSaldoEmCentavos() {
+		long saldo = 0;
+		for(int i = 0; i < tamanho; i++) {
+			saldo = Math.addExact(saldo, receitas[i] ? centavos[i] : -centavos[i]);
+		}
+		return saldo;
+	}
+
+	@Benchmark
+	public BigDecimal somarSaldoEmBigDecimal() {
+		BigDecimal saldo = BigDecimal.ZERO;
+		for(int i = 0; i < tamanho; i++) {
+			saldo = saldo.add(receitas[i] ? valores[i] : valores[i].negate());
+		}
+		return saldo;
+	}
+
+	@Benchmark
+	public Map<Long, long[]> agruparDeltasEmCentavos() { // Acumulador mutável por usuário, como no SaldoServiceImpl: nenhum Long criado por lançamento
+		Map<Long, long[]> deltas = new HashMap<>();
+		for(int i = 0; i < tamanho; i++) {
+			long[] delta = deltas.computeIfAbsent(usuarios[i], usuario -> new long[1]);
+			delta[0] = Math.addExact(delta[0], receitas[i] ? centavos[i] : -centavos[i]);
+		}
+		return deltas;
+	}
+
+	@Benchmark
+	public Map<Long, BigDecimal> agruparDeltasEmBigDecimal() {
+		Map<Long, BigDecimal> deltas = new HashMap<>();
+		for(int i = 0; i < tamanho; i++) {
+			deltas.merge(usuarios[i], receitas[i] ? valores[i] : valores[i].negate(), BigDecimal::add);
+		}
+		return deltas;
+	}
+
+}
@@ -0,0 +1,71 @@
+package com.zump.zumpfinanc.benchmark.jmh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.zump.zumpfinanc.api.dto.LancamentoDTO;
+import com.zump.zumpfinanc.api.resource.LancamentoResource;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+import com.zump.zumpfinanc.service.UsuarioService;
+
+// Conversões entidade/projeção/DTO do LancamentoResource (métodos privados, chamados por MethodHandle: static final,
+// o JIT trata a chamada como direta)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LancamentoResourceJmh {
+	
+	private static final MethodHandle DE_ENTIDADE = conversor(LancamentoDTO.class, Lancamento.class);
+	private static final MethodHandle DE_RESUMO = conversor(LancamentoDTO.class, LancamentoResumo.class);
+	private static final MethodHandle DE_DTO = conversor(Lancamento.class, LancamentoDTO.class, Long.class);
+	
+	// O converter do DTO só pede ao UsuarioService a referência do usuário (getOne, sem SELECT)
+	LancamentoResource resource = new LancamentoResource(null, (UsuarioService) Proxy.newProxyInstance(UsuarioService.class.getClassLoader(), 
+			new Class<?>[] {UsuarioService.class}, (proxy, metodo, argumentos) -> Usuario.builder().id((Long) argumentos[0]).build()), null, null, null);
+	
+	Lancamento lancamento = Lancamento.builder().id(10l).descricao("Aluguel").mes(6).ano(2022).usuario(Usuario.builder().id(1l).build())
+			.valor(Dinheiro.de(BigDecimal.valueOf(1500))).tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).build();
+	LancamentoResumo resumo = new LancamentoResumo(10l, "Aluguel", 6, 2022, 1l, Dinheiro.de(BigDecimal.valueOf(1500)), TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+	LancamentoDTO dto = LancamentoDTO.builder().descricao("Aluguel").mes(6).ano(2022).usuario(1l).valor(BigDecimal.valueOf(1500)).tipo("DESPESA").status("PENDENTE").build();
+	
+	@Benchmark
+	public LancamentoDTO converterEntidade() throws Throwable {
+		return (LancamentoDTO) DE_ENTIDADE.invokeExact(resource, lancamento);
+	}
+	
+	@Benchmark
+	public LancamentoDTO converterResumo() throws Throwable {
+		return (LancamentoDTO) DE_RESUMO.invokeExact(resource, resumo);
+	}
+	
+	@Benchmark
+	public Lancamento converterDTO() throws Throwable {
+		return (Lancamento) DE_DTO.invokeExact(resource, dto, (Long) 1l);
+	}
+	
+	private static MethodHandle conversor(Class<?> retorno, Class<?>... parametros) {
+		try {
+			return MethodHandles.privateLookupIn(LancamentoResource.class, MethodHandles.lookup())
+					.findVirtual(LancamentoResource.class, "converter", MethodType.methodType(retorno, parametros));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.zump.zumpfinanc.benchmark.jmh;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.zump.zumpfinanc.benchmark.GeradorDados;
+import com.zump.zumpfinanc.config.CacheConfig;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.impl.LancamentoServiceImpl;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LancamentoServiceJmh {
+	
+	@State(Scope.Benchmark)
+	public static class Validacao { // validar não usa as dependências do service
+		
+		LancamentoServiceImpl service = new LancamentoServiceImpl(null, null, null, null, null, null);
+		Lancamento lancamento = Lancamento.builder().descricao("Aluguel").mes(6).ano(2022).usuario(Usuario.builder().id(1l).build())
+				.valor(Dinheiro.de(BigDecimal.valueOf(1500))).tipo(TipoLancamento.DESPESA).status(StatusLancamento.PENDENTE).build();
+	}
+	
+	@State(Scope.Benchmark)
+	public static class Consulta {
+		
+		LancamentoService service;
+		Cache cacheSaldos;
+		Long idUsuario;
+		Lancamento filtroAnoMes;
+		Lancamento filtroAnoDescricao;
+		
+		@Setup(Level.Trial)
+		public void iniciar(BaseDados base) {
+			service = base.bean(LancamentoService.class);
+			cacheSaldos = base.bean(CacheManager.class).getCache(CacheConfig.SALDOS);
+			idUsuario = base.idsUsuarios.get(0);
+			int ano = GeradorDados.ANO_INICIAL + 5;
+			filtroAnoMes = Lancamento.builder().usuario(Usuario.builder().id(idUsuario).build()).ano(ano).mes(6).build();
+			filtroAnoDescricao = Lancamento.builder().usuario(Usuario.builder().id(idUsuario).build()).ano(ano).descricao("mercado").build();
+		}
+	}
+	
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.NANOSECONDS)
+	public Lancamento validar(Validacao estado) {
+		estado.service.validar(estado.lancamento);
+		return estado.lancamento;
+	}
+	
+	@Benchmark
+	public List<LancamentoResumo> buscarPorAnoEMes(Consulta estado) {
+		return estado.service.buscar(estado.filtroAnoMes);
+	}
+	
+	@Benchmark
+	public List<LancamentoResumo> buscarPorAnoEDescricao(Consulta estado) {
+		return estado.service.buscar(estado.filtroAnoDescricao);
+	}
+	
+	@Benchmark
+	public long obterSaldoPorUsuario(Consulta estado) { // Caminho normal: o saldo sai do cache na maior parte das chamadas
+		return estado.service.obterSaldoPorUsuario(estado.idUsuario);
+	}
+	
+	@Benchmark
+	public long obterSaldoPorUsuarioSemCache(Consulta estado) { // Leitura do saldo consolidado na base
+		estado.cacheSaldos.evict(estado.idUsuario);
+		return estado.service.obterSaldoPorUsuario(estado.idUsuario);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.zump.zumpfinanc.benchmark.jmh;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zump.zumpfinanc.api.dto.LancamentoDTO;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+
+// Serialização da resposta do GET /api/lancamentos: List<LancamentoDTO> (id do usuário) e, para comparação, a antiga List<Lancamento> com o usuário aninhado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacaoJmh {
+	
+	@Param({"10", "100", "1000"})
+	public int tamanho;
+	
+	ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build(); // Mesmos módulos e opções padrão do ObjectMapper do Spring Boot
+	List<Lancamento> lancamentos;
+	List<LancamentoDTO> dtos;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		Usuario usuario = Usuario.builder().id(1l).nome("usuario").email("usuario@email.com").senha("senha").build();
+		lancamentos = IntStream.range(0, tamanho).mapToObj(i -> Lancamento.builder().id((long) i).descricao("Lançamento " + i).mes(i % 12 + 1).ano(2022)
+				.usuario(usuario).valor(Dinheiro.deCentavos(i * 100 + 99)).dataCadastro(LocalDate.of(2022, 1, 1)).tipo(TipoLancamento.values()[i % 2])
+				.status(StatusLancamento.values()[i % 3]).build()).collect(Collectors.toList());
+		dtos = lancamentos.stream().map(l -> LancamentoDTO.builder().id(l.getId()).descricao(l.getDescricao()).mes(l.getMes()).ano(l.getAno())
+				.usuario(l.getUsuario().getId()).valor(l.getValor().toBigDecimal()).moeda(l.getValor().getMoeda()).tipo(l.getTipo().name()).status(l.getStatus().name()).build()).collect(Collectors.toList());
+	}
+	
+	@Benchmark
+	public byte[] serializarLista() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(dtos);
+	}
+	
+	@Benchmark
+	public byte[] serializarEntidades() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(lancamentos);
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.SaldoUsuario;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoConsultaRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoRepositoryTest;
+import com.zump.zumpfinanc.model.repository.SaldoArquivadoRepository;
+import com.zump.zumpfinanc.model.repository.SaldoUsuarioRepository;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.ParticaoLancamentoService;
+import com.zump.zumpfinanc.service.ResumoService;
+import com.zump.zumpfinanc.service.SaldoService;
+import com.zump.zumpfinanc.service.impl.LancamentoServiceImpl;
+import com.zump.zumpfinanc.service.impl.SaldoServiceImpl;
+
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {CacheConfig.class, SaldoServiceImpl.class, LancamentoServiceImpl.class})
+public class CacheConfigTest {
+	
+	@Autowired
+	SaldoService saldoService;
+	
+	@Autowired
+	LancamentoService lancamentoService;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@MockBean
+	SaldoUsuarioRepository saldoUsuarioRepository;
+	
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	@MockBean
+	LancamentoConsultaRepository consultaRepository;
+	
+	@MockBean
+	UsuarioRepository usuarioRepository;
+	
+	@MockBean
+	ResumoService resumoService;
+	
+	@MockBean
+	ParticaoLancamentoService particaoService;
+	
+	@MockBean
+	EventoLancamentoService eventoService;
+	
+	@MockBean
+	SaldoArquivadoRepository saldoArquivadoRepository;
+	
+	@MockBean
+	org.springframework.transaction.PlatformTransactionManager transactionManager;
+	
+	@Test
+	public void deveGuardarOSaldoEmCacheAteUmLancamentoDoUsuarioSerAlterado() {
+		// Cenário
+		Mockito.when(saldoUsuarioRepository.findById(1l)).thenReturn(Optional.of(new SaldoUsuario(1l, 1000l)));
+		
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(5l);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		Mockito.when(lancamentoRepository.obterSituacao(5l)).thenReturn(Optional.of(new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1000l, 2022, 1)));
+		Mockito.when(lancamentoRepository.atualizarStatus(5l, 2022, StatusLancamento.CANCELADO, null)).thenReturn(1);
+		
+		// Ação/Execução
+		saldoService.obterSaldo(1l);
+		saldoService.obterSaldo(1l);
+		lancamentoService.atualizarStatus(lancamento, StatusLancamento.CANCELADO, null);
+		long saldo = saldoService.obterSaldo(1l);
+		
+		// Verificação
+		Assertions.assertThat(saldo).isEqualTo(1000l);
+		Mockito.verify(saldoUsuarioRepository, Mockito.times(2)).findById(1l); // Uma vez antes e outra depois da alteração
+	}
+	
+	@Test
+	public void deveCriarOsCachesComLimiteDeTamanho() {
+		// Verificação
+		Assertions.assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder(CacheConfig.USUARIOS, CacheConfig.USUARIOS_POR_EMAIL, 
+				CacheConfig.LANCAMENTOS, CacheConfig.SALDOS, CacheConfig.IDEMPOTENCIA);
+		com.github.benmanes.caffeine.cache.Cache<?, ?> saldos = (com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager.getCache(CacheConfig.SALDOS).getNativeCache();
+		Assertions.assertThat(saldos.policy().eviction()).isPresent();
+		Assertions.assertThat(saldos.policy().expireAfterWrite()).isPresent();
+	}
+
+}
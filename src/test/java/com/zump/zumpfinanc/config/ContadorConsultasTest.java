@@ -0,0 +1,138 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoRepositoryTest;
+
+@SpringBootTest // Contexto completo: o @EnableWebMvc da aplicação impede o @DataJpaTest
+@Transactional // Desfaz os dados de cada teste
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ContadorConsultasTest {
+	
+	@Autowired
+	LancamentoRepository repository;
+	
+	@Autowired
+	EntityManager entityManager;
+	
+	@Test
+	public void deveContarOsComandosSqlDoHibernateNaThread() {
+		// Cenário
+		Usuario usuario = Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build();
+		entityManager.persist(usuario);
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setUsuario(usuario);
+		entityManager.persist(lancamento);
+		entityManager.flush();
+		
+		// Ação/Execução
+		ConsultasExecutadas consultas = LimiteConsultas.contar(() -> repository.obterSituacao(lancamento.getId()));
+		
+		// Verificação
+		Assertions.assertThat(consultas.getTotal()).isEqualTo(1);
+		Assertions.assertThat(consultas.repetidas(2)).isEmpty();
+	}
+	
+	@Test
+	public void deveApontarOMesmoComandoRepetidoComoPossivelNMais1() {
+		// Cenário: cada usuário (LAZY) lido de um lançamento da lista é uma consulta a mais
+		for(int i = 0; i < 3; i++) {
+			Usuario usuario = Usuario.builder().nome("usuario" + i).email("usuario" + i + "@email.com").senha("senha").build();
+			entityManager.persist(usuario);
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			entityManager.persist(lancamento);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		
+		// Ação/Execução
+		ConsultasExecutadas consultas = LimiteConsultas.contar(() -> repository.findAll().forEach(lancamento -> lancamento.getUsuario().getNome()));
+		
+		// Verificação
+		Assertions.assertThat(consultas.getTotal()).isEqualTo(4);
+		Assertions.assertThat(consultas.repetidas(3)).hasSize(1);
+		Assertions.assertThat(consultas.repetidas(3).keySet().iterator().next()).contains("from financas.usuario");
+	}
+	
+	@Test
+	public void deveLerAContagemEnquantoOutraThreadRegistra() throws Exception { // Handler que continua no executor depois do timeout
+		// Cenário
+		ConsultasExecutadas consultas = new ConsultasExecutadas();
+		Thread handler = new Thread(() -> {
+			for(int i = 0; i < 20000; i++) {
+				consultas.registrar("select coluna_" + i + " from financas.lancamento where id = " + i); // Uma assinatura nova a cada comando
+				consultas.registrar("select * from financas.usuario where id = " + i);
+			}
+		});
+		
+		// Ação/Execução
+		handler.start();
+		while(handler.isAlive()) {
+			consultas.descrever();
+			consultas.repetidas(3);
+		}
+		handler.join();
+		
+		// Verificação
+		Assertions.assertThat(consultas.getTotal()).isEqualTo(40000);
+		Assertions.assertThat(consultas.getQuantidadePorAssinatura()).hasSize(20001);
+	}
+	
+	@Test
+	public void deveCarregarOsLancamentosSemConsultarOsUsuarios() {
+		// Cenário
+		for(int i = 0; i < 3; i++) {
+			Usuario usuario = Usuario.builder().nome("usuario" + i).email("usuario" + i + "@email.com").senha("senha").build();
+			entityManager.persist(usuario);
+			Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+			lancamento.setUsuario(usuario);
+			entityManager.persist(lancamento);
+		}
+		entityManager.flush();
+		entityManager.clear();
+		
+		// Ação/Execução
+		List<Lancamento> lancamentos = LimiteConsultas.executar(1, () -> repository.findAll());
+		
+		// Verificação: o id do usuário vem da FK, sem inicializar o proxy
+		Assertions.assertThat(lancamentos).hasSize(3).allSatisfy(lancamento -> Assertions.assertThat(lancamento.getUsuario().getId()).isNotNull());
+	}
+	
+	@Test
+	public void deveFalharQuandoPassaDoLimiteDeConsultas() {
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> LimiteConsultas.executar(0, () -> repository.findAll()));
+		List<Lancamento> lancamentos = LimiteConsultas.executar(1, () -> repository.findAll());
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(AssertionError.class).hasMessageContaining("select");
+		Assertions.assertThat(lancamentos).isEmpty();
+	}
+	
+	@Test
+	public void deveGerarAMesmaAssinaturaParaParametrosDiferentes() {
+		// Ação/Execução
+		String assinatura = ConsultasExecutadas.assinatura("SELECT * FROM financas.lancamento l0_  WHERE l0_.id IN (?, ?, ?) AND l0_.ano = 2022 AND l0_.descricao = 'a''b'");
+		
+		// Verificação
+		Assertions.assertThat(assinatura).isEqualTo("select * from financas.lancamento l0_ where l0_.id in (?) and l0_.ano = ? and l0_.descricao = ?");
+		Assertions.assertThat(ConsultasExecutadas.assinatura("select x from t where id in (?)")).isEqualTo("select x from t where id in (?)");
+	}
+
+}
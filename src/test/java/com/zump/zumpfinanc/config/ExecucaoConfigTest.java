@@ -0,0 +1,163 @@
+package com.zump.zumpfinanc.config;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.api.resource.LancamentoResource;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.repository.LancamentoRepositoryTest;
+import com.zump.zumpfinanc.service.ExtratoService;
+import com.zump.zumpfinanc.service.ImportacaoLancamentoService;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+import com.zump.zumpfinanc.service.UsuarioService;
+
+@AutoConfigureMockMvc
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = LancamentoResource.class, properties = {"zumpfinanc.execucao.modo=ASSINCRONO", "zumpfinanc.execucao.threads=1",
+		"zumpfinanc.execucao.fila-por-thread=0"}) // Uma única vaga
+public class ExecucaoConfigTest {
+
+	static final UsuarioAutenticado USUARIO = new UsuarioAutenticado(1l, "usuario@email.com", "usuario", Instant.now().plusSeconds(600));
+
+	@Autowired
+	MockMvc mvc;
+
+	@MockBean
+	LancamentoService service;
+
+	@MockBean
+	UsuarioService usuarioService;
+
+	@MockBean
+	ImportacaoLancamentoService importacaoService;
+
+	@MockBean
+	ExtratoService extratoService;
+
+	@Test
+	public void deveExecutarOHandlerNoExecutorDeRequisicoesERespondeNoDespachoAssincrono() throws Exception {
+		// Cenário
+		AtomicReference<String> thread = new AtomicReference<>();
+		Mockito.when(service.obterPorId(5l)).thenAnswer(invocacao -> {
+			thread.set(Thread.currentThread().getName());
+			return Optional.of(criarLancamento());
+		});
+
+		// Ação/Execução
+		MvcResult resultado = mvc.perform(obterLancamento()).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+		// Verificação
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().string("ETag", "\"3\"")).andExpect(MockMvcResultMatchers.jsonPath("id").value(5));
+		Assertions.assertThat(thread.get()).startsWith("requisicao-");
+	}
+
+	@Test
+	public void deveResponderTooManyRequestsSemVagaNoExecutor() throws Exception {
+		// Cenário
+		CountDownLatch liberar = new CountDownLatch(1);
+		Mockito.when(service.obterPorId(5l)).thenAnswer(invocacao -> {
+			liberar.await(10, TimeUnit.SECONDS); // Segura a única vaga
+			return Optional.of(criarLancamento());
+		});
+		MvcResult ocupando = mvc.perform(obterLancamento()).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+		// Ação/Execução
+		MvcResult recusada = mvc.perform(obterLancamento()).andReturn();
+		liberar.countDown();
+
+		// Verificação
+		Assertions.assertThat(recusada.getRequest().isAsyncStarted()).isFalse();
+		Assertions.assertThat(recusada.getResponse().getStatus()).isEqualTo(429);
+		Assertions.assertThat(recusada.getResponse().getHeader("Retry-After")).isEqualTo("1");
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(ocupando)).andExpect(MockMvcResultMatchers.status().isOk());
+		Mockito.verify(service, Mockito.times(1)).obterPorId(5l);
+	}
+
+	@Test
+	public void naoDeveLiberarAVagaNoTimeoutEnquantoOHandlerAindaRoda() throws Exception {
+		// Cenário
+		CountDownLatch iniciou = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		Mockito.when(service.obterPorId(5l)).thenAnswer(invocacao -> {
+			iniciou.countDown();
+			while(true) { // Como uma chamada JDBC: a interrupção do timeout não para o handler
+				try {
+					liberar.await(10, TimeUnit.SECONDS);
+					break;
+				} catch (InterruptedException e) {
+					continue;
+				}
+			}
+			return Optional.of(criarLancamento());
+		});
+		MvcResult ocupando = mvc.perform(obterLancamento()).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		iniciou.await(10, TimeUnit.SECONDS);
+
+		// Ação/Execução
+		MockAsyncContext contexto = (MockAsyncContext) ocupando.getRequest().getAsyncContext();
+		for(AsyncListener ouvinte : contexto.getListeners()) {
+			ouvinte.onTimeout(new AsyncEvent(contexto));
+		}
+		contexto.complete(); // Requisição encerrada com o 503 do timeout
+		MvcResult comHandlerRodando = mvc.perform(obterLancamento()).andReturn();
+		liberar.countDown();
+		MvcResult depoisDoHandler = aguardarVaga();
+
+		// Verificação
+		Assertions.assertThat(comHandlerRodando.getResponse().getStatus()).isEqualTo(429);
+		Assertions.assertThat(depoisDoHandler.getRequest().isAsyncStarted()).isTrue();
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(depoisDoHandler)).andExpect(MockMvcResultMatchers.status().isOk());
+	}
+
+	private MvcResult aguardarVaga() throws Exception { // A vaga volta logo depois que o handler retorna, na thread do executor
+		for(int tentativa = 0; ; tentativa++) {
+			MvcResult resultado = mvc.perform(obterLancamento()).andReturn();
+			if(resultado.getRequest().isAsyncStarted() || tentativa == 50) {
+				return resultado;
+			}
+			Thread.sleep(100);
+		}
+	}
+
+	private static MockHttpServletRequestBuilder obterLancamento() {
+		return MockMvcRequestBuilders.get("/api/lancamentos/5").requestAttr(JwtFilter.USUARIO_AUTENTICADO, USUARIO).accept(MediaType.APPLICATION_JSON);
+	}
+
+	private static Lancamento criarLancamento() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(5l);
+		lancamento.setVersao(3l);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		return lancamento;
+	}
+
+}
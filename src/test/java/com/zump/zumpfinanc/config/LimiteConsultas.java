@@ -0,0 +1,54 @@
+package com.zump.zumpfinanc.config;
+
+import java.util.function.Supplier;
+
+import org.assertj.core.api.Assertions;
+
+import com.zump.zumpfinanc.api.filtro.ConsultasFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Asserções sobre a quantidade de comandos SQL: o teste falha listando as assinaturas dos comandos quando passa do limite.
+// executar() conta na thread do teste (repositórios, serviços, MockMvc); verificarEndpoint() lê a métrica do ConsultasFilter,
+// para testes com o servidor em outra thread (RANDOM_PORT)
+public final class LimiteConsultas {
+	
+	private LimiteConsultas() {
+	}
+	
+	public static <T> T executar(int limite, Supplier<T> acao) {
+		ContadorConsultas.iniciar();
+		T resultado;
+		ConsultasExecutadas consultas;
+		try {
+			resultado = acao.get();
+		} finally {
+			consultas = ContadorConsultas.encerrar();
+		}
+		
+		Assertions.assertThat(consultas.getTotal())
+			.as("Comandos SQL executados (limite %d):%n%s", limite, consultas.descrever())
+			.isLessThanOrEqualTo(limite);
+		return resultado;
+	}
+	
+	public static ConsultasExecutadas contar(Runnable acao) {
+		ContadorConsultas.iniciar();
+		ConsultasExecutadas consultas;
+		try {
+			acao.run();
+		} finally {
+			consultas = ContadorConsultas.encerrar();
+		}
+		return consultas;
+	}
+	
+	public static void verificarEndpoint(MeterRegistry registry, String metodo, String uri, int limite) {
+		DistributionSummary consultas = registry.get(ConsultasFilter.CONSULTAS).tag("method", metodo).tag("uri", uri).summary();
+		Assertions.assertThat(consultas.max())
+			.as("Máximo de comandos SQL por requisição em %s %s", metodo, uri)
+			.isLessThanOrEqualTo(limite);
+	}
+
+}
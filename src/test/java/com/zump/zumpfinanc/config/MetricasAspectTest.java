@@ -0,0 +1,106 @@
+package com.zump.zumpfinanc.config;
+
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoConsultaRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.service.EventoLancamentoService;
+import com.zump.zumpfinanc.service.LancamentoService;
+import com.zump.zumpfinanc.service.ParticaoLancamentoService;
+import com.zump.zumpfinanc.service.ResumoService;
+import com.zump.zumpfinanc.service.SaldoService;
+import com.zump.zumpfinanc.service.impl.LancamentoServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = {MetricasAspectTest.Configuracao.class, MetricasAspect.class, LancamentoServiceImpl.class})
+public class MetricasAspectTest {
+	
+	@Configuration
+	@EnableAspectJAutoProxy(proxyTargetClass = true)
+	static class Configuracao {
+		
+		@Bean
+		public MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+	
+	@Autowired
+	LancamentoService service;
+	
+	@Autowired
+	MeterRegistry registry;
+	
+	@MockBean
+	LancamentoRepository repository;
+	
+	@MockBean
+	LancamentoConsultaRepository consultaRepository;
+	
+	@MockBean
+	SaldoService saldoService;
+	
+	@MockBean
+	ResumoService resumoService;
+	
+	@MockBean
+	ParticaoLancamentoService particaoService;
+	
+	@MockBean
+	EventoLancamentoService eventoService;
+	
+	@Test
+	public void deveMedirOTempoDasChamadasAoServicoPorMetodo() {
+		// Cenário
+		Mockito.when(saldoService.obterSaldo(1l)).thenReturn(1000l);
+		
+		// Ação
+		service.obterSaldoPorUsuario(1l);
+		service.obterSaldoPorUsuario(1l);
+		
+		// Verificação
+		Assertions.assertThat(registry.get(MetricasAspect.TEMPO_SERVICO).tag("servico", "LancamentoService").tag("metodo", "obterSaldoPorUsuario")
+				.tag("excecao", "none").timer().count()).isEqualTo(2);
+	}
+	
+	@Test
+	public void deveContarOErroDeRegraDeNegocioPelaMensagem() {
+		// Cenário
+		Lancamento lancamento = new Lancamento();
+		
+		// Ação
+		Assertions.catchThrowable(() -> service.validar(lancamento));
+		
+		// Verificação
+		Assertions.assertThat(registry.get(MetricasAspect.ERROS).tag("tipo", "RegraNegocioException").tag("chave", "Informe uma Descrição válida.")
+				.counter().count()).isEqualTo(1);
+		Assertions.assertThat(registry.get(MetricasAspect.TEMPO_SERVICO).tag("metodo", "validar").tag("excecao", "RegraNegocioException").timer().count())
+				.isEqualTo(1);
+	}
+	
+	@Test
+	public void deveRemoverAParteVariavelDaMensagemNaChave() {
+		// Ação / Verificação
+		Assertions.assertThat(MetricasAspect.chave("Extrato inválido: linha 3 sem valor")).isEqualTo("Extrato inválido");
+		Assertions.assertThat(MetricasAspect.chave("Usuário não encontrado.")).isEqualTo("Usuário não encontrado.");
+	}
+
+}
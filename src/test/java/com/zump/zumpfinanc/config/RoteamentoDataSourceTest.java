@@ -0,0 +1,154 @@
+package com.zump.zumpfinanc.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.zump.zumpfinanc.api.filtro.JwtFilter;
+import com.zump.zumpfinanc.service.UsuarioAutenticado;
+
+public class RoteamentoDataSourceTest { // Testes Unitários, sem contexto: duas bases H2 em memória fazem o papel de primária e réplica
+
+	static final String CONSULTA_ATRASO = "SELECT segundos FROM atraso";
+
+	JdbcTemplate replica = new JdbcTemplate(criarBase("roteamento_replica"));
+	DataSource primaria = criarBase("roteamento_primaria");
+
+	@BeforeEach
+	public void setUp() {
+		replica.execute("CREATE TABLE IF NOT EXISTS atraso (segundos DECIMAL(10, 3))");
+		replica.execute("DELETE FROM atraso");
+		replica.update("INSERT INTO atraso VALUES (0)");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void deveLerDaReplicaNasTransacoesReadOnlyEGravarNaPrimaria() {
+		// Cenário
+		RoteamentoDataSource roteamento = criarRoteamento(replica.getDataSource());
+
+		// Ação/Execução
+		String leitura = consultarBase(roteamento, true);
+		String escrita = consultarBase(roteamento, false);
+
+		// Verificação
+		Assertions.assertThat(leitura).isEqualToIgnoringCase("roteamento_replica");
+		Assertions.assertThat(escrita).isEqualToIgnoringCase("roteamento_primaria");
+	}
+
+	@Test
+	public void deveLerDaPrimariaEnquantoAReplicaEstiverAtrasada() {
+		// Cenário
+		RoteamentoDataSource roteamento = criarRoteamento(replica.getDataSource());
+		replica.update("UPDATE atraso SET segundos = 2.5"); // Acima do máximo de 1 segundo
+
+		// Ação/Execução
+		roteamento.verificarReplicas();
+		String atrasada = consultarBase(roteamento, true);
+		replica.update("UPDATE atraso SET segundos = 0.2");
+		roteamento.verificarReplicas();
+		String emDia = consultarBase(roteamento, true);
+
+		// Verificação
+		Assertions.assertThat(atrasada).isEqualToIgnoringCase("roteamento_primaria");
+		Assertions.assertThat(emDia).isEqualToIgnoringCase("roteamento_replica");
+		Assertions.assertThat(roteamento.getReplicas().get(0).getAtrasoMs()).isEqualTo(200l);
+	}
+
+	@Test
+	public void deveTirarDoRodizioAReplicaForaDoAr() {
+		// Cenário
+		JdbcDataSource foraDoAr = new JdbcDataSource();
+		foraDoAr.setURL("jdbc:h2:mem:roteamento_inexistente;IFEXISTS=TRUE");
+		RoteamentoDataSource roteamento = criarRoteamento(foraDoAr, replica.getDataSource());
+
+		// Ação/Execução
+		String primeira = consultarBase(roteamento, true);
+		String segunda = consultarBase(roteamento, true);
+
+		// Verificação
+		Assertions.assertThat(roteamento.getReplicas().get(0).isDisponivel()).isFalse();
+		Assertions.assertThat(roteamento.getReplicas().get(0).getAtrasoMs()).isEqualTo(-1l);
+		Assertions.assertThat(primeira).isEqualToIgnoringCase("roteamento_replica");
+		Assertions.assertThat(segunda).isEqualToIgnoringCase("roteamento_replica");
+	}
+
+	@Test
+	public void deveLerDaPrimariaDepoisDeGravarNaMesmaSessao() {
+		// Cenário
+		RoteamentoDataSource roteamento = criarRoteamento(replica.getDataSource());
+		autenticar(1l);
+		consultarBase(roteamento, false);
+
+		// Ação/Execução
+		String mesmoUsuario = consultarBase(roteamento, true);
+		autenticar(2l);
+		String outroUsuario = consultarBase(roteamento, true);
+
+		// Verificação
+		Assertions.assertThat(mesmoUsuario).isEqualToIgnoringCase("roteamento_primaria");
+		Assertions.assertThat(outroUsuario).isEqualToIgnoringCase("roteamento_replica");
+	}
+
+	@Test
+	public void deveLerDaPrimariaAsLeiturasQueAlimentamCache() {
+		// Cenário
+		RoteamentoDataSource roteamento = criarRoteamento(replica.getDataSource());
+
+		// Ação/Execução
+		String paraCache = RoteamentoDataSource.lerDaPrimaria(() -> consultarBase(roteamento, true));
+		String depois = consultarBase(roteamento, true);
+
+		// Verificação
+		Assertions.assertThat(paraCache).isEqualToIgnoringCase("roteamento_primaria");
+		Assertions.assertThat(depois).isEqualToIgnoringCase("roteamento_replica");
+	}
+
+	private RoteamentoDataSource criarRoteamento(DataSource... replicas) {
+		RoteamentoDataSource.Replica[] lista = new RoteamentoDataSource.Replica[replicas.length];
+		for(int i = 0; i < replicas.length; i++) {
+			lista[i] = new RoteamentoDataSource.Replica("replica-" + i, replicas[i]);
+		}
+		return new RoteamentoDataSource(primaria, Arrays.asList(lista), CONSULTA_ATRASO, 1000, Duration.ofMinutes(1));
+	}
+
+	// Como no ReplicaConfig: o gerenciador de transações recebe o proxy, que só pede a conexão no primeiro comando
+	private static String consultarBase(RoteamentoDataSource roteamento, boolean readOnly) {
+		DataSource dataSource = new LazyConnectionDataSourceProxy(roteamento);
+		TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transacao.setReadOnly(readOnly);
+		return transacao.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+	}
+
+	private static void autenticar(Long idUsuario) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(JwtFilter.USUARIO_AUTENTICADO, new UsuarioAutenticado(idUsuario, "usuario@email.com", "usuario", Instant.now().plusSeconds(600)));
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	private static DataSource criarBase(String nome) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1");
+		return dataSource;
+	}
+
+}
@@ -0,0 +1,65 @@
+package com.zump.zumpfinanc.model.entity;
+
+import java.math.BigDecimal;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DinheiroTest { // Testes Unitários, sem contexto
+
+	@Test
+	public void deveConverterOValorDaApiEmCentavosEVoltar() {
+		// Ação/Execução
+		Dinheiro dinheiro = Dinheiro.de(new BigDecimal("1234.5"));
+
+		// Verificação
+		Assertions.assertThat(dinheiro.getCentavos()).isEqualTo(123450l);
+		Assertions.assertThat(dinheiro.getMoeda()).isEqualTo("BRL");
+		Assertions.assertThat(dinheiro.toBigDecimal()).isEqualTo(new BigDecimal("1234.50"));
+	}
+
+	@Test
+	public void deveUsarAsCasasDecimaisDaMoeda() {
+		// Ação/Execução
+		Dinheiro iene = Dinheiro.de(new BigDecimal("1500"), "JPY");
+		Dinheiro dinar = Dinheiro.de(new BigDecimal("1.5"), "KWD");
+
+		// Verificação
+		Assertions.assertThat(iene.getCentavos()).isEqualTo(1500l);
+		Assertions.assertThat(dinar.getCentavos()).isEqualTo(1500l);
+		Assertions.assertThat(dinar.toBigDecimal()).isEqualTo(new BigDecimal("1.500"));
+	}
+
+	@Test
+	public void naoDeveArredondarFracaoDeCentavo() {
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> Dinheiro.de(new BigDecimal("10.005")));
+
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(IllegalArgumentException.class);
+		Assertions.assertThat(Dinheiro.de(new BigDecimal("10.000")).getCentavos()).isEqualTo(1000l);
+	}
+
+	@Test
+	public void deveLancarErroQuandoOValorNaoCabeEmCentavos() {
+		// Ação/Execução
+		Throwable conversao = Assertions.catchThrowable(() -> Dinheiro.de(BigDecimal.valueOf(Long.MAX_VALUE)));
+		Throwable soma = Assertions.catchThrowable(() -> Dinheiro.deCentavos(Long.MAX_VALUE).somar(Dinheiro.deCentavos(1)));
+
+		// Verificação
+		Assertions.assertThat(conversao).isInstanceOf(IllegalArgumentException.class);
+		Assertions.assertThat(soma).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	public void deveLancarErroAoSomarMoedasDiferentes() {
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> Dinheiro.deCentavos(100).somar(Dinheiro.deCentavos(100, "USD")));
+		Throwable moedaInvalida = Assertions.catchThrowable(() -> Dinheiro.de(BigDecimal.ONE, "XYZ"));
+
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(IllegalArgumentException.class);
+		Assertions.assertThat(moedaInvalida).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
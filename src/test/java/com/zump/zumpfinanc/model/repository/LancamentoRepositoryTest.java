@@ -15,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.zump.zumpfinanc.model.entity.Dinheiro;
 import com.zump.zumpfinanc.model.entity.Lancamento;
 import com.zump.zumpfinanc.model.enums.StatusLancamento;
 import com.zump.zumpfinanc.model.enums.TipoLancamento;
@@ -93,7 +94,7 @@ public class LancamentoRepositoryTest {
 	}
 	
 	public static Lancamento criarLancamento() {
-		return Lancamento.builder().ano(2022).mes(1).descricao("lancamento qualquer").valor(BigDecimal.valueOf(10)).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).dataCadastro(LocalDate.now()).build();
+		return Lancamento.builder().ano(2022).mes(1).descricao("lancamento qualquer").valor(Dinheiro.de(BigDecimal.valueOf(10))).tipo(TipoLancamento.RECEITA).status(StatusLancamento.PENDENTE).dataCadastro(LocalDate.now()).build();
 	}
 	
 	private Lancamento criarEPersistirUmLancamento() {
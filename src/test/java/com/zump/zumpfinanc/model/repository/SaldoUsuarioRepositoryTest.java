@@ -0,0 +1,38 @@
+package com.zump.zumpfinanc.model.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest // Contexto completo: o savepoint usa a conexão da transação do JpaTransactionManager
+@Transactional // Desfaz os dados de cada teste
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class SaldoUsuarioRepositoryTest { // Teste de Integração - Teste que utiliza BD
+	
+	@Autowired
+	SaldoUsuarioRepository repository;
+	
+	@Test
+	public void deveContinuarATransacaoQuandoOSaldoJaFoiGravadoPorOutraTransacao() {
+		// Cenário
+		boolean primeira = repository.inserirSeAusente(1l, 1000l);
+		
+		// Ação/Execução
+		boolean segunda = repository.inserirSeAusente(1l, 5000l); // Chave duplicada: volta ao savepoint
+		int acumulados = repository.acumular(1l, 200l);
+		
+		// Verificação
+		assertThat(primeira).isTrue();
+		assertThat(segunda).isFalse();
+		assertThat(acumulados).isEqualTo(1);
+		assertThat(repository.findById(1l).get().getValorCentavos()).isEqualTo(1200l);
+	}
+
+}
@@ -0,0 +1,139 @@
+package com.zump.zumpfinanc.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zump.zumpfinanc.config.ConsultasExecutadas;
+import com.zump.zumpfinanc.config.LimiteConsultas;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.TotalMensal;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.ResumoMensalRepository;
+
+@SpringBootTest // Contexto completo: o UPDATE em lote e os ajustes do saldo e do resumo rodam na base
+@Transactional // Desfaz os dados de cada teste
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class AtualizacaoStatusLoteTest {
+
+	@Autowired
+	LancamentoService service;
+
+	@Autowired
+	SaldoService saldoService;
+
+	@Autowired
+	LancamentoRepository repository;
+
+	@Autowired
+	ResumoMensalRepository resumoRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void deveEfetivarOsPendentesDoMesEmUmUnicoUpdateMantendoSaldoEResumo() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		salvar(usuario, TipoLancamento.RECEITA, 1, 10000);
+		salvar(usuario, TipoLancamento.RECEITA, 1, 20000);
+		salvar(usuario, TipoLancamento.DESPESA, 1, 5000);
+		salvar(usuario, TipoLancamento.RECEITA, 2, 99900); // Outro mês: fica pendente
+		Lancamento cancelado = salvar(usuario, TipoLancamento.DESPESA, 1, 700);
+		service.atualizarStatus(cancelado, StatusLancamento.CANCELADO, null);
+		entityManager.flush();
+
+		// Ação/Execução
+		ResultadoAtualizacaoStatus[] resultado = new ResultadoAtualizacaoStatus[1];
+		ConsultasExecutadas consultas = LimiteConsultas.contar(() -> resultado[0] = service.atualizarStatusEmLote(usuario.getId(), null, 2023, 1, StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO));
+		entityManager.flush();
+
+		// Verificação
+		Assertions.assertThat(resultado[0].getAtualizados()).isEqualTo(3);
+		Assertions.assertThat(resultado[0].getPorStatusAnterior()).containsOnlyKeys(StatusLancamento.PENDENTE);
+		Assertions.assertThat(consultas.getQuantidadePorAssinatura().entrySet().stream().filter(comando -> comando.getKey().startsWith("update financas.lancamento")))
+			.hasSize(1).allMatch(comando -> comando.getValue() == 1);
+
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualTo(25000l).isEqualTo(saldoService.calcularSaldo(usuario.getId()));
+		Assertions.assertThat(descrever(resumoRepository.obterTotais(usuario.getId(), 2023))).isEqualTo(descrever(repository.obterTotaisMensais(usuario.getId(), 2023)));
+		Assertions.assertThat(repository.findById(cancelado.getId()).get().getStatus()).isEqualTo(StatusLancamento.CANCELADO);
+	}
+
+	@Test
+	public void deveAtualizarSoOsIdsDoProprioUsuario() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		Usuario outroUsuario = Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build();
+		entityManager.persist(outroUsuario);
+		Lancamento proprio = salvar(usuario, TipoLancamento.RECEITA, 1, 10000);
+		Lancamento deOutro = salvar(outroUsuario, TipoLancamento.RECEITA, 1, 10000);
+		entityManager.flush();
+
+		// Ação/Execução
+		ResultadoAtualizacaoStatus resultado = service.atualizarStatusEmLote(usuario.getId(), Arrays.asList(proprio.getId(), deOutro.getId()), null, null, null, StatusLancamento.EFETIVADO);
+
+		// Verificação
+		Assertions.assertThat(resultado.getAtualizados()).isEqualTo(1);
+		Assertions.assertThat(repository.findById(deOutro.getId()).get().getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Assertions.assertThat(repository.findById(proprio.getId()).get().getVersao()).isEqualTo(1l);
+		Assertions.assertThat(saldoService.obterSaldo(outroUsuario.getId())).isEqualTo(0l);
+	}
+
+	@Test
+	public void deveAtualizarUmLancamentoGravadoSemAVersao() {
+		// Cenário: INSERT direto, sem a coluna versao, como os de carga em massa
+		Usuario usuario = persistirUsuario();
+		entityManager.flush();
+		long id = 900000001l;
+		jdbcTemplate.update("INSERT INTO financas.lancamento (id, descricao, descricao_busca, mes, ano, id_usuario, valor_centavos, moeda, data_cadastro, tipo, status) "
+				+ "VALUES (?, 'carga', 'carga', 1, 2023, ?, 10000, 'BRL', ?, 'RECEITA', 'PENDENTE')", id, usuario.getId(), Date.valueOf(LocalDate.now()));
+
+		// Ação/Execução
+		Lancamento lancamento = repository.findById(id).get();
+		service.atualizarStatus(lancamento, StatusLancamento.EFETIVADO, 0l);
+		lancamento.setDescricao("carga atualizada");
+		service.atualizar(lancamento);
+
+		// Verificação
+		Assertions.assertThat(jdbcTemplate.queryForObject("SELECT versao FROM financas.lancamento WHERE id = ?", Long.class, id)).isEqualTo(2l);
+		Assertions.assertThat(jdbcTemplate.queryForObject("SELECT status FROM financas.lancamento WHERE id = ?", String.class, id)).isEqualTo("EFETIVADO");
+	}
+
+	private Lancamento salvar(Usuario usuario, TipoLancamento tipo, int mes, long centavos) {
+		return service.salvar(Lancamento.builder().descricao("lancamento").usuario(usuario).tipo(tipo).ano(2023).mes(mes).valor(Dinheiro.deCentavos(centavos)).build());
+	}
+
+	private Usuario persistirUsuario() {
+		Usuario usuario = Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build();
+		entityManager.persist(usuario);
+		return usuario;
+	}
+
+	private static List<String> descrever(List<TotalMensal> totais) {
+		return totais.stream().map(total -> total.getMes() + " " + total.getTipo() + " " + total.getStatus() + " " + total.getTotalCentavos() + " " + total.getQuantidade())
+				.sorted().collect(Collectors.toList());
+	}
+
+}
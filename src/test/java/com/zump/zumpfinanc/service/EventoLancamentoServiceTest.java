@@ -0,0 +1,194 @@
+package com.zump.zumpfinanc.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.h2.util.DateTimeUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.EventoLancamento;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.SnapshotSaldo;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.repository.SnapshotSaldoRepository;
+
+@SpringBootTest // Contexto completo: os eventos são gravados em JDBC na transação do lançamento
+@Transactional // Desfaz os dados de cada teste
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class EventoLancamentoServiceTest {
+
+	@Autowired
+	EventoLancamentoService service;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	SaldoService saldoService;
+
+	@Autowired
+	SnapshotSaldoRepository snapshotRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	public void deveRegistrarUmEventoPorAlteracaoComAVariacaoDoSaldo() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		Lancamento lancamento = salvar(usuario, TipoLancamento.RECEITA, 10000);
+
+		// Ação/Execução
+		lancamentoService.atualizarStatus(lancamento, StatusLancamento.EFETIVADO, null);
+		lancamento.setValor(Dinheiro.deCentavos(15000));
+		lancamentoService.atualizar(lancamento);
+		lancamentoService.deletar(lancamento);
+
+		// Verificação
+		List<EventoLancamento> eventos = eventos(usuario);
+		Assertions.assertThat(eventos).extracting(EventoLancamento::getTipo)
+			.containsExactly(TipoEvento.CRIADO, TipoEvento.STATUS_ALTERADO, TipoEvento.ATUALIZADO, TipoEvento.EXCLUIDO);
+		Assertions.assertThat(eventos).extracting(EventoLancamento::getDeltaSaldoCentavos).containsExactly(0l, 10000l, 5000l, -15000l);
+		Assertions.assertThat(eventos).extracting(EventoLancamento::getVersao).containsExactly(0l, 1l, 2l, 2l);
+		Assertions.assertThat(eventos).allMatch(evento -> lancamento.getId().equals(evento.getIdLancamento()));
+		Assertions.assertThat(eventos.get(1).getDados()).isEqualTo("{\"status\":\"EFETIVADO\",\"statusAnterior\":\"PENDENTE\"}");
+		Assertions.assertThat(eventos.get(2).getDados()).contains("\"valorCentavos\":15000").contains("\"descricao\":\"lancamento\"");
+	}
+
+	@Test
+	public void deveRegistrarUmEventoPorLancamentoNaAtualizacaoEmLote() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		salvar(usuario, TipoLancamento.RECEITA, 10000);
+		salvar(usuario, TipoLancamento.RECEITA, 20000);
+		salvar(usuario, TipoLancamento.DESPESA, 5000);
+		entityManager.flush();
+
+		// Ação/Execução
+		lancamentoService.atualizarStatusEmLote(usuario.getId(), null, 2023, null, null, StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatusEmLote(usuario.getId(), null, 2023, null, StatusLancamento.EFETIVADO, StatusLancamento.CANCELADO);
+
+		// Verificação
+		List<EventoLancamento> eventos = eventos(usuario).subList(3, 9);
+		Assertions.assertThat(eventos).allMatch(evento -> evento.getTipo() == TipoEvento.STATUS_ALTERADO);
+		Assertions.assertThat(eventos).extracting(EventoLancamento::getDeltaSaldoCentavos).containsExactlyInAnyOrder(10000l, 20000l, -5000l, -10000l, -20000l, 5000l);
+		Assertions.assertThat(eventos.subList(3, 6)).extracting(EventoLancamento::getDados)
+			.containsOnly("{\"status\":\"CANCELADO\",\"statusAnterior\":\"EFETIVADO\"}");
+		Assertions.assertThat(eventos.subList(3, 6)).extracting(EventoLancamento::getVersao).containsOnly(2l);
+	}
+
+	@Test
+	public void deveObterOSaldoEmUmInstantePeloSnapshotMaisOsEventosSeguintes() throws InterruptedException {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		lancamentoService.atualizarStatus(salvar(usuario, TipoLancamento.RECEITA, 10000), StatusLancamento.EFETIVADO, null);
+		Instant antesDaDespesa = depoisDeUmIntervalo();
+		lancamentoService.atualizarStatus(salvar(usuario, TipoLancamento.DESPESA, 3000), StatusLancamento.EFETIVADO, null);
+		Instant agora = depoisDeUmIntervalo();
+
+		// Ação/Execução
+		service.registrarSnapshots(antesDaDespesa);
+		SnapshotSaldo snapshot = snapshotRepository.obterAte(usuario.getId(), agora, PageRequest.of(0, 1)).get(0);
+
+		// Verificação
+		Assertions.assertThat(snapshot.getAte()).isEqualTo(antesDaDespesa);
+		Assertions.assertThat(snapshot.getValorCentavos()).isEqualTo(10000l);
+		Assertions.assertThat(service.obterSaldoEm(usuario.getId(), antesDaDespesa)).isEqualTo(10000l);
+		Assertions.assertThat(service.obterSaldoEm(usuario.getId(), agora)).isEqualTo(7000l).isEqualTo(saldoService.calcularSaldo(usuario.getId()));
+
+		// O saldo parte do snapshot: alterado o snapshot, muda o saldo dali em diante
+		snapshot.setValorCentavos(10100l);
+		snapshotRepository.saveAndFlush(snapshot);
+		Assertions.assertThat(service.obterSaldoEm(usuario.getId(), agora)).isEqualTo(7100l);
+	}
+
+	@Test
+	public void naoDeveObterOSaldoAntesDoSnapshotInicial() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		Instant migracao = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		snapshotRepository.save(SnapshotSaldo.builder().idUsuario(usuario.getId()).ate(migracao).valorCentavos(50000l).inicial(true).build());
+
+		// Ação/Execução e Verificação
+		Assertions.assertThatThrownBy(() -> service.obterSaldoEm(usuario.getId(), migracao.minus(1, ChronoUnit.DAYS))).isInstanceOf(RegraNegocioException.class);
+		Assertions.assertThat(service.obterSaldoEm(usuario.getId(), migracao.plusSeconds(1))).isEqualTo(50000l);
+	}
+
+	@Test
+	public void deveGravarOsInstantesEmUTCQualquerQueSejaOFusoDaJvm() {
+		// Cenário
+		TimeZone fusoOriginal = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+		DateTimeUtils.resetCalendar(); // O H2 guarda o fuso da JVM da primeira conversão
+		try {
+			Usuario usuario = persistirUsuario();
+			Instant ate = Instant.parse("2026-03-08T02:30:00Z"); // 02:30 não existe no horário local de Nova York nesse dia
+
+			// Ação/Execução
+			Lancamento lancamento = salvar(usuario, TipoLancamento.RECEITA, 10000);
+			snapshotRepository.saveAndFlush(SnapshotSaldo.builder().idUsuario(usuario.getId()).ate(ate).valorCentavos(0l).inicial(false).build());
+
+			// Verificação
+			LocalDateTime ocorridoEm = jdbcTemplate.queryForObject("SELECT ocorrido_em FROM financas.evento_lancamento WHERE id_lancamento = ?", LocalDateTime.class, lancamento.getId());
+			LocalDateTime ateGravado = jdbcTemplate.queryForObject("SELECT ate FROM financas.snapshot_saldo WHERE id_usuario = ?", LocalDateTime.class, usuario.getId());
+			Assertions.assertThat(ateGravado).isEqualTo(LocalDateTime.of(2026, 3, 8, 2, 30));
+			Assertions.assertThat(Duration.between(ocorridoEm, LocalDateTime.now(ZoneOffset.UTC)).abs()).isLessThan(Duration.ofMinutes(1));
+			Assertions.assertThat(eventos(usuario).get(0).getOcorridoEm()).isEqualTo(ocorridoEm.toInstant(ZoneOffset.UTC));
+			Assertions.assertThat(snapshotRepository.obterAte(usuario.getId(), ate, PageRequest.of(0, 1))).extracting(SnapshotSaldo::getAte).containsExactly(ate);
+		} finally {
+			TimeZone.setDefault(fusoOriginal);
+			DateTimeUtils.resetCalendar();
+		}
+	}
+
+	private List<EventoLancamento> eventos(Usuario usuario) {
+		List<EventoLancamento> eventos = new ArrayList<>();
+		service.percorrer(usuario.getId(), null, null, eventos::add);
+		return eventos;
+	}
+
+	// Um instante entre duas alterações, sem coincidir com o horário de nenhum evento
+	private static Instant depoisDeUmIntervalo() throws InterruptedException {
+		Thread.sleep(10);
+		Instant instante = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+		Thread.sleep(10);
+		return instante;
+	}
+
+	private Lancamento salvar(Usuario usuario, TipoLancamento tipo, long centavos) {
+		return lancamentoService.salvar(Lancamento.builder().descricao("lancamento").usuario(usuario).tipo(tipo).ano(2023).mes(1).valor(Dinheiro.deCentavos(centavos)).build());
+	}
+
+	private Usuario persistirUsuario() {
+		Usuario usuario = Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build();
+		entityManager.persist(usuario);
+		return usuario;
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.zump.zumpfinanc.service;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.service.extrato.FormatoExtrato;
+import com.zump.zumpfinanc.service.impl.ExtratoServiceImpl;
+
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ExtratoServiceTest {
+	
+	@SpyBean
+	ExtratoServiceImpl service;
+	
+	@MockBean
+	ImportacaoLancamentoService importacaoService;
+	
+	List<LinhaImportacao> linhasRecebidas = new ArrayList<>();
+	
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		Mockito.when(importacaoService.importar(Mockito.any())).thenAnswer(invocacao -> {
+			((Iterator<LinhaImportacao>) invocacao.getArgument(0)).forEachRemaining(linhasRecebidas::add);
+			return new ResultadoImportacao();
+		});
+	}
+	
+	@Test
+	public void deveConverterAsTransacoesDeUmExtratoCsv() {
+		// Cenário
+		String csv = "\uFEFFData;Descrição;Valor\n"
+				+ "05/03/2020;\"Mercado; filial 2\";-1.234,56\n"
+				+ "06/03/2020;Salário;R$ 5.000,00\n"
+				+ "data-invalida;Padaria;-10,00\n";
+		
+		// Ação/Execução
+		service.importar(1l, FormatoExtrato.CSV, StandardCharsets.UTF_8, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+		
+		// Verificação
+		Assertions.assertThat(linhasRecebidas).hasSize(3);
+		
+		Lancamento despesa = linhasRecebidas.get(0).getLancamento();
+		Assertions.assertThat(despesa.getDescricao()).isEqualTo("Mercado; filial 2");
+		Assertions.assertThat(despesa.getValor().toBigDecimal()).isEqualByComparingTo(new BigDecimal("1234.56"));
+		Assertions.assertThat(despesa.getTipo()).isEqualTo(TipoLancamento.DESPESA);
+		Assertions.assertThat(despesa.getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+		Assertions.assertThat(despesa.getDataCadastro()).isEqualTo(LocalDate.of(2020, 3, 5));
+		Assertions.assertThat(despesa.getUsuario().getId()).isEqualTo(1l);
+		
+		Assertions.assertThat(linhasRecebidas.get(1).getLancamento().getTipo()).isEqualTo(TipoLancamento.RECEITA);
+		Assertions.assertThat(linhasRecebidas.get(2).getErro()).isNotNull();
+		Assertions.assertThat(linhasRecebidas.get(2).getNumero()).isEqualTo(4);
+	}
+	
+	@Test
+	public void deveConverterAsTransacoesDeUmExtratoOfx() {
+		// Cenário
+		String ofx = "OFXHEADER:100\nDATA:OFXSGML\n\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+				+ "<STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20200305120000[-3:BRT]<TRNAMT>-45.90<FITID>abc1<MEMO>Farmácia</STMTTRN>\n"
+				+ "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20200306<TRNAMT>100.00<FITID>abc2<NAME>Pix recebido</STMTTRN>\n"
+				+ "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+		
+		// Ação/Execução
+		service.importar(1l, FormatoExtrato.OFX, StandardCharsets.UTF_8, new ByteArrayInputStream(ofx.getBytes(StandardCharsets.UTF_8)));
+		
+		// Verificação
+		Assertions.assertThat(linhasRecebidas).hasSize(2);
+		Lancamento despesa = linhasRecebidas.get(0).getLancamento();
+		Assertions.assertThat(despesa.getDescricao()).isEqualTo("Farmácia");
+		Assertions.assertThat(despesa.getValor().toBigDecimal()).isEqualByComparingTo(new BigDecimal("45.90"));
+		Assertions.assertThat(despesa.getMes()).isEqualTo(3);
+		Assertions.assertThat(linhasRecebidas.get(1).getLancamento().getDescricao()).isEqualTo("Pix recebido");
+	}
+	
+	@Test
+	public void deveGerarOMesmoHashParaOMesmoConteudoEHashesDiferentesParaTransacoesRepetidasNoDia() {
+		// Cenário
+		String csv = "data,descricao,valor\n2020-03-05,Café,-5.00\n2020-03-05,Café,-5.00\n";
+		
+		// Ação/Execução
+		service.importar(1l, FormatoExtrato.CSV, StandardCharsets.UTF_8, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+		service.importar(1l, FormatoExtrato.CSV, StandardCharsets.UTF_8, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+		
+		// Verificação
+		Assertions.assertThat(linhasRecebidas).hasSize(4);
+		String primeiroCafe = linhasRecebidas.get(0).getLancamento().getHashConteudo();
+		String segundoCafe = linhasRecebidas.get(1).getLancamento().getHashConteudo();
+		Assertions.assertThat(primeiroCafe).isNotEqualTo(segundoCafe);
+		Assertions.assertThat(linhasRecebidas.get(2).getLancamento().getHashConteudo()).isEqualTo(primeiroCafe);
+		Assertions.assertThat(linhasRecebidas.get(3).getLancamento().getHashConteudo()).isEqualTo(segundoCafe);
+	}
+
+}
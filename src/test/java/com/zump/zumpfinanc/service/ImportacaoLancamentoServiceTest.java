@@ -0,0 +1,145 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoRepositoryTest;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.impl.ImportacaoLancamentoServiceImpl;
+
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ImportacaoLancamentoServiceTest {
+	
+	@SpyBean
+	ImportacaoLancamentoServiceImpl service;
+	
+	@MockBean
+	LancamentoRepository repository;
+	
+	@MockBean
+	UsuarioRepository usuarioRepository;
+	
+	@MockBean
+	LancamentoService lancamentoService;
+	
+	@MockBean
+	SaldoService saldoService;
+	
+	@MockBean
+	ResumoService resumoService;
+	
+	@MockBean
+	ParticaoLancamentoService particaoService;
+	
+	@MockBean
+	EventoLancamentoService eventoService;
+	
+	@MockBean
+	EntityManager entityManager;
+	
+	@MockBean
+	PlatformTransactionManager transactionManager;
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveImportarAsLinhasValidasEReportarAsInvalidas() {
+		// Cenário
+		Lancamento valido = criarLancamentoDoUsuario(1l);
+		Lancamento reprovadoNaValidacao = criarLancamentoDoUsuario(1l);
+		reprovadoNaValidacao.setDescricao("reprovado");
+		Lancamento deUsuarioInexistente = criarLancamentoDoUsuario(2l);
+		
+		Mockito.doThrow(new RegraNegocioException("Informe um Valor válido.")).when(lancamentoService).validar(reprovadoNaValidacao);
+		Mockito.when(usuarioRepository.obterIdsExistentes(Mockito.anyCollection())).thenReturn(Collections.singletonList(1l));
+		
+		List<LinhaImportacao> linhas = Arrays.asList(LinhaImportacao.valida(1, valido), LinhaImportacao.valida(2, reprovadoNaValidacao), 
+				LinhaImportacao.valida(3, deUsuarioInexistente), LinhaImportacao.invalida(4, "Tipo ou Status de Lançamento inválido."));
+		
+		// Ação/Execução
+		ResultadoImportacao resultado = service.importar(linhas.iterator());
+		
+		// Verificação
+		Assertions.assertThat(resultado.getImportados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getRejeitados()).isEqualTo(3);
+		Assertions.assertThat(resultado.getErros()).extracting(ResultadoImportacao.ErroImportacao::getLinha).containsExactly(2, 3, 4);
+		
+		ArgumentCaptor<Iterable<Lancamento>> salvos = ArgumentCaptor.forClass(Iterable.class);
+		Mockito.verify(repository).saveAll(salvos.capture());
+		Assertions.assertThat(salvos.getValue()).containsExactly(valido);
+		Assertions.assertThat(valido.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+	}
+	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deveConsultarOsUsuariosUmaVezPorLote() {
+		// Cenário
+		Mockito.when(usuarioRepository.obterIdsExistentes(Mockito.anyCollection())).thenReturn(Collections.singletonList(1l));
+		List<LinhaImportacao> linhas = Arrays.asList(LinhaImportacao.valida(1, criarLancamentoDoUsuario(1l)), LinhaImportacao.valida(2, criarLancamentoDoUsuario(1l)), 
+				LinhaImportacao.valida(3, criarLancamentoDoUsuario(1l)));
+		
+		// Ação/Execução
+		service.importar(linhas.iterator());
+		
+		// Verificação
+		ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+		Mockito.verify(usuarioRepository, Mockito.times(1)).obterIdsExistentes(ids.capture());
+		Assertions.assertThat(ids.getValue()).containsExactly(1l);
+		Mockito.verify(usuarioRepository, Mockito.never()).findById(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveIgnorarLancamentosDeExtratoJaImportados() {
+		// Cenário
+		Lancamento jaImportado = criarLancamentoDoUsuario(1l);
+		jaImportado.setHashConteudo("a1");
+		Lancamento novo = criarLancamentoDoUsuario(1l);
+		novo.setDescricao("novo");
+		novo.setHashConteudo("b2");
+		Lancamento repetidoNoArquivo = criarLancamentoDoUsuario(1l);
+		repetidoNoArquivo.setDescricao("repetido");
+		repetidoNoArquivo.setHashConteudo("b2");
+		
+		Mockito.when(usuarioRepository.obterIdsExistentes(Mockito.anyCollection())).thenReturn(Collections.singletonList(1l));
+		Mockito.when(repository.obterHashesExistentes(Mockito.eq(1l), Mockito.anyCollection())).thenReturn(Collections.singletonList("a1"));
+		
+		List<LinhaImportacao> linhas = Arrays.asList(LinhaImportacao.valida(1, jaImportado), LinhaImportacao.valida(2, novo), 
+				LinhaImportacao.valida(3, repetidoNoArquivo));
+		
+		// Ação/Execução
+		ResultadoImportacao resultado = service.importar(linhas.iterator());
+		
+		// Verificação
+		Assertions.assertThat(resultado.getImportados()).isEqualTo(1);
+		Assertions.assertThat(resultado.getDuplicados()).isEqualTo(2);
+		Assertions.assertThat(resultado.getRejeitados()).isZero();
+	}
+	
+	private static Lancamento criarLancamentoDoUsuario(Long idUsuario) {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setStatus(null);
+		lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+		return lancamento;
+	}
+
+}
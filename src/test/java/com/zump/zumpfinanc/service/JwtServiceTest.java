@@ -0,0 +1,79 @@
+package com.zump.zumpfinanc.service;
+
+import java.time.Instant;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.zump.zumpfinanc.exception.ErroAutenticacao;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.service.impl.JwtServiceImpl;
+
+public class JwtServiceTest { // Testes Unitários, sem contexto: o serviço só depende da chave e dos limites
+	
+	static final String CHAVE = "chave-de-teste-com-pelo-menos-32-bytes";
+	
+	JwtServiceImpl service = new JwtServiceImpl(CHAVE, 30, 100);
+	
+	@Test
+	public void deveGerarUmTokenComOIdDoUsuario() {
+		// Cenário
+		Usuario usuario = UsuarioServiceTest.criarUsuario();
+		
+		// Ação/Execução
+		String token = service.gerarToken(usuario);
+		UsuarioAutenticado usuarioAutenticado = service.obterUsuarioAutenticado(token);
+		
+		// Verificação
+		Assertions.assertThat(usuarioAutenticado.getId()).isEqualTo(1l);
+		Assertions.assertThat(usuarioAutenticado.getEmail()).isEqualTo("usuario@email.com");
+		Assertions.assertThat(usuarioAutenticado.getExpiracao()).isAfter(Instant.now());
+	}
+	
+	@Test
+	public void deveReaproveitarOUsuarioDeUmTokenJaVerificado() {
+		// Cenário
+		String token = service.gerarToken(UsuarioServiceTest.criarUsuario());
+		
+		// Ação/Execução
+		UsuarioAutenticado primeiraVerificacao = service.obterUsuarioAutenticado(token);
+		UsuarioAutenticado segundaVerificacao = service.obterUsuarioAutenticado(token);
+		
+		// Verificação
+		Assertions.assertThat(segundaVerificacao).isSameAs(primeiraVerificacao);
+	}
+	
+	@Test
+	public void deveRecusarTokenAssinadoComOutraChave() {
+		// Cenário
+		String token = new JwtServiceImpl("outra-chave-de-teste-com-mais-de-32-bytes", 30, 100).gerarToken(UsuarioServiceTest.criarUsuario());
+		
+		// Ação/Execução
+		Throwable exception = Assertions.catchThrowable(() -> service.obterUsuarioAutenticado(token));
+		
+		// Verificação
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage(JwtServiceImpl.TOKEN_INVALIDO);
+	}
+	
+	@Test
+	public void deveRecusarTokenExpirado() {
+		// Cenário
+		String token = new JwtServiceImpl(CHAVE, -1, 100).gerarToken(UsuarioServiceTest.criarUsuario());
+		
+		// Ação/Execução
+		Throwable exception = Assertions.catchThrowable(() -> service.obterUsuarioAutenticado(token));
+		
+		// Verificação
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class);
+	}
+	
+	@Test
+	public void naoDeveAceitarChaveComMenosDe32Bytes() {
+		// Ação/Execução
+		Throwable exception = Assertions.catchThrowable(() -> new JwtServiceImpl("chave-curta", 30, 100));
+		
+		// Verificação
+		Assertions.assertThat(exception).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -11,14 +11,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import com.zump.zumpfinanc.exception.ErroConflito;
 import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
 import com.zump.zumpfinanc.model.entity.Lancamento;
 import com.zump.zumpfinanc.model.entity.Usuario;
 import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.LancamentoResumo;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoConsultaRepository;
 import com.zump.zumpfinanc.model.repository.LancamentoRepository;
 import com.zump.zumpfinanc.model.repository.LancamentoRepositoryTest;
 import com.zump.zumpfinanc.service.impl.LancamentoServiceImpl;
@@ -33,6 +40,21 @@ public class LancamentoServiceTest {
 	@MockBean // Simular comportamento do repository
 	LancamentoRepository repository;
 	
+	@MockBean
+	LancamentoConsultaRepository consultaRepository;
+	
+	@MockBean
+	SaldoService saldoService;
+	
+	@MockBean
+	ResumoService resumoService;
+	
+	@MockBean
+	ParticaoLancamentoService particaoService;
+	
+	@MockBean
+	EventoLancamentoService eventoService;
+	
 	@Test
 	public void deveSalvarUmLancamento() {
 		// Cenário
@@ -42,7 +64,7 @@ public class LancamentoServiceTest {
 		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
 		lancamentoSalvo.setId(1l);
 		lancamentoSalvo.setStatus(StatusLancamento.PENDENTE);
-		Mockito.when(repository.save(lancamentoASalvar)).thenReturn(lancamentoSalvo);
+		Mockito.when(repository.saveAndFlush(lancamentoASalvar)).thenReturn(lancamentoSalvo);
 		
 		// Ação/Execução
 		Lancamento lancamento = service.salvar(lancamentoASalvar);
@@ -62,7 +84,7 @@ public class LancamentoServiceTest {
 		Assertions.catchThrowableOfType(() -> service.salvar(lancamentoASalvar), RegraNegocioException.class);
 		
 		// Verificação
-		Mockito.verify(repository, Mockito.never()).save(lancamentoASalvar);
+		Mockito.verify(repository, Mockito.never()).saveAndFlush(lancamentoASalvar);
 	}
 	
 	@Test
@@ -71,15 +93,39 @@ public class LancamentoServiceTest {
 		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
 		lancamentoSalvo.setId(1l);
 		lancamentoSalvo.setStatus(StatusLancamento.PENDENTE);
+		lancamentoSalvo.setUsuario(Usuario.builder().id(1l).build());
 		Mockito.doNothing().when(service).validar(lancamentoSalvo);
 		
-		Mockito.when(repository.save(lancamentoSalvo)).thenReturn(lancamentoSalvo);
+		Mockito.when(repository.obterSituacao(1l)).thenReturn(Optional.of(new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100l, 2022, 1, 3l)));
+		Mockito.when(repository.atualizar(Mockito.eq(1l), Mockito.eq(2022), Mockito.eq(1l), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any())).thenReturn(1);
 		
 		// Ação/Execução
 		service.atualizar(lancamentoSalvo);
 		
 		// Verificação
-		Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);		
+		Mockito.verify(repository, Mockito.times(1)).atualizar(1l, 2022, 1l, "lancamento qualquer", "lancamento qualquer", 1, 2022, 1000l, "BRL", 
+				TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 3l); // Sem versão informada, vale a versão lida com a situação anterior
+		Assertions.assertThat(lancamentoSalvo.getVersao()).isEqualTo(4l);
+		Mockito.verify(repository, Mockito.never()).save(lancamentoSalvo);
+	}
+	
+	@Test
+	public void deveLancarErroAoTentarAtualizarUmLancamentoDeOutroUsuario() {
+		// Cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.setUsuario(Usuario.builder().id(2l).build());
+		Mockito.doNothing().when(service).validar(lancamento);
+		
+		Mockito.when(repository.obterSituacao(1l)).thenReturn(Optional.of(new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100l, 2022, 1)));
+		
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizar(lancamento));
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Lançamento não encontrado na base de dados.");
+		Mockito.verify(repository, Mockito.never()).atualizar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(saldoService, Mockito.never()).registrarAlteracao(Mockito.any(), Mockito.any());
 	}
 	
 	@Test
@@ -99,12 +145,29 @@ public class LancamentoServiceTest {
 		// Cenário
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1l);
+		Mockito.when(repository.obterSituacao(1l)).thenReturn(Optional.of(new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1000l, 2022, 1)));
 		
 		// Ação/Execução
 		service.deletar(lancamento);
 		
 		// Verificação
-		Mockito.verify(repository).delete(lancamento);
+		Mockito.verify(repository).excluir(1l, 2022); // Com o ano gravado: o DELETE só procura na partição do ano
+	}
+	
+	@Test
+	public void deveRegistrarNoSaldoASituacaoAnteriorAoDeletarUmLancamento() {
+		// Cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		
+		SituacaoLancamento anterior = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1000l, 2022, 1);
+		Mockito.when(repository.obterSituacao(1l)).thenReturn(Optional.of(anterior));
+		
+		// Ação/Execução
+		service.deletar(lancamento);
+		
+		// Verificação
+		Mockito.verify(saldoService).registrarAlteracao(anterior, null);
 	}
 	
 	@Test
@@ -116,23 +179,24 @@ public class LancamentoServiceTest {
 		Assertions.catchThrowableOfType(() -> service.deletar(lancamento), NullPointerException.class);
 				
 		// Verificação
-		Mockito.verify(repository, Mockito.never()).delete(lancamento);
+		Mockito.verify(repository, Mockito.never()).excluir(Mockito.any(), Mockito.any());
 	}
 	
 	@Test
 	public void deveFiltrarLancamentos() {
 		// Cenário
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
-		lancamento.setId(1l);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
 		
-		List<Lancamento> lista = Arrays.asList(lancamento);
-		Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+		LancamentoResumo resumo = new LancamentoResumo(1l, "lancamento qualquer", 1, 2022, 1l, Dinheiro.de(BigDecimal.valueOf(10)), TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+		Mockito.when(repository.buscarResumos(Mockito.any(Specification.class), Mockito.any(Sort.class))).thenReturn(Arrays.asList(resumo));
 		
 		// Ação/Execução
-		List<Lancamento> resultado = service.buscar(lancamento);
+		List<LancamentoResumo> resultado = service.buscar(lancamento);
 		
 		// Verificação
-		Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
+		Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(resumo);
+		Mockito.verify(repository, Mockito.never()).findAll(Mockito.any(Specification.class), Mockito.any(Sort.class));
 	}
 	
 	@Test
@@ -143,14 +207,56 @@ public class LancamentoServiceTest {
 		lancamento.setStatus(StatusLancamento.PENDENTE);
 		
 		StatusLancamento novoStatus = StatusLancamento.EFETIVADO;
-		Mockito.doReturn(lancamento).when(service).atualizar(lancamento); // Para não chamar o método de verdade
+		SituacaoLancamento anterior = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1000l, 2022, 1, 0l);
+		Mockito.when(repository.obterSituacao(1l)).thenReturn(Optional.of(anterior));
+		Mockito.when(repository.atualizarStatus(1l, 2022, novoStatus, 0l)).thenReturn(1);
 		
 		// Ação/Execução
-		service.atualizarStatus(lancamento, novoStatus);
+		service.atualizarStatus(lancamento, novoStatus, 0l);
 		
 		// Verificação
 		Assertions.assertThat(lancamento.getStatus()).isEqualTo(novoStatus);
-		Mockito.verify(service).atualizar(lancamento);
+		Assertions.assertThat(lancamento.getVersao()).isEqualTo(1l);
+		Mockito.verify(repository).atualizarStatus(1l, 2022, novoStatus, 0l);
+		Mockito.verify(saldoService).registrarAlteracao(anterior, new SituacaoLancamento(1l, TipoLancamento.RECEITA, novoStatus, 1000l, 2022, 1));
+		Mockito.verify(service, Mockito.never()).atualizar(lancamento);
+	}
+	
+	@Test
+	public void deveLancarErroDeConflitoQuandoAVersaoInformadaNaoForAAtual() {
+		// Cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.setUsuario(Usuario.builder().id(1l).build());
+		lancamento.setVersao(2l); // If-Match de uma leitura antiga
+		Mockito.doNothing().when(service).validar(lancamento);
+		
+		Mockito.when(repository.obterSituacao(1l)).thenReturn(Optional.of(new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100l, 2022, 1, 3l)));
+		
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizar(lancamento));
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(ErroConflito.class);
+		Mockito.verify(repository, Mockito.never()).atualizar(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+		Mockito.verify(saldoService, Mockito.never()).registrarAlteracao(Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveLancarErroDeConflitoQuandoOLancamentoForAlteradoEntreALeituraEOUpdate() {
+		// Cenário
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		
+		Mockito.when(repository.obterSituacao(1l)).thenReturn(Optional.of(new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 100l, 2022, 1, 3l)));
+		Mockito.when(repository.atualizarStatus(1l, 2022, StatusLancamento.EFETIVADO, 3l)).thenReturn(0); // Outra requisição já levou a versão a 4
+		
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatus(lancamento, StatusLancamento.EFETIVADO, null));
+		
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(ErroConflito.class);
+		Mockito.verify(saldoService, Mockito.never()).registrarAlteracao(Mockito.any(), Mockito.any());
 	}
 	
 	@Test
@@ -169,7 +275,27 @@ public class LancamentoServiceTest {
 		// Verificação
 		Assertions.assertThat(resultado.isPresent()).isTrue();
 	}
-	
+
+	@Test
+	public void naoDeveAlterarOLancamentoGuardadoEmCacheAoAlterarOObtidoPorID() {
+		// Cenário
+		Lancamento emCache = LancamentoRepositoryTest.criarLancamento();
+		emCache.setId(1l);
+		emCache.setStatus(StatusLancamento.PENDENTE);
+		emCache.setVersao(3l);
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(emCache));
+
+		// Ação/Execução
+		Lancamento obtido = service.obterPorId(1l).get();
+		obtido.setStatus(StatusLancamento.EFETIVADO);
+		obtido.setVersao(4l);
+
+		// Verificação
+		Assertions.assertThat(obtido).isNotSameAs(emCache);
+		Assertions.assertThat(emCache.getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+		Assertions.assertThat(emCache.getVersao()).isEqualTo(3l);
+	}
+
 	@Test
 	public void deveRetornarVazioQuandoOLancamentoNaoExiste() {
 		// Cenário
@@ -256,14 +382,14 @@ public class LancamentoServiceTest {
 		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Valor válido.");
 		
 		// Ação/Execução
-		lancamento.setValor(BigDecimal.ZERO);
+		lancamento.setValor(Dinheiro.de(BigDecimal.ZERO));
 		erro = Assertions.catchThrowable(() -> service.validar(lancamento));
 								
 		// Verificação
 		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Valor válido.");
 		
 		// Ação/Execução
-		lancamento.setValor(BigDecimal.valueOf(7000));
+		lancamento.setValor(Dinheiro.de(BigDecimal.valueOf(7000)));
 		erro = Assertions.catchThrowable(() -> service.validar(lancamento));
 						
 		// Verificação
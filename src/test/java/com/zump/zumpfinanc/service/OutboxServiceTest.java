@@ -0,0 +1,238 @@
+package com.zump.zumpfinanc.service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zump.zumpfinanc.config.OutboxConfig;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.MensagemOutbox;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.Agregado;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoEvento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.repository.MensagemOutboxRepository;
+import com.zump.zumpfinanc.service.impl.OutboxServiceImpl;
+import com.zump.zumpfinanc.service.outbox.DestinoOutbox;
+import com.zump.zumpfinanc.service.outbox.DestinoOutboxArquivo;
+import com.zump.zumpfinanc.service.outbox.DestinoOutboxMemoria;
+
+@SpringBootTest // Contexto completo: o outbox é gravado em JDBC na transação da alteração
+@Transactional // Desfaz os dados de cada teste
+@ActiveProfiles("test") // Pega o application-test.properties; o relay agendado não roda durante os testes
+@ExtendWith(SpringExtension.class)
+public class OutboxServiceTest {
+
+	@Autowired
+	OutboxService service;
+
+	@Autowired
+	UsuarioService usuarioService;
+
+	@Autowired
+	LancamentoService lancamentoService;
+
+	@Autowired
+	DestinoOutbox destino;
+
+	@Autowired
+	ReservaParticaoService reservaService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Test
+	public void devePublicarEmOrdemUmaMensagemPorAlteracao() {
+		// Cenário
+		Usuario usuario = usuarioService.salvarUsuario(Usuario.builder().nome("usuario").email("outbox@email.com").senha("senha").build());
+		Lancamento lancamento = salvar(usuario, 10000);
+		lancamentoService.atualizarStatus(lancamento, StatusLancamento.EFETIVADO, null);
+		salvar(usuario, 20000);
+		entityManager.flush();
+		lancamentoService.atualizarStatusEmLote(usuario.getId(), null, 2023, null, StatusLancamento.PENDENTE, StatusLancamento.CANCELADO);
+
+		// Ação/Execução
+		int publicadas = service.publicarPendentes();
+
+		// Verificação
+		List<MensagemOutbox> mensagens = service.obterPublicadas(usuario.getId(), 0, 100);
+		Assertions.assertThat(publicadas).isGreaterThanOrEqualTo(5);
+		Assertions.assertThat(mensagens).extracting(MensagemOutbox::getTipo)
+			.containsExactly(TipoEvento.CRIADO, TipoEvento.CRIADO, TipoEvento.STATUS_ALTERADO, TipoEvento.CRIADO, TipoEvento.STATUS_ALTERADO);
+		Assertions.assertThat(mensagens).extracting(MensagemOutbox::getAgregado)
+			.containsExactly(Agregado.USUARIO, Agregado.LANCAMENTO, Agregado.LANCAMENTO, Agregado.LANCAMENTO, Agregado.LANCAMENTO);
+		Assertions.assertThat(mensagens).extracting(MensagemOutbox::getPosicao).isSorted().doesNotHaveDuplicates();
+		Assertions.assertThat(mensagens.get(0).getDados()).contains("\"email\":\"outbox@email.com\"").doesNotContain("senha");
+		Assertions.assertThat(mensagens.get(1).getIdAgregado()).isEqualTo(lancamento.getId());
+		Assertions.assertThat(mensagens.get(4).getDados()).isEqualTo("{\"status\":\"CANCELADO\",\"statusAnterior\":\"PENDENTE\"}");
+		Assertions.assertThat(((DestinoOutboxMemoria) destino).obterPublicadas()).extracting(MensagemOutbox::getId)
+			.containsSubsequence(mensagens.stream().map(MensagemOutbox::getId).toArray(Long[]::new));
+	}
+
+	@Test
+	public void deveEntregarSoAsMudancasDepoisDaPosicaoInformada() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		Lancamento lancamento = salvar(usuario, 10000);
+		service.publicarPendentes();
+		long ultimaPosicao = service.obterPublicadas(usuario.getId(), 0, 100).get(0).getPosicao();
+
+		// Ação/Execução
+		lancamentoService.deletar(lancamento);
+		service.publicarPendentes();
+		List<MensagemOutbox> mensagens = service.obterPublicadas(usuario.getId(), ultimaPosicao, 100);
+
+		// Verificação
+		Assertions.assertThat(mensagens).extracting(MensagemOutbox::getTipo).containsExactly(TipoEvento.EXCLUIDO);
+		Assertions.assertThat(mensagens.get(0).getPosicao()).isGreaterThan(ultimaPosicao);
+		Assertions.assertThat(service.publicarPendentes()).isEqualTo(0); // Nada publicado duas vezes
+	}
+
+	@Test
+	public void deveAcordarSoQuemAguardaMudancasDoUsuario() throws Exception {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		service.publicarPendentes(); // Marca onde o outbox está
+		CompletableFuture<Void> doUsuario = service.aguardarPublicacao(usuario.getId());
+		CompletableFuture<Void> deOutroUsuario = service.aguardarPublicacao(usuario.getId() + 1);
+
+		// Ação/Execução
+		salvar(usuario, 10000);
+		service.publicarPendentes();
+
+		// Verificação
+		doUsuario.get(5, TimeUnit.SECONDS);
+		Assertions.assertThat(deOutroUsuario).isNotDone();
+		deOutroUsuario.cancel(false);
+	}
+
+	@Test
+	public void naoDeveExcluirAUltimaMensagemPublicada() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		salvar(usuario, 10000);
+		salvar(usuario, 20000);
+		service.publicarPendentes();
+		jdbcTemplate.update("UPDATE financas.outbox SET ocorrido_em = ?", Timestamp.from(Instant.now().minus(30, ChronoUnit.DAYS)));
+
+		// Ação/Execução
+		service.excluirPublicadas();
+
+		// Verificação
+		Assertions.assertThat(service.obterPublicadas(usuario.getId(), 0, 100)).hasSize(1);
+	}
+
+	@Test
+	public void naoDeveConfirmarAReservaAssumidaPorOutroNo() {
+		// Cenário
+		reservaService.reservar("outbox-teste", Duration.ofSeconds(30));
+		boolean propria = reservaService.confirmar("outbox-teste");
+		jdbcTemplate.update("UPDATE financas.reserva_particao SET dono = 'outro-no' WHERE chave = 'outbox-teste'");
+
+		// Ação/Execução
+		boolean assumida = reservaService.confirmar("outbox-teste");
+
+		// Verificação
+		Assertions.assertThat(propria).isTrue();
+		Assertions.assertThat(assumida).isFalse();
+	}
+
+	@Test
+	public void naoDevePublicarOLoteSemAReservaDoOutbox() {
+		// Cenário
+		MensagemOutboxRepository repositorio = Mockito.mock(MensagemOutboxRepository.class);
+		ReservaParticaoService reservas = Mockito.mock(ReservaParticaoService.class);
+		DestinoOutbox destinoLote = Mockito.mock(DestinoOutbox.class);
+		Mockito.when(reservas.reservar(Mockito.eq("outbox"), Mockito.any())).thenReturn(true);
+		Mockito.when(reservas.confirmar("outbox")).thenReturn(false); // Expirou e outro nó assumiu antes do lote
+		Mockito.when(repositorio.obterPendentes(Mockito.anyInt())).thenReturn(Arrays.asList(MensagemOutbox.builder().id(1l).build()));
+		OutboxServiceImpl relay = new OutboxServiceImpl(repositorio, reservas, destinoLote, objectMapper, Mockito.mock(ExecutorService.class),
+				Mockito.mock(PlatformTransactionManager.class), 30, 7);
+
+		// Ação/Execução
+		int publicadas = relay.publicarPendentes();
+
+		// Verificação
+		Assertions.assertThat(publicadas).isZero();
+		Mockito.verify(repositorio, Mockito.never()).atribuirPosicoes(Mockito.any());
+		Mockito.verify(destinoLote, Mockito.never()).publicar(Mockito.any());
+	}
+
+	@Test
+	public void deveAcrescentarOLoteAoArquivoUmaMensagemPorLinha(@TempDir Path pasta) throws Exception {
+		// Cenário
+		Path caminho = pasta.resolve("outbox.ndjson");
+		MensagemOutbox mensagem = MensagemOutbox.builder().id(1l).agregado(Agregado.LANCAMENTO).idAgregado(10l).idUsuario(1l).tipo(TipoEvento.STATUS_ALTERADO)
+				.ocorridoEm(Instant.parse("2023-03-01T12:00:00Z")).dados("{\"status\":\"EFETIVADO\"}").posicao(7l).build();
+
+		// Ação/Execução
+		try (DestinoOutboxArquivo arquivo = new DestinoOutboxArquivo(caminho, objectMapper)) {
+			arquivo.publicar(Arrays.asList(mensagem));
+		}
+		try (DestinoOutboxArquivo arquivo = new DestinoOutboxArquivo(caminho, objectMapper)) { // Reaberto: acrescenta, não sobrescreve
+			mensagem.setPosicao(8l);
+			arquivo.publicar(Arrays.asList(mensagem));
+		}
+
+		// Verificação
+		List<String> linhas = Files.readAllLines(caminho, StandardCharsets.UTF_8);
+		Assertions.assertThat(linhas).hasSize(2);
+		Assertions.assertThat(objectMapper.readTree(linhas.get(0)).get("posicao").asLong()).isEqualTo(7l);
+		Assertions.assertThat(objectMapper.readTree(linhas.get(1)).get("dados").get("status").asText()).isEqualTo("EFETIVADO");
+		Assertions.assertThat(objectMapper.readTree(linhas.get(1)).get("ocorridoEm").asText()).isEqualTo("2023-03-01T12:00:00Z");
+	}
+
+	@Test
+	public void naoDeveSubirSemOArquivoDoOutbox() {
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> new OutboxConfig().destinoOutboxArquivo(" ", objectMapper));
+
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(IllegalStateException.class).hasMessageContaining("zumpfinanc.outbox.arquivo");
+	}
+
+	private Lancamento salvar(Usuario usuario, long centavos) {
+		return lancamentoService.salvar(Lancamento.builder().descricao("lancamento").usuario(usuario).tipo(TipoLancamento.RECEITA).ano(2023).mes(1)
+				.valor(Dinheiro.deCentavos(centavos)).build());
+	}
+
+	private Usuario persistirUsuario() {
+		Usuario usuario = Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build();
+		entityManager.persist(usuario);
+		return usuario;
+	}
+
+}
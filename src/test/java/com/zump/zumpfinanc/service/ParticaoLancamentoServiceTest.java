@@ -0,0 +1,118 @@
+package com.zump.zumpfinanc.service;
+
+import java.sql.SQLException;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.repository.ArquivoLancamentoRepository;
+import com.zump.zumpfinanc.service.impl.ParticaoLancamentoServiceImpl;
+
+public class ParticaoLancamentoServiceTest { // Testes Unitários, sem contexto: as partições só existem no PostgreSQL
+
+	static final String CRIAR_PARTICAO = "SELECT financas.criar_particao_lancamento(?)";
+
+	JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+	ArquivoLancamentoRepository arquivoRepository = Mockito.mock(ArquivoLancamentoRepository.class);
+	ParticaoLancamentoServiceImpl service = new ParticaoLancamentoServiceImpl(jdbcTemplate, arquivoRepository, Mockito.mock(PlatformTransactionManager.class), true, 2, 10, 0);
+
+	int anoAtual = Year.now().getValue();
+
+	@Test
+	public void deveCriarAParticaoDeUmAnoDentroDaJanelaUmaUnicaVez() {
+		// Cenário
+		Mockito.when(jdbcTemplate.queryForObject(ArgumentMatchers.eq(CRIAR_PARTICAO), ArgumentMatchers.eq(Boolean.class), ArgumentMatchers.<Object>any())).thenReturn(true);
+
+		// Ação/Execução
+		service.garantirParticao(anoAtual - 10);
+		service.garantirParticao(anoAtual - 10);
+
+		// Verificação
+		Mockito.verify(jdbcTemplate, Mockito.times(1)).queryForObject(CRIAR_PARTICAO, Boolean.class, anoAtual - 10);
+	}
+
+	@Test
+	public void naoDeveCriarParticaoDeUmAnoForaDaJanela() {
+		// Cenário
+		Mockito.when(jdbcTemplate.queryForObject(ArgumentMatchers.startsWith("SELECT to_regclass"), ArgumentMatchers.eq(Boolean.class), ArgumentMatchers.<Object>any())).thenReturn(false);
+
+		// Ação/Execução
+		Throwable depois = Assertions.catchThrowable(() -> service.garantirParticao(anoAtual + 3));
+		Throwable antes = Assertions.catchThrowable(() -> service.garantirParticao(1000));
+
+		// Verificação
+		Assertions.assertThat(depois).isInstanceOf(RegraNegocioException.class).hasMessage("Informe um Ano entre " + (anoAtual - 10) + " e " + (anoAtual + 2) + ".");
+		Assertions.assertThat(antes).isInstanceOf(RegraNegocioException.class);
+		Mockito.verify(jdbcTemplate, Mockito.never()).queryForObject(ArgumentMatchers.eq(CRIAR_PARTICAO), ArgumentMatchers.eq(Boolean.class), ArgumentMatchers.<Object>any());
+	}
+
+	@Test
+	public void deveAceitarUmAnoForaDaJanelaComParticaoJaExistente() {
+		// Cenário
+		Mockito.when(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, "financas.lancamento_2005")).thenReturn(true);
+
+		// Ação/Execução
+		service.garantirParticao(2005);
+
+		// Verificação
+		Mockito.verify(jdbcTemplate, Mockito.never()).queryForObject(ArgumentMatchers.eq(CRIAR_PARTICAO), ArgumentMatchers.eq(Boolean.class), ArgumentMatchers.<Object>any());
+	}
+
+	@Test
+	public void deveIgnorarTabelasAnexadasForaDoPadraoDeNome() {
+		// Cenário
+		Mockito.when(arquivoRepository.findAll()).thenReturn(Collections.emptyList());
+		Mockito.when(jdbcTemplate.queryForList(ArgumentMatchers.startsWith("SELECT c.relname"), ArgumentMatchers.eq(String.class)))
+				.thenReturn(Arrays.asList("lancamento_" + anoAtual, "lancamento_padrao", "lancamento_" + anoAtual + "_antigo"));
+		Mockito.when(jdbcTemplate.queryForObject(ArgumentMatchers.eq(CRIAR_PARTICAO), ArgumentMatchers.eq(Boolean.class), ArgumentMatchers.<Object>any())).thenReturn(true);
+
+		// Ação/Execução
+		int criadas = service.manterParticoes();
+
+		// Verificação
+		Assertions.assertThat(criadas).isEqualTo(2); // Os dois anos à frente
+	}
+
+	@Test
+	public void deveRelerOCatalogoQuandoOutroNoArquivouOAno() {
+		// Cenário
+		int ano = anoAtual - 1;
+		Mockito.when(jdbcTemplate.queryForObject(ArgumentMatchers.eq(CRIAR_PARTICAO), ArgumentMatchers.eq(Boolean.class), ArgumentMatchers.<Object>any())).thenReturn(true);
+		service.garantirParticao(ano); // Ano guardado no cache deste nó
+
+		Mockito.when(arquivoRepository.obterUltimoAno()).thenReturn(ano); // Arquivado por outro nó
+		Mockito.when(jdbcTemplate.queryForList(ArgumentMatchers.startsWith("SELECT c.relname"), ArgumentMatchers.eq(String.class))).thenReturn(Collections.singletonList("lancamento_" + anoAtual));
+		DataIntegrityViolationException erro = new DataIntegrityViolationException("could not execute statement",
+				new SQLException("ERROR: no partition of relation \"lancamento\" found for row", "23514"));
+
+		// Ação/Execução
+		Throwable naGravacao = Assertions.catchThrowable(() -> service.conferirFalhaDeGravacao(erro, ano));
+		Throwable naProxima = Assertions.catchThrowable(() -> service.garantirParticao(ano));
+
+		// Verificação
+		Assertions.assertThat(naGravacao).isInstanceOf(RegraNegocioException.class).hasMessageContaining("foram arquivados");
+		Assertions.assertThat(naProxima).isInstanceOf(RegraNegocioException.class).hasMessageContaining("foram arquivados");
+	}
+
+	@Test
+	public void naoDeveRelerOCatalogoEmOutrasFalhasDeGravacao() {
+		// Cenário
+		DataIntegrityViolationException erro = new DataIntegrityViolationException("duplicate key", new SQLException("ERROR: duplicate key value violates unique constraint", "23505"));
+
+		// Ação/Execução
+		service.conferirFalhaDeGravacao(erro, anoAtual);
+
+		// Verificação
+		Mockito.verifyNoInteractions(arquivoRepository);
+	}
+
+}
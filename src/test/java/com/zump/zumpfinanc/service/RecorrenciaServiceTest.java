@@ -0,0 +1,235 @@
+package com.zump.zumpfinanc.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.persistence.EntityManager;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zump.zumpfinanc.exception.RegraNegocioException;
+import com.zump.zumpfinanc.model.entity.Dinheiro;
+import com.zump.zumpfinanc.model.entity.Lancamento;
+import com.zump.zumpfinanc.model.entity.Recorrencia;
+import com.zump.zumpfinanc.model.entity.ReservaParticao;
+import com.zump.zumpfinanc.model.entity.Usuario;
+import com.zump.zumpfinanc.model.enums.Periodicidade;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.repository.RecorrenciaRepository;
+import com.zump.zumpfinanc.model.repository.ReservaParticaoRepository;
+
+@SpringBootTest // Contexto completo: as reservas de partição e o índice único da parcela dependem da base
+@Transactional // Desfaz os dados de cada teste
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class RecorrenciaServiceTest {
+
+	@Autowired
+	RecorrenciaService service;
+
+	@Autowired
+	RecorrenciaRepository repository;
+
+	@Autowired
+	ReservaParticaoRepository reservaRepository;
+
+	@Autowired
+	EntityManager entityManager;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@SpyBean
+	ParticaoLancamentoService particaoService; // Ponto de interceptação no meio do lote, antes do flush da marca d'água
+
+	@Test
+	public void deveGerarAsParcelasVencidasUmaUnicaVez() {
+		// Cenário
+		Recorrencia recorrencia = persistirRecorrencia(Periodicidade.MENSAL, 2022, 11, 6);
+
+		// Ação/Execução
+		int ateJaneiro = service.materializar(YearMonth.of(2023, 1));
+		int repetida = service.materializar(YearMonth.of(2023, 1)); // Reinício no mesmo mês: a marca d'água já avançou
+		int ateDezembro = service.materializar(YearMonth.of(2023, 12));
+
+		// Verificação
+		Assertions.assertThat(ateJaneiro).isEqualTo(3);
+		Assertions.assertThat(repetida).isEqualTo(0);
+		Assertions.assertThat(ateDezembro).isEqualTo(3); // Só restavam 3 das 6 parcelas
+
+		List<Lancamento> lancamentos = obterLancamentos(recorrencia.getId());
+		Assertions.assertThat(lancamentos).extracting(Lancamento::getParcela).containsExactly(1, 2, 3, 4, 5, 6);
+		Assertions.assertThat(lancamentos.get(2).getAno()).isEqualTo(2023);
+		Assertions.assertThat(lancamentos.get(2).getMes()).isEqualTo(1);
+		Assertions.assertThat(lancamentos.get(2).getDescricao()).isEqualTo("Aluguel (3/6)");
+		Assertions.assertThat(lancamentos.get(2).getStatus()).isEqualTo(StatusLancamento.PENDENTE);
+
+		Recorrencia encerrada = repository.findById(recorrencia.getId()).get();
+		Assertions.assertThat(encerrada.getParcelasGeradas()).isEqualTo(6);
+		Assertions.assertThat(encerrada.getProximaOcorrencia()).isNull();
+	}
+
+	@Test
+	public void naoDeveProcessarAsParticoesReservadasPorOutroNo() {
+		// Cenário
+		Recorrencia recorrencia = persistirRecorrencia(Periodicidade.ANUAL, 2020, 1, null);
+		for(int particao = 0; particao < 8; particao++) {
+			reservaRepository.save(ReservaParticao.builder().chave("recorrencias:" + particao).dono("outro-no").expiraEm(Instant.now().plusSeconds(60)).build());
+		}
+		entityManager.flush();
+
+		// Ação/Execução
+		int comReservaDeOutroNo = service.materializar(YearMonth.of(2022, 6));
+		reservaRepository.findAll().forEach(reserva -> reserva.setExpiraEm(Instant.now().minusSeconds(1))); // O outro nó parou de renovar
+		entityManager.flush();
+		int comReservaExpirada = service.materializar(YearMonth.of(2022, 6));
+
+		// Verificação
+		Assertions.assertThat(comReservaDeOutroNo).isEqualTo(0);
+		Assertions.assertThat(comReservaExpirada).isEqualTo(3);
+		Assertions.assertThat(obterLancamentos(recorrencia.getId())).extracting(Lancamento::getAno).containsExactly(2020, 2021, 2022);
+	}
+
+	@Test
+	public void deveGerarAoSalvarAsOcorrenciasJaVencidas() {
+		// Cenário
+		Usuario usuario = persistirUsuario();
+		YearMonth mesAnterior = YearMonth.now().minusMonths(1);
+		Recorrencia recorrencia = Recorrencia.builder().descricao("Salario").usuario(usuario).valor(Dinheiro.de(BigDecimal.valueOf(5000))).tipo(TipoLancamento.RECEITA)
+				.periodicidade(Periodicidade.MENSAL).anoInicio(mesAnterior.getYear()).mesInicio(mesAnterior.getMonthValue()).build();
+
+		// Ação/Execução
+		Recorrencia salva = service.salvar(recorrencia);
+
+		// Verificação
+		Assertions.assertThat(salva.getParcelasGeradas()).isEqualTo(2); // Mês anterior e mês atual
+		Assertions.assertThat(obterLancamentos(salva.getId())).extracting(Lancamento::getDescricao).containsOnly("Salario");
+	}
+
+	@Test
+	public void naoDeveAceitarInicioAnteriorAoLimiteRetroativo() {
+		// Cenário
+		YearMonth antigo = YearMonth.now().minusMonths(25);
+		Recorrencia recorrencia = Recorrencia.builder().descricao("Salario").usuario(persistirUsuario()).valor(Dinheiro.de(BigDecimal.valueOf(5000))).tipo(TipoLancamento.RECEITA)
+				.periodicidade(Periodicidade.MENSAL).anoInicio(antigo.getYear()).mesInicio(antigo.getMonthValue()).build();
+
+		// Ação/Execução
+		Throwable erro = Assertions.catchThrowable(() -> service.salvar(recorrencia));
+
+		// Verificação
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class).hasMessageStartingWith("Informe um início a partir de");
+		Assertions.assertThat(entityManager.createQuery("SELECT COUNT(r) FROM Recorrencia r", Long.class).getSingleResult()).isEqualTo(0);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // O lote e o encerramento precisam de transações próprias
+	public void naoDeveRegerarUmaRecorrenciaEncerradaDuranteOLote() {
+		// Cenário
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		Recorrencia recorrencia = transacao.execute(status -> persistirRecorrencia(Periodicidade.MENSAL, 2022, 11, null));
+		Long idUsuario = recorrencia.getUsuario().getId();
+
+		TransactionTemplate outraTransacao = new TransactionTemplate(transactionManager);
+		outraTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		AtomicBoolean encerrada = new AtomicBoolean();
+		Mockito.doAnswer(invocacao -> {
+			if(encerrada.compareAndSet(false, true)) { // O lote já leu a recorrência e avançou a marca d'água em memória
+				outraTransacao.execute(status -> { service.encerrar(recorrencia.getId(), idUsuario); return null; });
+			}
+			return invocacao.callRealMethod();
+		}).when(particaoService).garantirParticao(ArgumentMatchers.any());
+
+		try {
+			// Ação/Execução
+			int gerados = service.materializar(YearMonth.of(2023, 1));
+
+			// Verificação
+			Assertions.assertThat(encerrada).isTrue();
+			Assertions.assertThat(gerados).isEqualTo(0); // O lote foi desfeito e, relido, não tem mais a recorrência encerrada
+			Assertions.assertThat(obterLancamentos(recorrencia.getId())).isEmpty();
+			Recorrencia atual = repository.findById(recorrencia.getId()).get();
+			Assertions.assertThat(atual.getProximaOcorrencia()).isNull();
+			Assertions.assertThat(atual.getParcelasGeradas()).isEqualTo(0);
+		} finally {
+			Mockito.reset(particaoService);
+			transacao.execute(status -> {
+				entityManager.createQuery("DELETE FROM Lancamento l WHERE l.usuario.id = :id").setParameter("id", idUsuario).executeUpdate();
+				entityManager.createQuery("DELETE FROM Recorrencia r WHERE r.id = :id").setParameter("id", recorrencia.getId()).executeUpdate();
+				entityManager.createQuery("DELETE FROM Usuario u WHERE u.id = :id").setParameter("id", idUsuario).executeUpdate();
+				return null;
+			});
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // Cada lote precisa da sua própria transação para ser desfeito
+	public void deveSeguirParaAsOutrasParticoesQuandoAParcelaJaFoiGravada() {
+		// Cenário
+		TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+		Recorrencia colidida = transacao.execute(status -> persistirRecorrencia(Periodicidade.MENSAL, 2022, 11, 6));
+		Recorrencia outra = transacao.execute(status -> persistirRecorrencia(Periodicidade.MENSAL, 2022, 11, 6)); // Id seguinte: outra partição
+		transacao.execute(status -> {
+			entityManager.persist(Lancamento.builder().descricao("Aluguel (1/6)").mes(11).ano(2022).valor(colidida.getValor()).tipo(TipoLancamento.DESPESA)
+					.status(StatusLancamento.PENDENTE).dataCadastro(LocalDate.now()).usuario(colidida.getUsuario()).idRecorrencia(colidida.getId()).parcela(1).build());
+			return null;
+		});
+
+		try {
+			// Ação/Execução
+			int gerados = service.materializar(YearMonth.of(2023, 1));
+
+			// Verificação
+			Assertions.assertThat(gerados).isEqualTo(3);
+			Assertions.assertThat(obterLancamentos(outra.getId())).extracting(Lancamento::getParcela).containsExactly(1, 2, 3);
+			Assertions.assertThat(obterLancamentos(colidida.getId())).hasSize(1); // O lote colidido foi desfeito a cada releitura
+			Assertions.assertThat(repository.findById(colidida.getId()).get().getParcelasGeradas()).isEqualTo(0);
+		} finally {
+			transacao.execute(status -> {
+				for(Recorrencia recorrencia : List.of(colidida, outra)) {
+					entityManager.createQuery("DELETE FROM Lancamento l WHERE l.usuario.id = :id").setParameter("id", recorrencia.getUsuario().getId()).executeUpdate();
+					entityManager.createQuery("DELETE FROM Recorrencia r WHERE r.id = :id").setParameter("id", recorrencia.getId()).executeUpdate();
+					entityManager.createQuery("DELETE FROM Usuario u WHERE u.id = :id").setParameter("id", recorrencia.getUsuario().getId()).executeUpdate();
+				}
+				return null;
+			});
+		}
+	}
+
+	private Recorrencia persistirRecorrencia(Periodicidade periodicidade, int anoInicio, int mesInicio, Integer parcelas) {
+		Recorrencia recorrencia = Recorrencia.builder().descricao("Aluguel").usuario(persistirUsuario()).valor(Dinheiro.de(BigDecimal.valueOf(1500)))
+				.tipo(TipoLancamento.DESPESA).periodicidade(periodicidade).anoInicio(anoInicio).mesInicio(mesInicio).parcelas(parcelas).build();
+		recorrencia.avancar(0);
+		return repository.saveAndFlush(recorrencia);
+	}
+
+	private Usuario persistirUsuario() {
+		Usuario usuario = Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").build();
+		entityManager.persist(usuario);
+		return usuario;
+	}
+
+	private List<Lancamento> obterLancamentos(Long idRecorrencia) {
+		return entityManager.createQuery("SELECT l FROM Lancamento l WHERE l.idRecorrencia = :id ORDER BY l.parcela", Lancamento.class)
+				.setParameter("id", idRecorrencia).getResultList();
+	}
+
+}
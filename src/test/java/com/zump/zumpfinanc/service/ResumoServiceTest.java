@@ -0,0 +1,164 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.zump.zumpfinanc.model.entity.ChaveResumoMensal;
+import com.zump.zumpfinanc.model.entity.ResumoMensal;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.projection.TotalMensal;
+import com.zump.zumpfinanc.model.repository.ArquivoLancamentoRepository;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.ResumoMensalRepository;
+import com.zump.zumpfinanc.service.impl.ResumoServiceImpl;
+
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class ResumoServiceTest {
+	
+	@SpyBean
+	ResumoServiceImpl service;
+	
+	@MockBean
+	ResumoMensalRepository repository;
+	
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	@MockBean
+	ArquivoLancamentoRepository arquivoRepository;
+	
+	@Test
+	public void deveMoverOLancamentoEntreOsStatusDoResumoAoEfetivar() {
+		// Cenário
+		SituacaoLancamento anterior = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10000l, 2022, 3);
+		ChaveResumoMensal pendente = new ChaveResumoMensal(1l, 2022, 3, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+		ChaveResumoMensal efetivado = new ChaveResumoMensal(1l, 2022, 3, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO);
+		Mockito.when(repository.acumular(Mockito.any(), Mockito.anyLong(), Mockito.anyLong())).thenReturn(1);
+		
+		// Ação/Execução
+		service.registrarAlteracao(anterior, anterior.comStatus(StatusLancamento.EFETIVADO));
+		
+		// Verificação
+		Mockito.verify(repository).acumular(pendente, -10000l, -1);
+		Mockito.verify(repository).acumular(efetivado, 10000l, 1);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void naoDeveAlterarOResumoQuandoSoADescricaoMudar() {
+		// Cenário
+		SituacaoLancamento situacao = new SituacaoLancamento(1l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 3000l, 2022, 3);
+		
+		// Ação/Execução
+		service.registrarAlteracao(situacao, situacao);
+		
+		// Verificação
+		Mockito.verifyNoInteractions(repository);
+	}
+	
+	@Test
+	public void deveCriarALinhaDoResumoAPartirDosLancamentosQuandoElaAindaNaoExiste() {
+		// Cenário
+		SituacaoLancamento atual = new SituacaoLancamento(1l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 3000l, 2022, 3);
+		ChaveResumoMensal chave = new ChaveResumoMensal(1l, 2022, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+		Mockito.when(repository.acumular(chave, 3000l, 1)).thenReturn(0);
+		Mockito.when(lancamentoRepository.obterTotalMensal(1l, 2022, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE))
+			.thenReturn(Optional.of(criarTotal(3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 8000l, 2)));
+		Mockito.when(repository.inserirSeAusente(Mockito.any())).thenReturn(true);
+		
+		// Ação/Execução
+		service.registrarInclusoes(Arrays.asList(atual));
+		
+		// Verificação
+		Mockito.verify(repository).inserirSeAusente(ResumoMensal.builder().chave(chave).totalCentavos(8000l).quantidade(2l).build());
+		Mockito.verify(repository, Mockito.times(1)).acumular(chave, 3000l, 1);
+	}
+	
+	@Test
+	public void deveAcumularNaLinhaDoResumoGravadaPorOutraTransacaoAoMesmoTempo() {
+		// Cenário
+		SituacaoLancamento atual = new SituacaoLancamento(1l, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 3000l, 2022, 3);
+		ChaveResumoMensal chave = new ChaveResumoMensal(1l, 2022, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+		Mockito.when(repository.acumular(chave, 3000l, 1)).thenReturn(0, 1); // A linha só aparece depois que a outra transação grava
+		Mockito.when(lancamentoRepository.obterTotalMensal(1l, 2022, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE))
+			.thenReturn(Optional.of(criarTotal(3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE, 8000l, 2)));
+		Mockito.when(repository.inserirSeAusente(Mockito.any())).thenReturn(false);
+		
+		// Ação/Execução
+		service.registrarInclusoes(Arrays.asList(atual));
+		
+		// Verificação
+		Mockito.verify(repository, Mockito.times(2)).acumular(chave, 3000l, 1);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void deveLerOResumoDaTabelaConsolidada() {
+		// Ação/Execução
+		service.obterTotaisMensais(1l, 2022);
+		
+		// Verificação
+		Mockito.verify(repository).obterTotais(1l, 2022);
+		Mockito.verify(lancamentoRepository, Mockito.never()).obterTotaisMensais(Mockito.anyLong(), Mockito.anyInt());
+	}
+	
+	@Test
+	public void deveManterOResumoDosAnosArquivadosAoReconstruir() {
+		// Cenário
+		Mockito.when(arquivoRepository.obterUltimoAno()).thenReturn(2019);
+		
+		// Ação/Execução
+		service.reconstruir(1l);
+		
+		// Verificação
+		Mockito.verify(repository).excluirDoUsuarioApos(1l, 2019);
+		Mockito.verify(repository, Mockito.never()).excluirDoUsuario(Mockito.anyLong());
+	}
+	
+	public static TotalMensal criarTotal(Integer mes, TipoLancamento tipo, StatusLancamento status, long totalCentavos, long quantidade) {
+		return new TotalMensal() {
+			
+			@Override
+			public Integer getAno() {
+				return 2022;
+			}
+			
+			@Override
+			public Integer getMes() {
+				return mes;
+			}
+			
+			@Override
+			public TipoLancamento getTipo() {
+				return tipo;
+			}
+			
+			@Override
+			public StatusLancamento getStatus() {
+				return status;
+			}
+			
+			@Override
+			public Long getTotalCentavos() {
+				return totalCentavos;
+			}
+			
+			@Override
+			public Long getQuantidade() {
+				return quantidade;
+			}
+		};
+	}
+
+}
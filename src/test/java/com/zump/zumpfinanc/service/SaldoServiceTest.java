@@ -0,0 +1,169 @@
+package com.zump.zumpfinanc.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.zump.zumpfinanc.model.entity.SaldoArquivado;
+import com.zump.zumpfinanc.model.entity.SaldoUsuario;
+import com.zump.zumpfinanc.model.enums.StatusLancamento;
+import com.zump.zumpfinanc.model.enums.TipoLancamento;
+import com.zump.zumpfinanc.model.projection.SituacaoLancamento;
+import com.zump.zumpfinanc.model.repository.LancamentoRepository;
+import com.zump.zumpfinanc.model.repository.SaldoArquivadoRepository;
+import com.zump.zumpfinanc.model.repository.SaldoUsuarioRepository;
+import com.zump.zumpfinanc.model.repository.UsuarioRepository;
+import com.zump.zumpfinanc.service.impl.SaldoServiceImpl;
+
+@ActiveProfiles("test") // Pega o application-test.properties
+@ExtendWith(SpringExtension.class)
+public class SaldoServiceTest {
+	
+	@SpyBean
+	SaldoServiceImpl service;
+	
+	@MockBean
+	SaldoUsuarioRepository repository;
+	
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	
+	@MockBean
+	UsuarioRepository usuarioRepository;
+	
+	@MockBean
+	SaldoArquivadoRepository saldoArquivadoRepository;
+	
+	@MockBean
+	PlatformTransactionManager transactionManager;
+	
+	@Test
+	public void deveAcumularNoSaldoAEfetivacaoDeUmaReceita() {
+		// Cenário
+		SituacaoLancamento anterior = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 10000l, 2022, 1);
+		SituacaoLancamento atual = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 10000l, 2022, 1);
+		Mockito.when(repository.acumular(1l, 10000l)).thenReturn(1);
+		
+		// Ação/Execução
+		service.registrarAlteracao(anterior, atual);
+		
+		// Verificação
+		Mockito.verify(repository).acumular(1l, 10000l);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void deveEstornarDoSaldoUmaDespesaEfetivadaQueFoiDeletada() {
+		// Cenário
+		SituacaoLancamento anterior = new SituacaoLancamento(1l, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO, 3000l, 2022, 1);
+		Mockito.when(repository.acumular(1l, 3000l)).thenReturn(1);
+		
+		// Ação/Execução
+		service.registrarAlteracao(anterior, null);
+		
+		// Verificação
+		Mockito.verify(repository).acumular(1l, 3000l);
+	}
+	
+	@Test
+	public void naoDeveAlterarOSaldoQuandoOLancamentoNaoEstaEfetivado() {
+		// Cenário
+		SituacaoLancamento anterior = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1000l, 2022, 1);
+		SituacaoLancamento atual = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.CANCELADO, 1000l, 2022, 1);
+		
+		// Ação/Execução
+		service.registrarAlteracao(anterior, atual);
+		
+		// Verificação
+		Mockito.verify(repository, Mockito.never()).acumular(Mockito.anyLong(), Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveCriarOSaldoConsolidadoAPartirDosLancamentosNaPrimeiraAlteracao() {
+		// Cenário
+		SituacaoLancamento atual = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1000l, 2022, 1);
+		Mockito.when(repository.acumular(1l, 1000l)).thenReturn(0);
+		Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)).thenReturn(5000l);
+		Mockito.when(repository.inserirSeAusente(1l, 5000l)).thenReturn(true);
+		
+		// Ação/Execução
+		service.registrarAlteracao(null, atual);
+		
+		// Verificação
+		Mockito.verify(repository).inserirSeAusente(1l, 5000l);
+		Mockito.verify(repository, Mockito.times(1)).acumular(1l, 1000l);
+	}
+	
+	@Test
+	public void deveAcumularNoSaldoGravadoPorOutraTransacaoNaPrimeiraAlteracaoConcorrente() {
+		// Cenário
+		SituacaoLancamento atual = new SituacaoLancamento(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO, 1000l, 2022, 1);
+		Mockito.when(repository.acumular(1l, 1000l)).thenReturn(0, 1); // A linha só aparece depois que a outra transação grava
+		Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)).thenReturn(5000l);
+		Mockito.when(repository.inserirSeAusente(1l, 5000l)).thenReturn(false);
+		
+		// Ação/Execução
+		service.registrarAlteracao(null, atual);
+		
+		// Verificação
+		Mockito.verify(repository, Mockito.times(2)).acumular(1l, 1000l);
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+	}
+	
+	@Test
+	public void deveObterOSaldoConsolidadoSemSomarOsLancamentos() {
+		// Cenário
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(SaldoUsuario.builder().idUsuario(1l).valorCentavos(7000l).build()));
+		
+		// Ação/Execução
+		long saldo = service.obterSaldo(1l);
+		
+		// Verificação
+		Assertions.assertThat(saldo).isEqualTo(7000l);
+		Mockito.verify(lancamentoRepository, Mockito.never()).obterSaldoPorTipoLancamentoEUsuarioEStatus(Mockito.anyLong(), Mockito.any(), Mockito.any());
+	}
+	
+	@Test
+	public void deveSomarNoSaldoCalculadoOSaldoDosAnosArquivados() {
+		// Cenário
+		Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)).thenReturn(10000l);
+		Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(1l, TipoLancamento.DESPESA, StatusLancamento.EFETIVADO)).thenReturn(4000l);
+		Mockito.when(saldoArquivadoRepository.findById(1l)).thenReturn(Optional.of(SaldoArquivado.builder().idUsuario(1l).valorCentavos(-1500l).build()));
+		
+		// Ação/Execução
+		long saldo = service.calcularSaldo(1l);
+		
+		// Verificação
+		Assertions.assertThat(saldo).isEqualTo(4500l);
+	}
+	
+	@Test
+	public void deveCorrigirEReportarSaldoDivergenteNaReconciliacao() {
+		// Cenário
+		Mockito.when(usuarioRepository.obterIds()).thenReturn(Arrays.asList(1l, 2l));
+		Mockito.when(repository.obterParaAtualizacao(1l)).thenReturn(Optional.of(SaldoUsuario.builder().idUsuario(1l).valorCentavos(10000l).build()));
+		Mockito.when(repository.obterParaAtualizacao(2l)).thenReturn(Optional.of(SaldoUsuario.builder().idUsuario(2l).valorCentavos(500l).build()));
+		Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(1l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)).thenReturn(10000l);
+		Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuarioEStatus(2l, TipoLancamento.RECEITA, StatusLancamento.EFETIVADO)).thenReturn(800l);
+		
+		// Ação/Execução
+		List<DivergenciaSaldo> divergencias = service.reconciliar();
+		
+		// Verificação
+		Assertions.assertThat(divergencias).hasSize(1);
+		Assertions.assertThat(divergencias.get(0).getIdUsuario()).isEqualTo(2l);
+		Assertions.assertThat(divergencias.get(0).getSaldoCalculado()).isEqualTo(800l);
+		Mockito.verify(repository).save(SaldoUsuario.builder().idUsuario(2l).valorCentavos(800l).build());
+	}
+
+}
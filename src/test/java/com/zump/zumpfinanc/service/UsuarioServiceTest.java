@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
@@ -21,12 +22,20 @@ import com.zump.zumpfinanc.service.impl.UsuarioServiceImpl;
 @ExtendWith(SpringExtension.class)
 public class UsuarioServiceTest { // Testes Unitários
 	
+	static final String HASH = "$2a$10$" + "A".repeat(53);
+	
 	@SpyBean
 	UsuarioServiceImpl service;
 	
 	@MockBean
 	UsuarioRepository repository;
 	
+	@MockBean
+	PasswordEncoder passwordEncoder;
+	
+	@MockBean
+	OutboxService outboxService;
+	
 	@Test
 	public void deveSalvarUmUsuario() { // Teste do salvarUsuario, com sucesso
 		org.junit.jupiter.api.Assertions.assertDoesNotThrow(() -> {
@@ -46,6 +55,7 @@ public class UsuarioServiceTest { // Testes Unitários
 			Assertions.assertThat(usuarioSalvo.getNome()).isEqualTo("usuario");
 			Assertions.assertThat(usuarioSalvo.getEmail()).isEqualTo("usuario@email.com");
 			Assertions.assertThat(usuarioSalvo.getSenha()).isEqualTo("senha");
+			Mockito.verify(outboxService).registrarCriacaoUsuario(usuario);
 		});
 	}
 	
@@ -88,7 +98,7 @@ public class UsuarioServiceTest { // Testes Unitários
 			
 		// Ação/Execução
 		Throwable exception = Assertions.catchThrowable( () -> service.autenticar("usuario@email.com", "senha"));
-		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Usuário não encontrado para o email informado.");
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Email ou senha inválidos.");
 
 	}
 	
@@ -101,7 +111,7 @@ public class UsuarioServiceTest { // Testes Unitários
 			
 		// Ação/Execução
 		Throwable exception = Assertions.catchThrowable( () -> service.autenticar(usuario.getEmail(), "1234"));
-		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Senha inválida.");
+		Assertions.assertThat(exception).isInstanceOf(ErroAutenticacao.class).hasMessage("Email ou senha inválidos.");
 	}
 	
 	@Test
@@ -126,6 +136,94 @@ public class UsuarioServiceTest { // Testes Unitários
 		});
 	}
 	
+	@Test
+	public void deveConsultarNaBaseAExistenciaDoUsuarioSoUmaVez() { // Teste do existe, com o índice de ids confirmados
+		// Cenário
+		Mockito.when(repository.existsById(10l)).thenReturn(true);
+		
+		// Ação/Execução
+		boolean primeiraConsulta = service.existe(10l);
+		boolean segundaConsulta = service.existe(10l);
+		
+		// Verificação
+		Assertions.assertThat(primeiraConsulta).isTrue();
+		Assertions.assertThat(segundaConsulta).isTrue();
+		Mockito.verify(repository, Mockito.times(1)).existsById(10l);
+	}
+	
+	@Test
+	public void naoDeveGuardarUsuarioInexistenteNoIndiceDeIds() { // Teste do existe, com usuário inexistente
+		// Cenário
+		Mockito.when(repository.existsById(20l)).thenReturn(false);
+		
+		// Ação/Execução
+		service.existe(20l);
+		boolean existe = service.existe(20l);
+		
+		// Verificação
+		Assertions.assertThat(existe).isFalse();
+		Mockito.verify(repository, Mockito.times(2)).existsById(20l);
+	}
+	
+	@Test
+	public void deveAutenticarComASenhaCriptografada() { // Teste do autenticar, com a senha já em BCrypt
+		// Cenário
+		Usuario usuario = criarUsuario();
+		usuario.setSenha(HASH);
+		
+		Mockito.when(repository.findByEmail(usuario.getEmail())).thenReturn(Optional.of(usuario));
+		Mockito.when(passwordEncoder.matches("senha", HASH)).thenReturn(true);
+		
+		// Ação/Execução
+		Usuario result = service.autenticar(usuario.getEmail(), "senha");
+		
+		// Verificação
+		Assertions.assertThat(result.getSenha()).isEqualTo(HASH);
+		Mockito.verify(repository, Mockito.never()).atualizarSenha(Mockito.anyLong(), Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+	}
+	
+	@Test
+	public void deveGravarOHashDaSenhaEmTextoPuroNoLoginComSucesso() { // Teste do autenticar, migrando cadastro antigo
+		// Cenário
+		Usuario usuario = criarUsuario();
+		
+		Mockito.when(repository.findByEmail(usuario.getEmail())).thenReturn(Optional.of(usuario));
+		Mockito.when(passwordEncoder.encode("senha")).thenReturn(HASH);
+		
+		// Ação/Execução
+		Usuario result = service.autenticar(usuario.getEmail(), "senha");
+		
+		// Verificação
+		Assertions.assertThat(result.getSenha()).isEqualTo(HASH);
+		Mockito.verify(repository).atualizarSenha(1l, "usuario@email.com", "senha", HASH);
+	}
+	
+	@Test
+	public void deveConferirUmHashFicticioQuandoOEmailNaoExistir() { // Teste do autenticar, com o mesmo custo do email cadastrado
+		// Cenário
+		Mockito.when(repository.findByEmail(Mockito.anyString())).thenReturn(Optional.empty());
+		
+		// Ação/Execução
+		Assertions.catchThrowable(() -> service.autenticar("inexistente@email.com", "senha"));
+		
+		// Verificação
+		Mockito.verify(passwordEncoder).matches(Mockito.eq(""), Mockito.any());
+	}
+	
+	@Test
+	public void deveSalvarOUsuarioComASenhaCriptografada() { // Teste do salvarUsuario, sem gravar a senha em texto puro
+		// Cenário
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		Mockito.when(passwordEncoder.encode("senha")).thenReturn(HASH);
+		Mockito.when(repository.save(Mockito.any(Usuario.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
+		
+		// Ação/Execução
+		Usuario usuarioSalvo = service.salvarUsuario(criarUsuario());
+		
+		// Verificação
+		Assertions.assertThat(usuarioSalvo.getSenha()).isEqualTo(HASH);
+	}
+	
 	public static Usuario criarUsuario() {
 		return Usuario.builder().nome("usuario").email("usuario@email.com").senha("senha").id(1l).build();
 	}